@@ -0,0 +1,178 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the Python AI service (ai_service.py) with the same
+ * {@code /predict}, {@code /optimize} and {@code /health} endpoints and response shapes.
+ * Every request waits {@code latencyMs} plus up to {@code jitterMs}, and a
+ * {@code failureRate} share of requests answers 500, so the backend's timeout and
+ * fallback paths can be load tested without Python.
+ *
+ * <p>Standalone: {@code --port 8000 --latency-ms 50 --jitter-ms 20 --failure-rate 0.05}
+ */
+public class AiServiceStub implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public AiServiceStub(int port, long latencyMs, long jitterMs, double failureRate) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 128);
+        this.executor = Executors.newFixedThreadPool(64, runnable -> {
+            Thread thread = new Thread(runnable, "ai-service-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> handle(exchange, this::health));
+        server.createContext("/predict", exchange -> handle(exchange, this::predict));
+        server.createContext("/optimize", exchange -> handle(exchange, this::optimize));
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.sum());
+        stats.put("injectedFailures", failures.sum());
+        stats.put("latencyMs", latencyMs);
+        stats.put("jitterMs", jitterMs);
+        stats.put("failureRate", failureRate);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Handler {
+        JsonNode respond(JsonNode request);
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        requests.increment();
+        try (exchange) {
+            JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] bytes = body.readAllBytes();
+                request = bytes.length > 0 ? objectMapper.readTree(bytes) : objectMapper.createObjectNode();
+            }
+
+            long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            int status = 200;
+            JsonNode response;
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.increment();
+                status = 500;
+                response = objectMapper.createObjectNode().put("detail", "Injected failure");
+            } else {
+                response = handler.respond(request);
+            }
+
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonNode health(JsonNode request) {
+        return objectMapper.createObjectNode()
+            .put("status", "healthy")
+            .put("service", "ai-service-stub")
+            .put("timestamp", LocalDateTime.now().toString());
+    }
+
+    private JsonNode predict(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode predictions = response.putArray("predictions");
+        for (JsonNode item : request.path("inventory_data")) {
+            int inventoryLevel = item.path("inventoryLevel").asInt();
+            double demandForecast = item.path("demandForecast").asDouble();
+            String stockStatus = inventoryLevel < demandForecast * 0.5 ? "UNDERSTOCKED"
+                : inventoryLevel > 100 ? "OVERSTOCKED" : "NORMAL";
+            predictions.addObject()
+                .put("productId", item.path("productId").asText())
+                .put("storeId", item.path("storeId").asText())
+                .put("currentInventory", inventoryLevel)
+                .put("demandForecast", demandForecast)
+                .put("stockStatus", stockStatus)
+                .put("expectedDemandIncrease", demandForecast > inventoryLevel);
+        }
+        response.put("status", "success");
+        response.put("message", "Generated " + predictions.size() + " stub predictions");
+        return response;
+    }
+
+    private JsonNode optimize(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode optimized = response.putArray("optimized_inventory");
+        double costSavings = 0;
+        for (JsonNode item : request.path("inventory_data")) {
+            int current = item.path("inventoryLevel").asInt();
+            int optimal = (int) Math.ceil(item.path("demandForecast").asDouble() * 1.2);
+            double savings = (current - optimal) * item.path("price").asDouble();
+            costSavings += savings;
+            optimized.addObject()
+                .put("productId", item.path("productId").asText())
+                .put("currentInventory", current)
+                .put("optimalInventory", optimal)
+                .put("costSavings", savings)
+                .put("optimizationType", "inventory_level");
+        }
+        response.put("cost_savings", costSavings);
+        response.putArray("recommendations");
+        response.put("status", "success");
+        return response;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = CommandLineArgs.parse(args);
+        AiServiceStub stub = new AiServiceStub(
+            Integer.parseInt(options.getOrDefault("port", "8000")),
+            Long.parseLong(options.getOrDefault("latency-ms", "50")),
+            Long.parseLong(options.getOrDefault("jitter-ms", "20")),
+            Double.parseDouble(options.getOrDefault("failure-rate", "0.0")));
+        System.out.println("AI service stub listening on " + stub.getUrl() + " " + stub.getStats());
+    }
+}
@@ -0,0 +1,78 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.service.AIPredictionService;
+import com.wallmart.backend.supplychain.service.DatasetGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The dashboard analytics of {@link AIPredictionService} over a published dataset of
+ * 10k, 1M and 10M rows. The rows are published straight to the dataset generation, the
+ * way an ingest does after its last batch, without going through H2.
+ *
+ * <p>10M rows need a heap of about 12 GB; lower the fork heap with -jvmArgsAppend or run
+ * only the smaller sizes with -p rows=10000,1000000 on smaller machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class AnalyticsBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private AIPredictionService aiPredictionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("analytics");
+        aiPredictionService = context.getBean(AIPredictionService.class);
+        context.getBean(DatasetGenerationService.class)
+            .onIngestCompleted(new SyntheticInventoryData().events(rows));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> dashboardStats() {
+        return aiPredictionService.getDashboardStats();
+    }
+
+    @Benchmark
+    public Map<String, Object> revenueForecast() {
+        return aiPredictionService.getRevenueForecast();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> stockAlerts() {
+        return aiPredictionService.getStockAlerts();
+    }
+
+    @Benchmark
+    public Map<String, Object> categoryPerformance() {
+        return aiPredictionService.getCategoryPerformance();
+    }
+}
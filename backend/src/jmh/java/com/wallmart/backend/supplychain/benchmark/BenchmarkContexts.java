@@ -0,0 +1,31 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application without the web server, on its own in-memory H2 database and
+ * with logging turned down so progress lines do not end up in the measurements.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String name, String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(WallmartSupplychainApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + name + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN",
+                "logging.level.com.wallmart=WARN",
+                "inventory.upload.max-rows=" + Integer.MAX_VALUE)
+            .properties(properties)
+            .run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation per operation) and writes the
+ * results as JSON to target/jmh-result-&lt;timestamp&gt;.json, so runs can be compared
+ * with each other or loaded into a JMH visualizer. Accepts the usual JMH command line
+ * options, e.g. a benchmark regex or -p rows=10000.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class);
+
+        if (!commandLine.getResult().hasValue() && !commandLine.getResultFormat().hasValue()) {
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result-" + timestamp + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,29 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --name value} options of the load-test tools; a trailing name without a value is "true"
+ */
+final class CommandLineArgs {
+
+    private CommandLineArgs() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option, got '" + args[i] + "'");
+            }
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+}
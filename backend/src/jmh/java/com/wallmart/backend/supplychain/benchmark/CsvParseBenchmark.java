@@ -0,0 +1,66 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.service.InventoryCSVParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryCSVParser#parseCSV} over an in-memory upload. Scores are rows per second;
+ * with the GC profiler, gc.alloc.rate.norm is bytes allocated per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvParseBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"csv", "csv.gz"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private InventoryCSVParser parser;
+    private byte[] upload;
+    private String fileName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("parse");
+        parser = context.getBean(InventoryCSVParser.class);
+        SyntheticInventoryData data = new SyntheticInventoryData();
+        upload = "csv.gz".equals(format) ? data.gzipCsv(ROWS) : data.csv(ROWS);
+        fileName = "benchmark." + format;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<InventoryEvent> parseCSV() {
+        return parser.parseCSV(new ByteArrayInputStream(upload), fileName);
+    }
+}
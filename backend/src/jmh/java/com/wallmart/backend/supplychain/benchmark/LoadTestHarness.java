@@ -0,0 +1,279 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load test: concurrent gzip CSV uploads, then concurrent analytics and
+ * prediction requests, reporting upload throughput and latency percentiles per endpoint.
+ *
+ * <p>Without {@code --target} the backend is started in this JVM on a random port with an
+ * in-memory H2 database, pointed at an {@link AiServiceStub}. With {@code --target} an
+ * already running backend is tested; start the stub separately for it if needed.
+ *
+ * <p>Options (defaults): --uploads 8 --rows 50000 --upload-concurrency 2 --skew 1.0
+ * --dirty-rate 0.01 --clients 16 --requests 50 --stub-latency-ms 50 --stub-jitter-ms 20
+ * --stub-failure-rate 0.05 --target URL --out target/loadtest-&lt;timestamp&gt;.json
+ */
+public final class LoadTestHarness {
+
+    private static final List<String> ANALYTICS_PATHS = List.of(
+        "/api/analytics/dashboard-stats",
+        "/api/analytics/revenue-forecast",
+        "/api/analytics/stock-alerts",
+        "/api/analytics/category-performance",
+        "/api/predict-inventory-status");
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final String baseUrl;
+
+    private LoadTestHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CommandLineArgs.parse(args);
+        int uploads = Integer.parseInt(options.getOrDefault("uploads", "8"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "50000"));
+        int uploadConcurrency = Integer.parseInt(options.getOrDefault("upload-concurrency", "2"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+        double dirtyRate = Double.parseDouble(options.getOrDefault("dirty-rate", "0.01"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "16"));
+        int requestsPerClient = Integer.parseInt(options.getOrDefault("requests", "50"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest-" + timestamp + ".json"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", new TreeMap<>(options));
+
+        try (AiServiceStub stub = new AiServiceStub(0,
+                Long.parseLong(options.getOrDefault("stub-latency-ms", "50")),
+                Long.parseLong(options.getOrDefault("stub-jitter-ms", "20")),
+                Double.parseDouble(options.getOrDefault("stub-failure-rate", "0.05")))) {
+
+            ConfigurableApplicationContext context = null;
+            String target = options.get("target");
+            if (target == null) {
+                context = new SpringApplicationBuilder(WallmartSupplychainApplication.class)
+                    .bannerMode(Banner.Mode.OFF)
+                    .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "ai.service.url=" + stub.getUrl(),
+                        "inventory.upload.max-rows=" + rows,
+                        "logging.level.com.wallmart=WARN")
+                    .run();
+                target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            }
+
+            try {
+                LoadTestHarness harness = new LoadTestHarness(target);
+                report.put("target", target);
+                report.put("upload", harness.runUploads(uploads, rows, uploadConcurrency, skew, dirtyRate));
+                report.put("analytics", harness.runAnalytics(clients, requestsPerClient));
+                report.put("aiServiceStub", stub.getStats());
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        objectMapper.writeValue(out.toFile(), report);
+        System.out.println(objectMapper.writeValueAsString(report));
+        System.out.println("Results written to " + out);
+    }
+
+    /**
+     * Upload distinct datasets (one seed per upload) with the given concurrency. Uploads
+     * rejected by the ingest bulkhead (429) are counted, not retried.
+     */
+    private Map<String, Object> runUploads(int uploads, int rows, int concurrency, double skew, double dirtyRate) throws Exception {
+        List<byte[]> payloads = new ArrayList<>();
+        for (int i = 0; i < uploads; i++) {
+            payloads.add(new SyntheticInventoryData(SyntheticInventoryData.DEFAULT_SEED + i, 50, 200, skew)
+                .gzipCsv(rows, dirtyRate));
+        }
+
+        LatencyRecorder latencies = new LatencyRecorder();
+        AtomicInteger next = new AtomicInteger();
+        long startTime = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(pool.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < uploads; index = next.getAndIncrement()) {
+                        byte[] payload = payloads.get(index);
+                        String fileName = "load-test-" + index + ".csv.gz";
+                        latencies.time(() -> upload(fileName, payload));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        Map<String, Object> result = latencies.summary();
+        long succeeded = latencies.count(200);
+        result.put("rowsPerUpload", rows);
+        result.put("compressedBytes", payloads.stream().mapToLong(payload -> payload.length).sum());
+        result.put("elapsedSeconds", Math.round(elapsedSeconds * 1000) / 1000.0);
+        result.put("rowsPerSecond", Math.round(succeeded * rows / elapsedSeconds));
+        return result;
+    }
+
+    private Map<String, Object> runAnalytics(int clients, int requestsPerClient) throws Exception {
+        Map<String, LatencyRecorder> byPath = new LinkedHashMap<>();
+        for (String path : ANALYTICS_PATHS) {
+            byPath.put(path, new LatencyRecorder());
+        }
+
+        long startTime = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        String path = ANALYTICS_PATHS.get((offset + i) % ANALYTICS_PATHS.size());
+                        byPath.get(path).time(() -> get(path));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clients", clients);
+        result.put("elapsedSeconds", Math.round(elapsedSeconds * 1000) / 1000.0);
+        result.put("requestsPerSecond", Math.round(clients * requestsPerClient / elapsedSeconds));
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        byPath.forEach((path, recorder) -> endpoints.put(path, recorder.summary()));
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    private int upload(String fileName, byte[] payload) throws IOException, InterruptedException {
+        String boundary = "----loadtest" + System.nanoTime();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 256);
+        body.write(("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+            + "Content-Type: application/gzip\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(payload);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/inventory/upload"))
+            .timeout(Duration.ofMinutes(10))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofMinutes(2))
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private interface Call {
+        int run() throws Exception;
+    }
+
+    /**
+     * Latencies and status codes of one kind of request; status -1 is a client-side error
+     */
+    private static final class LatencyRecorder {
+
+        private final List<Long> nanos = new ArrayList<>();
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        void time(Call call) {
+            long startTime = System.nanoTime();
+            int status;
+            try {
+                status = call.run();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - startTime;
+            synchronized (this) {
+                nanos.add(elapsed);
+                statuses.merge(status, 1L, Long::sum);
+            }
+        }
+
+        synchronized long count(int status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+        synchronized Map<String, Object> summary() {
+            long[] sorted = nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", sorted.length);
+            summary.put("statuses", new TreeMap<>(statuses));
+            summary.put("p50Ms", percentileMs(sorted, 0.50));
+            summary.put("p90Ms", percentileMs(sorted, 0.90));
+            summary.put("p99Ms", percentileMs(sorted, 0.99));
+            summary.put("maxMs", percentileMs(sorted, 1.0));
+            return summary;
+        }
+
+        private static double percentileMs(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return Math.round(sorted[Math.max(0, index)] / 10_000.0) / 100.0;
+        }
+    }
+}
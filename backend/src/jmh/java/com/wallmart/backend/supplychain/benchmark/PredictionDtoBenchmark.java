@@ -0,0 +1,71 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.dto.InventoryPredictionDTO;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.service.AIPredictionService;
+import com.wallmart.backend.supplychain.service.DatasetGenerationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the private {@code AIPredictionService.createPredictionDTO}, the per-row
+ * step of the fallback predictions (velocity lookup, stock status, order quantity). It is
+ * called through a method handle on rows of a published 100k-row dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PredictionDtoBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private ConfigurableApplicationContext context;
+    private MethodHandle createPredictionDTO;
+    private InventoryEvent[] events;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        context = BenchmarkContexts.start("prediction");
+        List<InventoryEvent> rows = new SyntheticInventoryData().events(ROWS);
+        context.getBean(DatasetGenerationService.class).onIngestCompleted(rows);
+        events = rows.toArray(new InventoryEvent[0]);
+
+        createPredictionDTO = MethodHandles.privateLookupIn(AIPredictionService.class, MethodHandles.lookup())
+            .findVirtual(AIPredictionService.class, "createPredictionDTO",
+                MethodType.methodType(InventoryPredictionDTO.class, InventoryEvent.class))
+            .bindTo(context.getBean(AIPredictionService.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public InventoryPredictionDTO createPredictionDTO() throws Throwable {
+        InventoryEvent event = events[next];
+        next = next + 1 == events.length ? 0 : next + 1;
+        return (InventoryPredictionDTO) createPredictionDTO.invokeExact(event);
+    }
+}
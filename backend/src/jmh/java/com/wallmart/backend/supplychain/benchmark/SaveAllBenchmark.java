@@ -0,0 +1,81 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import com.wallmart.backend.supplychain.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InventoryService#saveAll} into H2, in rows per second. The ingest listeners are
+ * detached so only persistence is measured (publishing a dataset generation copies every
+ * row saved so far, which would make later iterations slower), and the table is emptied
+ * after each iteration to keep its size constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SaveAllBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private InventoryRepository inventoryRepository;
+    private SyntheticInventoryData data;
+    private List<InventoryEvent> events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("save");
+        inventoryService = context.getBean(InventoryService.class);
+        inventoryRepository = context.getBean(InventoryRepository.class);
+        data = new SyntheticInventoryData();
+
+        Field listeners = ReflectionUtils.findField(InventoryService.class, "ingestListeners");
+        ReflectionUtils.makeAccessible(listeners);
+        ReflectionUtils.setField(listeners, inventoryService, List.of());
+    }
+
+    @Setup(Level.Invocation)
+    public void newEvents() {
+        // IDENTITY ids are assigned on insert, so every invocation needs unsaved entities
+        events = data.events(ROWS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAll() {
+        inventoryService.saveAll(events);
+    }
+}
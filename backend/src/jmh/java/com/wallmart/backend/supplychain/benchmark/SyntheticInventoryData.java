@@ -0,0 +1,277 @@
+package com.wallmart.backend.supplychain.benchmark;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Deterministic inventory rows shaped like the Kaggle retail dataset. The same seed,
+ * shape and row count always give the same data, so benchmark and load-test runs stay
+ * comparable.
+ *
+ * <p>Rows walk the SKUs (store x product) day by day: with the defaults, 10k rows are one
+ * day of 50 stores x 200 products and 1M rows are 100 days. {@code skew} is the Zipf
+ * exponent of product popularity (0 = every product sells alike). Repeated strings (ids,
+ * categories, dates) are shared between rows to keep multi-million row datasets within a
+ * benchmark heap.
+ *
+ * <p>Run {@link #main} to write a dataset file for uploads or the drop directory:
+ * {@code --stores 50 --products 200 --days 365 --skew 1.0 --dirty-rate 0.01 --out inventory.csv.gz}
+ */
+public final class SyntheticInventoryData {
+
+    public static final long DEFAULT_SEED = 42L;
+    public static final String HEADER = "Date,Store ID,Product ID,Category,Region,Inventory Level,Units Sold,"
+        + "Units Ordered,Demand Forecast,Price,Discount,Weather Condition,Holiday/Promotion,Competitor Pricing,Seasonality";
+
+    private static final String[] CATEGORIES = {"Groceries", "Toys", "Electronics", "Furniture", "Clothing"};
+    private static final String[] REGIONS = {"North", "South", "East", "West"};
+    private static final String[] WEATHER = {"Sunny", "Rainy", "Cloudy", "Snowy"};
+    private static final String[] SUPPLIERS = {"Supplier_1", "Supplier_2", "Supplier_3"};
+    private static final String[] SEASONS = {"Winter", "Spring", "Summer", "Autumn"};
+    private static final LocalDate START_DATE = LocalDate.of(2022, 1, 1);
+
+    private final long seed;
+    private final int stores;
+    private final int products;
+    private final String[] storeIds;
+    private final String[] productIds;
+    private final String[] productNames;
+    private final double[] basePrice;
+    private final double[] popularity;
+
+    public SyntheticInventoryData(long seed, int stores, int products, double skew) {
+        this.seed = seed;
+        this.stores = stores;
+        this.products = products;
+        this.storeIds = new String[stores];
+        this.productIds = new String[products];
+        this.productNames = new String[products];
+        this.basePrice = new double[products];
+        this.popularity = new double[products];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int s = 0; s < stores; s++) {
+            storeIds[s] = String.format("S%03d", s + 1);
+        }
+        for (int p = 0; p < products; p++) {
+            productIds[p] = String.format("P%04d", p + 1);
+            productNames[p] = "Product_" + productIds[p];
+            basePrice[p] = 5 + random.nextDouble() * 95;
+        }
+
+        // Zipf weights over a shuffled popularity rank, scaled to a mean of 1
+        int[] rank = new int[products];
+        for (int p = 0; p < products; p++) {
+            rank[p] = p;
+        }
+        for (int p = products - 1; p > 0; p--) {
+            int other = random.nextInt(p + 1);
+            int swap = rank[p];
+            rank[p] = rank[other];
+            rank[other] = swap;
+        }
+        double total = 0;
+        for (int p = 0; p < products; p++) {
+            popularity[p] = 1.0 / Math.pow(rank[p] + 1, skew);
+            total += popularity[p];
+        }
+        for (int p = 0; p < products; p++) {
+            popularity[p] *= products / total;
+        }
+    }
+
+    public SyntheticInventoryData(long seed, int stores, int products) {
+        this(seed, stores, products, 0.0);
+    }
+
+    public SyntheticInventoryData() {
+        this(DEFAULT_SEED, 50, 200);
+    }
+
+    public int getSkuCount() {
+        return stores * products;
+    }
+
+    public List<InventoryEvent> events(int rows) {
+        List<InventoryEvent> events = new ArrayList<>(rows);
+        forEachRow(rows, events::add);
+        return events;
+    }
+
+    /**
+     * The same rows as {@link #events(int)}, as CSV with the Kaggle column headers
+     */
+    public byte[] csv(int rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 96);
+        writeCsv(rows, 0.0, bytes);
+        return bytes.toByteArray();
+    }
+
+    public byte[] gzipCsv(int rows) {
+        return gzipCsv(rows, 0.0);
+    }
+
+    public byte[] gzipCsv(int rows, double dirtyRate) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 24);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 1 << 16)) {
+            writeCsv(rows, dirtyRate, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Stream rows as CSV without holding them in memory. A {@code dirtyRate} share of the
+     * lines is damaged the way real exports are (unparseable date, non-numeric level,
+     * truncated line); the remaining lines are identical to the clean output.
+     */
+    public void writeCsv(int rows, double dirtyRate, OutputStream out) {
+        SplittableRandom dirt = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        String[] fields = new String[15];
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(HEADER);
+            writer.write('\n');
+            forEachRow(rows, event -> {
+                fields[0] = event.getDate();
+                fields[1] = event.getStoreId();
+                fields[2] = event.getProductId();
+                fields[3] = event.getCategory();
+                fields[4] = event.getLocation();
+                fields[5] = Integer.toString(event.getInventoryLevel());
+                fields[6] = Integer.toString(event.getUnitsSold());
+                fields[7] = Integer.toString(event.getUnitsOrdered());
+                fields[8] = Double.toString(event.getDemandForecast());
+                fields[9] = Double.toString(event.getPrice());
+                fields[10] = Integer.toString((int) event.getDiscount());
+                fields[11] = event.getWeatherCondition();
+                fields[12] = event.getHolidayOrPromotion();
+                fields[13] = Double.toString(event.getCompetitorPricing());
+                fields[14] = event.getSeasonality();
+
+                int length = fields.length;
+                if (dirtyRate > 0 && dirt.nextDouble() < dirtyRate) {
+                    switch (dirt.nextInt(3)) {
+                        case 0 -> fields[0] = "31/13/" + event.getTimestamp().getYear();
+                        case 1 -> fields[5] = "N/A";
+                        default -> length = 1;
+                    }
+                }
+                try {
+                    for (int i = 0; i < length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(fields[i]);
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forEachRow(int rows, Consumer<InventoryEvent> action) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int skus = stores * products;
+        String date = null;
+        LocalDateTime timestamp = null;
+
+        for (int i = 0; i < rows; i++) {
+            int sku = i % skus;
+            if (sku == 0) {
+                LocalDate day = START_DATE.plusDays(i / skus);
+                date = day.toString();
+                timestamp = day.atStartOfDay();
+            }
+            int store = sku / products;
+            int product = sku % products;
+            int inventoryLevel = random.nextInt(20) == 0 ? random.nextInt(10) : (int) (random.nextInt(500) * popularity[product]);
+            int unitsSold = random.nextInt(Math.max(1, inventoryLevel / 2 + 1));
+            double price = round2(basePrice[product] * (0.9 + random.nextDouble() * 0.2));
+
+            InventoryEvent event = new InventoryEvent();
+            event.setDate(date);
+            event.setTimestamp(timestamp);
+            event.setStoreId(storeIds[store]);
+            event.setProductId(productIds[product]);
+            event.setProductName(productNames[product]);
+            event.setCategory(CATEGORIES[product % CATEGORIES.length]);
+            event.setLocation(REGIONS[store % REGIONS.length]);
+            event.setSupplier(SUPPLIERS[store % SUPPLIERS.length]);
+            event.setStatus("IN");
+            event.setQuantity(inventoryLevel);
+            event.setInventoryLevel(inventoryLevel);
+            event.setUnitsSold(unitsSold);
+            event.setUnitsOrdered(random.nextInt(200));
+            event.setDemandForecast(round2(unitsSold * (0.8 + random.nextDouble() * 0.4)));
+            event.setPrice(price);
+            event.setDiscount(random.nextInt(5) * 5);
+            event.setWeatherCondition(WEATHER[random.nextInt(WEATHER.length)]);
+            event.setHolidayOrPromotion(random.nextInt(4) == 0 ? "1" : "0");
+            event.setCompetitorPricing(round2(price * (0.85 + random.nextDouble() * 0.3)));
+            event.setSeasonality(SEASONS[(timestamp.getMonthValue() % 12) / 3]);
+            action.accept(event);
+        }
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = CommandLineArgs.parse(args);
+        int stores = Integer.parseInt(options.getOrDefault("stores", "50"));
+        int products = Integer.parseInt(options.getOrDefault("products", "200"));
+        int days = Integer.parseInt(options.getOrDefault("days", "365"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+        double dirtyRate = Double.parseDouble(options.getOrDefault("dirty-rate", "0.0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", String.valueOf(DEFAULT_SEED)));
+        Path out = Path.of(options.getOrDefault("out", "target/synthetic-inventory.csv.gz"));
+
+        long rows = (long) stores * products * days;
+        if (rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("At most " + Integer.MAX_VALUE + " rows per file, got " + rows);
+        }
+
+        long startTime = System.currentTimeMillis();
+        SyntheticInventoryData data = new SyntheticInventoryData(seed, stores, products, skew);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16)) {
+            if (out.getFileName().toString().endsWith(".gz")) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(file, 1 << 16)) {
+                    data.writeCsv((int) rows, dirtyRate, gzip);
+                }
+            } else {
+                data.writeCsv((int) rows, dirtyRate, file);
+            }
+        }
+        System.out.printf("Wrote %,d rows (%d stores x %d products x %d days, skew %.2f, dirty rate %.3f) to %s in %d ms (%,d bytes)%n",
+            rows, stores, products, days, skew, dirtyRate, out, System.currentTimeMillis() - startTime, Files.size(out));
+    }
+}
@@ -0,0 +1,180 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online outlier detection for inventory level, units sold and price. Keeps a running
+ * mean/variance (Welford) per SKU and per category, so state is constant per key and
+ * each row costs a couple of map lookups and a few arithmetic operations.
+ *
+ * <p>A value is scored against its SKU's history once the SKU has seen enough rows,
+ * otherwise against its category. Flagged values are not folded into the statistics,
+ * so one glitch does not widen the band for the rows that follow.
+ */
+public final class AnomalyDetector {
+
+    public enum Metric {
+        INVENTORY_LEVEL("inventoryLevel"),
+        UNITS_SOLD("unitsSold"),
+        PRICE("price");
+
+        private final String fieldName;
+
+        Metric(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public static Metric fromName(String name) {
+            for (Metric metric : values()) {
+                if (metric.fieldName.equalsIgnoreCase(name) || metric.name().equalsIgnoreCase(name)) {
+                    return metric;
+                }
+            }
+            throw new IllegalArgumentException("Unknown metric: " + name);
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    /**
+     * One flagged value; expected and zScore are null for rule violations such as negative stock
+     */
+    public record Finding(Metric metric, double value, Double expected, Double zScore, String reason) {
+    }
+
+    private final double zThreshold;
+    private final int warmupCount;
+    private final Map<String, RunningStats> bySku = new ConcurrentHashMap<>();
+    private final Map<String, RunningStats> byCategory = new ConcurrentHashMap<>();
+
+    /**
+     * @param zThreshold absolute z-score from which a value is an outlier
+     * @param warmupCount observations a key needs before its statistics are used
+     */
+    public AnomalyDetector(double zThreshold, int warmupCount) {
+        this.zThreshold = zThreshold;
+        this.warmupCount = warmupCount;
+    }
+
+    /**
+     * Score one row and fold its accepted values into the statistics
+     * @param values indexed by {@link Metric#ordinal()}
+     * @return findings, empty for a normal row
+     */
+    public List<Finding> observe(String sku, String category, double[] values) {
+        RunningStats skuStats = bySku.computeIfAbsent(sku, key -> new RunningStats());
+        RunningStats categoryStats = byCategory.computeIfAbsent(category, key -> new RunningStats());
+
+        List<Finding> findings = null;
+        boolean[] accepted = new boolean[METRICS.length];
+        // Lock order is always SKU then category, and categories are never locked first
+        synchronized (skuStats) {
+            synchronized (categoryStats) {
+                for (Metric metric : METRICS) {
+                    Finding finding = score(metric, values[metric.ordinal()], skuStats, categoryStats);
+                    if (finding == null) {
+                        accepted[metric.ordinal()] = true;
+                    } else {
+                        if (findings == null) {
+                            findings = new ArrayList<>(METRICS.length);
+                        }
+                        findings.add(finding);
+                    }
+                }
+                skuStats.add(values, accepted);
+                categoryStats.add(values, accepted);
+            }
+        }
+        return findings != null ? findings : List.of();
+    }
+
+    /**
+     * Fold a row into the statistics without reporting it (e.g. warming up from stored
+     * history). The same values are kept out as in {@link #observe}: negatives, non-positive
+     * prices and outliers never shift the baseline.
+     */
+    public void train(String sku, String category, double[] values) {
+        observe(sku, category, values);
+    }
+
+    public int trackedKeys() {
+        return bySku.size() + byCategory.size();
+    }
+
+    private Finding score(Metric metric, double value, RunningStats skuStats, RunningStats categoryStats) {
+        switch (metric) {
+            case INVENTORY_LEVEL -> {
+                if (value < 0) {
+                    return new Finding(metric, value, null, null, "NEGATIVE_STOCK");
+                }
+            }
+            case UNITS_SOLD -> {
+                if (value < 0) {
+                    return new Finding(metric, value, null, null, "NEGATIVE_SALES");
+                }
+            }
+            case PRICE -> {
+                if (value <= 0) {
+                    return new Finding(metric, value, null, null, "NON_POSITIVE_PRICE");
+                }
+            }
+        }
+
+        RunningStats reference = skuStats.count(metric) >= warmupCount ? skuStats
+            : categoryStats.count(metric) >= warmupCount ? categoryStats : null;
+        if (reference == null) {
+            return null;
+        }
+        double mean = reference.mean(metric);
+        // Floor the spread so a perfectly steady history still flags a 100x jump
+        double scale = Math.max(reference.stdDev(metric), Math.max(0.1 * Math.abs(mean), 1.0));
+        double z = (value - mean) / scale;
+        if (Math.abs(z) < zThreshold) {
+            return null;
+        }
+        String reason = reference == skuStats ? "SKU_OUTLIER" : "CATEGORY_OUTLIER";
+        return new Finding(metric, value, mean, z, reason);
+    }
+
+    /**
+     * Welford running mean/variance for each metric of one key; callers hold its monitor
+     */
+    private static final class RunningStats {
+
+        private final long[] count = new long[METRICS.length];
+        private final double[] mean = new double[METRICS.length];
+        private final double[] m2 = new double[METRICS.length];
+
+        void add(double[] values, boolean[] accepted) {
+            for (int m = 0; m < count.length; m++) {
+                if (!accepted[m]) {
+                    continue;
+                }
+                count[m]++;
+                double delta = values[m] - mean[m];
+                mean[m] += delta / count[m];
+                m2[m] += delta * (values[m] - mean[m]);
+            }
+        }
+
+        long count(Metric metric) {
+            return count[metric.ordinal()];
+        }
+
+        double mean(Metric metric) {
+            return mean[metric.ordinal()];
+        }
+
+        double stdDev(Metric metric) {
+            int m = metric.ordinal();
+            return count[m] > 1 ? Math.sqrt(m2[m] / (count[m] - 1)) : 0.0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable list made of immutable chunks. Appending shares every existing chunk with the
+ * new list, so it costs the size of the appended rows plus the chunk count, not the list
+ * size. Trailing chunks that are not larger than their successor are merged on append
+ * (like a binary counter), which keeps the chunk count logarithmic and copies each
+ * element a logarithmic number of times over any sequence of appends.
+ */
+final class ChunkedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final ChunkedList<?> EMPTY = new ChunkedList<>(List.of());
+
+    private final List<List<E>> chunks;
+    // offsets[i] is the index of the first element of chunk i; offsets[chunks] is the size
+    private final int[] offsets;
+
+    private ChunkedList(List<List<E>> chunks) {
+        this.chunks = chunks;
+        this.offsets = new int[chunks.size() + 1];
+        for (int i = 0; i < chunks.size(); i++) {
+            offsets[i + 1] = offsets[i] + chunks.get(i).size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> ChunkedList<E> empty() {
+        return (ChunkedList<E>) EMPTY;
+    }
+
+    /**
+     * This list followed by the given elements (copied)
+     */
+    ChunkedList<E> append(List<? extends E> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        List<List<E>> next = new ArrayList<>(chunks.size() + 1);
+        next.addAll(chunks);
+        next.add(Collections.unmodifiableList(new ArrayList<>(added)));
+        while (next.size() >= 2 && next.get(next.size() - 2).size() <= next.get(next.size() - 1).size()) {
+            List<E> last = next.remove(next.size() - 1);
+            List<E> previous = next.remove(next.size() - 1);
+            List<E> merged = new ArrayList<>(previous.size() + last.size());
+            merged.addAll(previous);
+            merged.addAll(last);
+            next.add(Collections.unmodifiableList(merged));
+        }
+        return new ChunkedList<>(Collections.unmodifiableList(next));
+    }
+
+    int chunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        int chunk = Arrays.binarySearch(offsets, index);
+        if (chunk < 0) {
+            chunk = -chunk - 2; // Insertion point minus one: the chunk that starts before index
+        }
+        return chunks.get(chunk).get(index - offsets[chunk]);
+    }
+
+    @Override
+    public int size() {
+        return offsets[chunks.size()];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int chunk;
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                while (chunk < chunks.size() && position >= chunks.get(chunk).size()) {
+                    chunk++;
+                    position = 0;
+                }
+                return chunk < chunks.size();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunks.get(chunk).get(position++);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        for (List<E> chunk : chunks) {
+            chunk.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds events into one summary per day and SKU (store + product). Summaries of the same
+ * day and SKU merge, so events compacted in different runs end up in one row.
+ */
+public class DailySummaryBuilder {
+
+    private static final Comparator<InventoryDailySummary> ORDER = Comparator
+        .comparing(InventoryDailySummary::getSummaryDate)
+        .thenComparing(InventoryDailySummary::getStoreId, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(InventoryDailySummary::getProductId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<String, InventoryDailySummary> summaries = new HashMap<>();
+
+    public static String keyOf(LocalDate day, String storeId, String productId) {
+        return day + "|" + storeId + "|" + productId;
+    }
+
+    public static String keyOf(InventoryDailySummary summary) {
+        return keyOf(summary.getSummaryDate(), summary.getStoreId(), summary.getProductId());
+    }
+
+    /**
+     * Add one event; events without a timestamp have no day and are skipped
+     */
+    public void add(InventoryEvent event) {
+        if (event.getTimestamp() == null) {
+            return;
+        }
+        LocalDate day = event.getTimestamp().toLocalDate();
+        InventoryDailySummary single = InventoryDailySummary.builder()
+            .summaryDate(day)
+            .storeId(event.getStoreId())
+            .productId(event.getProductId())
+            .productName(event.getProductName())
+            .category(event.getCategory())
+            .eventCount(1)
+            .unitsSold(event.getUnitsSold())
+            .unitsOrdered(event.getUnitsOrdered())
+            .revenue(event.getUnitsSold() * event.getPrice())
+            .demandForecast(event.getDemandForecast())
+            .inventoryLevelSum(event.getInventoryLevel())
+            .minInventoryLevel(event.getInventoryLevel())
+            .maxInventoryLevel(event.getInventoryLevel())
+            .lastInventoryLevel(event.getInventoryLevel())
+            .lastTimestamp(event.getTimestamp())
+            .minPrice(event.getPrice())
+            .maxPrice(event.getPrice())
+            .build();
+        add(single);
+    }
+
+    /**
+     * Merge a summary into the one for its day and SKU (the argument is not modified)
+     */
+    public void add(InventoryDailySummary summary) {
+        InventoryDailySummary existing = summaries.get(keyOf(summary));
+        if (existing == null) {
+            summaries.put(keyOf(summary), copyOf(summary));
+            return;
+        }
+        merge(existing, summary);
+    }
+
+    /**
+     * Fold a summary of the same day and SKU into an existing one, in place
+     */
+    public static void merge(InventoryDailySummary existing, InventoryDailySummary summary) {
+        existing.setEventCount(existing.getEventCount() + summary.getEventCount());
+        existing.setUnitsSold(existing.getUnitsSold() + summary.getUnitsSold());
+        existing.setUnitsOrdered(existing.getUnitsOrdered() + summary.getUnitsOrdered());
+        existing.setRevenue(existing.getRevenue() + summary.getRevenue());
+        existing.setDemandForecast(existing.getDemandForecast() + summary.getDemandForecast());
+        existing.setInventoryLevelSum(existing.getInventoryLevelSum() + summary.getInventoryLevelSum());
+        existing.setMinInventoryLevel(Math.min(existing.getMinInventoryLevel(), summary.getMinInventoryLevel()));
+        existing.setMaxInventoryLevel(Math.max(existing.getMaxInventoryLevel(), summary.getMaxInventoryLevel()));
+        existing.setMinPrice(Math.min(existing.getMinPrice(), summary.getMinPrice()));
+        existing.setMaxPrice(Math.max(existing.getMaxPrice(), summary.getMaxPrice()));
+        // Later timestamp wins; on a tie the summary added last wins, like a later row of the same day
+        if (summary.getLastTimestamp() != null && (existing.getLastTimestamp() == null
+                || !summary.getLastTimestamp().isBefore(existing.getLastTimestamp()))) {
+            existing.setLastInventoryLevel(summary.getLastInventoryLevel());
+            existing.setLastTimestamp(summary.getLastTimestamp());
+            existing.setProductName(summary.getProductName());
+            existing.setCategory(summary.getCategory());
+        }
+    }
+
+    public InventoryDailySummary get(String key) {
+        return summaries.get(key);
+    }
+
+    /**
+     * All summaries ordered by day, store and product
+     */
+    public List<InventoryDailySummary> build() {
+        List<InventoryDailySummary> result = new ArrayList<>(summaries.values());
+        result.sort(ORDER);
+        return result;
+    }
+
+    private static InventoryDailySummary copyOf(InventoryDailySummary summary) {
+        return InventoryDailySummary.builder()
+            .id(summary.getId())
+            .summaryDate(summary.getSummaryDate())
+            .storeId(summary.getStoreId())
+            .productId(summary.getProductId())
+            .productName(summary.getProductName())
+            .category(summary.getCategory())
+            .eventCount(summary.getEventCount())
+            .unitsSold(summary.getUnitsSold())
+            .unitsOrdered(summary.getUnitsOrdered())
+            .revenue(summary.getRevenue())
+            .demandForecast(summary.getDemandForecast())
+            .inventoryLevelSum(summary.getInventoryLevelSum())
+            .minInventoryLevel(summary.getMinInventoryLevel())
+            .maxInventoryLevel(summary.getMaxInventoryLevel())
+            .lastInventoryLevel(summary.getLastInventoryLevel())
+            .lastTimestamp(summary.getLastTimestamp())
+            .minPrice(summary.getMinPrice())
+            .maxPrice(summary.getMaxPrice())
+            .build();
+    }
+}
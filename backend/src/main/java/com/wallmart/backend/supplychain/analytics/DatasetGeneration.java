@@ -0,0 +1,184 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * One published, immutable version of the inventory dataset. An ingest builds the next
+ * generation by appending its rows to the current one, so a reader that pinned a
+ * generation keeps a stable view while writers carry on.
+ *
+ * <p>Events are also partitioned by the month of their timestamp, so time-range reads
+ * only touch the partitions that overlap the range. The partitions exist only here; the
+ * inventory_events table is a single unpartitioned table. The event list and every partition
+ * are {@link ChunkedList}s: a new generation shares all existing chunks with the previous
+ * one, so publishing costs the size of the ingest, not the size of the dataset.
+ */
+public final class DatasetGeneration {
+
+    private static final RollupGranularity PARTITION = RollupGranularity.MONTH;
+
+    private final long version;
+    private final ChunkedList<InventoryEvent> events;
+    // partition start epoch day -> events of that month, in insertion order
+    private final NavigableMap<Integer, ChunkedList<InventoryEvent>> partitions;
+    private final ChunkedList<InventoryEvent> undated;
+    private final Instant publishedAt;
+    private volatile InventoryColumnSnapshot snapshot;
+
+    private DatasetGeneration(long version, ChunkedList<InventoryEvent> events,
+                              NavigableMap<Integer, ChunkedList<InventoryEvent>> partitions, ChunkedList<InventoryEvent> undated) {
+        this.version = version;
+        this.events = events;
+        this.partitions = Collections.unmodifiableNavigableMap(partitions);
+        this.undated = undated;
+        this.publishedAt = Instant.now();
+    }
+
+    public static DatasetGeneration empty() {
+        return new DatasetGeneration(0, ChunkedList.empty(), new TreeMap<>(), ChunkedList.empty());
+    }
+
+    /**
+     * The generation that follows this one with the given rows appended
+     */
+    public DatasetGeneration next(List<InventoryEvent> added) {
+        Map<Integer, List<InventoryEvent>> addedByPartition = new HashMap<>();
+        List<InventoryEvent> addedUndated = new ArrayList<>();
+        for (InventoryEvent event : added) {
+            if (event.getTimestamp() == null) {
+                addedUndated.add(event);
+            } else {
+                addedByPartition.computeIfAbsent(partitionOf(event.getTimestamp().toLocalDate()), key -> new ArrayList<>())
+                    .add(event);
+            }
+        }
+
+        TreeMap<Integer, ChunkedList<InventoryEvent>> nextPartitions = new TreeMap<>(partitions);
+        addedByPartition.forEach((key, rows) ->
+            nextPartitions.put(key, nextPartitions.getOrDefault(key, ChunkedList.empty()).append(rows)));
+        return new DatasetGeneration(version + 1, events.append(added), nextPartitions, undated.append(addedUndated));
+    }
+
+    /**
+     * The generation that follows this one without the given rows (by id), e.g. after they
+     * were compacted into summaries
+     */
+    public DatasetGeneration without(Set<Long> removedIds) {
+        List<InventoryEvent> nextEvents = new ArrayList<>(events.size());
+        for (InventoryEvent event : events) {
+            if (!removedIds.contains(event.getId())) {
+                nextEvents.add(event);
+            }
+        }
+
+        TreeMap<Integer, ChunkedList<InventoryEvent>> nextPartitions = new TreeMap<>();
+        for (Map.Entry<Integer, ChunkedList<InventoryEvent>> entry : partitions.entrySet()) {
+            List<InventoryEvent> remaining = entry.getValue().stream()
+                .filter(event -> !removedIds.contains(event.getId()))
+                .toList();
+            if (remaining.size() == entry.getValue().size()) {
+                nextPartitions.put(entry.getKey(), entry.getValue());
+            } else if (!remaining.isEmpty()) {
+                nextPartitions.put(entry.getKey(), ChunkedList.<InventoryEvent>empty().append(remaining));
+            }
+        }
+        return new DatasetGeneration(version + 1, ChunkedList.<InventoryEvent>empty().append(nextEvents), nextPartitions, undated);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<InventoryEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Events whose date falls in [from, to] (either end may be null); only the overlapping
+     * monthly partitions are read. Events without a timestamp are never returned.
+     */
+    public List<InventoryEvent> getEvents(LocalDate from, LocalDate to) {
+        int fromKey = from != null ? partitionOf(from) : Integer.MIN_VALUE;
+        int toKey = to != null ? partitionOf(to) : Integer.MAX_VALUE;
+        List<InventoryEvent> result = new ArrayList<>();
+        for (List<InventoryEvent> partition : partitions.subMap(fromKey, true, toKey, true).values()) {
+            for (InventoryEvent event : partition) {
+                LocalDate date = event.getTimestamp().toLocalDate();
+                if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                    result.add(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Partition start (first day of the month) to the partition's events, oldest first
+     */
+    public NavigableMap<LocalDate, List<InventoryEvent>> getPartitions() {
+        NavigableMap<LocalDate, List<InventoryEvent>> byStart = new TreeMap<>();
+        partitions.forEach((key, partition) -> byStart.put(LocalDate.ofEpochDay(key), partition));
+        return byStart;
+    }
+
+    /**
+     * Date of the newest dated event, or null when there is none
+     */
+    public LocalDate getLatestDate() {
+        if (partitions.isEmpty()) {
+            return null;
+        }
+        LocalDate latest = null;
+        for (InventoryEvent event : partitions.lastEntry().getValue()) {
+            LocalDate date = event.getTimestamp().toLocalDate();
+            if (latest == null || date.isAfter(latest)) {
+                latest = date;
+            }
+        }
+        return latest;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Column snapshot of this generation, built on first use
+     */
+    public InventoryColumnSnapshot getSnapshot() {
+        InventoryColumnSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = InventoryColumnSnapshot.of(events);
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public static LocalDate partitionStart(LocalDate date) {
+        return LocalDate.ofEpochDay(partitionOf(date));
+    }
+
+    private static int partitionOf(LocalDate date) {
+        return PARTITION.bucketStart(date);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Sliding 7/30/90-day units-sold totals for one SKU, kept in a 90-slot ring of daily
+ * counters. Window sums are adjusted as the newest day advances, so recording an event
+ * and reading velocity are both O(1) (at most one pass over the ring on a large jump).
+ * Windows are anchored on the latest day seen for the SKU, not on the wall clock.
+ */
+public class DemandWindow {
+
+    private static final int SPAN = 90;
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final int[] daily = new int[SPAN];
+    private long sum7;
+    private long sum30;
+    private long sum90;
+    private int firstDay = NONE;
+    private int latestDay = NONE;
+    private int inventoryDay = NONE;
+    private int currentInventory;
+
+    public synchronized void record(int day, int unitsSold, int inventoryLevel) {
+        if (latestDay == NONE) {
+            latestDay = day;
+        } else if (day > latestDay) {
+            advanceTo(day);
+        }
+        if (firstDay == NONE || day < firstDay) {
+            firstDay = day;
+        }
+        if (day >= inventoryDay) {
+            inventoryDay = day;
+            currentInventory = inventoryLevel;
+        }
+
+        int age = latestDay - day;
+        if (age >= SPAN) {
+            return; // Older than the longest window
+        }
+        daily[Math.floorMod(day, SPAN)] += unitsSold;
+        if (age < 7) {
+            sum7 += unitsSold;
+        }
+        if (age < 30) {
+            sum30 += unitsSold;
+        }
+        sum90 += unitsSold;
+    }
+
+    private void advanceTo(int day) {
+        if (day - latestDay >= SPAN) {
+            Arrays.fill(daily, 0);
+            sum7 = 0;
+            sum30 = 0;
+            sum90 = 0;
+            latestDay = day;
+            return;
+        }
+        while (latestDay < day) {
+            latestDay++;
+            sum7 -= daily[Math.floorMod(latestDay - 7, SPAN)];
+            sum30 -= daily[Math.floorMod(latestDay - 30, SPAN)];
+            int slot = Math.floorMod(latestDay, SPAN); // Same slot as the day leaving the 90-day window
+            sum90 -= daily[slot];
+            daily[slot] = 0;
+        }
+    }
+
+    public synchronized Velocity velocity() {
+        int observedDays = latestDay == NONE ? 0 : latestDay - firstDay + 1;
+        return new Velocity(
+            latestDay,
+            currentInventory,
+            perDay(sum7, Math.min(7, observedDays)),
+            perDay(sum30, Math.min(30, observedDays)),
+            perDay(sum90, Math.min(90, observedDays)));
+    }
+
+    private static double perDay(long total, int days) {
+        return days <= 0 ? 0.0 : (double) total / days;
+    }
+
+    /**
+     * Point-in-time view of a SKU's demand velocity (units sold per day)
+     */
+    public record Velocity(int latestDay, int currentInventory, double perDay7, double perDay30, double perDay90) {
+
+        /**
+         * Days the current inventory lasts at the 30-day sales rate, or null if nothing sold
+         */
+        public Double daysOfCover() {
+            return perDay30 > 0 ? currentInventory / perDay30 : null;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel group-by over an {@link InventoryColumnSnapshot}. Each row's dimension codes
+ * are packed into one long key (mixed radix over the dictionary sizes), rows are
+ * aggregated into per-partition open-addressing hash tables on the fork-join pool,
+ * and the partial tables are merged at the end.
+ */
+public final class HashAggregation {
+
+    private static final int MIN_ROWS_PER_PARTITION = 16 * 1024;
+
+    private final InventoryColumnSnapshot snapshot;
+    private final InventoryDimension[] dimensions;
+    private final double[][] measureValues;
+    private final int[][] dimensionCodes;
+    private final long[] radix;
+    private final boolean[][] allowedCodes; // Per filtered dimension; null when unfiltered
+    private final int[][] filterCodes;
+
+    public HashAggregation(InventoryColumnSnapshot snapshot, List<InventoryDimension> dimensions,
+                           List<InventoryMeasure> measures, Map<InventoryDimension, Set<String>> filters) {
+        this.snapshot = snapshot;
+        this.dimensions = dimensions.toArray(new InventoryDimension[0]);
+        this.measureValues = new double[measures.size()][];
+        for (int m = 0; m < measureValues.length; m++) {
+            measureValues[m] = snapshot.measure(measures.get(m));
+        }
+
+        this.dimensionCodes = new int[this.dimensions.length][];
+        this.radix = new long[this.dimensions.length];
+        long combinations = 1;
+        for (int d = 0; d < this.dimensions.length; d++) {
+            InventoryColumnSnapshot.DictionaryColumn column = snapshot.dimension(this.dimensions[d]);
+            dimensionCodes[d] = column.getCodes();
+            radix[d] = combinations;
+            int cardinality = Math.max(1, column.cardinality());
+            if (combinations > Long.MAX_VALUE / cardinality) {
+                throw new IllegalArgumentException("Too many dimension combinations to encode in one key");
+            }
+            combinations *= cardinality;
+        }
+
+        this.allowedCodes = new boolean[filters.size()][];
+        this.filterCodes = new int[filters.size()][];
+        int f = 0;
+        for (Map.Entry<InventoryDimension, Set<String>> filter : filters.entrySet()) {
+            InventoryColumnSnapshot.DictionaryColumn column = snapshot.dimension(filter.getKey());
+            boolean[] allowed = new boolean[column.cardinality()];
+            for (String value : filter.getValue()) {
+                int code = column.code(value);
+                if (code >= 0) {
+                    allowed[code] = true;
+                }
+            }
+            allowedCodes[f] = allowed;
+            filterCodes[f] = column.getCodes();
+            f++;
+        }
+    }
+
+    /**
+     * Run the aggregation across the common fork-join pool
+     */
+    public GroupTable execute() {
+        int rows = snapshot.getRowCount();
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4,
+            rows / MIN_ROWS_PER_PARTITION));
+        int partitionSize = (rows + partitions - 1) / partitions;
+
+        return IntStream.range(0, partitions)
+            .parallel()
+            .mapToObj(p -> aggregateRange(p * partitionSize, Math.min(rows, (p + 1) * partitionSize)))
+            .reduce(GroupTable::mergeFrom)
+            .orElseGet(() -> new GroupTable(measureValues.length));
+    }
+
+    private GroupTable aggregateRange(int from, int to) {
+        GroupTable table = new GroupTable(measureValues.length);
+        rows:
+        for (int row = from; row < to; row++) {
+            for (int f = 0; f < filterCodes.length; f++) {
+                if (!allowedCodes[f][filterCodes[f][row]]) {
+                    continue rows;
+                }
+            }
+
+            long key = 0;
+            for (int d = 0; d < dimensionCodes.length; d++) {
+                key += dimensionCodes[d][row] * radix[d];
+            }
+
+            int base = table.slotFor(key);
+            double[] acc = table.accumulators;
+            acc[base] += 1;
+            for (int m = 0; m < measureValues.length; m++) {
+                double value = measureValues[m][row];
+                int offset = base + 1 + m * 3;
+                acc[offset] += value;
+                if (value < acc[offset + 1]) {
+                    acc[offset + 1] = value;
+                }
+                if (value > acc[offset + 2]) {
+                    acc[offset + 2] = value;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Decode a packed group key back into its dimension values
+     */
+    public String[] decodeKey(long key) {
+        String[] values = new String[dimensions.length];
+        for (int d = dimensions.length - 1; d >= 0; d--) {
+            int code = (int) (key / radix[d]);
+            key -= code * radix[d];
+            values[d] = snapshot.dimension(dimensions[d]).value(code);
+        }
+        return values;
+    }
+
+    /**
+     * Open-addressing hash table from packed group key to a row of accumulators:
+     * [count, sum, min, max per measure]
+     */
+    public static final class GroupTable {
+
+        private final int measureCount;
+        private final int stride;
+        private int[] slots;
+        private long[] keys = new long[16];
+        private double[] accumulators;
+        private int size;
+
+        GroupTable(int measureCount) {
+            this.measureCount = measureCount;
+            this.stride = 1 + measureCount * 3;
+            this.slots = new int[64];
+            Arrays.fill(slots, -1);
+            this.accumulators = new double[16 * stride];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long key(int group) {
+            return keys[group];
+        }
+
+        public long count(int group) {
+            return (long) accumulators[group * stride];
+        }
+
+        public double sum(int group, int measure) {
+            return accumulators[group * stride + 1 + measure * 3];
+        }
+
+        public double min(int group, int measure) {
+            return accumulators[group * stride + 2 + measure * 3];
+        }
+
+        public double max(int group, int measure) {
+            return accumulators[group * stride + 3 + measure * 3];
+        }
+
+        /**
+         * @return offset of the group's accumulators, inserting an empty group if needed
+         */
+        int slotFor(long key) {
+            int mask = slots.length - 1;
+            int slot = mix(key) & mask;
+            while (true) {
+                int group = slots[slot];
+                if (group < 0) {
+                    return insert(slot, key) * stride;
+                }
+                if (keys[group] == key) {
+                    return group * stride;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private int insert(int slot, long key) {
+            int group = size++;
+            if (group == keys.length) {
+                keys = Arrays.copyOf(keys, group * 2);
+                accumulators = Arrays.copyOf(accumulators, group * 2 * stride);
+            }
+            keys[group] = key;
+            int base = group * stride;
+            for (int m = 0; m < measureCount; m++) {
+                accumulators[base + 2 + m * 3] = Double.POSITIVE_INFINITY;
+                accumulators[base + 3 + m * 3] = Double.NEGATIVE_INFINITY;
+            }
+            slots[slot] = group;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return group;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            Arrays.fill(slots, -1);
+            int mask = slots.length - 1;
+            for (int group = 0; group < size; group++) {
+                int slot = mix(keys[group]) & mask;
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = group;
+            }
+        }
+
+        GroupTable mergeFrom(GroupTable other) {
+            for (int group = 0; group < other.size; group++) {
+                int base = slotFor(other.keys[group]);
+                int otherBase = group * stride;
+                accumulators[base] += other.accumulators[otherBase];
+                for (int m = 0; m < measureCount; m++) {
+                    int offset = 1 + m * 3;
+                    accumulators[base + offset] += other.accumulators[otherBase + offset];
+                    accumulators[base + offset + 1] = Math.min(accumulators[base + offset + 1], other.accumulators[otherBase + offset + 1]);
+                    accumulators[base + offset + 2] = Math.max(accumulators[base + offset + 2], other.accumulators[otherBase + offset + 2]);
+                }
+            }
+            return this;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
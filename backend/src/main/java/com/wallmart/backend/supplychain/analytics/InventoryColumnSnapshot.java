@@ -0,0 +1,181 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable column-oriented copy of the inventory events. String columns are
+ * dictionary-encoded to int codes and numeric columns are primitive arrays, so
+ * analytics can scan millions of rows in tight loops without touching entities.
+ */
+public class InventoryColumnSnapshot {
+
+    public static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final int rowCount;
+    private final Map<InventoryDimension, DictionaryColumn> dimensions = new EnumMap<>(InventoryDimension.class);
+    private final Map<InventoryMeasure, double[]> measures = new ConcurrentHashMap<>();
+    private volatile SkuIndex skuIndex;
+
+    final int[] epochDay;
+    final int[] inventoryLevel;
+    final int[] unitsSold;
+    final int[] unitsOrdered;
+    final double[] demandForecast;
+    final double[] price;
+    final double[] discount;
+    final double[] competitorPricing;
+
+    private InventoryColumnSnapshot(List<InventoryEvent> events) {
+        rowCount = events.size();
+        epochDay = new int[rowCount];
+        inventoryLevel = new int[rowCount];
+        unitsSold = new int[rowCount];
+        unitsOrdered = new int[rowCount];
+        demandForecast = new double[rowCount];
+        price = new double[rowCount];
+        discount = new double[rowCount];
+        competitorPricing = new double[rowCount];
+
+        for (InventoryDimension dimension : InventoryDimension.values()) {
+            dimensions.put(dimension, DictionaryColumn.encode(events, dimension));
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            InventoryEvent event = events.get(i);
+            epochDay[i] = event.getTimestamp() != null ? (int) event.getTimestamp().toLocalDate().toEpochDay() : NO_DAY;
+            inventoryLevel[i] = event.getInventoryLevel();
+            unitsSold[i] = event.getUnitsSold();
+            unitsOrdered[i] = event.getUnitsOrdered();
+            demandForecast[i] = event.getDemandForecast();
+            price[i] = event.getPrice();
+            discount[i] = event.getDiscount();
+            competitorPricing[i] = event.getCompetitorPricing();
+        }
+    }
+
+    public static InventoryColumnSnapshot of(List<InventoryEvent> events) {
+        return new InventoryColumnSnapshot(events);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public DictionaryColumn dimension(InventoryDimension dimension) {
+        return dimensions.get(dimension);
+    }
+
+    /**
+     * Values of a measure per row; derived measures are computed once and reused
+     */
+    public double[] measure(InventoryMeasure measure) {
+        return measures.computeIfAbsent(measure, m -> m.compute(this));
+    }
+
+    /**
+     * Rows grouped by (store, product, supplier), built on first use
+     */
+    public SkuIndex skuIndex() {
+        SkuIndex index = skuIndex;
+        if (index == null) {
+            synchronized (this) {
+                if (skuIndex == null) {
+                    skuIndex = SkuIndex.build(this);
+                }
+                index = skuIndex;
+            }
+        }
+        return index;
+    }
+
+    public int[] getEpochDay() {
+        return epochDay;
+    }
+
+    public int[] getInventoryLevel() {
+        return inventoryLevel;
+    }
+
+    public int[] getUnitsSold() {
+        return unitsSold;
+    }
+
+    public int[] getUnitsOrdered() {
+        return unitsOrdered;
+    }
+
+    public double[] getDemandForecast() {
+        return demandForecast;
+    }
+
+    public double[] getPrice() {
+        return price;
+    }
+
+    public double[] getDiscount() {
+        return discount;
+    }
+
+    /**
+     * A dictionary-encoded string column: one int code per row plus the distinct values
+     */
+    public static class DictionaryColumn {
+
+        private final int[] codes;
+        private final String[] values;
+        private final Map<String, Integer> index;
+
+        private DictionaryColumn(int[] codes, String[] values, Map<String, Integer> index) {
+            this.codes = codes;
+            this.values = values;
+            this.index = index;
+        }
+
+        static DictionaryColumn encode(List<InventoryEvent> events, InventoryDimension dimension) {
+            int[] codes = new int[events.size()];
+            Map<String, Integer> index = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < codes.length; i++) {
+                String value = dimension.valueOf(events.get(i));
+                if (value == null) {
+                    value = "Unknown";
+                }
+                Integer code = index.get(value);
+                if (code == null) {
+                    code = values.size();
+                    index.put(value, code);
+                    values.add(value);
+                }
+                codes[i] = code;
+            }
+            return new DictionaryColumn(codes, values.toArray(new String[0]), index);
+        }
+
+        public int[] getCodes() {
+            return codes;
+        }
+
+        public int cardinality() {
+            return values.length;
+        }
+
+        public String value(int code) {
+            return values[code];
+        }
+
+        /**
+         * @return the code for a value, or -1 if it does not occur in the column
+         */
+        public int code(String value) {
+            Integer code = index.get(value);
+            return code != null ? code : -1;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.util.function.Function;
+
+/**
+ * String columns of {@link InventoryEvent} that analytics can group and filter by.
+ * Each is dictionary-encoded in {@link InventoryColumnSnapshot}.
+ */
+public enum InventoryDimension {
+    STORE("storeId", InventoryEvent::getStoreId),
+    PRODUCT("productId", InventoryEvent::getProductId),
+    CATEGORY("category", InventoryEvent::getCategory),
+    SUPPLIER("supplier", InventoryEvent::getSupplier),
+    REGION("location", InventoryEvent::getLocation),
+    STATUS("status", InventoryEvent::getStatus),
+    WEATHER("weatherCondition", InventoryEvent::getWeatherCondition),
+    PROMOTION("holidayOrPromotion", InventoryEvent::getHolidayOrPromotion),
+    SEASONALITY("seasonality", InventoryEvent::getSeasonality);
+
+    private final String fieldName;
+    private final Function<InventoryEvent, String> accessor;
+
+    InventoryDimension(String fieldName, Function<InventoryEvent, String> accessor) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    String valueOf(InventoryEvent event) {
+        return accessor.apply(event);
+    }
+
+    /**
+     * Resolve a dimension from its entity field name ("storeId", "weatherCondition"),
+     * enum name ("STORE") or "region" as an alias for location
+     */
+    public static InventoryDimension fromName(String name) {
+        for (InventoryDimension dimension : values()) {
+            if (dimension.fieldName.equalsIgnoreCase(name) || dimension.name().equalsIgnoreCase(name)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dimension: " + name);
+    }
+}
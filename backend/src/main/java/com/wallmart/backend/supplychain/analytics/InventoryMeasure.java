@@ -0,0 +1,76 @@
+package com.wallmart.backend.supplychain.analytics;
+
+/**
+ * Numeric values that analytics can aggregate, including derived ones such as
+ * inventory value (price * inventoryLevel).
+ */
+public enum InventoryMeasure {
+    INVENTORY_LEVEL("inventoryLevel"),
+    UNITS_SOLD("unitsSold"),
+    UNITS_ORDERED("unitsOrdered"),
+    DEMAND_FORECAST("demandForecast"),
+    PRICE("price"),
+    DISCOUNT("discount"),
+    COMPETITOR_PRICING("competitorPricing"),
+    INVENTORY_VALUE("inventoryValue"),   // price * inventoryLevel
+    REVENUE("revenue"),                  // price * unitsSold
+    FORECAST_REVENUE("forecastRevenue"); // price * demandForecast
+
+    private final String fieldName;
+
+    InventoryMeasure(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Materialize this measure as one value per snapshot row
+     */
+    double[] compute(InventoryColumnSnapshot snapshot) {
+        int rows = snapshot.getRowCount();
+        double[] values = new double[rows];
+        switch (this) {
+            case INVENTORY_LEVEL -> copy(snapshot.inventoryLevel, values);
+            case UNITS_SOLD -> copy(snapshot.unitsSold, values);
+            case UNITS_ORDERED -> copy(snapshot.unitsOrdered, values);
+            case DEMAND_FORECAST -> System.arraycopy(snapshot.demandForecast, 0, values, 0, rows);
+            case PRICE -> System.arraycopy(snapshot.price, 0, values, 0, rows);
+            case DISCOUNT -> System.arraycopy(snapshot.discount, 0, values, 0, rows);
+            case COMPETITOR_PRICING -> System.arraycopy(snapshot.competitorPricing, 0, values, 0, rows);
+            case INVENTORY_VALUE -> {
+                for (int i = 0; i < rows; i++) {
+                    values[i] = snapshot.price[i] * snapshot.inventoryLevel[i];
+                }
+            }
+            case REVENUE -> {
+                for (int i = 0; i < rows; i++) {
+                    values[i] = snapshot.price[i] * snapshot.unitsSold[i];
+                }
+            }
+            case FORECAST_REVENUE -> {
+                for (int i = 0; i < rows; i++) {
+                    values[i] = snapshot.price[i] * snapshot.demandForecast[i];
+                }
+            }
+        }
+        return values;
+    }
+
+    private static void copy(int[] source, double[] target) {
+        for (int i = 0; i < source.length; i++) {
+            target[i] = source[i];
+        }
+    }
+
+    public static InventoryMeasure fromName(String name) {
+        for (InventoryMeasure measure : values()) {
+            if (measure.fieldName.equalsIgnoreCase(name) || measure.name().equalsIgnoreCase(name)) {
+                return measure;
+            }
+        }
+        throw new IllegalArgumentException("Unknown measure: " + name);
+    }
+}
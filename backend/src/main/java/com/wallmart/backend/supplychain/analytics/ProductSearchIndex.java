@@ -0,0 +1,450 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search over products (productId, productName, category) with current stock.
+ *
+ * <p>Names are split into lower-case tokens. A sorted token dictionary answers prefix
+ * matches, and a trigram index over the tokens finds candidates for typo-tolerant matches,
+ * which are then checked with a bounded edit distance. Every query term has to match
+ * (exactly, by prefix or within the allowed edits). Products are ranked by match quality,
+ * then by stock. Current stock is the sum over stores of each store's latest inventory level.
+ */
+public class ProductSearchIndex {
+
+    private static final double EXACT = 3.0;
+    private static final double PREFIX = 2.0;
+    private static final double FUZZY = 1.5;
+    private static final double ID_WEIGHT = 1.5;
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double CATEGORY_WEIGHT = 0.5;
+    // Bounds the work for very short prefixes ("p" over 300k product ids)
+    private static final int MAX_PREFIX_TOKENS = 2000;
+    private static final byte KIND_EXACT = 0;
+    private static final byte KIND_PREFIX = 1;
+    private static final byte KIND_FUZZY = 2;
+    private static final String[] MATCH_KINDS = {"exact", "prefix", "fuzzy", null};
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> productsById = new HashMap<>();
+    private final List<Product> products = new ArrayList<>();
+    private final TreeMap<String, Token> tokens = new TreeMap<>();
+    private final List<Token> tokensById = new ArrayList<>();
+    private final Map<String, IntList> tokensByTrigram = new HashMap<>();
+
+    /**
+     * Add a batch of events: new products are indexed, renamed products re-indexed, and
+     * each (store, product) keeps the level of its latest event
+     */
+    public void apply(List<InventoryEvent> events) {
+        lock.writeLock().lock();
+        try {
+            for (InventoryEvent event : events) {
+                if (event.getProductId() == null) {
+                    continue;
+                }
+                Product product = productFor(event);
+                product.updateStock(event.getStoreId(), event.getTimestamp(), event.getInventoryLevel());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tokenCount() {
+        lock.readLock().lock();
+        try {
+            return tokens.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top matches for a free-text query, best first
+     * @param query words to match against product id, name and category
+     * @param limit maximum number of results
+     * @return the matches with their score, stock and how each was matched
+     */
+    public List<Map<String, Object>> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Scratch arrays indexed by product: best score of the current term, running total,
+            // number of terms matched so far and best match kind
+            Scratch scratch = new Scratch(products.size());
+            IntList matched = null;
+            for (int t = 0; t < terms.size(); t++) {
+                IntList touched = new IntList();
+                scoreTerm(terms.get(t), scratch, touched);
+                matched = new IntList();
+                for (int i = 0; i < touched.size; i++) {
+                    int product = touched.values[i];
+                    // A product must match every term: only those that matched all earlier terms move on
+                    if (scratch.termsMatched[product] == t) {
+                        scratch.total[product] += scratch.termBest[product];
+                        scratch.termsMatched[product]++;
+                        matched.add(product);
+                    }
+                    scratch.termBest[product] = 0;
+                }
+                if (matched.size == 0) {
+                    return List.of();
+                }
+            }
+
+            Comparator<Integer> ranking = Comparator
+                .comparingDouble((Integer product) -> scratch.total[product])
+                .thenComparingLong(product -> products.get(product).totalStock)
+                .thenComparing(product -> products.get(product).productId, Comparator.reverseOrder());
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, ranking);
+            for (int i = 0; i < matched.size; i++) {
+                top.add(matched.values[i]);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Map<String, Object>> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int index = top.poll();
+                Product product = products.get(index);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("productId", product.productId);
+                result.put("productName", product.productName);
+                result.put("category", product.category);
+                result.put("currentStock", product.totalStock);
+                result.put("stores", product.stockByStore.size());
+                result.put("score", Math.round(scratch.total[index] * 100.0) / 100.0);
+                result.put("match", MATCH_KINDS[scratch.bestKind[index]]);
+                results.add(result);
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scoreTerm(String term, Scratch scratch, IntList touched) {
+        Token exact = tokens.get(term);
+        if (exact != null) {
+            credit(exact, EXACT, KIND_EXACT, scratch, touched);
+        }
+
+        int expanded = 0;
+        SortedMap<String, Token> prefixed = tokens.subMap(term, term + Character.MAX_VALUE);
+        for (Token token : prefixed.values()) {
+            if (token != exact) {
+                // Shorter completions rank above longer ones
+                double quality = PREFIX - 0.5 * (token.text.length() - term.length()) / token.text.length();
+                credit(token, quality, KIND_PREFIX, scratch, touched);
+            }
+            if (++expanded >= MAX_PREFIX_TOKENS) {
+                break;
+            }
+        }
+
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            for (Token token : fuzzyCandidates(term, maxEdits)) {
+                int distance = editDistance(term, token.text, maxEdits);
+                if (distance > 0 && distance <= maxEdits) {
+                    credit(token, FUZZY - 0.5 * distance, KIND_FUZZY, scratch, touched);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tokens sharing enough trigrams with the term to be within maxEdits (each edit changes at most three)
+     */
+    private List<Token> fuzzyCandidates(String term, int maxEdits) {
+        List<String> grams = trigrams(term);
+        int required = Math.max(1, grams.size() - 3 * maxEdits);
+        int[] shared = new int[tokensById.size()];
+        List<Token> candidates = new ArrayList<>();
+        for (String gram : grams) {
+            IntList postings = tokensByTrigram.get(gram);
+            if (postings == null) {
+                continue;
+            }
+            for (int i = 0; i < postings.size; i++) {
+                int tokenId = postings.values[i];
+                // Added exactly once, when its count reaches the threshold
+                if (++shared[tokenId] == required
+                        && Math.abs(tokensById.get(tokenId).text.length() - term.length()) <= maxEdits) {
+                    candidates.add(tokensById.get(tokenId));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void credit(Token token, double quality, byte kind, Scratch scratch, IntList touched) {
+        credit(token.idPostings, quality * ID_WEIGHT, kind, scratch, touched);
+        credit(token.namePostings, quality * NAME_WEIGHT, kind, scratch, touched);
+        credit(token.categoryPostings, quality * CATEGORY_WEIGHT, kind, scratch, touched);
+    }
+
+    private void credit(IntList postings, double score, byte kind, Scratch scratch, IntList touched) {
+        for (int i = 0; i < postings.size; i++) {
+            int product = postings.values[i];
+            if (scratch.termBest[product] == 0) {
+                touched.add(product);
+            }
+            if (score > scratch.termBest[product]) {
+                scratch.termBest[product] = (float) score;
+            }
+            if (kind < scratch.bestKind[product]) {
+                scratch.bestKind[product] = kind;
+            }
+        }
+    }
+
+    private Product productFor(InventoryEvent event) {
+        Integer index = productsById.get(event.getProductId());
+        Product product;
+        if (index == null) {
+            product = new Product(products.size(), event.getProductId());
+            productsById.put(product.productId, product.index);
+            products.add(product);
+        } else {
+            product = products.get(index);
+        }
+
+        String name = event.getProductName() != null ? event.getProductName() : "";
+        String category = event.getCategory() != null ? event.getCategory() : "";
+        if (!name.equals(product.productName) || !category.equals(product.category)) {
+            reindex(product, name, category);
+        }
+        return product;
+    }
+
+    private void reindex(Product product, String name, String category) {
+        for (Token token : product.tokens) {
+            token.idPostings.remove(product.index);
+            token.namePostings.remove(product.index);
+            token.categoryPostings.remove(product.index);
+        }
+        product.tokens.clear();
+        product.productName = name;
+        product.category = category;
+
+        for (String text : new LinkedHashSet<>(tokenize(product.productId))) {
+            index(product, token(text), token -> token.idPostings);
+        }
+        for (String text : new LinkedHashSet<>(tokenize(name))) {
+            index(product, token(text), token -> token.namePostings);
+        }
+        for (String text : new LinkedHashSet<>(tokenize(category))) {
+            index(product, token(text), token -> token.categoryPostings);
+        }
+    }
+
+    private void index(Product product, Token token, Function<Token, IntList> field) {
+        field.apply(token).add(product.index);
+        if (!product.tokens.contains(token)) {
+            product.tokens.add(token);
+        }
+    }
+
+    private Token token(String text) {
+        Token token = tokens.get(text);
+        if (token == null) {
+            token = new Token(tokensById.size(), text);
+            tokens.put(text, token);
+            tokensById.add(token);
+            for (String gram : trigrams(text)) {
+                tokensByTrigram.computeIfAbsent(gram, g -> new IntList()).add(token.id);
+            }
+        }
+        return token;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String part : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!part.isEmpty()) {
+                terms.add(part);
+            }
+        }
+        return terms;
+    }
+
+    private static List<String> trigrams(String text) {
+        String padded = "$" + text + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * Levenshtein distance, or maxEdits + 1 as soon as it is certain to exceed maxEdits
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Token {
+
+        private final int id;
+        private final String text;
+        // Products having this token in their id, name or category
+        private final IntList idPostings = new IntList();
+        private final IntList namePostings = new IntList();
+        private final IntList categoryPostings = new IntList();
+
+        private Token(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private static final class Product {
+
+        private final int index;
+        private final String productId;
+        private String productName;
+        private String category;
+        private final List<Token> tokens = new ArrayList<>(6);
+        private final Map<String, StoreStock> stockByStore = new HashMap<>(4);
+        private long totalStock;
+
+        private Product(int index, String productId) {
+            this.index = index;
+            this.productId = productId;
+        }
+
+        private void updateStock(String storeId, LocalDateTime timestamp, int level) {
+            StoreStock stock = stockByStore.get(storeId);
+            if (stock == null) {
+                stockByStore.put(storeId, new StoreStock(timestamp, level));
+                totalStock += level;
+            } else if (stock.timestamp == null || (timestamp != null && !timestamp.isBefore(stock.timestamp))) {
+                totalStock += level - stock.level;
+                stock.timestamp = timestamp;
+                stock.level = level;
+            }
+        }
+    }
+
+    /**
+     * Per-query working arrays, one slot per product
+     */
+    private static final class Scratch {
+
+        private final float[] termBest;
+        private final float[] total;
+        private final int[] termsMatched;
+        private final byte[] bestKind;
+
+        private Scratch(int products) {
+            termBest = new float[products];
+            total = new float[products];
+            termsMatched = new int[products];
+            bestKind = new byte[products];
+            Arrays.fill(bestKind, (byte) (MATCH_KINDS.length - 1));
+        }
+    }
+
+    private static final class StoreStock {
+
+        private LocalDateTime timestamp;
+        private int level;
+
+        private StoreStock(LocalDateTime timestamp, int level) {
+            this.timestamp = timestamp;
+            this.level = level;
+        }
+    }
+
+    /**
+     * Growable int array for posting lists, avoiding a boxed Integer per entry
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
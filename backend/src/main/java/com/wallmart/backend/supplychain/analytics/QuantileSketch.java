@@ -0,0 +1,192 @@
+package com.wallmart.backend.supplychain.analytics;
+
+/**
+ * Mergeable quantile sketch with relative-error guarantees (DDSketch-style).
+ * Values are counted in logarithmic buckets so any quantile is within 1% of the
+ * true value. The number of buckets is capped; once the cap is hit the smallest
+ * magnitudes are folded together, so memory stays constant however many values
+ * are added.
+ */
+public class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+    private static final int MAX_BUCKETS = 2048;
+
+    private final double gamma = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private final double logGamma = Math.log(gamma);
+    private final BucketStore positive = new BucketStore();
+    private final BucketStore negative = new BucketStore();
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE_VALUE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE_VALUE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        QuantileSketch source = other.copy(); // Copy first so the two locks are never held together
+        synchronized (this) {
+            source.positive.forEach(positive::add);
+            source.negative.forEach(negative::add);
+            zeroCount += source.zeroCount;
+            count += source.count;
+            sum += source.sum;
+            min = Math.min(min, source.min);
+            max = Math.max(max, source.max);
+        }
+    }
+
+    /**
+     * Estimate the value at quantile q (0.0 to 1.0)
+     * @return the estimate, or NaN if the sketch is empty
+     */
+    public synchronized double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0.0, Math.min(1.0, q)) * (count - 1));
+
+        long seen = 0;
+        // Most negative values first: highest magnitude index of the negative store
+        for (int i = negative.maxIndex; negative.counts != null && i >= negative.minIndex; i--) {
+            seen += negative.get(i);
+            if (seen > rank) {
+                return clamp(-value(i));
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0.0;
+        }
+        for (int i = positive.minIndex; positive.counts != null && i <= positive.maxIndex; i++) {
+            seen += positive.get(i);
+            if (seen > rank) {
+                return clamp(value(i));
+            }
+        }
+        return max;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public synchronized double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public synchronized double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public synchronized QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        positive.forEach(copy.positive::add);
+        negative.forEach(copy.negative::add);
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2.0 * Math.pow(gamma, index) / (gamma + 1.0);
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Dense bucket counts for a contiguous index range that grows on demand
+     */
+    private static final class BucketStore {
+
+        private long[] counts;
+        private int offset;
+        private int minIndex;
+        private int maxIndex;
+
+        void add(int index, long n) {
+            if (counts == null) {
+                counts = new long[64];
+                offset = index - 32;
+                minIndex = index;
+                maxIndex = index;
+            } else if (index < offset || index >= offset + counts.length) {
+                extendRange(Math.min(index, minIndex), Math.max(index, maxIndex));
+            }
+            if (index < offset) {
+                index = minIndex; // Below the collapsed range: count it in the lowest bucket
+            }
+            counts[index - offset] += n;
+            minIndex = Math.min(minIndex, index);
+            maxIndex = Math.max(maxIndex, index);
+        }
+
+        long get(int index) {
+            return counts[index - offset];
+        }
+
+        void forEach(BucketConsumer consumer) {
+            if (counts == null) {
+                return;
+            }
+            for (int i = minIndex; i <= maxIndex; i++) {
+                long n = counts[i - offset];
+                if (n > 0) {
+                    consumer.accept(i, n);
+                }
+            }
+        }
+
+        private void extendRange(int newMin, int newMax) {
+            if (newMax - newMin + 1 > MAX_BUCKETS) {
+                newMin = newMax - MAX_BUCKETS + 1; // Fold the smallest magnitudes into one bucket
+            }
+            int span = newMax - newMin + 1;
+            int length = Math.min(MAX_BUCKETS, Math.max(span, counts.length * 2));
+            int newOffset = newMin - (length - span) / 2;
+
+            long[] newCounts = new long[length];
+            for (int i = minIndex; i <= maxIndex; i++) {
+                newCounts[Math.max(i, newMin) - newOffset] += counts[i - offset];
+            }
+            counts = newCounts;
+            offset = newOffset;
+            minIndex = Math.max(minIndex, newMin);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BucketConsumer {
+        void accept(int index, long count);
+    }
+}
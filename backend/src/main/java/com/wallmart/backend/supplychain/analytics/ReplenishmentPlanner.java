@@ -0,0 +1,199 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes reorder point, safety stock and suggested order quantity for every SKU.
+ * SKU ranges are split recursively across a fork-join pool; each leaf is a tight
+ * loop over the snapshot's primitive columns.
+ *
+ * <pre>
+ * dailyDemand   = mean(unitsSold), blended 50/50 with the latest demandForecast when present
+ * safetyStock   = z * stddev(unitsSold) * sqrt(leadTimeDays)
+ * reorderPoint  = dailyDemand * leadTimeDays + safetyStock
+ * orderUpTo     = dailyDemand * (leadTimeDays + reviewPeriodDays) + safetyStock
+ * orderQuantity = orderUpTo - inventory when inventory &lt;= reorderPoint, at least the usual order size
+ * </pre>
+ */
+public final class ReplenishmentPlanner {
+
+    private static final int LEAF_SKUS = 2048;
+
+    private final double leadTimeDays;
+    private final double reviewPeriodDays;
+    private final double serviceLevelZ;
+
+    public ReplenishmentPlanner(double leadTimeDays, double reviewPeriodDays, double serviceLevelZ) {
+        this.leadTimeDays = leadTimeDays;
+        this.reviewPeriodDays = reviewPeriodDays;
+        this.serviceLevelZ = serviceLevelZ;
+    }
+
+    public Plan plan(InventoryColumnSnapshot snapshot, ForkJoinPool pool) {
+        SkuIndex skus = snapshot.skuIndex();
+        Plan plan = new Plan(snapshot, skus);
+        pool.invoke(new PlanTask(snapshot, skus, plan, 0, skus.size()));
+        return plan;
+    }
+
+    private final class PlanTask extends RecursiveAction {
+
+        private final InventoryColumnSnapshot snapshot;
+        private final SkuIndex skus;
+        private final Plan plan;
+        private final int from;
+        private final int to;
+
+        PlanTask(InventoryColumnSnapshot snapshot, SkuIndex skus, Plan plan, int from, int to) {
+            this.snapshot = snapshot;
+            this.skus = skus;
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SKUS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PlanTask(snapshot, skus, plan, from, mid), new PlanTask(snapshot, skus, plan, mid, to));
+                return;
+            }
+
+            int[] unitsSold = snapshot.unitsSold;
+            int[] unitsOrdered = snapshot.unitsOrdered;
+            int[] inventoryLevel = snapshot.inventoryLevel;
+            double[] demandForecast = snapshot.demandForecast;
+            double[] price = snapshot.price;
+            double[] discount = snapshot.discount;
+            double sqrtLeadTime = Math.sqrt(leadTimeDays);
+
+            for (int sku = from; sku < to; sku++) {
+                // Welford mean/variance of daily units sold, plus mean order size
+                long n = 0;
+                double mean = 0.0;
+                double m2 = 0.0;
+                double orderedSum = 0.0;
+                for (int offset = skus.firstRowOffset(sku); offset < skus.endRowOffset(sku); offset++) {
+                    int row = skus.row(offset);
+                    n++;
+                    double delta = unitsSold[row] - mean;
+                    mean += delta / n;
+                    m2 += delta * (unitsSold[row] - mean);
+                    orderedSum += unitsOrdered[row];
+                }
+                double stdDev = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+
+                int latest = skus.latestRow(sku);
+                double forecast = demandForecast[latest];
+                double dailyDemand = forecast > 0 ? 0.5 * mean + 0.5 * forecast : mean;
+                double safetyStock = serviceLevelZ * stdDev * sqrtLeadTime;
+                double reorderPoint = dailyDemand * leadTimeDays + safetyStock;
+                double orderUpTo = dailyDemand * (leadTimeDays + reviewPeriodDays) + safetyStock;
+                int inventory = inventoryLevel[latest];
+
+                double quantity = 0.0;
+                if (inventory <= reorderPoint) {
+                    quantity = Math.max(orderUpTo - inventory, n > 0 ? orderedSum / n : 0.0);
+                }
+                long orderQuantity = (long) Math.ceil(quantity);
+                double unitCost = price[latest] * (1.0 - discount[latest] / 100.0);
+
+                plan.dailyDemand[sku] = dailyDemand;
+                plan.demandStdDev[sku] = stdDev;
+                plan.safetyStock[sku] = safetyStock;
+                plan.reorderPoint[sku] = reorderPoint;
+                plan.currentInventory[sku] = inventory;
+                plan.orderQuantity[sku] = orderQuantity;
+                plan.orderValue[sku] = orderQuantity * unitCost;
+            }
+        }
+    }
+
+    /**
+     * The plan for every SKU, as parallel arrays indexed by SKU id
+     */
+    public static final class Plan {
+
+        private final InventoryColumnSnapshot snapshot;
+        private final SkuIndex skus;
+        final double[] dailyDemand;
+        final double[] demandStdDev;
+        final double[] safetyStock;
+        final double[] reorderPoint;
+        final int[] currentInventory;
+        final long[] orderQuantity;
+        final double[] orderValue;
+
+        Plan(InventoryColumnSnapshot snapshot, SkuIndex skus) {
+            this.snapshot = snapshot;
+            this.skus = skus;
+            int size = skus.size();
+            dailyDemand = new double[size];
+            demandStdDev = new double[size];
+            safetyStock = new double[size];
+            reorderPoint = new double[size];
+            currentInventory = new int[size];
+            orderQuantity = new long[size];
+            orderValue = new double[size];
+        }
+
+        public int size() {
+            return skus.size();
+        }
+
+        public InventoryColumnSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public String storeId(int sku) {
+            return snapshot.dimension(InventoryDimension.STORE).value(skus.storeCode(sku));
+        }
+
+        public String productId(int sku) {
+            return snapshot.dimension(InventoryDimension.PRODUCT).value(skus.productCode(sku));
+        }
+
+        public String supplier(int sku) {
+            return snapshot.dimension(InventoryDimension.SUPPLIER).value(skus.supplierCode(sku));
+        }
+
+        public double dailyDemand(int sku) {
+            return dailyDemand[sku];
+        }
+
+        public double demandStdDev(int sku) {
+            return demandStdDev[sku];
+        }
+
+        public double safetyStock(int sku) {
+            return safetyStock[sku];
+        }
+
+        public double reorderPoint(int sku) {
+            return reorderPoint[sku];
+        }
+
+        public int currentInventory(int sku) {
+            return currentInventory[sku];
+        }
+
+        public long orderQuantity(int sku) {
+            return orderQuantity[sku];
+        }
+
+        public double orderValue(int sku) {
+            return orderValue[sku];
+        }
+
+        /**
+         * @return the SKU id for a store and product, or -1 if the plan has none
+         */
+        public int find(String storeId, String productId) {
+            return skus.find(
+                snapshot.dimension(InventoryDimension.STORE).code(storeId),
+                snapshot.dimension(InventoryDimension.PRODUCT).code(productId));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.wallmart.backend.supplychain.analytics;
+
+/**
+ * Running totals for one time bucket of one store, product or category
+ */
+public class RollupBucket {
+
+    private long rows;
+    private long unitsSold;
+    private long unitsOrdered;
+    private long inventoryLevelSum;
+    private double revenue;
+
+    public synchronized void add(int inventoryLevel, int unitsSold, int unitsOrdered, double price) {
+        this.rows++;
+        this.unitsSold += unitsSold;
+        this.unitsOrdered += unitsOrdered;
+        this.inventoryLevelSum += inventoryLevel;
+        this.revenue += unitsSold * price;
+    }
+
+    /**
+     * Add the totals of rows that were already summarised, e.g. a compacted day
+     */
+    public synchronized void addTotals(long rows, long unitsSold, long unitsOrdered, long inventoryLevelSum, double revenue) {
+        this.rows += rows;
+        this.unitsSold += unitsSold;
+        this.unitsOrdered += unitsOrdered;
+        this.inventoryLevelSum += inventoryLevelSum;
+        this.revenue += revenue;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    public synchronized long getUnitsSold() {
+        return unitsSold;
+    }
+
+    public synchronized long getUnitsOrdered() {
+        return unitsOrdered;
+    }
+
+    public synchronized double getAverageInventoryLevel() {
+        return rows == 0 ? 0.0 : (double) inventoryLevelSum / rows;
+    }
+
+    public synchronized double getRevenue() {
+        return revenue;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time bucket sizes for pre-aggregated rollups. Buckets are identified by the
+ * epoch day of their first day (weeks start on Monday).
+ */
+public enum RollupGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public int bucketStart(LocalDate date) {
+        LocalDate start = switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+        return (int) start.toEpochDay();
+    }
+
+    public static RollupGranularity fromName(String name) {
+        for (RollupGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(name)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown granularity: " + name);
+    }
+}
@@ -0,0 +1,136 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Groups snapshot rows by SKU, where a SKU is a (store, product, supplier) combination.
+ * Rows are laid out contiguously per SKU (offsets/rows, compressed-sparse-row style) so
+ * per-SKU computations are sequential scans over primitive arrays.
+ */
+public final class SkuIndex {
+
+    private final int skuCount;
+    private final int[] storeCode;
+    private final int[] productCode;
+    private final int[] supplierCode;
+    private final int[] categoryCode;
+    private final int[] latestRow;
+    private final int[] offsets;
+    private final int[] rows;
+    private final Map<Long, Integer> byStoreProduct = new HashMap<>();
+    private final long productCardinality;
+
+    private SkuIndex(InventoryColumnSnapshot snapshot) {
+        int rowCount = snapshot.getRowCount();
+        int[] stores = snapshot.dimension(InventoryDimension.STORE).getCodes();
+        int[] products = snapshot.dimension(InventoryDimension.PRODUCT).getCodes();
+        int[] suppliers = snapshot.dimension(InventoryDimension.SUPPLIER).getCodes();
+        int[] categories = snapshot.dimension(InventoryDimension.CATEGORY).getCodes();
+        int[] days = snapshot.getEpochDay();
+        productCardinality = Math.max(1, snapshot.dimension(InventoryDimension.PRODUCT).cardinality());
+        long supplierCardinality = Math.max(1, snapshot.dimension(InventoryDimension.SUPPLIER).cardinality());
+
+        // Assign dense SKU ids in first-seen order
+        Map<Long, Integer> ids = new HashMap<>();
+        int[] skuOfRow = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            long key = (stores[row] * productCardinality + products[row]) * supplierCardinality + suppliers[row];
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = ids.size();
+                ids.put(key, id);
+            }
+            skuOfRow[row] = id;
+        }
+
+        skuCount = ids.size();
+        storeCode = new int[skuCount];
+        productCode = new int[skuCount];
+        supplierCode = new int[skuCount];
+        categoryCode = new int[skuCount];
+        latestRow = new int[skuCount];
+        offsets = new int[skuCount + 1];
+        rows = new int[rowCount];
+
+        // Counting sort of rows by SKU
+        for (int row = 0; row < rowCount; row++) {
+            offsets[skuOfRow[row] + 1]++;
+        }
+        for (int sku = 0; sku < skuCount; sku++) {
+            offsets[sku + 1] += offsets[sku];
+        }
+        int[] next = offsets.clone();
+        Arrays.fill(latestRow, -1);
+        for (int row = 0; row < rowCount; row++) {
+            int sku = skuOfRow[row];
+            rows[next[sku]++] = row;
+            int latest = latestRow[sku];
+            if (latest < 0) {
+                storeCode[sku] = stores[row];
+                productCode[sku] = products[row];
+                supplierCode[sku] = suppliers[row];
+                categoryCode[sku] = categories[row];
+                byStoreProduct.putIfAbsent(stores[row] * productCardinality + products[row], sku);
+            }
+            if (latest < 0 || days[row] >= days[latest]) {
+                latestRow[sku] = row;
+            }
+        }
+    }
+
+    public static SkuIndex build(InventoryColumnSnapshot snapshot) {
+        return new SkuIndex(snapshot);
+    }
+
+    public int size() {
+        return skuCount;
+    }
+
+    public int storeCode(int sku) {
+        return storeCode[sku];
+    }
+
+    public int productCode(int sku) {
+        return productCode[sku];
+    }
+
+    public int supplierCode(int sku) {
+        return supplierCode[sku];
+    }
+
+    public int categoryCode(int sku) {
+        return categoryCode[sku];
+    }
+
+    /**
+     * Row with the most recent date for this SKU (its current state)
+     */
+    public int latestRow(int sku) {
+        return latestRow[sku];
+    }
+
+    public int firstRowOffset(int sku) {
+        return offsets[sku];
+    }
+
+    public int endRowOffset(int sku) {
+        return offsets[sku + 1];
+    }
+
+    public int row(int offset) {
+        return rows[offset];
+    }
+
+    /**
+     * @return a SKU for the store and product codes (first supplier seen), or -1
+     */
+    public int find(int store, int product) {
+        if (store < 0 || product < 0) {
+            return -1;
+        }
+        Integer sku = byStoreProduct.get(store * productCardinality + product);
+        return sku != null ? sku : -1;
+    }
+}
@@ -0,0 +1,229 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import java.util.stream.IntStream;
+
+/**
+ * Day-by-day projection of every SKU's stock under a what-if scenario. The per-SKU
+ * starting state is extracted once into primitive arrays ({@link Baseline}); each run
+ * is a tight loop over SKU ranges split across the fork-join pool.
+ *
+ * <p>Each simulated day a SKU receives its usual order inflow (once the supplier lead
+ * time has passed) and sells up to its scenario-adjusted daily demand. Demand that
+ * cannot be met is lost and counted as revenue at risk.
+ */
+public final class StockSimulation {
+
+    private static final int MIN_SKUS_PER_PARTITION = 4 * 1024;
+
+    private StockSimulation() {
+    }
+
+    /**
+     * Run a scenario over the baseline
+     * @param categoryMultiplier demand multiplier per category code
+     * @param supplierDelayDays extra lead time per supplier code
+     * @param includedStores stores to simulate per store code, or null for all
+     */
+    public static Result run(Baseline baseline, int horizonDays, int leadTimeDays,
+                             double[] categoryMultiplier, int[] supplierDelayDays, boolean[] includedStores) {
+        int skuCount = baseline.size();
+        Result result = new Result(skuCount, horizonDays);
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4,
+            skuCount / MIN_SKUS_PER_PARTITION));
+        int partitionSize = (skuCount + partitions - 1) / partitions;
+
+        IntStream.range(0, partitions)
+            .parallel()
+            .forEach(p -> simulateRange(baseline, result, p * partitionSize, Math.min(skuCount, (p + 1) * partitionSize),
+                horizonDays, leadTimeDays, categoryMultiplier, supplierDelayDays, includedStores));
+        result.summarize();
+        return result;
+    }
+
+    private static void simulateRange(Baseline baseline, Result result, int from, int to, int horizonDays, int leadTimeDays,
+                                      double[] categoryMultiplier, int[] supplierDelayDays, boolean[] includedStores) {
+        for (int sku = from; sku < to; sku++) {
+            if (includedStores != null && !includedStores[baseline.storeCode[sku]]) {
+                result.firstStockOutDay[sku] = Result.EXCLUDED;
+                continue;
+            }
+            double demand = baseline.dailyDemand[sku] * categoryMultiplier[baseline.categoryCode[sku]];
+            double inflow = baseline.dailyInflow[sku];
+            int arrivalDay = leadTimeDays + supplierDelayDays[baseline.supplierCode[sku]];
+            double stock = baseline.inventory[sku];
+            double lost = 0.0;
+            int firstStockOut = Result.NO_STOCK_OUT;
+
+            for (int day = 0; day < horizonDays; day++) {
+                if (day >= arrivalDay) {
+                    stock += inflow;
+                }
+                if (stock >= demand) {
+                    stock -= demand;
+                } else {
+                    lost += demand - stock;
+                    stock = 0.0;
+                    if (firstStockOut == Result.NO_STOCK_OUT) {
+                        firstStockOut = day;
+                    }
+                }
+            }
+
+            result.firstStockOutDay[sku] = firstStockOut;
+            result.lostUnits[sku] = lost;
+            result.revenueAtRisk[sku] = lost * baseline.unitPrice[sku];
+            result.endingStock[sku] = stock;
+        }
+    }
+
+    /**
+     * Starting state for every SKU of a snapshot
+     */
+    public static final class Baseline {
+
+        private final InventoryColumnSnapshot snapshot;
+        private final SkuIndex skus;
+        final int[] storeCode;
+        final int[] categoryCode;
+        final int[] supplierCode;
+        final double[] inventory;
+        final double[] dailyDemand;
+        final double[] dailyInflow;
+        final double[] unitPrice;
+
+        private Baseline(InventoryColumnSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.skus = snapshot.skuIndex();
+            int skuCount = skus.size();
+            storeCode = new int[skuCount];
+            categoryCode = new int[skuCount];
+            supplierCode = new int[skuCount];
+            inventory = new double[skuCount];
+            dailyDemand = new double[skuCount];
+            dailyInflow = new double[skuCount];
+            unitPrice = new double[skuCount];
+
+            int[] unitsSold = snapshot.unitsSold;
+            int[] unitsOrdered = snapshot.unitsOrdered;
+            for (int sku = 0; sku < skuCount; sku++) {
+                long sold = 0;
+                long ordered = 0;
+                int rowCount = skus.endRowOffset(sku) - skus.firstRowOffset(sku);
+                for (int offset = skus.firstRowOffset(sku); offset < skus.endRowOffset(sku); offset++) {
+                    int row = skus.row(offset);
+                    sold += unitsSold[row];
+                    ordered += unitsOrdered[row];
+                }
+                int latest = skus.latestRow(sku);
+                double forecast = snapshot.demandForecast[latest];
+
+                storeCode[sku] = skus.storeCode(sku);
+                categoryCode[sku] = skus.categoryCode(sku);
+                supplierCode[sku] = skus.supplierCode(sku);
+                inventory[sku] = snapshot.inventoryLevel[latest];
+                // Forecast drives projected demand; history is the fallback when there is none
+                dailyDemand[sku] = forecast > 0 ? forecast : (double) sold / rowCount;
+                dailyInflow[sku] = (double) ordered / rowCount;
+                unitPrice[sku] = snapshot.price[latest] * (1.0 - snapshot.discount[latest] / 100.0);
+            }
+        }
+
+        public static Baseline of(InventoryColumnSnapshot snapshot) {
+            return new Baseline(snapshot);
+        }
+
+        public int size() {
+            return skus.size();
+        }
+
+        public InventoryColumnSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public SkuIndex getSkuIndex() {
+            return skus;
+        }
+    }
+
+    /**
+     * Per-SKU outcomes of one run plus catalogue-wide totals
+     */
+    public static final class Result {
+
+        public static final int NO_STOCK_OUT = -1;
+        public static final int EXCLUDED = -2;
+
+        final int[] firstStockOutDay;
+        final double[] lostUnits;
+        final double[] revenueAtRisk;
+        final double[] endingStock;
+        private final int[] newStockOutsByDay;
+        private int simulatedSkus;
+        private int stockOutSkus;
+        private double totalLostUnits;
+        private double totalRevenueAtRisk;
+
+        private Result(int skuCount, int horizonDays) {
+            firstStockOutDay = new int[skuCount];
+            lostUnits = new double[skuCount];
+            revenueAtRisk = new double[skuCount];
+            endingStock = new double[skuCount];
+            newStockOutsByDay = new int[horizonDays];
+        }
+
+        private void summarize() {
+            for (int sku = 0; sku < firstStockOutDay.length; sku++) {
+                int day = firstStockOutDay[sku];
+                if (day == EXCLUDED) {
+                    continue;
+                }
+                simulatedSkus++;
+                if (day >= 0) {
+                    stockOutSkus++;
+                    newStockOutsByDay[day]++;
+                }
+                totalLostUnits += lostUnits[sku];
+                totalRevenueAtRisk += revenueAtRisk[sku];
+            }
+        }
+
+        public int getSimulatedSkus() {
+            return simulatedSkus;
+        }
+
+        public int getStockOutSkus() {
+            return stockOutSkus;
+        }
+
+        public double getTotalLostUnits() {
+            return totalLostUnits;
+        }
+
+        public double getTotalRevenueAtRisk() {
+            return totalRevenueAtRisk;
+        }
+
+        /**
+         * Number of SKUs whose first stock-out falls on each simulated day
+         */
+        public int[] getNewStockOutsByDay() {
+            return newStockOutsByDay;
+        }
+
+        public int firstStockOutDay(int sku) {
+            return firstStockOutDay[sku];
+        }
+
+        public double lostUnits(int sku) {
+            return lostUnits[sku];
+        }
+
+        public double revenueAtRisk(int sku) {
+            return revenueAtRisk[sku];
+        }
+
+        public double endingStock(int sku) {
+            return endingStock[sku];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.wallmart.backend.supplychain.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named concurrency limit for one class of traffic. Callers that cannot get a permit
+ * within the (short) wait are rejected instead of queuing behind other traffic; background
+ * work may instead block in {@link #acquire()}.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final int retryAfterSeconds;
+    private final Semaphore permits;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMs, int retryAfterSeconds) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @return true if a permit was acquired; it must be released with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        boolean acquired;
+        if (maxWaitMs <= 0) {
+            acquired = permits.tryAcquire();
+        } else {
+            try {
+                acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        }
+        if (acquired) {
+            admitted.increment();
+        } else {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * Wait as long as it takes for a permit, for background work that should queue rather
+     * than fail; it must be released with {@link #release()}
+     */
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+        admitted.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Callers currently waiting for a permit (only with bulkhead.max-wait-ms &gt; 0)
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", name);
+        status.put("maxConcurrent", maxConcurrent);
+        status.put("active", getActive());
+        status.put("waiting", getWaiting());
+        status.put("admitted", admitted.sum());
+        status.put("rejected", rejected.sum());
+        status.put("retryAfterSeconds", retryAfterSeconds);
+        return status;
+    }
+}
@@ -0,0 +1,134 @@
+package com.wallmart.backend.supplychain.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Separate concurrency limits for ingest, analytics reads and AI-bound calls, so a burst
+ * of one kind of traffic is rejected with 429 instead of taking every worker thread and
+ * pooled connection from the others. Ingest writes from every source (uploads, the
+ * drop-directory watcher, the Kaggle loader) also share a connection quota, so together
+ * they never hold more than bulkhead.ingest.max-connections pooled connections.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    @Value("${bulkhead.ingest.max-concurrent:2}")
+    private int ingestMaxConcurrent;
+
+    @Value("${bulkhead.ingest.retry-after-seconds:30}")
+    private int ingestRetryAfterSeconds;
+
+    @Value("${bulkhead.ingest.max-connections:4}")
+    private int ingestMaxConnections;
+
+    @Value("${bulkhead.analytics.max-concurrent:32}")
+    private int analyticsMaxConcurrent;
+
+    @Value("${bulkhead.analytics.retry-after-seconds:1}")
+    private int analyticsRetryAfterSeconds;
+
+    @Value("${bulkhead.export.max-concurrent:2}")
+    private int exportMaxConcurrent;
+
+    @Value("${bulkhead.export.retry-after-seconds:30}")
+    private int exportRetryAfterSeconds;
+
+    @Value("${bulkhead.ai.max-concurrent:4}")
+    private int aiMaxConcurrent;
+
+    @Value("${bulkhead.ai.retry-after-seconds:5}")
+    private int aiRetryAfterSeconds;
+
+    @Value("${bulkhead.max-wait-ms:0}")
+    private long maxWaitMs;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Bean
+    public Bulkhead ingestBulkhead() {
+        return new Bulkhead("ingest", ingestMaxConcurrent, maxWaitMs, ingestRetryAfterSeconds);
+    }
+
+    /**
+     * Connections held by ingest writes; callers wait for a permit instead of being rejected
+     */
+    @Bean
+    public Bulkhead ingestConnectionBulkhead() {
+        return new Bulkhead("ingest-connections", ingestMaxConnections, 0, ingestRetryAfterSeconds);
+    }
+
+    @Bean
+    public Bulkhead analyticsBulkhead() {
+        return new Bulkhead("analytics", analyticsMaxConcurrent, maxWaitMs, analyticsRetryAfterSeconds);
+    }
+
+    @Bean
+    public Bulkhead exportBulkhead() {
+        return new Bulkhead("export", exportMaxConcurrent, maxWaitMs, exportRetryAfterSeconds);
+    }
+
+    @Bean
+    public Bulkhead aiBulkhead() {
+        return new Bulkhead("ai", aiMaxConcurrent, maxWaitMs, aiRetryAfterSeconds);
+    }
+
+    /**
+     * In-flight and queued requests per bulkhead (the request queue depth) plus admitted/rejected totals
+     */
+    @Bean
+    public MeterBinder bulkheadMetrics(List<Bulkhead> bulkheads) {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheads) {
+                Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                Gauge.builder("bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                Gauge.builder("bulkhead.max.concurrent", bulkhead, Bulkhead::getMaxConcurrent)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                FunctionCounter.builder("bulkhead.admitted", bulkhead, Bulkhead::getAdmitted)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (ingestMaxConnections >= connectionPoolSize) {
+            logger.warn("Ingest may use {} of {} pooled connections; lower bulkhead.ingest.max-connections",
+                ingestMaxConnections, connectionPoolSize);
+        }
+
+        registry.addInterceptor(new BulkheadInterceptor(ingestBulkhead()))
+            .addPathPatterns("/api/inventory/upload", "/api/inventory/load-kaggle-data", "/api/inventory/download-kaggle",
+                "/api/inventory/compact");
+        registry.addInterceptor(new BulkheadInterceptor(analyticsBulkhead()))
+            .addPathPatterns("/api/analytics/**", "/api/inventory/all", "/api/inventory/events",
+                "/api/inventory/products/search");
+        // Exports stream for minutes; they get their own small limit rather than analytics permits
+        registry.addInterceptor(new BulkheadInterceptor(exportBulkhead()))
+            .addPathPatterns("/api/inventory/export/**");
+        registry.addInterceptor(new BulkheadInterceptor(aiBulkhead()))
+            .addPathPatterns("/api/predict-inventory-status", "/api/predict/**", "/api/health/ai-service");
+    }
+}
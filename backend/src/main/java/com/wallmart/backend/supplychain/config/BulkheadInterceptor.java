@@ -0,0 +1,66 @@
+package com.wallmart.backend.supplychain.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Admits a request only if its bulkhead has a free permit, otherwise answers 429 with
+ * Retry-After right away. For streamed responses the permit is held until the async
+ * dispatch completes, not just until the controller method returns.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    private final Bulkhead bulkhead;
+    private final String permitAttribute;
+
+    public BulkheadInterceptor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        this.permitAttribute = BulkheadInterceptor.class.getName() + "." + bulkhead.getName();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getAttribute(permitAttribute) != null) {
+            return true; // Async re-dispatch of a request that already holds its permit
+        }
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        if (bulkhead.tryAcquire()) {
+            request.setAttribute(permitAttribute, bulkhead);
+            return true;
+        }
+
+        logger.debug("Rejected {} {}: {} bulkhead full", request.getMethod(), request.getRequestURI(), bulkhead.getName());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(bulkhead.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Too many concurrent " + bulkhead.getName()
+            + " requests\",\"retryAfterSeconds\":" + bulkhead.getRetryAfterSeconds() + "}");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return; // Released after the async dispatch instead
+        }
+        Object permit = request.getAttribute(permitAttribute);
+        if (permit != null) {
+            request.removeAttribute(permitAttribute);
+            bulkhead.release();
+        }
+    }
+}
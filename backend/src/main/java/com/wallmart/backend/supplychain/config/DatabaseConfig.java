@@ -1,49 +1,92 @@
-// Temporarily disabled to use H2 database
-/*
 package com.wallmart.backend.supplychain.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Read/write split: writes go to the primary pool (spring.datasource.*), read-only
+ * transactions (findAll, count and other repository reads) to the read replicas.
+ * Only active with datasource.routing.enabled=true; otherwise Spring Boot's single
+ * auto-configured pool is used.
+ */
 @Configuration
-@EnableJpaRepositories(basePackages = "com.wallmart.backend.supplychain.repository")
-@EnableTransactionManagement
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
 public class DatabaseConfig {
 
+    @Value("${datasource.replica.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.maximum-pool-size:20}")
+    private int replicaPoolSize;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:20}")
+    private int primaryPoolSize;
+
+    @Value("${datasource.routing.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${datasource.routing.lag-query:}")
+    private String lagQuery;
+
+    @Value("${datasource.routing.check-interval-ms:2000}")
+    private long checkIntervalMs;
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = pool("primary", properties.determineUrl(), properties.determineUsername(),
+            properties.determinePassword(), properties.determineDriverClassName(), primaryPoolSize);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!url.isBlank()) {
+                replicas.add(pool("replica-" + replicas.size(), url.trim(), replicaUsername, replicaPassword,
+                    properties.determineDriverClassName(), replicaPoolSize));
+            }
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, maxLagMs, lagQuery, checkIntervalMs);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
     @Bean
-    public DataSource dataSource() {
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        // Defer the physical connection until the first statement, when the read-only flag is known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource pool(String name, String url, String username, String password, String driverClassName, int maxPoolSize) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl("jdbc:postgresql://localhost:5432/supplychain_db");
-        config.setUsername("postgres");
-        config.setPassword("password");
-        config.setDriverClassName("org.postgresql.Driver");
-        
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setDriverClassName(driverClassName);
+
         // Connection pool settings for better performance
-        config.setMaximumPoolSize(20);
-        config.setMinimumIdle(5);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setMinimumIdle(Math.min(5, maxPoolSize));
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
-        config.setLeakDetectionThreshold(60000);
-        
-        // PostgreSQL specific optimizations
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("useServerPrepStmts", "true");
-        config.addDataSourceProperty("rewriteBatchedStatements", "true");
-        config.addDataSourceProperty("cacheResultSetMetadata", "true");
-        config.addDataSourceProperty("cacheServerConfiguration", "true");
-        config.addDataSourceProperty("elideSetAutoCommits", "true");
-        config.addDataSourceProperty("maintainTimeStats", "false");
-        
         return new HikariDataSource(config);
     }
 }
-*/ 
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.wallmart.backend.supplychain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to read replicas (round robin) and everything else to the
+ * primary. Replicas are probed periodically with the lag query; one that is unreachable,
+ * lags more than the configured limit or reports no lag is skipped, and reads fall back to
+ * the primary when none is usable. Without a lag query no replica is ever used: answering
+ * a query says nothing about whether a database actually replicates the primary.
+ *
+ * <p>Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the connection is
+ * fetched after the transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final String lagQuery;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private final ScheduledExecutorService monitor;
+
+    /**
+     * @param lagQuery SQL run on a replica that returns its replication lag in milliseconds;
+     *                 if blank, every read stays on the primary
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                      long maxLagMs, String lagQuery, long checkIntervalMs) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery != null && !lagQuery.isBlank() ? lagQuery : null;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaPools.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaPools.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        if (this.lagQuery == null && !replicas.isEmpty()) {
+            logger.warn("datasource.routing.lag-query is not set; the {} read replicas stay out of rotation", replicas.size());
+        }
+
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                replicaReads.increment();
+                return replica.key;
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            if (lagQuery == null) {
+                replica.usable = false;
+                replica.lastError = "No lag query configured";
+                continue;
+            }
+            boolean usable;
+            long lagMs = 0;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(5);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    if (!resultSet.next()) {
+                        throw new IllegalStateException("Lag query returned no row");
+                    }
+                    double lag = resultSet.getDouble(1);
+                    if (resultSet.wasNull()) {
+                        throw new IllegalStateException("Lag query returned null");
+                    }
+                    lagMs = (long) lag;
+                }
+                usable = lagMs <= maxLagMs;
+                replica.lastError = null;
+            } catch (Exception e) {
+                usable = false;
+                replica.lastError = e.getMessage();
+            }
+
+            replica.lagMs = lagMs;
+            if (usable != replica.usable) {
+                if (usable) {
+                    logger.info("Read replica {} is back in rotation (lag {} ms)", replica.key, lagMs);
+                } else {
+                    logger.warn("Read replica {} taken out of rotation: {}", replica.key,
+                        replica.lastError != null ? replica.lastError : "lag " + lagMs + " ms > " + maxLagMs + " ms");
+                }
+            }
+            replica.usable = usable;
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("primary", primary.getJdbcUrl());
+        status.put("maxLagMs", maxLagMs);
+        status.put("replicaReads", replicaReads.sum());
+        status.put("primaryFallbacks", primaryFallbacks.sum());
+        List<Map<String, Object>> replicaStatus = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", replica.key);
+            item.put("url", replica.pool.getJdbcUrl());
+            item.put("usable", replica.usable);
+            item.put("lagMs", replica.lagMs);
+            item.put("lastError", replica.lastError);
+            replicaStatus.add(item);
+        }
+        status.put("replicas", replicaStatus);
+        return status;
+    }
+
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+        primary.close();
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final HikariDataSource pool;
+        private volatile boolean usable;
+        private volatile long lagMs;
+        private volatile String lastError;
+
+        private Replica(String key, HikariDataSource pool) {
+            this.key = key;
+            this.pool = pool;
+        }
+    }
+}
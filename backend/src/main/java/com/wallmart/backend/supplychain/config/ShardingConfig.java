@@ -0,0 +1,61 @@
+package com.wallmart.backend.supplychain.config;
+
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Store-sharded inventory_events: one pool per URL in datasource.shard.urls. Only active
+ * with datasource.sharding.enabled=true; the rest of the schema (inventory_logs) stays on
+ * the spring.datasource database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Value("${datasource.shard.urls:}")
+    private List<String> shardUrls;
+
+    @Value("${datasource.shard.username:${spring.datasource.username:}}")
+    private String shardUsername;
+
+    @Value("${datasource.shard.password:${spring.datasource.password:}}")
+    private String shardPassword;
+
+    @Value("${datasource.shard.driver-class-name:${spring.datasource.driverClassName:org.h2.Driver}}")
+    private String driverClassName;
+
+    @Value("${datasource.shard.maximum-pool-size:10}")
+    private int shardPoolSize;
+
+    @Bean(destroyMethod = "close")
+    public ShardedInventoryRepository shardedInventoryRepository() {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : shardUrls) {
+            if (!url.isBlank()) {
+                pools.add(pool("shard-" + pools.size(), url.trim()));
+            }
+        }
+        return new ShardedInventoryRepository(pools);
+    }
+
+    private HikariDataSource pool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(shardUsername);
+        config.setPassword(shardPassword);
+        config.setDriverClassName(driverClassName);
+        config.setMaximumPoolSize(shardPoolSize);
+        config.setMinimumIdle(Math.min(2, shardPoolSize));
+        config.setConnectionTimeout(30000);
+        return new HikariDataSource(config);
+    }
+}
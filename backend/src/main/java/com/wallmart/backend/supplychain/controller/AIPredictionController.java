@@ -1,11 +1,38 @@
 package com.wallmart.backend.supplychain.controller;
 
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.analytics.RollupGranularity;
+import com.wallmart.backend.supplychain.config.Bulkhead;
+import com.wallmart.backend.supplychain.config.ReadWriteRoutingDataSource;
+import com.wallmart.backend.supplychain.dto.AggregationRequestDTO;
+import com.wallmart.backend.supplychain.dto.InventoryAnomalyDTO;
 import com.wallmart.backend.supplychain.dto.InventoryPredictionDTO;
+import com.wallmart.backend.supplychain.dto.SimulationScenarioDTO;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
 import com.wallmart.backend.supplychain.service.AIPredictionService;
+import com.wallmart.backend.supplychain.service.AnalyticsResponseCache;
+import com.wallmart.backend.supplychain.service.AnomalyDetectionService;
+import com.wallmart.backend.supplychain.service.DatasetGenerationService;
+import com.wallmart.backend.supplychain.service.DemandVelocityService;
+import com.wallmart.backend.supplychain.service.EventRetentionService;
+import com.wallmart.backend.supplychain.service.InventoryAggregationService;
+import com.wallmart.backend.supplychain.service.InventoryDimensionDictionary;
+import com.wallmart.backend.supplychain.service.InventoryProjectionService;
+import com.wallmart.backend.supplychain.service.InventorySketchService;
+import com.wallmart.backend.supplychain.service.ReplenishmentPlanningService;
+import com.wallmart.backend.supplychain.service.StockSimulationService;
+import com.wallmart.backend.supplychain.service.TimeSeriesRollupService;
+import com.wallmart.backend.supplychain.tracing.SlowRequestLog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,51 +44,298 @@ public class AIPredictionController {
     @Autowired
     private AIPredictionService aiPredictionService;
 
+    @Autowired
+    private InventoryProjectionService inventoryProjectionService;
+
+    @Autowired
+    private AnalyticsResponseCache analyticsResponseCache;
+
+    @Autowired
+    private InventorySketchService inventorySketchService;
+
+    @Autowired
+    private InventoryAggregationService inventoryAggregationService;
+
+    @Autowired
+    private TimeSeriesRollupService timeSeriesRollupService;
+
+    @Autowired
+    private DemandVelocityService demandVelocityService;
+
+    @Autowired
+    private ReplenishmentPlanningService replenishmentPlanningService;
+
+    @Autowired
+    private StockSimulationService stockSimulationService;
+
+    @Autowired
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    @Autowired
+    private EventRetentionService eventRetentionService;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private List<Bulkhead> bulkheads;
+
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    /**
+     * Stock status predictions; fields=productId,stockStatus keeps only those fields and
+     * shape=columnar returns one array per field instead of one object per prediction
+     */
     @GetMapping("/predict-inventory-status")
-    public ResponseEntity<List<InventoryPredictionDTO>> predictInventoryStatus() {
+    public ResponseEntity<Object> predictInventoryStatus(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "shape", defaultValue = "rows") String shape) {
         try {
+            boolean columnar = InventoryProjectionService.isColumnar(shape);
+            if (fields != null || columnar) {
+                return ResponseEntity.ok(inventoryProjectionService.projectPredictions(
+                    InventoryProjectionService.predictionFields(fields), columnar));
+            }
             List<InventoryPredictionDTO> predictions = aiPredictionService.predictInventoryStatus();
             return ResponseEntity.ok(predictions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * The dataset generation analytics are currently served from
+     */
+    @GetMapping("/analytics/dataset")
+    public ResponseEntity<Map<String, Object>> getDatasetGeneration() {
+        DatasetGeneration generation = datasetGenerationService.getCurrentGeneration();
+        Map<String, Object> result = new HashMap<>();
+        result.put("version", generation.getVersion());
+        result.put("rows", generation.size());
+        result.put("publishedAt", generation.getPublishedAt().toString());
+        result.put("dimensionValues", dimensionDictionary.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/analytics/dashboard-stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats() {
+    public ResponseEntity<Map<String, Object>> getDashboardStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> stats = aiPredictionService.getDashboardStats();
-            return ResponseEntity.ok(stats);
+            return analyticsResponseCache
+                .get("dashboard-stats", Map.of(), aiPredictionService::getDashboardStats)
+                .toResponseEntity(ifNoneMatch);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/analytics/revenue-forecast")
-    public ResponseEntity<Map<String, Object>> getRevenueForecast() {
+    public ResponseEntity<Map<String, Object>> getRevenueForecast(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> forecast = aiPredictionService.getRevenueForecast();
-            return ResponseEntity.ok(forecast);
+            return analyticsResponseCache
+                .get("revenue-forecast", Map.of(), aiPredictionService::getRevenueForecast)
+                .toResponseEntity(ifNoneMatch);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/analytics/stock-alerts")
-    public ResponseEntity<List<Map<String, Object>>> getStockAlerts() {
+    public ResponseEntity<List<Map<String, Object>>> getStockAlerts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Map<String, Object>> alerts = aiPredictionService.getStockAlerts();
-            return ResponseEntity.ok(alerts);
+            return analyticsResponseCache
+                .get("stock-alerts", Map.of(), aiPredictionService::getStockAlerts)
+                .toResponseEntity(ifNoneMatch);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/analytics/category-performance")
-    public ResponseEntity<Map<String, Object>> getCategoryPerformance() {
+    public ResponseEntity<Map<String, Object>> getCategoryPerformance(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return analyticsResponseCache
+                .get("category-performance", Map.of(), aiPredictionService::getCategoryPerformance)
+                .toResponseEntity(ifNoneMatch);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/distribution")
+    public ResponseEntity<Map<String, Object>> getDistribution(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("category", category);
+        params.put("storeId", storeId);
+        try {
+            AnalyticsResponseCache.CachedResponse<Map<String, Object>> cached = analyticsResponseCache
+                .get("distribution", params, () -> inventorySketchService.getDistribution(category, storeId));
+            if (cached.getBody() == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return cached.toResponseEntity(ifNoneMatch);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/analytics/aggregate")
+    public ResponseEntity<Map<String, Object>> aggregate(
+            @RequestBody AggregationRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return analyticsResponseCache
+                .get("aggregate", Map.of("request", request.toString()), () -> inventoryAggregationService.aggregate(request))
+                .toResponseEntity(ifNoneMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<Map<String, Object>> getTimeSeries(
+            @RequestParam(value = "dimension", required = false) String dimension,
+            @RequestParam(value = "key", required = false) String key,
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("dimension", dimension);
+        params.put("key", key);
+        params.put("granularity", granularity);
+        params.put("from", from);
+        params.put("to", to);
+        try {
+            return analyticsResponseCache
+                .get("timeseries", params, () -> timeSeriesRollupService.getTimeSeries(
+                    dimension, key, RollupGranularity.fromName(granularity),
+                    from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null))
+                .toResponseEntity(ifNoneMatch);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Daily per-SKU history: compacted summaries for old days, hot events summarised for recent ones
+     */
+    @GetMapping("/analytics/daily-history")
+    public ResponseEntity<Map<String, Object>> getDailyHistory(
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestParam(value = "productId", required = false) String productId,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("storeId", storeId);
+        params.put("productId", productId);
+        params.put("from", from);
+        params.put("to", to);
+        params.put("limit", limit);
+        try {
+            return analyticsResponseCache
+                .get("daily-history", params, () -> eventRetentionService.getDailyHistory(storeId, productId,
+                    from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null,
+                    limit))
+                .toResponseEntity(ifNoneMatch);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/demand-velocity")
+    public ResponseEntity<List<Map<String, Object>>> getDemandVelocity(
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestParam(value = "productId", required = false) String productId,
+            @RequestParam(value = "maxDaysOfCover", required = false) Double maxDaysOfCover,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(demandVelocityService.getVelocities(storeId, productId, maxDaysOfCover, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Full replenishment plan as newline-delimited JSON, streamed one SKU per line
+     */
+    @GetMapping("/analytics/replenishment-plan")
+    public ResponseEntity<StreamingResponseBody> getReplenishmentPlan(
+            @RequestParam(value = "reorderOnly", defaultValue = "false") boolean reorderOnly) {
+        try {
+            replenishmentPlanningService.getPlan(); // Compute before the response is committed
+            StreamingResponseBody body = outputStream -> replenishmentPlanningService.writePlan(outputStream, reorderOnly);
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * What-if projection of stock-outs and revenue at risk, e.g. +20% demand in a category or a late supplier
+     */
+    @PostMapping("/analytics/simulate")
+    public ResponseEntity<Map<String, Object>> simulate(@RequestBody SimulationScenarioDTO scenario) {
+        try {
+            return ResponseEntity.ok(stockSimulationService.simulate(scenario));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/anomalies")
+    public ResponseEntity<?> getAnomalies(
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestParam(value = "productId", required = false) String productId,
+            @RequestParam(value = "metric", required = false) String metric,
+            @RequestParam(value = "reason", required = false) String reason,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
         try {
-            Map<String, Object> performance = aiPredictionService.getCategoryPerformance();
-            return ResponseEntity.ok(performance);
+            List<InventoryAnomalyDTO> anomalies = anomalyDetectionService.getAnomalies(storeId, productId, metric, reason, limit);
+            return ResponseEntity.ok(anomalies);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/analytics/anomalies/summary")
+    public ResponseEntity<Map<String, Object>> getAnomalySummary() {
+        try {
+            return ResponseEntity.ok(anomalyDetectionService.getSummary());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -86,4 +360,67 @@ public class AIPredictionController {
             return ResponseEntity.badRequest().build();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Concurrency limits per traffic class with active, admitted and rejected counts
+     */
+    @GetMapping("/health/bulkheads")
+    public ResponseEntity<List<Map<String, Object>>> getBulkheads() {
+        return ResponseEntity.ok(bulkheads.stream().map(Bulkhead::toMap).toList());
+    }
+
+    /**
+     * Read/write routing status: replica lag, rotation and fallbacks to the primary
+     */
+    @GetMapping("/health/datasource")
+    public ResponseEntity<Map<String, Object>> getDataSourceStatus() {
+        if (routingDataSource == null) {
+            return ResponseEntity.ok(Map.of("routing", "disabled"));
+        }
+        return ResponseEntity.ok(routingDataSource.getStatus());
+    }
+
+    /**
+     * Retention window, hot partitions and the last compaction run
+     */
+    @GetMapping("/health/retention")
+    public ResponseEntity<Map<String, Object>> getRetentionStatus() {
+        try {
+            return ResponseEntity.ok(eventRetentionService.getStatus());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Row count and pool usage per inventory_events shard
+     */
+    @GetMapping("/health/shards")
+    public ResponseEntity<Map<String, Object>> getShards() {
+        if (shardedRepository == null) {
+            return ResponseEntity.ok(Map.of("sharding", "disabled"));
+        }
+        try {
+            Map<String, Object> result = new HashMap<>();
+            result.put("shardCount", shardedRepository.getShardCount());
+            result.put("shards", shardedRepository.getStatus());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Phase breakdowns of the most recent requests slower than tracing.slow-threshold-ms, newest first
+     */
+    @GetMapping("/health/slow-requests")
+    public ResponseEntity<Map<String, Object>> getSlowRequests(
+            @RequestParam(required = false) String contains,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("thresholdMs", slowRequestLog.getThresholdMs());
+        result.put("recorded", slowRequestLog.getRecorded());
+        result.put("requests", slowRequestLog.getRecent(contains, Math.max(1, limit)));
+        return ResponseEntity.ok(result);
+    }
+}
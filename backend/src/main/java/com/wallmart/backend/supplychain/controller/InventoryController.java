@@ -2,17 +2,41 @@ package com.wallmart.backend.supplychain.controller;
 
 import com.wallmart.backend.supplychain.dto.PredictionDTO;
 import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.export.ExportFormat;
+import com.wallmart.backend.supplychain.repository.InventoryEventColumn;
+import com.wallmart.backend.supplychain.repository.InventoryEventFilter;
+import com.wallmart.backend.supplychain.service.CSVDecompressor;
+import com.wallmart.backend.supplychain.service.DatasetGenerationService;
+import com.wallmart.backend.supplychain.service.DropDirectoryIngestionService;
+import com.wallmart.backend.supplychain.service.EventRetentionService;
 import com.wallmart.backend.supplychain.service.InventoryCSVParser;
+import com.wallmart.backend.supplychain.service.InventoryExportService;
+import com.wallmart.backend.supplychain.service.InventoryProjectionService;
 import com.wallmart.backend.supplychain.service.InventoryService;
 import com.wallmart.backend.supplychain.service.KaggleDataService;
+import com.wallmart.backend.supplychain.service.KaggleDownloadJob;
+import com.wallmart.backend.supplychain.service.ParseErrorCollector;
+import com.wallmart.backend.supplychain.service.ParseReportRegistry;
+import com.wallmart.backend.supplychain.service.ProductSearchService;
+import com.wallmart.backend.supplychain.tracing.RequestTrace;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,12 +50,36 @@ public class InventoryController {
     @Autowired
     private InventoryCSVParser inventoryCSVParser;
 
+    @Autowired
+    private CSVDecompressor csvDecompressor;
+
     @Autowired
     private InventoryService inventoryService;
 
     @Autowired
     private KaggleDataService kaggleDataService;
 
+    @Autowired
+    private DropDirectoryIngestionService dropDirectoryIngestionService;
+
+    @Autowired
+    private ParseReportRegistry parseReportRegistry;
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    @Autowired
+    private EventRetentionService eventRetentionService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private InventoryExportService inventoryExportService;
+
+    @Autowired
+    private InventoryProjectionService inventoryProjectionService;
+
     @PostMapping("/upload")
     public ResponseEntity<String> uploadInventoryCSV(@RequestParam("file") MultipartFile file) {
         long startTime = System.currentTimeMillis();
@@ -39,34 +87,47 @@ public class InventoryController {
         try {
             logger.info("Starting CSV upload: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
             
-            // Check file size (max 50MB)
-            if (file.getSize() > 50 * 1024 * 1024) {
-                return ResponseEntity.badRequest().body("❌ File too large. Maximum size is 50MB.");
-            }
-            
-            // Check file type
+            // Check file type (size is bounded by the parser's row limit, not compressed bytes)
             String fileName = file.getOriginalFilename();
-            if (fileName == null || !fileName.toLowerCase().endsWith(".csv")) {
-                return ResponseEntity.badRequest().body("❌ Please upload a CSV file.");
+            if (!csvDecompressor.isSupported(fileName)) {
+                return ResponseEntity.badRequest().body("❌ Please upload a CSV file (.csv, .csv.gz or .zip).");
             }
             
             InputStream inputStream = file.getInputStream();
             logger.info("Parsing CSV file...");
             
-            List<InventoryEvent> events = inventoryCSVParser.parseCSV(inputStream);
+            ParseErrorCollector errors = parseReportRegistry.start(fileName);
+            List<InventoryEvent> events;
+            try (RequestTrace.Phase phase = RequestTrace.phase("parse")) {
+                events = inventoryCSVParser.parseCSV(inputStream, fileName, errors);
+            }
             logger.info("Parsed {} events from CSV", events.size());
+            // A partial file is not stored: the client would take it for a complete upload
+            if ("MAX_ROWS".equals(errors.getTruncatedBy())) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("❌ The file has more than "
+                    + inventoryCSVParser.getMaxRows() + " rows (inventory.upload.max-rows); nothing was saved. Split it into smaller files.");
+            }
+            if (errors.getTruncatedBy() != null) {
+                return ResponseEntity.badRequest().body("❌ Parsing stopped early (" + errors.getTruncatedBy()
+                    + "); nothing was saved.");
+            }
+            String rejectNote = errors.getRejectedRows() > 0
+                ? " Rejected " + errors.getRejectedRows() + " rows; report: /api/inventory/uploads/" + errors.getUploadId() + "/rejects"
+                : "";
             
             if (events.isEmpty()) {
-                return ResponseEntity.badRequest().body("❌ No valid data found in CSV file.");
+                return ResponseEntity.badRequest().body("❌ No valid data found in CSV file." + rejectNote);
             }
             
             logger.info("Saving events to database...");
-            inventoryService.saveAll(events);
+            try (RequestTrace.Phase phase = RequestTrace.phase("save")) {
+                inventoryService.saveAll(events);
+            }
             
             long endTime = System.currentTimeMillis();
             logger.info("CSV upload completed in {} ms", endTime - startTime);
             
-            return ResponseEntity.ok("✅ CSV Uploaded and saved successfully! Processed " + events.size() + " records.");
+            return ResponseEntity.ok("✅ CSV Uploaded and saved successfully! Processed " + events.size() + " records." + rejectNote);
             
         } catch (Exception e) {
             logger.error("CSV upload failed: {}", e.getMessage(), e);
@@ -74,25 +135,164 @@ public class InventoryController {
         }
     }
 
+    @GetMapping("/uploads")
+    public List<Map<String, Object>> getUploadReports() {
+        return parseReportRegistry.getRecentReports();
+    }
+
+    /**
+     * Parse report of an upload: reject counts per reason and sample rows
+     */
+    @GetMapping("/uploads/{uploadId}/rejects")
+    public ResponseEntity<Map<String, Object>> getUploadRejects(@PathVariable String uploadId) {
+        ParseErrorCollector report = parseReportRegistry.get(uploadId);
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report.toMap());
+    }
+
+    /**
+     * Every rejected row of an upload as CSV (line, reason, message, original row)
+     */
+    @GetMapping("/uploads/{uploadId}/rejects.csv")
+    public ResponseEntity<Resource> downloadUploadRejects(@PathVariable String uploadId) {
+        ParseErrorCollector report = parseReportRegistry.get(uploadId);
+        Path file = report != null ? report.getRejectsFile() : null;
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + uploadId + ".rejects.csv\"")
+            .body(new FileSystemResource(file));
+    }
+
     @GetMapping("/all")
     public List<InventoryEvent> getAllEvents() {
         return inventoryService.getAllEvents();
     }
 
+    /**
+     * All events, or with from/to (yyyy-MM-dd) only the hot events of that date range, read
+     * from the overlapping monthly partitions of the current dataset generation.
+     * fields=storeId,inventoryLevel returns only those fields, projected from the current
+     * generation as the response is written; shape=columnar returns one array per field.
+     */
     @GetMapping("/events")
-    public List<InventoryEvent> getInventoryEvents() {
-        return inventoryService.getAllEvents();
+    public ResponseEntity<Object> getInventoryEvents(
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "shape", defaultValue = "rows") String shape) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : null;
+            LocalDate toDate = to != null ? LocalDate.parse(to) : null;
+            boolean columnar = InventoryProjectionService.isColumnar(shape);
+            if (fields != null || columnar) {
+                return ResponseEntity.ok(inventoryProjectionService.projectEvents(
+                    InventoryProjectionService.eventColumns(fields), fromDate, toDate, columnar));
+            }
+            if (fromDate == null && toDate == null) {
+                return ResponseEntity.ok(inventoryService.getAllEvents());
+            }
+            return ResponseEntity.ok(datasetGenerationService.getCurrentGeneration().getEvents(fromDate, toDate));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream the matching events as csv, csv.gz or columnar (all fields, or the id and the
+     * given fields); a broken download resumes with after set to the id of the last row received
+     */
+    @GetMapping("/export/events")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "after", defaultValue = "0") long after) {
+        try {
+            ExportFormat exportFormat = ExportFormat.fromName(format);
+            List<InventoryEventColumn> columns = InventoryProjectionService.eventColumns(fields);
+            InventoryEventFilter filter = inventoryExportService.filter(storeId, category, from, to);
+            StreamingResponseBody body = outputStream -> inventoryExportService.writeEvents(exportFormat, columns, filter, after, outputStream);
+            return exportResponse("inventory-events", exportFormat, body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected event export: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Stream the stock status prediction of every matching event, keyed by event id; same
+     * formats, filters and resume as /export/events
+     */
+    @GetMapping("/export/predictions")
+    public ResponseEntity<StreamingResponseBody> exportPredictions(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "storeId", required = false) String storeId,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "after", defaultValue = "0") long after) {
+        try {
+            ExportFormat exportFormat = ExportFormat.fromName(format);
+            InventoryEventFilter filter = inventoryExportService.filter(storeId, category, from, to);
+            StreamingResponseBody body = outputStream -> inventoryExportService.writePredictions(exportFormat, filter, after, outputStream);
+            return exportResponse("inventory-predictions", exportFormat, body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected prediction export: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + format.getExtension() + "\"")
+            .body(body);
+    }
+
+    /**
+     * Products matching a query (id, name or category; prefixes and typos allowed) with current stock
+     */
+    @GetMapping("/products/search")
+    public ResponseEntity<Map<String, Object>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(productSearchService.search(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Run retention now: compact partitions older than the hot window into daily summaries
+     */
+    @PostMapping("/compact")
+    public ResponseEntity<Map<String, Object>> compactHistory() {
+        try {
+            return ResponseEntity.ok(eventRetentionService.compact());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping("/download-kaggle")
     public ResponseEntity<Map<String, Object>> downloadKaggleDataset() {
         try {
-            Map<String, Object> result = kaggleDataService.downloadRetailDataset();
-            if ((Boolean) result.get("success")) {
-                return ResponseEntity.ok(result);
-            } else {
-                return ResponseEntity.badRequest().body(result);
-            }
+            KaggleDownloadJob job = kaggleDataService.startDownloadJob();
+            Map<String, Object> result = new HashMap<>(job.toMap());
+            result.put("success", true);
+            result.put("message", "Kaggle download started; poll /api/inventory/kaggle-status?jobId=" + job.getId());
+            return ResponseEntity.accepted().body(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
@@ -101,6 +301,20 @@ public class InventoryController {
         }
     }
 
+    @PostMapping("/download-kaggle/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelKaggleDownload(@PathVariable String jobId) {
+        KaggleDownloadJob job;
+        try {
+            job = kaggleDataService.cancelDownloadJob(jobId);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.toMap());
+    }
+
     @PostMapping("/load-kaggle-data")
     public ResponseEntity<Map<String, Object>> loadKaggleDataIntoDatabase() {
         try {
@@ -118,12 +332,23 @@ public class InventoryController {
     }
 
     @GetMapping("/kaggle-status")
-    public ResponseEntity<Map<String, Object>> getKaggleStatus() {
+    public ResponseEntity<Map<String, Object>> getKaggleStatus(@RequestParam(value = "jobId", required = false) String jobId) {
+        KaggleDownloadJob job = jobId != null ? kaggleDataService.getDownloadJob(jobId) : kaggleDataService.getLatestDownloadJob();
+        if (jobId != null && job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
         boolean isAvailable = kaggleDataService.isKaggleDataAvailable();
-        return ResponseEntity.ok(Map.of(
-            "available", isAvailable,
-            "message", isAvailable ? "Kaggle data is available" : "Kaggle data not downloaded yet"
-        ));
+        Map<String, Object> status = new HashMap<>();
+        status.put("available", isAvailable);
+        status.put("message", isAvailable ? "Kaggle data is available" : "Kaggle data not downloaded yet");
+        status.put("job", job != null ? job.toMap() : null);
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/watch-status")
+    public ResponseEntity<Map<String, Object>> getWatchStatus() {
+        return ResponseEntity.ok(dropDirectoryIngestionService.getStatus());
     }
 
     @GetMapping("/predictions")
@@ -0,0 +1,30 @@
+package com.wallmart.backend.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregationRequestDTO {
+    private List<String> dimensions;           // e.g. ["category", "storeId", "weatherCondition"]
+    private List<MeasureSpec> measures;        // e.g. [{"field": "unitsSold", "function": "sum"}]
+    private Map<String, List<String>> filters; // dimension -> allowed values
+    private String sortBy;                     // output column, e.g. "sum_unitsSold"
+    private Boolean descending;
+    private Integer limit;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MeasureSpec {
+        private String field;    // inventoryLevel, unitsSold, inventoryValue, revenue, ...
+        private String function; // sum, avg, count, min, max
+    }
+}
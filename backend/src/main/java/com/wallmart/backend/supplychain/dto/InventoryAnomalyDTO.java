@@ -0,0 +1,26 @@
+package com.wallmart.backend.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAnomalyDTO {
+    private Long eventId;
+    private String storeId;
+    private String productId;
+    private String category;
+    private LocalDateTime timestamp;
+    private String metric;   // inventoryLevel, unitsSold, price
+    private Double value;
+    private Double expected; // Running mean the value was scored against; null for rule violations
+    private Double zScore;
+    private String reason;   // NEGATIVE_STOCK, NEGATIVE_SALES, NON_POSITIVE_PRICE, SKU_OUTLIER, CATEGORY_OUTLIER
+    private LocalDateTime detectedAt;
+}
@@ -18,5 +18,6 @@ public class InventoryPredictionDTO {
     private String stockStatus; // "UNDERSTOCKED", "OVERSTOCKED", "NORMAL"
     private Boolean expectedDemandIncrease;
     private Double demandForecast;
+    private Double daysOfCover; // At the 30-day sales rate; null if the SKU has not sold
     private String recommendation;
 } 
\ No newline at end of file
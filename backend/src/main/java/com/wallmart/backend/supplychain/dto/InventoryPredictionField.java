@@ -0,0 +1,47 @@
+package com.wallmart.backend.supplychain.dto;
+
+import java.util.function.Function;
+
+/**
+ * Fields of {@link InventoryPredictionDTO} that a prediction response can be projected to
+ */
+public enum InventoryPredictionField {
+    PRODUCT_ID("productId", InventoryPredictionDTO::getProductId),
+    PRODUCT_NAME("productName", InventoryPredictionDTO::getProductName),
+    STORE_ID("storeId", InventoryPredictionDTO::getStoreId),
+    CATEGORY("category", InventoryPredictionDTO::getCategory),
+    CURRENT_INVENTORY("currentInventory", InventoryPredictionDTO::getCurrentInventory),
+    STOCK_STATUS("stockStatus", InventoryPredictionDTO::getStockStatus),
+    EXPECTED_DEMAND_INCREASE("expectedDemandIncrease", InventoryPredictionDTO::getExpectedDemandIncrease),
+    DEMAND_FORECAST("demandForecast", InventoryPredictionDTO::getDemandForecast),
+    DAYS_OF_COVER("daysOfCover", InventoryPredictionDTO::getDaysOfCover),
+    RECOMMENDATION("recommendation", InventoryPredictionDTO::getRecommendation);
+
+    private final String fieldName;
+    private final Function<InventoryPredictionDTO, Object> accessor;
+
+    InventoryPredictionField(String fieldName, Function<InventoryPredictionDTO, Object> accessor) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Object valueOf(InventoryPredictionDTO prediction) {
+        return accessor.apply(prediction);
+    }
+
+    /**
+     * Resolve a field from its JSON name ("stockStatus") or enum name ("STOCK_STATUS")
+     */
+    public static InventoryPredictionField fromName(String name) {
+        for (InventoryPredictionField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
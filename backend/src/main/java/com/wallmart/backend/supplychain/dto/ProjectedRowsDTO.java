@@ -0,0 +1,107 @@
+package com.wallmart.backend.supplychain.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A list response reduced to the requested fields. Serialized either as the usual array
+ * of objects holding only those fields, or columnar, one array per field, so keys are
+ * not repeated on every row:
+ * <pre>{"fields":["storeId","inventoryLevel"],"rowCount":2,"columns":{"storeId":["S001","S002"],"inventoryLevel":[12,40]}}</pre>
+ */
+@JsonSerialize(using = ProjectedRowsDTO.Serializer.class)
+public class ProjectedRowsDTO {
+
+    private final List<String> fields;
+    private final List<Object[]> rows;
+    private final boolean columnar;
+
+    /**
+     * @param rows one value per field, in field order
+     */
+    public ProjectedRowsDTO(List<String> fields, List<Object[]> rows, boolean columnar) {
+        this.fields = fields;
+        this.rows = rows;
+        this.columnar = columnar;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    public static class Serializer extends StdSerializer<ProjectedRowsDTO> {
+
+        public Serializer() {
+            super(ProjectedRowsDTO.class);
+        }
+
+        @Override
+        public void serialize(ProjectedRowsDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            SerializedString[] names = new SerializedString[value.fields.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = new SerializedString(value.fields.get(i));
+            }
+
+            if (!value.columnar) {
+                gen.writeStartArray();
+                for (Object[] row : value.rows) {
+                    gen.writeStartObject();
+                    for (int i = 0; i < names.length; i++) {
+                        gen.writeFieldName(names[i]);
+                        writeValue(row[i], gen, provider);
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                return;
+            }
+
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("fields");
+            for (String field : value.fields) {
+                gen.writeString(field);
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("rowCount", value.rows.size());
+            gen.writeObjectFieldStart("columns");
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                gen.writeStartArray();
+                for (Object[] row : value.rows) {
+                    writeValue(row[i], gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+
+        private static void writeValue(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else if (value instanceof String text) {
+                gen.writeString(text);
+            } else if (value instanceof Integer number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Long number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Double number) {
+                gen.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                gen.writeBoolean(flag);
+            } else {
+                provider.defaultSerializeValue(value, gen); // Timestamps, with the application's date settings
+            }
+        }
+    }
+}
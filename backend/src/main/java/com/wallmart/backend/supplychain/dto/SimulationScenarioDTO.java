@@ -0,0 +1,22 @@
+package com.wallmart.backend.supplychain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationScenarioDTO {
+    private Integer horizonDays;                      // days to project, default 30
+    private Double demandMultiplier;                  // applied to every SKU, e.g. 1.2 for +20%
+    private Map<String, Double> categoryMultipliers;  // category -> demand multiplier
+    private Map<String, Integer> supplierDelayDays;   // supplier -> extra days before orders arrive
+    private List<String> storeIds;                    // simulate only these stores (all when empty)
+    private Integer topSkus;                          // SKUs with the most revenue at risk to return, default 20
+}
@@ -0,0 +1,34 @@
+package com.wallmart.backend.supplychain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Committed byte offset of one file of the drop directory. Saved in the same transaction
+ * as the rows read up to that offset, so a crash never leaves rows without their offset.
+ */
+@Entity
+@Table(name = "ingest_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class IngestCheckpoint {
+
+    @Id
+    @Column(length = 512)
+    private String fileName;
+
+    private String fileKey; // Identity of the file the offset belongs to (inode, else creation time)
+    private long committedOffset;
+    private long rowsIngested;
+    private LocalDateTime updatedAt;
+
+    @Lob
+    private byte[] pendingIds; // Sharded store only: ids of a chunk whose shard inserts have not all committed
+}
@@ -0,0 +1,51 @@
+package com.wallmart.backend.supplychain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One day of one SKU (store + product) compacted from inventory_events once the day has
+ * left the retention window
+ */
+@Entity
+@Table(name = "inventory_daily_summaries",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"summaryDate", "storeId", "productId"}),
+    indexes = @Index(name = "idx_daily_summaries_date", columnList = "summaryDate"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryDailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate summaryDate;
+    private String storeId;
+    private String productId;
+    private String productName;
+    private String category;
+
+    private long eventCount;
+    private long unitsSold;
+    private long unitsOrdered;
+    private double revenue;         // Sum of unitsSold * price
+    private double demandForecast;  // Sum over the day's events
+
+    private long inventoryLevelSum;
+    private int minInventoryLevel;
+    private int maxInventoryLevel;
+    private int lastInventoryLevel;
+    private LocalDateTime lastTimestamp; // Timestamp of the event lastInventoryLevel comes from
+
+    private double minPrice;
+    private double maxPrice;
+}
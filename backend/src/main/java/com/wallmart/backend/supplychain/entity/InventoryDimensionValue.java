@@ -0,0 +1,31 @@
+package com.wallmart.backend.supplychain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One distinct value of a dictionary-encoded inventory_events column (category, supplier,
+ * product name, ...) and its integer surrogate key
+ */
+@Entity
+@Table(name = "inventory_dimension_values",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"dimension", "dimension_value"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryDimensionValue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 32)
+    private String dimension;
+
+    @Column(name = "dimension_value", nullable = false) // VALUE is a reserved word in H2
+    private String value;
+}
@@ -1,5 +1,6 @@
 package com.wallmart.backend.supplychain.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_events")
+@Table(name = "inventory_events", indexes = @Index(name = "idx_inventory_events_timestamp", columnList = "timestamp"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,13 +25,19 @@ public class InventoryEvent {
     private String storeId;
     private String productId;
 
-    @Column(nullable = false)
+    // Repeated strings are stored as integer keys into inventory_dimension_values (see
+    // InventoryDimensionDictionary); the string fields are filled in when rows are read
+    @Transient
     private String productName;
 
+    @Transient
     private String category;
+    @Transient
     private String supplier; // Assuming supplier is same as store or source
     private int quantity;    // Inventory quantity or total units?
+    @Transient
     private String status;   // e.g., "NEW", "PROCESSED"
+    @Transient
     private String location; // Maps to Region from CSV
     private LocalDateTime timestamp;
 
@@ -42,8 +49,29 @@ public class InventoryEvent {
     private double price;
     private double discount;
 
+    @Transient
     private String weatherCondition;
+    @Transient
     private String holidayOrPromotion;
     private double competitorPricing;
+    @Transient
     private String seasonality;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private Integer productNameKey;
+    @JsonIgnore
+    private Integer categoryKey;
+    @JsonIgnore
+    private Integer supplierKey;
+    @JsonIgnore
+    private Integer statusKey;
+    @JsonIgnore
+    private Integer locationKey;
+    @JsonIgnore
+    private Integer weatherConditionKey;
+    @JsonIgnore
+    private Integer holidayOrPromotionKey;
+    @JsonIgnore
+    private Integer seasonalityKey;
 }
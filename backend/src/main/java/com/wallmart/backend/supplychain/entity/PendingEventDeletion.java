@@ -0,0 +1,35 @@
+package com.wallmart.backend.supplychain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Events already folded into inventory_daily_summaries whose rows may still be on the
+ * shards. Written in the same transaction as the summaries and removed once the shard
+ * delete succeeded; a later retention run only deletes these events, it never counts
+ * them again.
+ */
+@Entity
+@Table(name = "pending_event_deletions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingEventDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDateTime createdAt;
+    private int eventCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] eventIds; // Big-endian 8-byte event ids
+}
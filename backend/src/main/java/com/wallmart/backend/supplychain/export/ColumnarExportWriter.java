@@ -0,0 +1,198 @@
+package com.wallmart.backend.supplychain.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact columnar binary export. Rows are buffered into blocks and each block is written
+ * column by column, so repeated values sit next to each other and encode small:
+ *
+ * <pre>
+ * header   "INVX", version byte (1), varint column count, per column: string name, type byte (ExportColumn.Type ordinal)
+ * block    varint row count, int32 payload length, payload
+ * end      varint 0
+ * payload  per column: null byte (0 = no nulls, 1 = a null bitmap of ceil(rows/8) bytes follows), then the
+ *          non-null values:
+ *          LONG, INT, TIMESTAMP  zigzag varint of the difference to the previous value in the block
+ *                                (TIMESTAMP as epoch milliseconds, reading the wall-clock time as UTC)
+ *          DOUBLE                8-byte IEEE 754
+ *          BOOLEAN               bitmap of ceil(values/8) bytes
+ *          TEXT                  varint dictionary size, the dictionary strings, one varint index per value
+ * string   varint byte length, UTF-8 bytes
+ * </pre>
+ *
+ * Integers are big-endian and bitmaps least significant bit first. A block is only usable
+ * once its whole payload has arrived, which the length prefix makes easy to check.
+ */
+public class ColumnarExportWriter implements ExportWriter {
+
+    private static final byte[] MAGIC = {'I', 'N', 'V', 'X'};
+    private static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final List<ExportColumn> columns;
+    private final int blockRows;
+    private final List<Object[]> block;
+    private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+    public ColumnarExportWriter(OutputStream outputStream, List<ExportColumn> columns, int blockRows) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, 64 * 1024));
+        this.columns = columns;
+        this.blockRows = Math.max(1, blockRows);
+        this.block = new ArrayList<>(this.blockRows);
+
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeVarint(out, columns.size());
+        for (ExportColumn column : columns) {
+            writeString(out, column.name());
+            out.writeByte(column.type().ordinal());
+        }
+    }
+
+    @Override
+    public void writeRow(Object[] row) throws IOException {
+        block.add(row);
+        if (block.size() >= blockRows) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeBlock();
+        writeVarint(out, 0);
+        out.flush();
+    }
+
+    private void writeBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        payloadBytes.reset();
+        for (int i = 0; i < columns.size(); i++) {
+            writeColumn(i, columns.get(i).type());
+        }
+        writeVarint(out, block.size());
+        out.writeInt(payloadBytes.size());
+        payloadBytes.writeTo(out);
+        block.clear();
+    }
+
+    private void writeColumn(int index, ExportColumn.Type type) throws IOException {
+        int rows = block.size();
+        byte[] nulls = null;
+        for (int row = 0; row < rows; row++) {
+            if (block.get(row)[index] == null) {
+                if (nulls == null) {
+                    nulls = new byte[(rows + 7) / 8];
+                }
+                nulls[row >> 3] |= (byte) (1 << (row & 7));
+            }
+        }
+        payload.writeByte(nulls != null ? 1 : 0);
+        if (nulls != null) {
+            payload.write(nulls);
+        }
+
+        switch (type) {
+            case LONG, INT, TIMESTAMP -> {
+                long previous = 0;
+                for (Object[] row : block) {
+                    if (row[index] != null) {
+                        long value = toLong(row[index]);
+                        writeVarint(payload, zigzag(value - previous));
+                        previous = value;
+                    }
+                }
+            }
+            case DOUBLE -> {
+                for (Object[] row : block) {
+                    if (row[index] != null) {
+                        payload.writeDouble(((Number) row[index]).doubleValue());
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                byte[] bits = new byte[(rows + 7) / 8];
+                int count = 0;
+                for (Object[] row : block) {
+                    if (row[index] != null) {
+                        if ((Boolean) row[index]) {
+                            bits[count >> 3] |= (byte) (1 << (count & 7));
+                        }
+                        count++;
+                    }
+                }
+                payload.write(bits, 0, (count + 7) / 8);
+            }
+            case TEXT -> {
+                Map<String, Integer> dictionary = new HashMap<>();
+                List<String> entries = new ArrayList<>();
+                int[] indexes = new int[rows];
+                int count = 0;
+                for (Object[] row : block) {
+                    if (row[index] != null) {
+                        String value = (String) row[index];
+                        Integer entry = dictionary.get(value);
+                        if (entry == null) {
+                            entry = entries.size();
+                            dictionary.put(value, entry);
+                            entries.add(value);
+                        }
+                        indexes[count++] = entry;
+                    }
+                }
+                writeVarint(payload, entries.size());
+                for (String entry : entries) {
+                    writeString(payload, entry);
+                }
+                for (int i = 0; i < count; i++) {
+                    writeVarint(payload, indexes[i]);
+                }
+            }
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof LocalDateTime timestamp) {
+            return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+}
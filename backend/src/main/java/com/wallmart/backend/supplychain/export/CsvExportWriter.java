@@ -0,0 +1,82 @@
+package com.wallmart.backend.supplychain.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RFC 4180 CSV with a header line, optionally gzip-compressed. The gzip stream is
+ * sync-flushed on every {@link #flush()}, so a cut-off download still decompresses up to
+ * the last flushed row.
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    private final int columnCount;
+
+    public CsvExportWriter(OutputStream outputStream, List<ExportColumn> columns, boolean compress) throws IOException {
+        this.gzip = compress ? new GZIPOutputStream(outputStream, BUFFER_SIZE, true) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(compress ? gzip : outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columnCount = columns.size();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeText(columns.get(i).name());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] row) throws IOException {
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = row[i];
+            if (value instanceof String text) {
+                writeText(text);
+            } else if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+            gzip.flush();
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,19 @@
+package com.wallmart.backend.supplychain.export;
+
+/**
+ * A named, typed column of an export
+ */
+public record ExportColumn(String name, Type type) {
+
+    /**
+     * Value types; each row value must be null or of the Java type named here
+     */
+    public enum Type {
+        LONG,      // Long
+        INT,       // Integer
+        DOUBLE,    // Double
+        BOOLEAN,   // Boolean
+        TEXT,      // String
+        TIMESTAMP  // LocalDateTime
+    }
+}
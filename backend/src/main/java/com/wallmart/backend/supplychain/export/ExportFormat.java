@@ -0,0 +1,55 @@
+package com.wallmart.backend.supplychain.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Output formats of the streaming exports
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv", ".csv"),
+    CSV_GZIP("csv.gz", "application/gzip", ".csv.gz"),
+    COLUMNAR("columnar", "application/octet-stream", ".invx");
+
+    private final String parameter;
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String parameter, String contentType, String extension) {
+        this.parameter = parameter;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param blockRows rows per block of the columnar format
+     */
+    public ExportWriter open(OutputStream outputStream, List<ExportColumn> columns, int blockRows) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(outputStream, columns, false);
+            case CSV_GZIP -> new CsvExportWriter(outputStream, columns, true);
+            case COLUMNAR -> new ColumnarExportWriter(outputStream, columns, blockRows);
+        };
+    }
+
+    /**
+     * Resolve a format from its request parameter ("csv", "csv.gz", "columnar") or enum name
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.parameter.equalsIgnoreCase(name) || format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+}
@@ -0,0 +1,21 @@
+package com.wallmart.backend.supplychain.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes rows of an export to a stream. Closing finishes the format (trailer, gzip
+ * footer) and flushes, but leaves the underlying stream open.
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * @param row one value per column, in column order
+     */
+    void writeRow(Object[] row) throws IOException;
+
+    /**
+     * Push every complete row written so far to the client
+     */
+    void flush() throws IOException;
+}
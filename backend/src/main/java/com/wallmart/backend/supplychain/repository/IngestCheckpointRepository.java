@@ -0,0 +1,13 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.IngestCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpoint, String> {
+
+    List<IngestCheckpoint> findByPendingIdsIsNotNull();
+}
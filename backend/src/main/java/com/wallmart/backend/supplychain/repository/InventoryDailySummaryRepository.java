@@ -0,0 +1,32 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryDailySummaryRepository extends JpaRepository<InventoryDailySummary, Long> {
+
+    @Query("SELECT s FROM InventoryDailySummary s WHERE s.summaryDate BETWEEN :from AND :to "
+        + "AND (:storeId IS NULL OR s.storeId = :storeId) AND (:productId IS NULL OR s.productId = :productId) "
+        + "ORDER BY s.summaryDate, s.storeId, s.productId")
+    List<InventoryDailySummary> findHistory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                            @Param("storeId") String storeId, @Param("productId") String productId,
+                                            Pageable pageable);
+
+    List<InventoryDailySummary> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    List<InventoryDailySummary> findBySummaryDateAndStoreIdIn(LocalDate summaryDate, Collection<String> storeIds);
+
+    List<InventoryDailySummary> findBySummaryDateAndStoreIdIsNull(LocalDate summaryDate);
+
+    @Query("SELECT MAX(s.summaryDate) FROM InventoryDailySummary s")
+    LocalDate findLatestSummaryDate();
+}
@@ -0,0 +1,9 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.InventoryDimensionValue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryDimensionValueRepository extends JpaRepository<InventoryDimensionValue, Integer> {
+}
@@ -0,0 +1,94 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns of inventory_events that can be read without loading whole entities: the JSON
+ * field name, the JPQL attribute and the column in the sharded schema. Dictionary-encoded
+ * columns are read as their integer key and decoded by the caller.
+ */
+public enum InventoryEventColumn {
+    ID("id", "id", "id", Long.class, false, InventoryEvent::getId),
+    DATE("date", "date", "\"date\"", String.class, false, InventoryEvent::getDate),
+    STORE_ID("storeId", "storeId", "store_id", String.class, false, InventoryEvent::getStoreId),
+    PRODUCT_ID("productId", "productId", "product_id", String.class, false, InventoryEvent::getProductId),
+    PRODUCT_NAME("productName", "productNameKey", "product_name_key", Integer.class, true, InventoryEvent::getProductName),
+    CATEGORY("category", "categoryKey", "category_key", Integer.class, true, InventoryEvent::getCategory),
+    SUPPLIER("supplier", "supplierKey", "supplier_key", Integer.class, true, InventoryEvent::getSupplier),
+    QUANTITY("quantity", "quantity", "quantity", Integer.class, false, InventoryEvent::getQuantity),
+    STATUS("status", "statusKey", "status_key", Integer.class, true, InventoryEvent::getStatus),
+    LOCATION("location", "locationKey", "location_key", Integer.class, true, InventoryEvent::getLocation),
+    TIMESTAMP("timestamp", "timestamp", "\"timestamp\"", LocalDateTime.class, false, InventoryEvent::getTimestamp),
+    INVENTORY_LEVEL("inventoryLevel", "inventoryLevel", "inventory_level", Integer.class, false, InventoryEvent::getInventoryLevel),
+    UNITS_SOLD("unitsSold", "unitsSold", "units_sold", Integer.class, false, InventoryEvent::getUnitsSold),
+    UNITS_ORDERED("unitsOrdered", "unitsOrdered", "units_ordered", Integer.class, false, InventoryEvent::getUnitsOrdered),
+    DEMAND_FORECAST("demandForecast", "demandForecast", "demand_forecast", Double.class, false, InventoryEvent::getDemandForecast),
+    PRICE("price", "price", "price", Double.class, false, InventoryEvent::getPrice),
+    DISCOUNT("discount", "discount", "discount", Double.class, false, InventoryEvent::getDiscount),
+    WEATHER_CONDITION("weatherCondition", "weatherConditionKey", "weather_condition_key", Integer.class, true, InventoryEvent::getWeatherCondition),
+    HOLIDAY_OR_PROMOTION("holidayOrPromotion", "holidayOrPromotionKey", "holiday_or_promotion_key", Integer.class, true, InventoryEvent::getHolidayOrPromotion),
+    COMPETITOR_PRICING("competitorPricing", "competitorPricing", "competitor_pricing", Double.class, false, InventoryEvent::getCompetitorPricing),
+    SEASONALITY("seasonality", "seasonalityKey", "seasonality_key", Integer.class, true, InventoryEvent::getSeasonality);
+
+    private final String fieldName;
+    private final String attribute;
+    private final String sqlColumn;
+    private final Class<?> storedType;
+    private final boolean dictionaryKey;
+    private final Function<InventoryEvent, Object> accessor;
+
+    InventoryEventColumn(String fieldName, String attribute, String sqlColumn, Class<?> storedType,
+                         boolean dictionaryKey, Function<InventoryEvent, Object> accessor) {
+        this.fieldName = fieldName;
+        this.attribute = attribute;
+        this.sqlColumn = sqlColumn;
+        this.storedType = storedType;
+        this.dictionaryKey = dictionaryKey;
+        this.accessor = accessor;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    String getAttribute() {
+        return attribute;
+    }
+
+    String getSqlColumn() {
+        return sqlColumn;
+    }
+
+    Class<?> getStoredType() {
+        return storedType;
+    }
+
+    /**
+     * Whether the stored value is a key into inventory_dimension_values
+     */
+    public boolean isDictionaryKey() {
+        return dictionaryKey;
+    }
+
+    /**
+     * The decoded value of this column on a loaded event
+     */
+    public Object valueOf(InventoryEvent event) {
+        return accessor.apply(event);
+    }
+
+    /**
+     * Resolve a column from its JSON field name ("storeId") or enum name ("STORE_ID")
+     */
+    public static InventoryEventColumn fromName(String name) {
+        for (InventoryEventColumn column : values()) {
+            if (column.fieldName.equalsIgnoreCase(name) || column.name().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -0,0 +1,15 @@
+package com.wallmart.backend.supplychain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row filter for projected reads of inventory_events; null fields do not filter
+ * @param storeId only this store
+ * @param categoryKey only this category (dictionary key)
+ * @param from timestamp at or after
+ * @param to timestamp before
+ */
+public record InventoryEventFilter(String storeId, Integer categoryKey, LocalDateTime from, LocalDateTime to) {
+
+    public static final InventoryEventFilter ALL = new InventoryEventFilter(null, null, null, null);
+}
@@ -0,0 +1,99 @@
+package com.wallmart.backend.supplychain.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paged reads of selected inventory_events columns as plain rows. Only the
+ * requested columns are selected and no entities are created, so a page costs memory in
+ * proportion to its row count and width; callers walk the table page by page from the
+ * last id they saw.
+ */
+@Repository
+public class InventoryProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Read-only, so that with datasource routing enabled the page is read from a replica
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The id and the given columns of up to {@code limit} rows matching the filter with an
+     * id above {@code afterId}, in id order
+     * @return rows of [id, columns...] with dictionary keys still encoded
+     */
+    public List<Object[]> findPage(List<InventoryEventColumn> columns, InventoryEventFilter filter, long afterId, int limit) {
+        if (shardedRepository != null) {
+            return shardedRepository.findRows(columns, filter, afterId, limit);
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT e.id");
+        for (InventoryEventColumn column : columns) {
+            jpql.append(", e.").append(column.getAttribute());
+        }
+        jpql.append(" FROM InventoryEvent e WHERE e.id > :afterId");
+        if (filter.storeId() != null) {
+            jpql.append(" AND e.storeId = :storeId");
+        }
+        if (filter.categoryKey() != null) {
+            jpql.append(" AND e.categoryKey = :categoryKey");
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND e.timestamp >= :from");
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND e.timestamp < :to");
+        }
+        jpql.append(" ORDER BY e.id");
+
+        return readOnlyTransaction.execute(status -> {
+            TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Math.min(limit, 1000));
+            if (filter.storeId() != null) {
+                query.setParameter("storeId", filter.storeId());
+            }
+            if (filter.categoryKey() != null) {
+                query.setParameter("categoryKey", filter.categoryKey());
+            }
+            if (filter.from() != null) {
+                query.setParameter("from", filter.from());
+            }
+            if (filter.to() != null) {
+                query.setParameter("to", filter.to());
+            }
+
+            List<Object[]> rows = new ArrayList<>(limit);
+            try (Stream<Tuple> results = query.getResultStream()) {
+                results.forEach(tuple -> rows.add(tuple.toArray()));
+            }
+            return rows;
+        });
+    }
+}
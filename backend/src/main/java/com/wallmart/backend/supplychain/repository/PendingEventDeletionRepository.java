@@ -0,0 +1,9 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.PendingEventDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PendingEventDeletionRepository extends JpaRepository<PendingEventDeletion, Long> {
+}
@@ -0,0 +1,495 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * inventory_events partitioned by storeId over several databases. Every row of a store
+ * lives on one shard ({@code floorMod(storeId.hashCode(), shards)}); writes are split by
+ * shard and run in parallel, reads run on every shard in parallel (scatter) and the
+ * caller merges the per-shard results (gather).
+ *
+ * <p>Each shard hands out ids from its own database sequence: a row gets
+ * {@code localId * shards + shard}, so ids never collide across shards, nor across
+ * application nodes sharing the shards. The sequence moves in blocks of {@value #ID_BLOCK}
+ * that a node then assigns from memory; ids increase per shard but are only roughly in
+ * insertion order across shards. The shard count is part of the id scheme and, like the
+ * store placement, cannot change without moving rows. Each shard commits its part of a
+ * batch on its own; there is no cross-shard transaction.
+ */
+public class ShardedInventoryRepository implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedInventoryRepository.class);
+
+    private static final int ID_BLOCK = 1000;
+
+    // Repeated strings are stored as dictionary keys (InventoryDimensionDictionary), like the JPA table
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS inventory_events ("
+        + "id BIGINT PRIMARY KEY, \"date\" VARCHAR(255), store_id VARCHAR(255), product_id VARCHAR(255), "
+        + "product_name_key INT NOT NULL, category_key INT, supplier_key INT, quantity INT NOT NULL, "
+        + "status_key INT, location_key INT, \"timestamp\" TIMESTAMP, inventory_level INT NOT NULL, "
+        + "units_sold INT NOT NULL, units_ordered INT NOT NULL, demand_forecast DOUBLE PRECISION NOT NULL, "
+        + "price DOUBLE PRECISION NOT NULL, discount DOUBLE PRECISION NOT NULL, weather_condition_key INT, "
+        + "holiday_or_promotion_key INT, competitor_pricing DOUBLE PRECISION NOT NULL, seasonality_key INT)";
+
+    private static final String CREATE_LEVEL_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_inventory_events_level ON inventory_events (inventory_level)";
+
+    private static final String CREATE_TIMESTAMP_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_inventory_events_timestamp ON inventory_events (\"timestamp\")";
+
+    private static final String CREATE_SEQUENCE =
+        "CREATE SEQUENCE IF NOT EXISTS inventory_events_seq START WITH %d INCREMENT BY " + ID_BLOCK;
+
+    private static final String COLUMNS = "id, \"date\", store_id, product_id, product_name_key, category_key, "
+        + "supplier_key, quantity, status_key, location_key, \"timestamp\", inventory_level, units_sold, units_ordered, "
+        + "demand_forecast, price, discount, weather_condition_key, holiday_or_promotion_key, competitor_pricing, "
+        + "seasonality_key";
+
+    private static final String INSERT = "INSERT INTO inventory_events (" + COLUMNS + ") "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DASHBOARD_PARTIAL = "SELECT COUNT(*), COUNT(DISTINCT store_id), "
+        + "COALESCE(SUM(inventory_level), 0), "
+        + "COALESCE(SUM(CASE WHEN inventory_level < 10 THEN 1 ELSE 0 END), 0), "
+        + "COALESCE(SUM(CASE WHEN inventory_level > 100 THEN 1 ELSE 0 END), 0), "
+        + "COALESCE(SUM(inventory_level * price), 0), COALESCE(SUM(demand_forecast * price), 0) "
+        + "FROM inventory_events";
+
+    private static final String CATEGORY_PARTIAL = "SELECT category_key, COUNT(*), SUM(inventory_level), "
+        + "SUM(inventory_level * price), SUM(CASE WHEN inventory_level < 10 THEN 1 ELSE 0 END) "
+        + "FROM inventory_events WHERE category_key IS NOT NULL GROUP BY category_key";
+
+    private static final String STOCK_ALERT_ROWS = "SELECT " + COLUMNS + " FROM inventory_events "
+        + "WHERE inventory_level < 10 OR inventory_level > 100 ORDER BY id";
+
+    private static final RowMapper<InventoryEvent> EVENT_MAPPER = (rs, rowNum) -> {
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        return InventoryEvent.builder()
+            .id(rs.getLong("id"))
+            .date(rs.getString("date"))
+            .storeId(rs.getString("store_id"))
+            .productId(rs.getString("product_id"))
+            .productNameKey(key(rs, "product_name_key"))
+            .categoryKey(key(rs, "category_key"))
+            .supplierKey(key(rs, "supplier_key"))
+            .quantity(rs.getInt("quantity"))
+            .statusKey(key(rs, "status_key"))
+            .locationKey(key(rs, "location_key"))
+            .timestamp(timestamp != null ? timestamp.toLocalDateTime() : null)
+            .inventoryLevel(rs.getInt("inventory_level"))
+            .unitsSold(rs.getInt("units_sold"))
+            .unitsOrdered(rs.getInt("units_ordered"))
+            .demandForecast(rs.getDouble("demand_forecast"))
+            .price(rs.getDouble("price"))
+            .discount(rs.getDouble("discount"))
+            .weatherConditionKey(key(rs, "weather_condition_key"))
+            .holidayOrPromotionKey(key(rs, "holiday_or_promotion_key"))
+            .competitorPricing(rs.getDouble("competitor_pricing"))
+            .seasonalityKey(key(rs, "seasonality_key"))
+            .build();
+    };
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final ExecutorService executor;
+
+    public ShardedInventoryRepository(List<HikariDataSource> pools) {
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (int i = 0; i < pools.size(); i++) {
+            shards.add(new Shard(i, pools.get(i)));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(pools.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-worker-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long maxId = 0;
+        for (Shard shard : shards) {
+            shard.jdbc.execute(CREATE_TABLE);
+            shard.jdbc.execute(CREATE_LEVEL_INDEX);
+            shard.jdbc.execute(CREATE_TIMESTAMP_INDEX);
+            Long shardMax = shard.jdbc.queryForObject("SELECT MAX(id) FROM inventory_events", Long.class);
+            maxId = Math.max(maxId, shardMax != null ? shardMax : 0);
+        }
+        // Only takes effect where the sequence does not exist yet: new ids start above every stored one
+        for (Shard shard : shards) {
+            shard.jdbc.execute(String.format(CREATE_SEQUENCE, maxId / shards.size() + 1));
+        }
+        logger.info("Sharded inventory store ready: {} shards", shards.size());
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(String storeId) {
+        return Math.floorMod(storeId != null ? storeId.hashCode() : 0, shards.size());
+    }
+
+    /**
+     * Assign ids to new events and insert each shard's rows in one JDBC batch, all shards in parallel
+     */
+    public void saveAll(List<InventoryEvent> events) {
+        assignIds(events);
+        List<List<InventoryEvent>> byShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (InventoryEvent event : events) {
+            byShard.get(shardOf(event.getStoreId())).add(event);
+        }
+
+        List<Future<?>> inserts = new ArrayList<>();
+        for (Shard shard : shards) {
+            List<InventoryEvent> rows = byShard.get(shard.index);
+            if (!rows.isEmpty()) {
+                inserts.add(executor.submit(() -> shard.insert(rows)));
+            }
+        }
+        for (Future<?> insert : inserts) {
+            await(insert);
+        }
+    }
+
+    /**
+     * Give every event without an id the next id of its shard, without saving it
+     */
+    public void assignIds(List<InventoryEvent> events) {
+        for (InventoryEvent event : events) {
+            if (event.getId() == null) {
+                Shard shard = shards.get(shardOf(event.getStoreId()));
+                event.setId(shard.nextLocalId() * shards.size() + shard.index);
+            }
+        }
+    }
+
+    /**
+     * Delete rows by id alone, on every shard in parallel (for ids whose store is not known)
+     */
+    public void deleteByIds(Collection<Long> ids) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[] {id});
+        }
+        scatter(jdbc -> jdbc.batchUpdate("DELETE FROM inventory_events WHERE id = ?", args));
+    }
+
+    /**
+     * Delete the given rows (by id) from the shards that hold them, all shards in parallel
+     */
+    public void deleteAll(List<InventoryEvent> events) {
+        List<List<Object[]>> idsByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        for (InventoryEvent event : events) {
+            idsByShard.get(shardOf(event.getStoreId())).add(new Object[] {event.getId()});
+        }
+
+        List<Future<?>> deletes = new ArrayList<>();
+        for (Shard shard : shards) {
+            List<Object[]> ids = idsByShard.get(shard.index);
+            if (!ids.isEmpty()) {
+                deletes.add(executor.submit(() -> shard.jdbc.batchUpdate("DELETE FROM inventory_events WHERE id = ?", ids)));
+            }
+        }
+        for (Future<?> delete : deletes) {
+            await(delete);
+        }
+    }
+
+    /**
+     * Run the query on every shard in parallel; results are in shard order
+     */
+    public <T> List<T> scatter(Function<JdbcTemplate, T> query) {
+        List<Future<T>> partials = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            partials.add(executor.submit(() -> query.apply(shard.jdbc)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (Future<T> partial : partials) {
+            results.add(await(partial));
+        }
+        return results;
+    }
+
+    public long count() {
+        return scatter(jdbc -> jdbc.queryForObject("SELECT COUNT(*) FROM inventory_events", Long.class))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Every row of every shard in id (insertion) order, with dictionary keys still encoded
+     */
+    public List<InventoryEvent> findAll() {
+        return gatherRows("SELECT " + COLUMNS + " FROM inventory_events ORDER BY id");
+    }
+
+    public List<DashboardPartial> dashboardPartials() {
+        return scatter(jdbc -> jdbc.queryForObject(DASHBOARD_PARTIAL, (rs, rowNum) -> new DashboardPartial(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getDouble(6), rs.getDouble(7))));
+    }
+
+    public List<CategoryPartial> categoryPartials() {
+        List<CategoryPartial> partials = new ArrayList<>();
+        for (List<CategoryPartial> shardPartials : scatter(jdbc -> jdbc.query(CATEGORY_PARTIAL, (rs, rowNum) ->
+                new CategoryPartial(rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getDouble(4), rs.getLong(5))))) {
+            partials.addAll(shardPartials);
+        }
+        return partials;
+    }
+
+    /**
+     * Rows below 10 or above 100 units, filtered on each shard, in id order
+     */
+    public List<InventoryEvent> findStockAlertRows() {
+        return gatherRows(STOCK_ALERT_ROWS);
+    }
+
+    /**
+     * One keyset page of projected rows: the id and the given columns of the first
+     * {@code limit} matching rows with an id above {@code afterId}, over all shards in id
+     * order. A store filter reads only that store's shard.
+     * @return rows of [id, columns...] with dictionary keys still encoded
+     */
+    public List<Object[]> findRows(List<InventoryEventColumn> columns, InventoryEventFilter filter, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id");
+        for (InventoryEventColumn column : columns) {
+            sql.append(", ").append(column.getSqlColumn());
+        }
+        sql.append(" FROM inventory_events WHERE id > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        if (filter.storeId() != null) {
+            sql.append(" AND store_id = ?");
+            args.add(filter.storeId());
+        }
+        if (filter.categoryKey() != null) {
+            sql.append(" AND category_key = ?");
+            args.add(filter.categoryKey());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND \"timestamp\" >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND \"timestamp\" < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        sql.append(" ORDER BY id LIMIT ").append(limit);
+
+        RowMapper<Object[]> mapper = (rs, rowNum) -> {
+            Object[] row = new Object[columns.size() + 1];
+            row[0] = rs.getLong(1);
+            for (int i = 0; i < columns.size(); i++) {
+                row[i + 1] = rs.getObject(i + 2, columns.get(i).getStoredType());
+            }
+            return row;
+        };
+        Function<JdbcTemplate, List<Object[]>> query = jdbc -> jdbc.query(sql.toString(), mapper, args.toArray());
+
+        List<Object[]> rows;
+        if (filter.storeId() != null) {
+            rows = query.apply(shards.get(shardOf(filter.storeId())).jdbc);
+        } else {
+            // Each shard returns its own first page; the merged page is the lowest ids of all of them
+            rows = new ArrayList<>();
+            for (List<Object[]> shardRows : scatter(query)) {
+                rows.addAll(shardRows);
+            }
+            rows.sort(Comparator.comparingLong(row -> (Long) row[0]));
+            if (rows.size() > limit) {
+                rows = new ArrayList<>(rows.subList(0, limit));
+            }
+        }
+        return rows;
+    }
+
+    public List<Map<String, Object>> getStatus() {
+        List<Long> counts = scatter(jdbc -> jdbc.queryForObject("SELECT COUNT(*) FROM inventory_events", Long.class));
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (Shard shard : shards) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("shard", shard.index);
+            item.put("url", shard.pool.getJdbcUrl());
+            item.put("rows", counts.get(shard.index));
+            item.put("activeConnections", shard.pool.getHikariPoolMXBean() != null
+                ? shard.pool.getHikariPoolMXBean().getActiveConnections() : 0);
+            status.add(item);
+        }
+        return status;
+    }
+
+    private List<InventoryEvent> gatherRows(String sql) {
+        List<InventoryEvent> rows = new ArrayList<>();
+        for (List<InventoryEvent> shardRows : scatter(jdbc -> jdbc.query(sql, EVENT_MAPPER))) {
+            rows.addAll(shardRows);
+        }
+        // Each shard is sorted already; restore the global insertion order
+        rows.sort(Comparator.comparing(InventoryEvent::getId));
+        return rows;
+    }
+
+    private static Integer key(ResultSet rs, String column) throws SQLException {
+        int key = rs.getInt(column);
+        return rs.wasNull() ? null : key;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a shard", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard operation failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Shard shard : shards) {
+            shard.pool.close();
+        }
+    }
+
+    /**
+     * One shard's share of the dashboard figures; sums and counts merge by addition. A store
+     * lives on one shard only, so the distinct store counts add up exactly as well
+     */
+    public record DashboardPartial(long rows, long stores, long inventoryLevelSum, long lowStockItems,
+                                   long overstockedItems, double totalValue, double revenueForecast) {
+    }
+
+    /**
+     * One shard's figures for one category, identified by its dictionary key
+     */
+    public record CategoryPartial(int categoryKey, long itemCount, long inventoryLevelSum, double totalValue,
+                                  long lowStockItems) {
+    }
+
+    private static final class Shard {
+
+        private final int index;
+        private final HikariDataSource pool;
+        private final JdbcTemplate jdbc;
+        private String nextValueSql;
+        private long nextLocalId;
+        private long blockEnd;
+
+        private Shard(int index, HikariDataSource pool) {
+            this.index = index;
+            this.pool = pool;
+            this.jdbc = new JdbcTemplate(pool);
+        }
+
+        /**
+         * The next id of this shard's sequence, taking a new block from the database when
+         * the current one is used up
+         */
+        private synchronized long nextLocalId() {
+            if (nextLocalId >= blockEnd) {
+                if (nextValueSql == null) {
+                    String product = jdbc.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+                    nextValueSql = "PostgreSQL".equalsIgnoreCase(product)
+                        ? "SELECT nextval('inventory_events_seq')"
+                        : "SELECT NEXT VALUE FOR inventory_events_seq";
+                }
+                nextLocalId = jdbc.queryForObject(nextValueSql, Long.class);
+                blockEnd = nextLocalId + ID_BLOCK;
+            }
+            return nextLocalId++;
+        }
+
+        private void insert(List<InventoryEvent> rows) {
+            jdbc.execute((Connection connection) -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                    for (InventoryEvent event : rows) {
+                        bind(statement, event);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+        }
+
+        private static void bind(PreparedStatement statement, InventoryEvent event) throws SQLException {
+            statement.setLong(1, event.getId());
+            statement.setString(2, event.getDate());
+            statement.setString(3, event.getStoreId());
+            statement.setString(4, event.getProductId());
+            statement.setInt(5, event.getProductNameKey());
+            setKey(statement, 6, event.getCategoryKey());
+            setKey(statement, 7, event.getSupplierKey());
+            statement.setInt(8, event.getQuantity());
+            setKey(statement, 9, event.getStatusKey());
+            setKey(statement, 10, event.getLocationKey());
+            if (event.getTimestamp() != null) {
+                statement.setTimestamp(11, Timestamp.valueOf(event.getTimestamp()));
+            } else {
+                statement.setNull(11, Types.TIMESTAMP);
+            }
+            statement.setInt(12, event.getInventoryLevel());
+            statement.setInt(13, event.getUnitsSold());
+            statement.setInt(14, event.getUnitsOrdered());
+            statement.setDouble(15, event.getDemandForecast());
+            statement.setDouble(16, event.getPrice());
+            statement.setDouble(17, event.getDiscount());
+            setKey(statement, 18, event.getWeatherConditionKey());
+            setKey(statement, 19, event.getHolidayOrPromotionKey());
+            statement.setDouble(20, event.getCompetitorPricing());
+            setKey(statement, 21, event.getSeasonalityKey());
+        }
+
+        private static void setKey(PreparedStatement statement, int index, Integer key) throws SQLException {
+            if (key != null) {
+                statement.setInt(index, key);
+            } else {
+                statement.setNull(index, Types.INTEGER);
+            }
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.wallmart.backend.supplychain.service;
 
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.analytics.DemandWindow;
 import com.wallmart.backend.supplychain.dto.InventoryPredictionDTO;
 import com.wallmart.backend.supplychain.entity.InventoryEvent;
-import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository.CategoryPartial;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository.DashboardPartial;
+import com.wallmart.backend.supplychain.tracing.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -21,11 +28,29 @@ import java.util.stream.Stream;
 public class AIPredictionService {
 
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private DatasetGenerationService datasetGenerationService;
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private InventorySketchService inventorySketchService;
+
+    @Autowired
+    private DemandVelocityService demandVelocityService;
+
+    @Autowired
+    private ReplenishmentPlanningService replenishmentPlanningService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
     @Value("${ai.service.url:http://localhost:8000}")
     private String aiServiceUrl;
 
@@ -34,8 +59,8 @@ public class AIPredictionService {
 
     public List<InventoryPredictionDTO> predictInventoryStatus() {
         try {
-            // Fetch limited inventory data from database to prevent large requests
-            List<InventoryEvent> allInventoryData = inventoryRepository.findAll();
+            // Fetch limited inventory data from the current dataset generation to prevent large requests
+            List<InventoryEvent> allInventoryData = datasetGenerationService.getCurrentGeneration().getEvents();
             
             if (allInventoryData.isEmpty()) {
                 throw new RuntimeException("No inventory data available for prediction");
@@ -47,6 +72,7 @@ public class AIPredictionService {
                 .collect(Collectors.toList());
 
             // Try to call AI service with timeout
+            Timer.Sample sample = Timer.start(meterRegistry);
             try {
                 // Prepare data for AI service
                 Map<String, Object> requestData = new HashMap<>();
@@ -60,19 +86,30 @@ public class AIPredictionService {
                 HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestData, headers);
 
                 // Call AI service with timeout
-                ResponseEntity<Map> response = restTemplate.postForEntity(
-                    aiServiceUrl + "/predict",
-                    request,
-                    Map.class
-                );
+                ResponseEntity<Map> response;
+                try (RequestTrace.Phase phase = RequestTrace.phase("ai.call")) {
+                    response = restTemplate.postForEntity(
+                        aiServiceUrl + "/predict",
+                        request,
+                        Map.class
+                    );
+                }
+
+                sample.stop(aiServiceTimer("predict", "success"));
 
                 // Process AI response and convert to DTOs
-                return processAIResponse(response.getBody(), allInventoryData);
+                try (RequestTrace.Phase phase = RequestTrace.phase("predictions.build")) {
+                    return processAIResponse(response.getBody(), allInventoryData);
+                }
 
             } catch (RestClientException e) {
+                sample.stop(aiServiceTimer("predict", "error"));
+                meterRegistry.counter("ai.service.fallbacks", "operation", "predict").increment();
                 // AI service is not available, use fallback predictions
                 System.out.println("AI service not available, using fallback predictions: " + e.getMessage());
-                return generateFallbackPredictions(allInventoryData);
+                try (RequestTrace.Phase phase = RequestTrace.phase("predictions.fallback")) {
+                    return generateFallbackPredictions(allInventoryData);
+                }
             }
 
         } catch (Exception e) {
@@ -81,7 +118,13 @@ public class AIPredictionService {
     }
 
     public Map<String, Object> getDashboardStats() {
-        List<InventoryEvent> inventoryData = inventoryRepository.findAll();
+        if (shardedRepository != null) {
+            return getShardedDashboardStats();
+        }
+
+        // Pin one published generation so every figure comes from the same data
+        DatasetGeneration generation = datasetGenerationService.getCurrentGeneration();
+        List<InventoryEvent> inventoryData = generation.getEvents();
         
         if (inventoryData.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
@@ -89,17 +132,15 @@ public class AIPredictionService {
             return error;
         }
 
-        // Calculate statistics
-        long totalProducts = inventoryData.stream()
-            .map(InventoryEvent::getProductId)
-            .distinct()
-            .count();
-            
-        long totalStores = inventoryData.stream()
-            .map(InventoryEvent::getStoreId)
-            .distinct()
-            .count();
-            
+        // Distinct counts come from the HyperLogLog sketches kept for that generation
+        long totalProducts;
+        long totalStores;
+        try (RequestTrace.Phase phase = RequestTrace.phase("stats.sketch")) {
+            totalProducts = inventorySketchService.estimateDistinctProducts(generation);
+            totalStores = inventorySketchService.estimateDistinctStores(generation);
+        }
+
+        RequestTrace.Phase scan = RequestTrace.phase("stats.scan");
         double avgInventory = inventoryData.stream()
             .mapToDouble(InventoryEvent::getInventoryLevel)
             .average()
@@ -120,6 +161,7 @@ public class AIPredictionService {
         double revenueForecast = inventoryData.stream()
             .mapToDouble(item -> item.getDemandForecast() * item.getPrice())
             .sum();
+        scan.close();
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalProducts", totalProducts);
@@ -133,8 +175,56 @@ public class AIPredictionService {
         return stats;
     }
 
+    /**
+     * Dashboard figures as per-shard SQL aggregates run in parallel; counts and sums add up,
+     * the average is the merged level sum over the merged row count. Products span shards,
+     * so their distinct count still comes from the current generation's sketch
+     */
+    private Map<String, Object> getShardedDashboardStats() {
+        long rows = 0;
+        long totalStores = 0;
+        long inventoryLevelSum = 0;
+        long lowStockItems = 0;
+        long overstockedItems = 0;
+        double totalValue = 0;
+        double revenueForecast = 0;
+        try (RequestTrace.Phase phase = RequestTrace.phase("shard.scatter")) {
+            for (DashboardPartial partial : shardedRepository.dashboardPartials()) {
+                rows += partial.rows();
+                totalStores += partial.stores();
+                inventoryLevelSum += partial.inventoryLevelSum();
+                lowStockItems += partial.lowStockItems();
+                overstockedItems += partial.overstockedItems();
+                totalValue += partial.totalValue();
+                revenueForecast += partial.revenueForecast();
+            }
+        }
+
+        if (rows == 0) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "No data available");
+            return error;
+        }
+
+        long totalProducts;
+        try (RequestTrace.Phase phase = RequestTrace.phase("stats.sketch")) {
+            totalProducts = inventorySketchService.estimateDistinctProducts(datasetGenerationService.getCurrentGeneration());
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", totalProducts);
+        stats.put("totalStores", totalStores);
+        stats.put("averageInventoryLevel", Math.round((double) inventoryLevelSum / rows));
+        stats.put("lowStockItems", lowStockItems);
+        stats.put("overstockedItems", overstockedItems);
+        stats.put("totalValue", Math.round(totalValue));
+        stats.put("revenueForecast", Math.round(revenueForecast));
+        stats.put("aiInsights", rows);
+        return stats;
+    }
+
     public Map<String, Object> getRevenueForecast() {
-        List<InventoryEvent> inventoryData = inventoryRepository.findAll();
+        List<InventoryEvent> inventoryData = datasetGenerationService.getCurrentGeneration().getEvents();
         
         if (inventoryData.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
@@ -162,8 +252,23 @@ public class AIPredictionService {
     }
 
     public List<Map<String, Object>> getStockAlerts() {
-        List<InventoryEvent> inventoryData = inventoryRepository.findAll();
+        if (shardedRepository != null) {
+            // Each shard filters its own rows; only alert rows travel back
+            List<InventoryEvent> alertRows;
+            try (RequestTrace.Phase phase = RequestTrace.phase("shard.scatter")) {
+                alertRows = dimensionDictionary.decode(shardedRepository.findStockAlertRows());
+            }
+            return buildStockAlerts(alertRows);
+        }
+
+        List<InventoryEvent> inventoryData = datasetGenerationService.getCurrentGeneration().getEvents();
         
+        try (RequestTrace.Phase phase = RequestTrace.phase("alerts.scan")) {
+            return buildStockAlerts(inventoryData);
+        }
+    }
+
+    private List<Map<String, Object>> buildStockAlerts(List<InventoryEvent> inventoryData) {
         return inventoryData.stream()
             .filter(item -> item.getInventoryLevel() < 10 || item.getInventoryLevel() > 100)
             .map(item -> {
@@ -177,14 +282,19 @@ public class AIPredictionService {
                 alert.put("currentLevel", item.getInventoryLevel());
                 alert.put("alertType", alertType);
                 alert.put("severity", severity);
-                alert.put("recommendation", generateStockAlertRecommendation(alertType, item));
+                alert.put("recommendation", generateStockAlertRecommendation(alertType, item,
+                    replenishmentPlanningService.getOrderQuantity(item.getStoreId(), item.getProductId())));
                 return alert;
             })
             .collect(Collectors.toList());
     }
 
     public Map<String, Object> getCategoryPerformance() {
-        List<InventoryEvent> inventoryData = inventoryRepository.findAll();
+        if (shardedRepository != null) {
+            return getShardedCategoryPerformance();
+        }
+
+        List<InventoryEvent> inventoryData = datasetGenerationService.getCurrentGeneration().getEvents();
         
         if (inventoryData.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
@@ -193,11 +303,15 @@ public class AIPredictionService {
         }
 
         // Group by category and calculate metrics
-        Map<String, List<InventoryEvent>> categoryGroups = inventoryData.stream()
-            .collect(Collectors.groupingBy(InventoryEvent::getCategory));
+        Map<String, List<InventoryEvent>> categoryGroups;
+        try (RequestTrace.Phase phase = RequestTrace.phase("category.group")) {
+            categoryGroups = inventoryData.stream()
+                .collect(Collectors.groupingBy(InventoryEvent::getCategory));
+        }
             
         Map<String, Object> performance = new HashMap<>();
         
+        RequestTrace.Phase aggregate = RequestTrace.phase("category.aggregate");
         categoryGroups.forEach((category, items) -> {
             double totalValue = items.stream()
                 .mapToDouble(item -> item.getInventoryLevel() * item.getPrice())
@@ -219,15 +333,49 @@ public class AIPredictionService {
             categoryStats.put("itemCount", items.size());
             performance.put(category, categoryStats);
         });
+        aggregate.close();
+
+        return performance;
+    }
+
+    /**
+     * Per-shard GROUP BY category run in parallel; a category spread over several shards
+     * (stores of different shards selling it) is merged by adding its partials
+     */
+    private Map<String, Object> getShardedCategoryPerformance() {
+        Map<Integer, CategoryPartial> merged = new HashMap<>();
+        try (RequestTrace.Phase phase = RequestTrace.phase("shard.scatter")) {
+            for (CategoryPartial partial : shardedRepository.categoryPartials()) {
+                merged.merge(partial.categoryKey(), partial, (a, b) -> new CategoryPartial(a.categoryKey(),
+                    a.itemCount() + b.itemCount(), a.inventoryLevelSum() + b.inventoryLevelSum(),
+                    a.totalValue() + b.totalValue(), a.lowStockItems() + b.lowStockItems()));
+            }
+        }
+
+        if (merged.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "No data available");
+            return error;
+        }
 
+        Map<String, Object> performance = new HashMap<>();
+        merged.forEach((categoryKey, totals) -> {
+            Map<String, Object> categoryStats = new HashMap<>();
+            categoryStats.put("totalValue", Math.round(totals.totalValue()));
+            categoryStats.put("averageInventory", Math.round((double) totals.inventoryLevelSum() / totals.itemCount()));
+            categoryStats.put("lowStockItems", totals.lowStockItems());
+            categoryStats.put("itemCount", (int) totals.itemCount());
+            performance.put(dimensionDictionary.valueOf(categoryKey), categoryStats);
+        });
         return performance;
     }
 
     public Map<String, Object> optimizeInventory(Map<String, Object> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             // Prepare optimization request for AI service
             Map<String, Object> optimizationRequest = new HashMap<>();
-            optimizationRequest.put("inventory_data", inventoryRepository.findAll());
+            optimizationRequest.put("inventory_data", datasetGenerationService.getCurrentGeneration().getEvents());
             optimizationRequest.put("optimization_target", request.getOrDefault("target", "cost"));
             optimizationRequest.put("constraints", request.getOrDefault("constraints", new HashMap<>()));
 
@@ -240,6 +388,7 @@ public class AIPredictionService {
                 httpRequest,
                 Map.class
             );
+            sample.stop(aiServiceTimer("optimize", "success"));
 
             if (response.getBody() != null) {
                 return response.getBody();
@@ -250,6 +399,7 @@ public class AIPredictionService {
             }
 
         } catch (Exception e) {
+            sample.stop(aiServiceTimer("optimize", "error"));
             Map<String, Object> error = new HashMap<>();
             error.put("error", "Optimization failed: " + e.getMessage());
             return error;
@@ -257,11 +407,13 @@ public class AIPredictionService {
     }
 
     public Map<String, Object> checkAIServiceHealth() {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
             ResponseEntity<Map> response = restTemplate.getForEntity(
                 aiServiceUrl + "/health",
                 Map.class
             );
+            sample.stop(aiServiceTimer("health", "success"));
             
             Map<String, Object> health = new HashMap<>();
             health.put("status", "healthy");
@@ -269,6 +421,7 @@ public class AIPredictionService {
             health.put("response", response.getBody());
             return health;
         } catch (Exception e) {
+            sample.stop(aiServiceTimer("health", "error"));
             Map<String, Object> health = new HashMap<>();
             health.put("status", "unhealthy");
             health.put("aiServiceUrl", aiServiceUrl);
@@ -277,6 +430,13 @@ public class AIPredictionService {
         }
     }
 
+    private Timer aiServiceTimer(String operation, String outcome) {
+        return Timer.builder("ai.service.requests")
+            .description("Calls to the Python AI service")
+            .tags("operation", operation, "outcome", outcome)
+            .register(meterRegistry);
+    }
+
     private List<InventoryPredictionDTO> processAIResponse(Map response, List<InventoryEvent> inventoryData) {
         // This is a simplified implementation
         // In a real scenario, you would parse the AI service response
@@ -293,9 +453,12 @@ public class AIPredictionService {
             .collect(Collectors.toList());
     }
 
-    private InventoryPredictionDTO createPredictionDTO(InventoryEvent inventoryEvent) {
-        // Simple logic to determine stock status based on inventory level
-        String stockStatus = determineStockStatus(inventoryEvent);
+    /**
+     * Stock status, demand outlook and recommendation for one event (the local model)
+     */
+    public InventoryPredictionDTO createPredictionDTO(InventoryEvent inventoryEvent) {
+        DemandWindow.Velocity velocity = demandVelocityService.getVelocity(inventoryEvent.getStoreId(), inventoryEvent.getProductId());
+        String stockStatus = determineStockStatus(inventoryEvent, velocity);
         Boolean expectedDemandIncrease = determineDemandIncrease(inventoryEvent);
 
         return InventoryPredictionDTO.builder()
@@ -307,11 +470,17 @@ public class AIPredictionService {
             .stockStatus(stockStatus)
             .expectedDemandIncrease(expectedDemandIncrease)
             .demandForecast(inventoryEvent.getDemandForecast())
-            .recommendation(generateRecommendation(stockStatus, expectedDemandIncrease))
+            .daysOfCover(velocity != null ? velocity.daysOfCover() : null)
+            .recommendation(generateRecommendation(stockStatus, expectedDemandIncrease,
+                replenishmentPlanningService.getOrderQuantity(inventoryEvent.getStoreId(), inventoryEvent.getProductId())))
             .build();
     }
 
-    private String determineStockStatus(InventoryEvent inventoryEvent) {
+    private String determineStockStatus(InventoryEvent inventoryEvent, DemandWindow.Velocity velocity) {
+        // Actual sales velocity wins: the SKU runs out before the understock horizon
+        if (demandVelocityService.isUnderstocked(velocity)) {
+            return "UNDERSTOCKED";
+        }
         // Simple logic: if inventory is low relative to demand forecast
         if (inventoryEvent.getInventoryLevel() < inventoryEvent.getDemandForecast() * 0.5) {
             return "UNDERSTOCKED";
@@ -327,8 +496,11 @@ public class AIPredictionService {
         return inventoryEvent.getDemandForecast() > inventoryEvent.getInventoryLevel();
     }
 
-    private String generateRecommendation(String stockStatus, Boolean expectedDemandIncrease) {
+    private String generateRecommendation(String stockStatus, Boolean expectedDemandIncrease, Long orderQuantity) {
         if ("UNDERSTOCKED".equals(stockStatus)) {
+            if (orderQuantity != null && orderQuantity > 0) {
+                return "Increase inventory levels immediately: order " + orderQuantity + " units";
+            }
             return "Increase inventory levels immediately";
         } else if ("OVERSTOCKED".equals(stockStatus)) {
             return "Consider promotional activities to reduce inventory";
@@ -339,9 +511,10 @@ public class AIPredictionService {
         }
     }
 
-    private String generateStockAlertRecommendation(String alertType, InventoryEvent item) {
+    private String generateStockAlertRecommendation(String alertType, InventoryEvent item, Long orderQuantity) {
         if ("LOW_STOCK".equals(alertType)) {
-            return "Urgent: Reorder " + item.getProductName() + " immediately. Current stock: " + item.getInventoryLevel();
+            String reorder = orderQuantity != null && orderQuantity > 0 ? orderQuantity + " units of " : "";
+            return "Urgent: Reorder " + reorder + item.getProductName() + " immediately. Current stock: " + item.getInventoryLevel();
         } else {
             return "Consider promotional activities for " + item.getProductName() + ". Current stock: " + item.getInventoryLevel();
         }
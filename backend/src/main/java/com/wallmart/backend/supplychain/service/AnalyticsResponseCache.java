@@ -0,0 +1,219 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallmart.backend.supplychain.tracing.RequestTrace;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cross-request cache for analytics responses, keyed by endpoint, parameters and dataset version.
+ * Concurrent requests for the same key share one computation (single flight), and every entry
+ * carries a strong ETag derived from its serialized body. The version is the published dataset
+ * generation, so entries turn over only when an ingest completes. Within a version the
+ * least recently used entries are dropped once there are more than {@value #MAX_ENTRIES}.
+ * A response computed while a generation was being published may mix two versions of the
+ * derived state, so it is returned but not kept.
+ */
+@Component
+public class AnalyticsResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsResponseCache.class);
+    private static final int MAX_ENTRIES = 512;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    // Access-ordered, so the eldest entry is the least recently used one; guarded by itself
+    private final Map<String, CompletableFuture<CachedResponse<?>>> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<CachedResponse<?>>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Return the cached response for this endpoint and parameters, computing it at most once
+     * per dataset version
+     * @param endpoint logical endpoint name, e.g. "dashboard-stats"
+     * @param params request parameters that affect the result
+     * @param loader computes the response body on a cache miss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CachedResponse<T> get(String endpoint, Map<String, ?> params, Supplier<T> loader) {
+        long stamp = getPublishStamp();
+        long version = getDatasetVersion();
+        String key = endpoint + "|" + new TreeMap<>(params) + "|v" + version;
+        if ((stamp & 1) != 0) {
+            return compute(key, loader);
+        }
+
+        CompletableFuture<CachedResponse<?>> future = new CompletableFuture<>();
+        CompletableFuture<CachedResponse<?>> existing;
+        synchronized (entries) {
+            existing = entries.putIfAbsent(key, future);
+        }
+        if (existing != null) {
+            try (RequestTrace.Phase phase = RequestTrace.phase("cache.hit")) {
+                return (CachedResponse<T>) join(existing);
+            }
+        }
+
+        try {
+            T body;
+            try (RequestTrace.Phase phase = RequestTrace.phase("cache.compute")) {
+                body = loader.get();
+            }
+            String eTag;
+            try (RequestTrace.Phase phase = RequestTrace.phase("cache.etag")) {
+                eTag = computeETag(key, body);
+            }
+            if (getPublishStamp() != stamp) {
+                // A publish overlapped the computation: the body may not belong to version
+                synchronized (entries) {
+                    entries.remove(key, future);
+                }
+            }
+            future.complete(new CachedResponse<>(body, eTag));
+        } catch (Throwable e) {
+            // Also for Errors: an entry left incomplete would block every later request for the key
+            synchronized (entries) {
+                entries.remove(key, future);
+            }
+            future.completeExceptionally(e);
+        }
+        return (CachedResponse<T>) join(future);
+    }
+
+    private <T> CachedResponse<T> compute(String key, Supplier<T> loader) {
+        T body;
+        try (RequestTrace.Phase phase = RequestTrace.phase("cache.compute")) {
+            body = loader.get();
+        }
+        return new CachedResponse<>(body, computeETag(key, body));
+    }
+
+    public long getDatasetVersion() {
+        return datasetGenerationService.getCurrentGeneration().getVersion();
+    }
+
+    long getPublishStamp() {
+        return datasetGenerationService.getPublishStamp();
+    }
+
+    /**
+     * Drop responses of older generations once a new one is published
+     */
+    @EventListener
+    public void onDatasetPublished(DatasetPublishedEvent event) {
+        evictOtherVersions(event.getGeneration().getVersion());
+        logger.debug("Analytics cache moved to dataset version {}", event.getGeneration().getVersion());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictOtherVersions(long version) {
+        String suffix = "|v" + version;
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> !key.endsWith(suffix));
+        }
+    }
+
+    private CachedResponse<?> join(CompletableFuture<CachedResponse<?>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private String computeETag(String key, Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(objectMapper.writeValueAsBytes(body));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (Exception e) {
+            // Fall back to a version-based tag; still strong because the body is fixed per key
+            logger.warn("Could not hash analytics response for ETag: {}", e.getMessage());
+            return "\"" + Integer.toHexString(key.hashCode()) + "\"";
+        }
+    }
+
+    /**
+     * A computed response body together with its strong ETag
+     */
+    public static class CachedResponse<T> {
+
+        private final T body;
+        private final String eTag;
+
+        CachedResponse(T body, String eTag) {
+            this.body = body;
+            this.eTag = eTag;
+        }
+
+        public T getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Build a 304 if the client's If-None-Match already matches, otherwise a 200 with the body
+         */
+        public ResponseEntity<T> toResponseEntity(String ifNoneMatch) {
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+        }
+
+        private boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2); // If-None-Match uses weak comparison
+                }
+                if ("*".equals(tag) || eTag.equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.AnomalyDetector;
+import com.wallmart.backend.supplychain.dto.InventoryAnomalyDTO;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flags anomalous rows (negative stock, sales spikes, price glitches) as they are ingested
+ * and keeps the most recent findings in memory for querying.
+ */
+@Service
+public class AnomalyDetectionService implements InventoryIngestListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnomalyDetectionService.class);
+
+    @Value("${analytics.anomaly.z-threshold:4.0}")
+    private double zThreshold;
+
+    @Value("${analytics.anomaly.warmup-count:10}")
+    private int warmupCount;
+
+    @Value("${analytics.anomaly.max-retained:10000}")
+    private int maxRetained;
+
+    private AnomalyDetector detector;
+    private final Deque<InventoryAnomalyDTO> anomalies = new ArrayDeque<>();
+    private final Map<String, LongAdder> countsByReason = new ConcurrentHashMap<>();
+    private final LongAdder rowsScored = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        detector = new AnomalyDetector(zThreshold, warmupCount);
+    }
+
+    /**
+     * Warm the statistics from the rows the startup load published, without flagging them.
+     * Ingested rows are scored in onEventsSaved instead, so nothing is folded in twice.
+     */
+    @EventListener
+    public void onDatasetPublished(DatasetPublishedEvent event) {
+        if (!event.isLoadedFromDatabase()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        List<InventoryEvent> events = event.getAddedEvents();
+        for (InventoryEvent row : events) {
+            detector.train(skuKey(row), categoryKey(row), valuesOf(row));
+        }
+        logger.info("Warmed anomaly statistics from {} events in {} ms", events.size(), System.currentTimeMillis() - startTime);
+    }
+
+    @Override
+    public void onEventsSaved(List<InventoryEvent> batch) {
+        List<InventoryAnomalyDTO> flagged = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (InventoryEvent event : batch) {
+            List<AnomalyDetector.Finding> findings = detector.observe(skuKey(event), categoryKey(event), valuesOf(event));
+            for (AnomalyDetector.Finding finding : findings) {
+                flagged.add(toDTO(event, finding, now));
+                countsByReason.computeIfAbsent(finding.reason(), key -> new LongAdder()).increment();
+            }
+        }
+        rowsScored.add(batch.size());
+
+        if (!flagged.isEmpty()) {
+            synchronized (anomalies) {
+                for (InventoryAnomalyDTO anomaly : flagged) {
+                    anomalies.addFirst(anomaly);
+                }
+                while (anomalies.size() > maxRetained) {
+                    anomalies.removeLast();
+                }
+            }
+            logger.info("Flagged {} anomalies in a batch of {} events", flagged.size(), batch.size());
+        }
+    }
+
+    /**
+     * Most recent anomalies first, optionally filtered
+     */
+    public List<InventoryAnomalyDTO> getAnomalies(String storeId, String productId, String metric, String reason, int limit) {
+        String metricName = metric != null ? AnomalyDetector.Metric.fromName(metric).getFieldName() : null;
+        List<InventoryAnomalyDTO> result = new ArrayList<>();
+        synchronized (anomalies) {
+            Iterator<InventoryAnomalyDTO> iterator = anomalies.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                InventoryAnomalyDTO anomaly = iterator.next();
+                if ((storeId == null || storeId.equals(anomaly.getStoreId()))
+                        && (productId == null || productId.equals(anomaly.getProductId()))
+                        && (metricName == null || metricName.equals(anomaly.getMetric()))
+                        && (reason == null || reason.equalsIgnoreCase(anomaly.getReason()))) {
+                    result.add(anomaly);
+                }
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Long> byReason = new TreeMap<>();
+        countsByReason.forEach((reason, count) -> byReason.put(reason, count.sum()));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("rowsScored", rowsScored.sum());
+        summary.put("anomaliesByReason", byReason);
+        synchronized (anomalies) {
+            summary.put("retained", anomalies.size());
+        }
+        summary.put("trackedKeys", detector.trackedKeys());
+        return summary;
+    }
+
+    private InventoryAnomalyDTO toDTO(InventoryEvent event, AnomalyDetector.Finding finding, LocalDateTime detectedAt) {
+        return InventoryAnomalyDTO.builder()
+            .eventId(event.getId())
+            .storeId(event.getStoreId())
+            .productId(event.getProductId())
+            .category(event.getCategory())
+            .timestamp(event.getTimestamp())
+            .metric(finding.metric().getFieldName())
+            .value(finding.value())
+            .expected(finding.expected() != null ? round(finding.expected()) : null)
+            .zScore(finding.zScore() != null ? round(finding.zScore()) : null)
+            .reason(finding.reason())
+            .detectedAt(detectedAt)
+            .build();
+    }
+
+    private double[] valuesOf(InventoryEvent event) {
+        return new double[] {event.getInventoryLevel(), event.getUnitsSold(), event.getPrice()};
+    }
+
+    private String skuKey(InventoryEvent event) {
+        return event.getStoreId() + "|" + event.getProductId();
+    }
+
+    private String categoryKey(InventoryEvent event) {
+        return event.getCategory() != null ? event.getCategory() : "Unknown";
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
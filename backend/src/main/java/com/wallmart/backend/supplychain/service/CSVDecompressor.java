@@ -0,0 +1,70 @@
+package com.wallmart.backend.supplychain.service;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Opens plain, gzip and zip CSV uploads as a single decompressed stream.
+ * Nothing is buffered beyond the inflater window, so the uncompressed file
+ * never has to fit in memory or on disk.
+ */
+@Component
+public class CSVDecompressor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CSVDecompressor.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Check whether a file name has one of the supported CSV extensions
+     * @param fileName original file name of the upload
+     * @return true for .csv, .csv.gz and .zip files
+     */
+    public boolean isSupported(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".csv.gz") || name.endsWith(".zip");
+    }
+
+    /**
+     * Wrap the raw stream so that reading it yields the uncompressed CSV bytes
+     * @param raw stream as received (upload body or file)
+     * @param fileName used to pick the decoder from its extension
+     * @return decompressed CSV stream
+     */
+    public InputStream open(InputStream raw, String fileName) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+
+        // Only gzipped CSV: a .tar.gz would inflate to tar bytes, not CSV
+        if (name.endsWith(".csv.gz")) {
+            return new GZIPInputStream(new BufferedInputStream(raw, BUFFER_SIZE), BUFFER_SIZE);
+        }
+
+        if (name.endsWith(".zip")) {
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(raw, BUFFER_SIZE));
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".csv")) {
+                    logger.info("Reading CSV entry '{}' from zip archive {}", entry.getName(), fileName);
+                    return zip; // Positioned on the entry; reads stop at its end
+                }
+            }
+            zip.close();
+            throw new IOException("No CSV entry found in zip archive " + fileName);
+        }
+
+        if (!name.endsWith(".csv")) {
+            throw new IOException("Unsupported file type " + fileName + " (expected .csv, .csv.gz or .zip)");
+        }
+        return raw;
+    }
+}
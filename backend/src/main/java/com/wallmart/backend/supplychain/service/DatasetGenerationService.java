@@ -0,0 +1,177 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Publishes versioned dataset generations for analytics reads. An ingest's rows become
+ * visible all at once when the ingest completes, never batch by batch, and readers pin
+ * the current generation with a single volatile read. The stored rows are loaded as a
+ * lifecycle phase that runs before the web server starts, so no request is served from
+ * an empty generation while the load is still running.
+ */
+@Service
+public class DatasetGenerationService implements InventoryIngestListener, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerationService.class);
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile DatasetGeneration current = DatasetGeneration.empty();
+
+    // Odd while a publish is updating derived state, so readers can tell a stable view from a mixed one
+    private volatile long publishStamp;
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    /**
+     * Table size from the published generation, which holds every saved row, so a scrape never runs count(*)
+     */
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder("inventory.events.rows", this, service -> service.current.size())
+            .description("Rows in inventory_events as of the current dataset generation")
+            .register(meterRegistry);
+        Gauge.builder("inventory.dataset.version", this, service -> service.current.getVersion())
+            .description("Version of the current dataset generation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish the rows already in the database (e.g. a persistent PostgreSQL store) as the first generation
+     */
+    public void loadFromDatabase() {
+        try {
+            if ((shardedRepository != null ? shardedRepository.count() : inventoryRepository.count()) == 0) {
+                return;
+            }
+            publish(dimensionDictionary.decode(shardedRepository != null ? shardedRepository.findAll() : inventoryRepository.findAll()), true);
+        } finally {
+            loaded.countDown();
+        }
+    }
+
+    /**
+     * Block until the stored rows are published, e.g. before a background ingest saves more
+     * rows that the load would otherwise publish a second time
+     * @return false if interrupted while waiting
+     */
+    public boolean awaitLoaded() {
+        try {
+            loaded.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        loadFromDatabase();
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public boolean isRunning() {
+        return loaded.getCount() == 0;
+    }
+
+    /**
+     * Well below the web server's phase, so the load completes before requests are accepted
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * The generation readers should use; pin it once per request for a consistent view
+     */
+    public DatasetGeneration getCurrentGeneration() {
+        return current;
+    }
+
+    /**
+     * Changes twice per publish and is odd while listeners apply a generation that is not yet
+     * current. Reading it before and after a computation tells whether the computation saw
+     * derived state and the current generation of one and the same version.
+     */
+    public long getPublishStamp() {
+        return publishStamp;
+    }
+
+    @Override
+    public void onIngestCompleted(List<InventoryEvent> savedEvents) {
+        if (!savedEvents.isEmpty()) {
+            publish(new ArrayList<>(savedEvents), false);
+        }
+    }
+
+    /**
+     * Publish a generation without the given rows (by id), e.g. after retention compacted
+     * them into daily summaries. Rows ingested meanwhile are kept.
+     */
+    public synchronized void removeCompacted(Set<Long> removedIds) {
+        if (removedIds.isEmpty()) {
+            return;
+        }
+        DatasetGeneration next = current.without(removedIds);
+        publishStamp++;
+        try {
+            eventPublisher.publishEvent(new DatasetPublishedEvent(next, List.of()));
+            current = next;
+        } finally {
+            publishStamp++;
+        }
+        logger.info("Published dataset generation {} ({} rows, {} compacted)",
+            next.getVersion(), next.size(), removedIds.size());
+    }
+
+    private synchronized void publish(List<InventoryEvent> added, boolean loadedFromDatabase) {
+        long startTime = System.currentTimeMillis();
+        DatasetGeneration next = current.next(added);
+        // Derived state catches up first, then the new generation becomes visible
+        publishStamp++;
+        try {
+            eventPublisher.publishEvent(new DatasetPublishedEvent(next, added, loadedFromDatabase));
+            current = next;
+        } finally {
+            publishStamp++;
+        }
+        logger.info("Published dataset generation {} ({} rows, {} added) in {} ms",
+            next.getVersion(), next.size(), added.size(), System.currentTimeMillis() - startTime);
+    }
+}
@@ -0,0 +1,43 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.util.List;
+
+/**
+ * Application event fired when a new dataset generation is about to become current.
+ * Listeners that keep incremental derived state apply the added rows here.
+ */
+public class DatasetPublishedEvent {
+
+    private final DatasetGeneration generation;
+    private final List<InventoryEvent> addedEvents;
+    private final boolean loadedFromDatabase;
+
+    public DatasetPublishedEvent(DatasetGeneration generation, List<InventoryEvent> addedEvents) {
+        this(generation, addedEvents, false);
+    }
+
+    /**
+     * @param loadedFromDatabase whether the added rows were stored before this run (the
+     *                           startup load) rather than ingested through InventoryService
+     */
+    public DatasetPublishedEvent(DatasetGeneration generation, List<InventoryEvent> addedEvents, boolean loadedFromDatabase) {
+        this.generation = generation;
+        this.addedEvents = addedEvents;
+        this.loadedFromDatabase = loadedFromDatabase;
+    }
+
+    public DatasetGeneration getGeneration() {
+        return generation;
+    }
+
+    public List<InventoryEvent> getAddedEvents() {
+        return addedEvents;
+    }
+
+    public boolean isLoadedFromDatabase() {
+        return loadedFromDatabase;
+    }
+}
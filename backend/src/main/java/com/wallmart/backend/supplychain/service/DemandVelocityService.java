@@ -0,0 +1,146 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DemandWindow;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-(store, product) sliding-window demand velocity, updated as events are ingested.
+ * Velocity-based understock checks are an O(1) lookup per SKU. Compacted days stay in the
+ * windows; at startup they are seeded from the daily summaries before the hot rows load.
+ */
+@Service
+public class DemandVelocityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DemandVelocityService.class);
+
+    @Autowired
+    private EventRetentionService eventRetentionService;
+
+    @Value("${analytics.velocity.understock-days:7}")
+    private double understockDays;
+
+    private final Map<String, DemandWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Apply the rows of a newly published dataset generation (including the initial load)
+     */
+    @EventListener
+    public void onDatasetPublished(DatasetPublishedEvent event) {
+        List<InventoryEvent> added = event.getAddedEvents();
+        if (event.isLoadedFromDatabase()) {
+            // Events summarised by a compaction whose delete did not complete are already seeded
+            Set<Long> summarised = eventRetentionService.getSummarisedIds();
+            if (!summarised.isEmpty()) {
+                added = added.stream().filter(row -> !summarised.contains(row.getId())).toList();
+            }
+        }
+        apply(added);
+    }
+
+    /**
+     * Record the compacted days, whose events are no longer loaded, in the windows
+     */
+    @PostConstruct
+    public void seedFromSummaries() {
+        long seeded = eventRetentionService.forEachSummary(summary ->
+            windows.computeIfAbsent(skuKey(summary.getStoreId(), summary.getProductId()), key -> new DemandWindow())
+                .record((int) summary.getSummaryDate().toEpochDay(), (int) summary.getUnitsSold(), summary.getLastInventoryLevel()));
+        if (seeded > 0) {
+            logger.info("Seeded demand windows from {} daily summaries", seeded);
+        }
+    }
+
+    private void apply(List<InventoryEvent> batch) {
+        for (InventoryEvent event : batch) {
+            if (event.getTimestamp() == null) {
+                continue;
+            }
+            windows.computeIfAbsent(skuKey(event.getStoreId(), event.getProductId()), key -> new DemandWindow())
+                .record((int) event.getTimestamp().toLocalDate().toEpochDay(), event.getUnitsSold(), event.getInventoryLevel());
+        }
+    }
+
+    /**
+     * @return the SKU's velocity, or null if no events have been seen for it
+     */
+    public DemandWindow.Velocity getVelocity(String storeId, String productId) {
+        DemandWindow window = windows.get(skuKey(storeId, productId));
+        return window != null ? window.velocity() : null;
+    }
+
+    /**
+     * True when the SKU sells and its inventory covers fewer days than the understock threshold
+     */
+    public boolean isUnderstocked(DemandWindow.Velocity velocity) {
+        Double daysOfCover = velocity != null ? velocity.daysOfCover() : null;
+        return daysOfCover != null && daysOfCover < understockDays;
+    }
+
+    /**
+     * Velocity for one SKU, or every SKU whose days of cover is below a threshold, lowest first
+     * @return List of velocity summaries
+     */
+    public List<Map<String, Object>> getVelocities(String storeId, String productId, Double maxDaysOfCover, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (storeId != null && productId != null) {
+            DemandWindow.Velocity velocity = getVelocity(storeId, productId);
+            if (velocity != null) {
+                result.add(toMap(storeId, productId, velocity));
+            }
+            return result;
+        }
+
+        double threshold = maxDaysOfCover != null ? maxDaysOfCover : understockDays;
+        windows.forEach((key, window) -> {
+            DemandWindow.Velocity velocity = window.velocity();
+            Double daysOfCover = velocity.daysOfCover();
+            if (daysOfCover != null && daysOfCover < threshold) {
+                String[] parts = key.split("\\|", 2);
+                if (storeId == null || storeId.equals(parts[0])) {
+                    result.add(toMap(parts[0], parts[1], velocity));
+                }
+            }
+        });
+        result.sort(Comparator.comparingDouble(item -> (Double) item.get("daysOfCover")));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private Map<String, Object> toMap(String storeId, String productId, DemandWindow.Velocity velocity) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("storeId", storeId);
+        item.put("productId", productId);
+        item.put("asOf", LocalDate.ofEpochDay(velocity.latestDay()).toString());
+        item.put("currentInventory", velocity.currentInventory());
+        item.put("unitsPerDay7", round(velocity.perDay7()));
+        item.put("unitsPerDay30", round(velocity.perDay30()));
+        item.put("unitsPerDay90", round(velocity.perDay90()));
+        Double daysOfCover = velocity.daysOfCover();
+        item.put("daysOfCover", daysOfCover != null ? round(daysOfCover) : null);
+        item.put("understocked", isUnderstocked(velocity));
+        return item;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private String skuKey(String storeId, String productId) {
+        return storeId + "|" + productId;
+    }
+}
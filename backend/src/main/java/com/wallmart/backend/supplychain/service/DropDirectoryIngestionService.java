@@ -0,0 +1,434 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.entity.IngestCheckpoint;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.IngestCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watches a drop directory for new or appended CSV files and ingests only the bytes
+ * added since the last committed offset. Offsets are checkpointed in ingest_checkpoints,
+ * in the same transaction as the rows, so a restart resumes exactly where the last commit
+ * left off. A file that was replaced (different inode) or truncated is read again from
+ * the start. Lines longer than the read window are rejected through the parse report.
+ */
+@Service
+public class DropDirectoryIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DropDirectoryIngestionService.class);
+    private static final int MAX_CHUNK_BYTES = 4 * 1024 * 1024; // Read appended data in bounded chunks; also the longest line
+    private static final int MAX_CHUNK_ROWS = 5000; // One transaction per chunk
+    private static final int SCAN_BYTES = 64 * 1024;
+    private static final int HEADER_READ_BYTES = 8 * 1024;
+
+    @Value("${ingest.watch.dir:}")
+    private String watchDir;
+
+    @Value("${inventory.upload.max-rows:50000}")
+    private int maxRows;
+
+    @Autowired
+    private InventoryCSVParser inventoryCSVParser;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ParseReportRegistry parseReportRegistry;
+
+    @Autowired
+    private IngestCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    private final Set<String> unreadableHeaders = new HashSet<>();
+    // Header line per "name|fileKey", so a watch event does not re-read the start of the file
+    private final Map<String, byte[]> headers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > 1024;
+        }
+    };
+    private Path directory;
+    private WatchService watchService;
+    private Thread watcherThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (watchDir == null || watchDir.isBlank()) {
+            logger.info("Drop-directory ingestion disabled (ingest.watch.dir not set)");
+            return;
+        }
+
+        try {
+            directory = Paths.get(watchDir).toAbsolutePath();
+            Files.createDirectories(directory);
+            // Chunks cut short by a crash are removed before anything reads the shards
+            for (IngestCheckpoint checkpoint : checkpointRepository.findByPendingIdsIsNotNull()) {
+                rollBackPending(checkpoint);
+            }
+
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+            running = true;
+            watcherThread = new Thread(this::watchLoop, "csv-drop-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+            logger.info("Watching {} for CSV files", directory);
+        } catch (IOException e) {
+            logger.error("Could not start drop-directory ingestion for {}: {}", watchDir, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("Error closing watch service: {}", e.getMessage());
+            }
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            try {
+                // Let a chunk that is being saved finish before the datasource goes away
+                watcherThread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Current committed offsets and rows ingested per file
+     * @return Map containing the watcher status
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> files = new HashMap<>();
+        if (directory != null) {
+            for (IngestCheckpoint checkpoint : checkpointRepository.findAll()) {
+                files.put(checkpoint.getFileName(), Map.of(
+                    "committedOffset", checkpoint.getCommittedOffset(),
+                    "rowsIngested", checkpoint.getRowsIngested()
+                ));
+            }
+        }
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", running);
+        status.put("directory", directory != null ? directory.toString() : null);
+        status.put("files", files);
+        return status;
+    }
+
+    private void watchLoop() {
+        // Rows saved before the startup load would be published by it and again by the ingest
+        if (!datasetGenerationService.awaitLoaded()) {
+            return;
+        }
+        // Catch up on anything dropped or appended while the application was down
+        scanDirectory();
+
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    scanDirectory();
+                    continue;
+                }
+                Path file = directory.resolve((Path) event.context());
+                if (isCsv(file)) {
+                    ingestAppendedData(file);
+                }
+            }
+
+            if (!key.reset()) {
+                logger.warn("Drop directory {} is no longer accessible; stopping watcher", directory);
+                break;
+            }
+        }
+        running = false;
+    }
+
+    private void scanDirectory() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : stream) {
+                ingestAppendedData(file);
+            }
+        } catch (IOException e) {
+            logger.error("Error scanning drop directory {}: {}", directory, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse and save every complete line appended to the file since its committed offset
+     */
+    synchronized void ingestAppendedData(Path file) {
+        String name = file.getFileName().toString();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            IngestCheckpoint checkpoint = checkpointRepository.findById(name)
+                .orElseGet(() -> IngestCheckpoint.builder().fileName(name).build());
+            if (checkpoint.getPendingIds() != null) {
+                checkpoint = rollBackPending(checkpoint);
+            }
+
+            String fileKey = fileKeyOf(file);
+            long size = channel.size();
+            long offset = checkpoint.getCommittedOffset();
+            if (checkpoint.getFileKey() != null && !checkpoint.getFileKey().equals(fileKey)) {
+                logger.warn("File {} was replaced; reading the new file from the start", name);
+                offset = 0;
+            } else if (size < offset) {
+                logger.warn("File {} shrank from {} to {} bytes; re-reading from the start", name, offset, size);
+                offset = 0;
+                headers.remove(name + "|" + fileKey); // Rewritten in place: the header may differ
+            }
+            checkpoint.setFileKey(fileKey);
+            checkpoint.setCommittedOffset(offset);
+
+            byte[] header = readHeaderLine(channel, name, fileKey);
+            if (header == null) {
+                return; // Header not complete yet, or unusable
+            }
+            if (offset < header.length) {
+                offset = header.length; // Skip the header line itself
+            }
+
+            while (offset < size) {
+                byte[] chunk = readCompleteLines(channel, offset, size);
+                if (chunk == null) {
+                    long next = skipLongLine(channel, offset, size, name);
+                    if (next < 0) {
+                        break; // The end of the long line has not been written yet
+                    }
+                    checkpoint = commit(checkpoint, List.of(), next);
+                    offset = next;
+                    continue;
+                }
+                if (chunk.length == 0) {
+                    break; // Only a partial line so far; wait for the rest
+                }
+
+                InputStream csv = new SequenceInputStream(new ByteArrayInputStream(header), new ByteArrayInputStream(chunk));
+                List<InventoryEvent> events = inventoryCSVParser.parseCSV(csv, parseReportRegistry.start(name));
+                checkpoint = commit(checkpoint, events, offset + chunk.length);
+                offset += chunk.length;
+                logger.info("Ingested {} rows from {} (committed offset {})", events.size(), name, offset);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to ingest appended data from {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Save a chunk's rows and move the checkpoint to {@code end} as one unit
+     * @return the checkpoint as committed
+     */
+    private IngestCheckpoint commit(IngestCheckpoint checkpoint, List<InventoryEvent> events, long end) {
+        if (inventoryService.isSharded() && !events.isEmpty()) {
+            // The shards commit on their own: record the chunk's ids first, so whatever reached
+            // the shards can be removed if the chunk fails part-way and has to be read again
+            inventoryService.assignIds(events);
+            checkpoint = checkpointRepository.save(checkpoint.toBuilder().pendingIds(encodeIds(events)).build());
+        }
+        IngestCheckpoint committed = checkpoint.toBuilder()
+            .committedOffset(end)
+            .rowsIngested(checkpoint.getRowsIngested() + events.size())
+            .updatedAt(LocalDateTime.now())
+            .pendingIds(null)
+            .build();
+        try {
+            inventoryService.saveChunk(events, () -> checkpointRepository.save(committed));
+        } catch (RuntimeException e) {
+            if (checkpoint.getPendingIds() != null) {
+                rollBackPending(checkpoint);
+            }
+            throw e;
+        }
+        return committed;
+    }
+
+    /**
+     * Delete the rows of a chunk whose shard inserts may not all have committed, so the
+     * chunk can be read again from the committed offset
+     */
+    private IngestCheckpoint rollBackPending(IngestCheckpoint checkpoint) {
+        List<Long> ids = decodeIds(checkpoint.getPendingIds());
+        inventoryService.deleteChunk(ids);
+        logger.warn("Removed {} rows of an unfinished chunk of {}; it is read again from offset {}",
+            ids.size(), checkpoint.getFileName(), checkpoint.getCommittedOffset());
+        return checkpointRepository.save(checkpoint.toBuilder().pendingIds(null).build());
+    }
+
+    /**
+     * The header line including its line terminator, or null if it is not complete yet or
+     * longer than a chunk (reported once per file). It is read once per file, with a buffer
+     * that grows only as far as the first newline.
+     */
+    private byte[] readHeaderLine(FileChannel channel, String name, String fileKey) throws IOException {
+        String key = name + "|" + fileKey;
+        byte[] cached = headers.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long limit = Math.min(channel.size(), MAX_CHUNK_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(limit, HEADER_READ_BYTES));
+        int scanned = 0;
+        while (true) {
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+                // Fill the buffer or reach the end of the file
+            }
+            byte[] bytes = buffer.array();
+            for (int i = scanned; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    byte[] header = new byte[i + 1];
+                    System.arraycopy(bytes, 0, header, 0, i + 1);
+                    headers.put(key, header);
+                    return header;
+                }
+            }
+            scanned = buffer.position();
+            if (buffer.hasRemaining() || buffer.capacity() >= limit) {
+                break; // End of the file, or the longest header allowed
+            }
+            ByteBuffer larger = ByteBuffer.allocate((int) Math.min(limit, (long) buffer.capacity() * 2));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        if (scanned == MAX_CHUNK_BYTES && unreadableHeaders.add(key)) {
+            ParseErrorCollector errors = parseReportRegistry.start(name);
+            errors.reject("HEADER_TOO_LONG", 1, null, "Header line is longer than " + MAX_CHUNK_BYTES + " bytes; file skipped");
+            errors.complete();
+        }
+        return null;
+    }
+
+    /**
+     * Read from the offset up to the last newline, bounded by chunk size and row count
+     * @return the complete lines, empty if the first line is not complete yet, or null if
+     *         the first line is longer than a whole chunk
+     */
+    private byte[] readCompleteLines(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - offset, MAX_CHUNK_BYTES));
+        while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+            // Keep reading until the buffer is full or the file ends
+        }
+
+        byte[] bytes = buffer.array();
+        int maxLines = Math.min(maxRows, MAX_CHUNK_ROWS);
+        int lines = 0;
+        int end = 0;
+        for (int i = 0; i < buffer.position() && lines < maxLines; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+                end = i + 1;
+            }
+        }
+        if (end == 0 && buffer.position() == MAX_CHUNK_BYTES) {
+            return null;
+        }
+
+        byte[] chunk = new byte[end];
+        System.arraycopy(bytes, 0, chunk, 0, end);
+        return chunk;
+    }
+
+    /**
+     * Reject the over-long line starting at the offset
+     * @return the offset after it, or -1 if its end has not been written yet
+     */
+    private long skipLongLine(FileChannel channel, long offset, long size, String name) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        for (long position = offset + MAX_CHUNK_BYTES; position < size; position += buffer.position()) {
+            buffer.clear();
+            if (channel.read(buffer, position) <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    long next = position + i + 1;
+                    ParseErrorCollector errors = parseReportRegistry.start(name);
+                    errors.reject("LINE_TOO_LONG", 0, null, "Line at byte " + offset + " is " + (next - offset)
+                        + " bytes, longer than " + MAX_CHUNK_BYTES + "; skipped");
+                    errors.complete();
+                    return next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String fileKeyOf(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey().toString() : "created:" + attributes.creationTime();
+    }
+
+    private static byte[] encodeIds(List<InventoryEvent> events) {
+        ByteBuffer buffer = ByteBuffer.allocate(events.size() * Long.BYTES);
+        events.forEach(event -> buffer.putLong(event.getId()));
+        return buffer.array();
+    }
+
+    private static List<Long> decodeIds(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        List<Long> ids = new ArrayList<>(bytes.length / Long.BYTES);
+        while (buffer.remaining() >= Long.BYTES) {
+            ids.add(buffer.getLong());
+        }
+        return ids;
+    }
+
+    private boolean isCsv(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".csv") && Files.isRegularFile(file);
+    }
+}
@@ -0,0 +1,387 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DailySummaryBuilder;
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.entity.PendingEventDeletion;
+import com.wallmart.backend.supplychain.repository.InventoryDailySummaryRepository;
+import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import com.wallmart.backend.supplychain.repository.PendingEventDeletionRepository;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps inventory_events to a hot window of recent days. Whole monthly partitions that
+ * end before the window are compacted into daily per-SKU summaries
+ * (inventory_daily_summaries) and their events deleted. The window is measured back from
+ * the newest event, not the wall clock, so replayed historical data is not wiped on load.
+ * The partitions are the month groups of the in-memory dataset generation; the table is
+ * not range-partitioned, so compaction deletes the expired rows by id.
+ *
+ * <p>Time-based derived state (rollups, demand velocity) keeps the compacted days, since
+ * their totals do not change, and is seeded from the summaries at startup; whole-dataset
+ * sketches are rebuilt from the rows that remain.
+ *
+ * <p>Only the day/SKU summaries an expired event falls into are read and updated. With
+ * sharding the shard delete cannot join the summary transaction, so the compacted event
+ * ids are recorded in pending_event_deletions in that transaction; until the delete has
+ * succeeded those events are left out of the history and later runs only delete them.
+ */
+@Service
+public class EventRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventRetentionService.class);
+    private static final int DELETE_CHUNK = 1000;
+    private static final int SUMMARY_PAGE_SIZE = 5000;
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    @Value("${inventory.retention.hot-days:0}")
+    private int hotDays;
+
+    @Value("${inventory.retention.check-interval-minutes:60}")
+    private long checkIntervalMinutes;
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private InventoryDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private PendingEventDeletionRepository pendingDeletionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService scheduler;
+    private volatile Map<String, Object> lastRun = Map.of();
+    private volatile Set<Long> pendingIds = Set.of();
+
+    @PostConstruct
+    public void start() {
+        pendingIds = decodeIds(pendingDeletionRepository.findAll());
+        if (hotDays <= 0) {
+            logger.info("Event retention disabled (inventory.retention.hot-days not set)");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (Exception e) {
+                logger.error("Event retention run failed: {}", e.getMessage(), e);
+            }
+        }, checkIntervalMinutes, checkIntervalMinutes, TimeUnit.MINUTES);
+        logger.info("Event retention keeps {} hot days, checked every {} minutes", hotDays, checkIntervalMinutes);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Compact every partition that ends before the hot window
+     * @return Map describing the run (partitions and rows compacted, summaries written)
+     */
+    public synchronized Map<String, Object> compact() {
+        if (hotDays <= 0) {
+            throw new IllegalStateException("Retention is disabled; set inventory.retention.hot-days");
+        }
+        long startTime = System.currentTimeMillis();
+        DatasetGeneration generation = datasetGenerationService.getCurrentGeneration();
+        LocalDate latest = generation.getLatestDate();
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("startedAt", LocalDateTime.now().toString());
+        run.put("hotDays", hotDays);
+        if (latest == null) {
+            run.put("partitionsCompacted", 0);
+            run.put("eventsCompacted", 0);
+            lastRun = run;
+            return run;
+        }
+
+        // Only whole partitions older than the one holding the cutoff day are compacted
+        LocalDate keepFrom = DatasetGeneration.partitionStart(latest.minusDays(hotDays));
+        NavigableMap<LocalDate, List<InventoryEvent>> expired = generation.getPartitions().headMap(keepFrom, false);
+
+        // Events of an earlier run whose summaries committed but whose shard delete failed
+        // are deleted again, never summarised again
+        List<PendingEventDeletion> pending = pendingDeletionRepository.findAll();
+        Set<Long> alreadySummarised = decodeIds(pending);
+        List<InventoryEvent> events = new ArrayList<>();
+        List<InventoryEvent> deleted = new ArrayList<>();
+        expired.values().forEach(partition -> partition.forEach(event -> {
+            if (!alreadySummarised.contains(event.getId())) {
+                events.add(event);
+            }
+            deleted.add(event);
+        }));
+        if (!alreadySummarised.isEmpty()) {
+            for (InventoryEvent event : generation.getEvents()) {
+                // Only possible if the hot window grew since the failed run
+                if (alreadySummarised.contains(event.getId()) && event.getTimestamp() != null
+                        && !expired.containsKey(DatasetGeneration.partitionStart(event.getTimestamp().toLocalDate()))) {
+                    deleted.add(event);
+                }
+            }
+        }
+        run.put("keepFrom", keepFrom.toString());
+        run.put("partitionsCompacted", expired.size());
+        run.put("eventsCompacted", events.size());
+        run.put("pendingDeletesRetried", deleted.size() - events.size());
+
+        if (!deleted.isEmpty() || !pending.isEmpty()) {
+            Set<Long> ids = new HashSet<>();
+            for (InventoryEvent event : deleted) {
+                ids.add(event.getId());
+            }
+            int summariesWritten;
+            if (shardedRepository != null) {
+                List<PendingEventDeletion> resolved = new ArrayList<>(pending);
+                summariesWritten = events.isEmpty() ? 0 : transactionTemplate.execute(status -> {
+                    int written = upsertSummaries(events);
+                    resolved.add(pendingDeletionRepository.save(PendingEventDeletion.builder()
+                        .createdAt(LocalDateTime.now())
+                        .eventCount(events.size())
+                        .eventIds(encodeIds(events))
+                        .build()));
+                    return written;
+                });
+                Set<Long> stillPending = new HashSet<>(alreadySummarised);
+                events.forEach(event -> stillPending.add(event.getId()));
+                pendingIds = stillPending;
+
+                shardedRepository.deleteAll(deleted);
+                pendingDeletionRepository.deleteAllInBatch(resolved);
+            } else {
+                summariesWritten = transactionTemplate.execute(status -> {
+                    int written = upsertSummaries(events);
+                    List<Long> idList = new ArrayList<>(ids);
+                    for (int i = 0; i < idList.size(); i += DELETE_CHUNK) {
+                        inventoryRepository.deleteAllByIdInBatch(idList.subList(i, Math.min(i + DELETE_CHUNK, idList.size())));
+                    }
+                    return written;
+                });
+            }
+            datasetGenerationService.removeCompacted(ids);
+            pendingIds = Set.of();
+            run.put("summariesWritten", summariesWritten);
+        }
+
+        run.put("durationMs", System.currentTimeMillis() - startTime);
+        lastRun = run;
+        logger.info("Event retention compacted {} events from {} partitions before {}",
+            events.size(), expired.size(), keepFrom);
+        return run;
+    }
+
+    /**
+     * Pass every stored daily summary to the consumer, read in pages by id
+     * @return number of summaries read
+     */
+    public long forEachSummary(Consumer<InventoryDailySummary> consumer) {
+        long cursor = 0;
+        long read = 0;
+        while (true) {
+            List<InventoryDailySummary> page = summaryRepository.findByIdGreaterThanOrderById(cursor, PageRequest.of(0, SUMMARY_PAGE_SIZE));
+            page.forEach(consumer);
+            read += page.size();
+            if (page.size() < SUMMARY_PAGE_SIZE) {
+                return read;
+            }
+            cursor = page.get(page.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Ids of events whose summaries are committed but whose shard delete has not completed yet.
+     * State seeded from the summaries skips these when the stored rows are loaded.
+     */
+    public Set<Long> getSummarisedIds() {
+        return pendingIds;
+    }
+
+    /**
+     * Daily per-SKU history: stored summaries for compacted days plus the hot events of the
+     * range summarised on the fly, reading only the partitions that overlap the range
+     * @param storeId store to include, or null for all
+     * @param productId product to include, or null for all
+     * @param from first day, or null
+     * @param to last day, or null
+     * @param limit maximum number of rows returned (oldest day first)
+     * @return Map containing the daily rows
+     */
+    public Map<String, Object> getDailyHistory(String storeId, String productId, LocalDate from, LocalDate to, int limit) {
+        // The first rows of the union are among the first stored rows and the hot rows
+        DailySummaryBuilder builder = new DailySummaryBuilder();
+        summaryRepository.findHistory(from != null ? from : EARLIEST, to != null ? to : LATEST, storeId, productId,
+            PageRequest.of(0, limit)).forEach(builder::add);
+
+        Set<Long> summarised = pendingIds;
+        List<InventoryEvent> hot = datasetGenerationService.getCurrentGeneration().getEvents(from, to);
+        for (InventoryEvent event : hot) {
+            if ((storeId == null || Objects.equals(storeId, event.getStoreId()))
+                    && (productId == null || Objects.equals(productId, event.getProductId()))
+                    && !summarised.contains(event.getId())) {
+                builder.add(event);
+            }
+        }
+
+        List<Map<String, Object>> days = new ArrayList<>();
+        for (InventoryDailySummary summary : builder.build()) {
+            if (days.size() >= limit) {
+                break;
+            }
+            days.add(toMap(summary));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("storeId", storeId);
+        result.put("productId", productId);
+        result.put("from", from != null ? from.toString() : null);
+        result.put("to", to != null ? to.toString() : null);
+        result.put("days", days);
+        return result;
+    }
+
+    public Map<String, Object> getStatus() {
+        DatasetGeneration generation = datasetGenerationService.getCurrentGeneration();
+        List<Map<String, Object>> partitions = new ArrayList<>();
+        generation.getPartitions().forEach((start, events) -> {
+            Map<String, Object> partition = new LinkedHashMap<>();
+            partition.put("start", start.toString());
+            partition.put("rows", events.size());
+            partitions.add(partition);
+        });
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", hotDays > 0);
+        status.put("hotDays", hotDays);
+        status.put("hotRows", generation.size());
+        status.put("latestEventDate", generation.getLatestDate() != null ? generation.getLatestDate().toString() : null);
+        LocalDate compactedThrough = summaryRepository.findLatestSummaryDate();
+        status.put("compactedThrough", compactedThrough != null ? compactedThrough.toString() : null);
+        status.put("summaryRows", summaryRepository.count());
+        status.put("partitions", partitions);
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    /**
+     * Fold events into their day/SKU summaries. Only the stored rows of the touched days and
+     * stores are read; they are updated in place (flushed on commit) and new keys inserted.
+     * @return number of summaries written
+     */
+    private int upsertSummaries(List<InventoryEvent> events) {
+        DailySummaryBuilder builder = new DailySummaryBuilder();
+        events.forEach(builder::add);
+        List<InventoryDailySummary> touched = builder.build();
+
+        Map<LocalDate, Set<String>> storesByDay = new HashMap<>();
+        for (InventoryDailySummary summary : touched) {
+            storesByDay.computeIfAbsent(summary.getSummaryDate(), day -> new HashSet<>()).add(summary.getStoreId());
+        }
+        Map<String, InventoryDailySummary> stored = new HashMap<>();
+        storesByDay.forEach((day, stores) -> {
+            List<InventoryDailySummary> rows = new ArrayList<>(summaryRepository.findBySummaryDateAndStoreIdIn(day, stores));
+            if (stores.contains(null)) {
+                rows.addAll(summaryRepository.findBySummaryDateAndStoreIdIsNull(day));
+            }
+            rows.forEach(row -> stored.put(DailySummaryBuilder.keyOf(row), row));
+        });
+
+        List<InventoryDailySummary> inserted = new ArrayList<>();
+        for (InventoryDailySummary summary : touched) {
+            InventoryDailySummary existing = stored.get(DailySummaryBuilder.keyOf(summary));
+            if (existing != null) {
+                DailySummaryBuilder.merge(existing, summary);
+            } else {
+                inserted.add(summary);
+            }
+        }
+        summaryRepository.saveAll(inserted);
+        return touched.size();
+    }
+
+    private static byte[] encodeIds(List<InventoryEvent> events) {
+        ByteBuffer buffer = ByteBuffer.allocate(events.size() * Long.BYTES);
+        events.forEach(event -> buffer.putLong(event.getId()));
+        return buffer.array();
+    }
+
+    private static Set<Long> decodeIds(List<PendingEventDeletion> pending) {
+        if (pending.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (PendingEventDeletion deletion : pending) {
+            ByteBuffer buffer = ByteBuffer.wrap(deletion.getEventIds());
+            while (buffer.remaining() >= Long.BYTES) {
+                ids.add(buffer.getLong());
+            }
+        }
+        return ids;
+    }
+
+    private Map<String, Object> toMap(InventoryDailySummary summary) {
+        Map<String, Object> day = new LinkedHashMap<>();
+        day.put("date", summary.getSummaryDate().toString());
+        day.put("storeId", summary.getStoreId());
+        day.put("productId", summary.getProductId());
+        day.put("productName", summary.getProductName());
+        day.put("category", summary.getCategory());
+        day.put("events", summary.getEventCount());
+        day.put("unitsSold", summary.getUnitsSold());
+        day.put("unitsOrdered", summary.getUnitsOrdered());
+        day.put("revenue", Math.round(summary.getRevenue() * 100.0) / 100.0);
+        day.put("demandForecast", Math.round(summary.getDemandForecast() * 100.0) / 100.0);
+        day.put("averageInventoryLevel", Math.round((double) summary.getInventoryLevelSum() / summary.getEventCount() * 100.0) / 100.0);
+        day.put("minInventoryLevel", summary.getMinInventoryLevel());
+        day.put("maxInventoryLevel", summary.getMaxInventoryLevel());
+        day.put("lastInventoryLevel", summary.getLastInventoryLevel());
+        day.put("minPrice", summary.getMinPrice());
+        day.put("maxPrice", summary.getMaxPrice());
+        return day;
+    }
+}
@@ -0,0 +1,114 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.HashAggregation;
+import com.wallmart.backend.supplychain.analytics.InventoryColumnSnapshot;
+import com.wallmart.backend.supplychain.analytics.InventoryDimension;
+import com.wallmart.backend.supplychain.analytics.InventoryMeasure;
+import com.wallmart.backend.supplychain.dto.AggregationRequestDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generic group-by/cube queries over the inventory events: any combination of
+ * dimensions, sum/avg/count/min/max measures and value filters.
+ */
+@Service
+public class InventoryAggregationService {
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    public Map<String, Object> aggregate(AggregationRequestDTO request) {
+        List<InventoryDimension> dimensions = new ArrayList<>();
+        if (request.getDimensions() != null) {
+            for (String name : request.getDimensions()) {
+                dimensions.add(InventoryDimension.fromName(name));
+            }
+        }
+
+        List<AggregationRequestDTO.MeasureSpec> specs = request.getMeasures() != null && !request.getMeasures().isEmpty()
+            ? request.getMeasures()
+            : List.of(new AggregationRequestDTO.MeasureSpec("inventoryLevel", "sum"));
+        List<InventoryMeasure> measures = new ArrayList<>();
+        List<String> functions = new ArrayList<>();
+        for (AggregationRequestDTO.MeasureSpec spec : specs) {
+            String function = spec.getFunction() != null ? spec.getFunction().toLowerCase() : "sum";
+            if (!Set.of("sum", "avg", "count", "min", "max").contains(function)) {
+                throw new IllegalArgumentException("Unknown aggregate function: " + spec.getFunction());
+            }
+            measures.add(InventoryMeasure.fromName(spec.getField() != null ? spec.getField() : "inventoryLevel"));
+            functions.add(function);
+        }
+
+        Map<InventoryDimension, Set<String>> filters = new EnumMap<>(InventoryDimension.class);
+        if (request.getFilters() != null) {
+            request.getFilters().forEach((name, values) ->
+                filters.put(InventoryDimension.fromName(name), new HashSet<>(values)));
+        }
+
+        InventoryColumnSnapshot snapshot = inventorySnapshotService.getSnapshot();
+        HashAggregation aggregation = new HashAggregation(snapshot, dimensions, measures, filters);
+        HashAggregation.GroupTable table = aggregation.execute();
+
+        List<Map<String, Object>> rows = new ArrayList<>(table.size());
+        for (int group = 0; group < table.size(); group++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            String[] keyValues = aggregation.decodeKey(table.key(group));
+            for (int d = 0; d < dimensions.size(); d++) {
+                row.put(dimensions.get(d).getFieldName(), keyValues[d]);
+            }
+            long count = table.count(group);
+            for (int m = 0; m < measures.size(); m++) {
+                String column = functions.get(m) + "_" + measures.get(m).getFieldName();
+                switch (functions.get(m)) {
+                    case "count" -> row.put(column, count);
+                    case "avg" -> row.put(column, round(table.sum(group, m) / count));
+                    case "min" -> row.put(column, round(table.min(group, m)));
+                    case "max" -> row.put(column, round(table.max(group, m)));
+                    default -> row.put(column, round(table.sum(group, m)));
+                }
+            }
+            rows.add(row);
+        }
+
+        sortRows(rows, request, functions, measures);
+        int limit = request.getLimit() != null && request.getLimit() > 0 ? request.getLimit() : DEFAULT_LIMIT;
+        int groups = rows.size();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimensions", dimensions.stream().map(InventoryDimension::getFieldName).toList());
+        result.put("scannedRows", snapshot.getRowCount());
+        result.put("groups", groups);
+        result.put("truncated", groups > limit);
+        result.put("rows", groups > limit ? rows.subList(0, limit) : rows);
+        return result;
+    }
+
+    private void sortRows(List<Map<String, Object>> rows, AggregationRequestDTO request,
+                          List<String> functions, List<InventoryMeasure> measures) {
+        String sortBy = request.getSortBy() != null
+            ? request.getSortBy()
+            : functions.get(0) + "_" + measures.get(0).getFieldName();
+        Comparator<Map<String, Object>> comparator = Comparator.comparing(
+            row -> row.get(sortBy) instanceof Number number ? number.doubleValue() : 0.0);
+        if (rows.isEmpty() || rows.get(0).get(sortBy) instanceof String) {
+            comparator = Comparator.comparing(row -> String.valueOf(row.get(sortBy)));
+        }
+        rows.sort(Boolean.FALSE.equals(request.getDescending()) ? comparator : comparator.reversed());
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -2,10 +2,19 @@ package com.wallmart.backend.supplychain.service;
 
 import com.opencsv.CSVReader;
 import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.tracing.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
@@ -15,19 +24,85 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class InventoryCSVParser {
     
     private static final Logger logger = LoggerFactory.getLogger(InventoryCSVParser.class);
     private static final int BATCH_SIZE = 1000; // Process in batches
-    private static final int MAX_ROWS = 50000; // Maximum rows to process
     private static final long TIMEOUT_MS = 300000; // 5 minutes timeout
+    private static final int DECODE = 0, MAP = 1, DATE = 2; // Traced phases of the row loop
+
+    @Value("${inventory.upload.max-rows:50000}")
+    private int maxRows; // Limit on uncompressed data rows, not bytes on the wire
+
+    @Autowired
+    private CSVDecompressor csvDecompressor;
+
+    @Autowired
+    private ParseReportRegistry parseReportRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer parseTimer;
+    private Counter acceptedRowsCounter;
+    private DistributionSummary parseThroughput;
+
+    @PostConstruct
+    public void registerMeters() {
+        parseTimer = Timer.builder("inventory.csv.parse")
+            .description("Time to parse one CSV upload or chunk")
+            .register(meterRegistry);
+        acceptedRowsCounter = Counter.builder("inventory.csv.rows.accepted")
+            .description("CSV rows parsed into events")
+            .register(meterRegistry);
+        parseThroughput = DistributionSummary.builder("inventory.csv.parse.throughput")
+            .description("Rows parsed per second, per upload")
+            .baseUnit("rows_per_second")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Data rows parsed at most per input; a longer input is reported as truncated
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Parse a possibly compressed CSV stream (.csv, .csv.gz or .zip), decompressing on the fly
+     */
+    public List<InventoryEvent> parseCSV(InputStream inputStream, String fileName) {
+        return parseCSV(inputStream, fileName, parseReportRegistry.start(fileName));
+    }
+
+    /**
+     * Parse a possibly compressed CSV stream, recording rejected rows in the given collector
+     */
+    public List<InventoryEvent> parseCSV(InputStream inputStream, String fileName, ParseErrorCollector errors) {
+        try {
+            return parseCSV(csvDecompressor.open(inputStream, fileName), errors);
+        } catch (IOException e) {
+            logger.error("Failed to open CSV file {}: {}", fileName, e.getMessage(), e);
+            throw new RuntimeException("❌ Failed to open CSV file: " + e.getMessage(), e);
+        }
+    }
 
     public List<InventoryEvent> parseCSV(InputStream inputStream) {
+        return parseCSV(inputStream, parseReportRegistry.start("stream"));
+    }
+
+    /**
+     * Parse a plain CSV stream. Bad rows are counted and written to the collector's rejects
+     * file instead of being logged one by one.
+     */
+    public List<InventoryEvent> parseCSV(InputStream inputStream, ParseErrorCollector errors) {
         List<InventoryEvent> eventList = new ArrayList<>();
         long startTime = System.currentTimeMillis();
         int processedRows = 0;
+        RequestTrace.Laps laps = RequestTrace.laps("csv.decode", "csv.map", "csv.date");
 
         try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
             String[] nextLine;
@@ -38,15 +113,20 @@ public class InventoryCSVParser {
             logger.info("Starting CSV parsing...");
 
             while ((nextLine = reader.readNext()) != null) {
+                if (laps != null) {
+                    laps.lap(DECODE);
+                }
                 // Check timeout
                 if (System.currentTimeMillis() - startTime > TIMEOUT_MS) {
                     logger.warn("CSV parsing timeout reached after {} ms", TIMEOUT_MS);
+                    errors.truncated("TIMEOUT");
                     break;
                 }
 
                 // Check maximum rows
-                if (processedRows >= MAX_ROWS) {
-                    logger.warn("Maximum rows limit reached: {}", MAX_ROWS);
+                if (processedRows >= maxRows) {
+                    logger.warn("Maximum rows limit reached: {}", maxRows);
+                    errors.truncated("MAX_ROWS");
                     break;
                 }
 
@@ -54,6 +134,7 @@ public class InventoryCSVParser {
                 
                 if (firstLine) {
                     headers = nextLine;
+                    errors.header(headers);
                     firstLine = false;
                     logger.info("CSV headers: {}", Arrays.toString(headers));
                     continue;
@@ -62,7 +143,7 @@ public class InventoryCSVParser {
                 try {
                     // Handle any CSV format with flexible column mapping
                     if (nextLine.length < 2) {
-                        logger.warn("Line {}: Invalid CSV row - needs at least 2 columns: {}", lineNumber, Arrays.toString(nextLine));
+                        errors.reject("TOO_FEW_COLUMNS", lineNumber, nextLine, "Invalid CSV row - needs at least 2 columns");
                         continue; // Skip invalid rows instead of throwing exception
                 }
 
@@ -97,6 +178,9 @@ public class InventoryCSVParser {
                     String supplier = columnMap.getOrDefault("supplier", columnMap.getOrDefault("Supplier", "Supplier_" + (processedRows % 3 + 1)));
 
                     // Validate and parse date
+                    if (laps != null) {
+                        laps.lap(MAP);
+                    }
                     try {
                         LocalDate.parse(date);
                     } catch (Exception e) {
@@ -110,13 +194,17 @@ public class InventoryCSVParser {
                             }
                             LocalDate.parse(date);
                         } catch (Exception e2) {
-                            logger.warn("Line {}: Invalid date format '{}' - using default date", lineNumber, date);
+                            errors.defaulted("INVALID_DATE", lineNumber, nextLine, "Invalid date format '" + date + "' - using default date");
                             date = "2024-01-01";
                         }
                     }
 
                     // Set all the parsed values
                     event.setDate(date);
+                    event.setTimestamp(LocalDate.parse(date).atStartOfDay());
+                    if (laps != null) {
+                        laps.lap(DATE);
+                    }
                     event.setProductName(productName);
                     event.setStoreId(storeId);
                     event.setProductId(productId);
@@ -125,7 +213,6 @@ public class InventoryCSVParser {
                     event.setStatus(status);
                     event.setSupplier(supplier);
                     event.setQuantity(quantity);
-                    event.setTimestamp(LocalDate.parse(date).atStartOfDay());
                     event.setInventoryLevel(inventoryLevel);
                     event.setUnitsSold(unitsSold);
                     event.setUnitsOrdered(unitsOrdered);
@@ -139,6 +226,9 @@ public class InventoryCSVParser {
 
                 eventList.add(event);
                     processedRows++;
+                    if (laps != null) {
+                        laps.lap(MAP);
+                    }
                     
                     // Log progress every 1000 rows
                     if (processedRows % 1000 == 0) {
@@ -146,22 +236,40 @@ public class InventoryCSVParser {
                     }
                     
                 } catch (Exception e) {
-                    logger.warn("Error parsing line {}: {}", lineNumber, e.getMessage());
+                    errors.reject("PARSE_ERROR", lineNumber, nextLine, String.valueOf(e.getMessage()));
                     continue; // Skip problematic rows instead of failing completely
                 }
             }
 
             long endTime = System.currentTimeMillis();
-            logger.info("CSV parsing completed. Processed {} rows in {} ms", processedRows, endTime - startTime);
+            logger.info("CSV parsing completed. Processed {} rows in {} ms ({} rejected, upload {})",
+                processedRows, endTime - startTime, errors.getRejectedRows(), errors.getUploadId());
 
         } catch (Exception e) {
             logger.error("Failed to parse CSV file: {}", e.getMessage(), e);
             throw new RuntimeException("❌ Failed to parse CSV file: " + e.getMessage(), e);
+        } finally {
+            if (laps != null) {
+                laps.finish();
+            }
+            errors.accepted(processedRows);
+            errors.complete();
+            recordMetrics(processedRows, errors, System.currentTimeMillis() - startTime);
         }
 
         return eventList;
     }
 
+    private void recordMetrics(int acceptedRows, ParseErrorCollector errors, long elapsedMs) {
+        parseTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        acceptedRowsCounter.increment(acceptedRows);
+        if (elapsedMs > 0 && acceptedRows > 0) {
+            parseThroughput.record(acceptedRows * 1000.0 / elapsedMs);
+        }
+        errors.getRejectedByReason().forEach((reason, count) ->
+            meterRegistry.counter("inventory.csv.rows.rejected", "reason", reason).increment(count));
+    }
+
     private Map<String, String> mapColumns(String[] headers, String[] values) {
         Map<String, String> columnMap = new HashMap<>();
         for (int i = 0; i < Math.min(headers.length, values.length); i++) {
@@ -0,0 +1,213 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.entity.InventoryDimensionValue;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryDimensionValueRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * In-memory dictionary of inventory_dimension_values. Ingest encodes the repeated string
+ * columns of a batch into integer keys with map lookups; values not seen before are
+ * inserted once per batch. Rows read back from the database are decoded the same way.
+ */
+@Service
+public class InventoryDimensionDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryDimensionDictionary.class);
+
+    @Autowired
+    private InventoryDimensionValueRepository dimensionValueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Column, Map<String, Integer>> keysByValue = new EnumMap<>(Column.class);
+    private final Map<Integer, String> valuesByKey = new ConcurrentHashMap<>();
+    private TransactionTemplate newTransaction;
+
+    public InventoryDimensionDictionary() {
+        for (Column column : Column.values()) {
+            keysByValue.put(column, new ConcurrentHashMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        // New values commit on their own, even if the batch that introduced them rolls back
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        List<InventoryDimensionValue> values = dimensionValueRepository.findAll();
+        for (InventoryDimensionValue value : values) {
+            remember(Column.valueOf(value.getDimension()), value.getValue(), value.getId());
+        }
+        if (!values.isEmpty()) {
+            logger.info("Loaded {} dimension values", values.size());
+        }
+    }
+
+    /**
+     * Set the key fields of every event from its string fields, adding unseen values first
+     */
+    public void encode(List<InventoryEvent> events) {
+        Map<Column, Set<String>> missing = null;
+        for (InventoryEvent event : events) {
+            for (Column column : Column.values()) {
+                String value = column.getter.apply(event);
+                if (value != null && !keysByValue.get(column).containsKey(value)) {
+                    if (missing == null) {
+                        missing = new EnumMap<>(Column.class);
+                    }
+                    missing.computeIfAbsent(column, c -> new LinkedHashSet<>()).add(value);
+                }
+            }
+        }
+        if (missing != null) {
+            insertMissing(missing);
+        }
+
+        for (InventoryEvent event : events) {
+            for (Column column : Column.values()) {
+                String value = column.getter.apply(event);
+                column.keySetter.accept(event, value != null ? keysByValue.get(column).get(value) : null);
+            }
+        }
+    }
+
+    /**
+     * Set the string fields of every event from its key fields
+     */
+    public List<InventoryEvent> decode(List<InventoryEvent> events) {
+        for (InventoryEvent event : events) {
+            for (Column column : Column.values()) {
+                Integer key = column.keyGetter.apply(event);
+                column.setter.accept(event, key != null ? valuesByKey.get(key) : null);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * The string a key stands for, or null for an unknown key
+     */
+    public String valueOf(Integer key) {
+        return key != null ? valuesByKey.get(key) : null;
+    }
+
+    /**
+     * The key of a column value, or null if the value has never been stored
+     */
+    public Integer keyOf(Column column, String value) {
+        return value != null ? keysByValue.get(column).get(value) : null;
+    }
+
+    /**
+     * The keys of the given column values, adding the values not stored yet
+     */
+    public Map<String, Integer> keysOf(Column column, Collection<String> values) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String value : values) {
+            if (!keysByValue.get(column).containsKey(value)) {
+                missing.add(value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Column, Set<String>> byColumn = new EnumMap<>(Column.class);
+            byColumn.put(column, missing);
+            insertMissing(byColumn);
+        }
+        Map<String, Integer> keys = new HashMap<>();
+        for (String value : values) {
+            keys.put(value, keysByValue.get(column).get(value));
+        }
+        return keys;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Column column : Column.values()) {
+            status.put(column.name(), keysByValue.get(column).size());
+        }
+        return status;
+    }
+
+    private synchronized void insertMissing(Map<Column, Set<String>> missing) {
+        List<InventoryDimensionValue> added = new ArrayList<>();
+        missing.forEach((column, values) -> {
+            for (String value : values) {
+                // Another ingest may have added it while this one waited for the lock
+                if (!keysByValue.get(column).containsKey(value)) {
+                    added.add(InventoryDimensionValue.builder().dimension(column.name()).value(value).build());
+                }
+            }
+        });
+        if (added.isEmpty()) {
+            return;
+        }
+        List<InventoryDimensionValue> saved = newTransaction.execute(status -> dimensionValueRepository.saveAll(added));
+        for (InventoryDimensionValue value : saved) {
+            remember(Column.valueOf(value.getDimension()), value.getValue(), value.getId());
+        }
+        logger.debug("Added {} dimension values", saved.size());
+    }
+
+    private void remember(Column column, String value, Integer key) {
+        valuesByKey.put(key, value);
+        keysByValue.get(column).put(value, key);
+    }
+
+    /**
+     * The dictionary-encoded columns of inventory_events
+     */
+    public enum Column {
+        PRODUCT_NAME(InventoryEvent::getProductName, InventoryEvent::setProductName,
+            InventoryEvent::getProductNameKey, InventoryEvent::setProductNameKey),
+        CATEGORY(InventoryEvent::getCategory, InventoryEvent::setCategory,
+            InventoryEvent::getCategoryKey, InventoryEvent::setCategoryKey),
+        SUPPLIER(InventoryEvent::getSupplier, InventoryEvent::setSupplier,
+            InventoryEvent::getSupplierKey, InventoryEvent::setSupplierKey),
+        STATUS(InventoryEvent::getStatus, InventoryEvent::setStatus,
+            InventoryEvent::getStatusKey, InventoryEvent::setStatusKey),
+        LOCATION(InventoryEvent::getLocation, InventoryEvent::setLocation,
+            InventoryEvent::getLocationKey, InventoryEvent::setLocationKey),
+        WEATHER_CONDITION(InventoryEvent::getWeatherCondition, InventoryEvent::setWeatherCondition,
+            InventoryEvent::getWeatherConditionKey, InventoryEvent::setWeatherConditionKey),
+        HOLIDAY_OR_PROMOTION(InventoryEvent::getHolidayOrPromotion, InventoryEvent::setHolidayOrPromotion,
+            InventoryEvent::getHolidayOrPromotionKey, InventoryEvent::setHolidayOrPromotionKey),
+        SEASONALITY(InventoryEvent::getSeasonality, InventoryEvent::setSeasonality,
+            InventoryEvent::getSeasonalityKey, InventoryEvent::setSeasonalityKey);
+
+        private final Function<InventoryEvent, String> getter;
+        private final BiConsumer<InventoryEvent, String> setter;
+        private final Function<InventoryEvent, Integer> keyGetter;
+        private final BiConsumer<InventoryEvent, Integer> keySetter;
+
+        Column(Function<InventoryEvent, String> getter, BiConsumer<InventoryEvent, String> setter,
+               Function<InventoryEvent, Integer> keyGetter, BiConsumer<InventoryEvent, Integer> keySetter) {
+            this.getter = getter;
+            this.setter = setter;
+            this.keyGetter = keyGetter;
+            this.keySetter = keySetter;
+        }
+    }
+}
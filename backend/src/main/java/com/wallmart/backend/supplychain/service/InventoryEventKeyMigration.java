@@ -0,0 +1,113 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Upgrades an inventory_events table written before the string columns were dictionary
+ * encoded. For each encoded column that still has its old string column, the missing
+ * *_key values are backfilled from the strings (adding dictionary entries as needed), the
+ * string column's NOT NULL constraint is dropped, since new rows no longer write it, and
+ * product_name_key becomes NOT NULL once every row has a key. Runs at startup on the
+ * primary and on every shard before the stored rows are loaded; a table without the old
+ * columns is left untouched. The string columns are kept, so a rollback still finds them.
+ */
+@Component
+public class InventoryEventKeyMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryEventKeyMigration.class);
+    private static final String TABLE = "inventory_events";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @PostConstruct
+    public void migrate() {
+        migrate(new JdbcTemplate(dataSource));
+        if (shardedRepository != null) {
+            shardedRepository.scatter(this::migrate);
+        }
+    }
+
+    /**
+     * @return rows whose keys were backfilled
+     */
+    int migrate(JdbcTemplate jdbc) {
+        Map<String, Boolean> nullableByColumn = readColumns(jdbc);
+        int backfilled = 0;
+        boolean legacy = false;
+        for (InventoryDimensionDictionary.Column column : InventoryDimensionDictionary.Column.values()) {
+            String stringColumn = column.name().toLowerCase(Locale.ROOT);
+            String keyColumn = stringColumn + "_key";
+            if (!nullableByColumn.containsKey(stringColumn)) {
+                continue;
+            }
+            legacy = true;
+            if (!nullableByColumn.containsKey(keyColumn)) {
+                jdbc.execute("ALTER TABLE " + TABLE + " ADD COLUMN " + keyColumn + " INTEGER");
+            }
+
+            List<String> values = jdbc.queryForList("SELECT DISTINCT " + stringColumn + " FROM " + TABLE
+                + " WHERE " + stringColumn + " IS NOT NULL AND " + keyColumn + " IS NULL", String.class);
+            if (!values.isEmpty()) {
+                Map<String, Integer> keys = dimensionDictionary.keysOf(column, values);
+                List<Object[]> updates = new ArrayList<>(values.size());
+                for (String value : values) {
+                    updates.add(new Object[] {keys.get(value), value});
+                }
+                for (int updated : jdbc.batchUpdate("UPDATE " + TABLE + " SET " + keyColumn + " = ? WHERE "
+                        + stringColumn + " = ? AND " + keyColumn + " IS NULL", updates)) {
+                    backfilled += Math.max(updated, 0);
+                }
+            }
+            if (!nullableByColumn.get(stringColumn)) {
+                jdbc.execute("ALTER TABLE " + TABLE + " ALTER COLUMN " + stringColumn + " DROP NOT NULL");
+            }
+        }
+        if (!legacy) {
+            return 0;
+        }
+
+        Long unkeyed = jdbc.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE product_name_key IS NULL", Long.class);
+        if (unkeyed != null && unkeyed > 0) {
+            logger.warn("{} rows of {} have no product name; product_name_key stays nullable", unkeyed, TABLE);
+        } else if (Boolean.TRUE.equals(readColumns(jdbc).get("product_name_key"))) {
+            jdbc.execute("ALTER TABLE " + TABLE + " ALTER COLUMN product_name_key SET NOT NULL");
+        }
+        logger.info("Migrated {} to dictionary keys ({} row updates)", TABLE, backfilled);
+        return backfilled;
+    }
+
+    /**
+     * Lower-case column name to whether it is nullable
+     */
+    private Map<String, Boolean> readColumns(JdbcTemplate jdbc) {
+        return jdbc.query("SELECT * FROM " + TABLE + " WHERE 1 = 0", rs -> {
+            Map<String, Boolean> columns = new HashMap<>();
+            for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                columns.put(rs.getMetaData().getColumnName(i).toLowerCase(Locale.ROOT),
+                    rs.getMetaData().isNullable(i) != ResultSetMetaData.columnNoNulls);
+            }
+            return columns;
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.dto.InventoryPredictionDTO;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.export.ExportColumn;
+import com.wallmart.backend.supplychain.export.ExportFormat;
+import com.wallmart.backend.supplychain.export.ExportWriter;
+import com.wallmart.backend.supplychain.repository.InventoryEventColumn;
+import com.wallmart.backend.supplychain.repository.InventoryEventFilter;
+import com.wallmart.backend.supplychain.repository.InventoryProjectionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Streams inventory events and per-event predictions to a client as CSV, gzip CSV or the
+ * columnar binary format. Rows are read in keyset pages (id above the last id sent) and
+ * written as they arrive, so memory use does not grow with the export and no database
+ * connection is held while the client is slow to read. Every row starts with its event
+ * id; an interrupted export resumes with {@code after} set to the last id received.
+ */
+@Service
+public class InventoryExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryExportService.class);
+
+    private static final List<InventoryEventColumn> PREDICTION_INPUT = List.of(
+        InventoryEventColumn.STORE_ID, InventoryEventColumn.PRODUCT_ID, InventoryEventColumn.PRODUCT_NAME,
+        InventoryEventColumn.CATEGORY, InventoryEventColumn.INVENTORY_LEVEL, InventoryEventColumn.DEMAND_FORECAST);
+
+    private static final List<ExportColumn> PREDICTION_COLUMNS = List.of(
+        new ExportColumn("eventId", ExportColumn.Type.LONG),
+        new ExportColumn("productId", ExportColumn.Type.TEXT),
+        new ExportColumn("productName", ExportColumn.Type.TEXT),
+        new ExportColumn("storeId", ExportColumn.Type.TEXT),
+        new ExportColumn("category", ExportColumn.Type.TEXT),
+        new ExportColumn("currentInventory", ExportColumn.Type.INT),
+        new ExportColumn("stockStatus", ExportColumn.Type.TEXT),
+        new ExportColumn("expectedDemandIncrease", ExportColumn.Type.BOOLEAN),
+        new ExportColumn("demandForecast", ExportColumn.Type.DOUBLE),
+        new ExportColumn("daysOfCover", ExportColumn.Type.DOUBLE),
+        new ExportColumn("recommendation", ExportColumn.Type.TEXT));
+
+    @Value("${inventory.export.page-size:5000}")
+    private int pageSize;
+
+    @Autowired
+    private InventoryProjectionRepository projectionRepository;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private AIPredictionService aiPredictionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Build the row filter of an export request; called before the response is committed
+     * so that bad parameters still get a 400
+     * @param from first day (yyyy-MM-dd), or null
+     * @param to last day (yyyy-MM-dd, inclusive), or null
+     */
+    public InventoryEventFilter filter(String storeId, String category, String from, String to) {
+        Integer categoryKey = null;
+        if (category != null) {
+            categoryKey = dimensionDictionary.keyOf(InventoryDimensionDictionary.Column.CATEGORY, category);
+            if (categoryKey == null) {
+                throw new IllegalArgumentException("Unknown category: " + category);
+            }
+        }
+        try {
+            LocalDateTime fromTime = from != null ? LocalDate.parse(from).atStartOfDay() : null;
+            LocalDateTime toTime = to != null ? LocalDate.parse(to).plusDays(1).atStartOfDay() : null;
+            return new InventoryEventFilter(storeId, categoryKey, fromTime, toTime);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates must be yyyy-MM-dd: " + e.getParsedString());
+        }
+    }
+
+    /**
+     * The given columns of the matching events, always preceded by the id (the resume cursor)
+     */
+    public void writeEvents(ExportFormat format, List<InventoryEventColumn> eventColumns, InventoryEventFilter filter,
+                            long afterId, OutputStream outputStream) throws IOException {
+        List<InventoryEventColumn> selected = eventColumns.stream().filter(column -> column != InventoryEventColumn.ID).toList();
+        List<ExportColumn> columns = new ArrayList<>();
+        columns.add(new ExportColumn(InventoryEventColumn.ID.getFieldName(), ExportColumn.Type.LONG));
+        for (InventoryEventColumn column : selected) {
+            columns.add(new ExportColumn(column.getFieldName(), typeOf(column)));
+        }
+        export("events", format, columns, selected, filter, afterId, outputStream, row -> {
+            for (int i = 0; i < selected.size(); i++) {
+                if (selected.get(i).isDictionaryKey()) {
+                    row[i + 1] = dimensionDictionary.valueOf((Integer) row[i + 1]);
+                }
+            }
+            return row;
+        });
+    }
+
+    /**
+     * The stock status prediction of every matching event (the local model behind
+     * /api/predict-inventory-status), keyed by event id
+     */
+    public void writePredictions(ExportFormat format, InventoryEventFilter filter, long afterId, OutputStream outputStream) throws IOException {
+        export("predictions", format, PREDICTION_COLUMNS, PREDICTION_INPUT, filter, afterId, outputStream, row -> {
+            InventoryEvent event = InventoryEvent.builder()
+                .id((Long) row[0])
+                .storeId((String) row[1])
+                .productId((String) row[2])
+                .productName(dimensionDictionary.valueOf((Integer) row[3]))
+                .category(dimensionDictionary.valueOf((Integer) row[4]))
+                .inventoryLevel((Integer) row[5])
+                .demandForecast((Double) row[6])
+                .build();
+            InventoryPredictionDTO prediction = aiPredictionService.createPredictionDTO(event);
+            return new Object[] {
+                event.getId(), prediction.getProductId(), prediction.getProductName(), prediction.getStoreId(),
+                prediction.getCategory(), prediction.getCurrentInventory(), prediction.getStockStatus(),
+                prediction.getExpectedDemandIncrease(), prediction.getDemandForecast(), prediction.getDaysOfCover(),
+                prediction.getRecommendation()
+            };
+        });
+    }
+
+    private void export(String dataset, ExportFormat format, List<ExportColumn> columns, List<InventoryEventColumn> input,
+                        InventoryEventFilter filter, long afterId, OutputStream outputStream,
+                        UnaryOperator<Object[]> toRow) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long cursor = afterId;
+        long rows = 0;
+        try (ExportWriter writer = format.open(outputStream, columns, pageSize)) {
+            while (true) {
+                List<Object[]> page = projectionRepository.findPage(input, filter, cursor, pageSize);
+                for (Object[] row : page) {
+                    writer.writeRow(toRow.apply(row));
+                }
+                rows += page.size();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                cursor = (Long) page.get(page.size() - 1)[0];
+                writer.flush();
+            }
+        } finally {
+            meterRegistry.counter("inventory.export.rows", "dataset", dataset, "format", format.name()).increment(rows);
+        }
+        logger.info("Exported {} {} rows as {} after id {} in {} ms",
+            rows, dataset, format, afterId, System.currentTimeMillis() - startTime);
+    }
+
+    private static ExportColumn.Type typeOf(InventoryEventColumn column) {
+        if (column.isDictionaryKey()) {
+            return ExportColumn.Type.TEXT;
+        }
+        return switch (column) {
+            case ID -> ExportColumn.Type.LONG;
+            case DATE, STORE_ID, PRODUCT_ID -> ExportColumn.Type.TEXT;
+            case TIMESTAMP -> ExportColumn.Type.TIMESTAMP;
+            case DEMAND_FORECAST, PRICE, DISCOUNT, COMPETITOR_PRICING -> ExportColumn.Type.DOUBLE;
+            default -> ExportColumn.Type.INT;
+        };
+    }
+}
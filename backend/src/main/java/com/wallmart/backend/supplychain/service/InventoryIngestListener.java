@@ -0,0 +1,24 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+
+import java.util.List;
+
+/**
+ * Callback for components that maintain derived state (caches, aggregates) from ingested events.
+ * Beans implementing this interface are picked up by {@link InventoryService#saveAll(List)}.
+ */
+public interface InventoryIngestListener {
+
+    /**
+     * Called after a batch of events has been committed to the database
+     */
+    default void onEventsSaved(List<InventoryEvent> batch) {
+    }
+
+    /**
+     * Called once an ingest has finished, with every event it committed (also after a failure part-way)
+     */
+    default void onIngestCompleted(List<InventoryEvent> savedEvents) {
+    }
+}
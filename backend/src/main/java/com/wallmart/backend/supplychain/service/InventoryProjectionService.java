@@ -0,0 +1,121 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.dto.InventoryPredictionDTO;
+import com.wallmart.backend.supplychain.dto.InventoryPredictionField;
+import com.wallmart.backend.supplychain.dto.ProjectedRowsDTO;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryEventColumn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldsets for the large list endpoints ({@code fields=storeId,inventoryLevel}).
+ * Only the requested fields of each row are written, as slim objects or columnar JSON;
+ * the streamed exports select just those columns from the database instead.
+ */
+@Service
+public class InventoryProjectionService {
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    @Autowired
+    private AIPredictionService aiPredictionService;
+
+    /**
+     * @param fields comma-separated field names, or null/blank for every field
+     */
+    public static List<InventoryEventColumn> eventColumns(String fields) {
+        return parseFields(fields, InventoryEventColumn::fromName, InventoryEventColumn.values());
+    }
+
+    /**
+     * @param fields comma-separated field names, or null/blank for every field
+     */
+    public static List<InventoryPredictionField> predictionFields(String fields) {
+        return parseFields(fields, InventoryPredictionField::fromName, InventoryPredictionField.values());
+    }
+
+    /**
+     * @param shape "rows" (array of objects) or "columnar" (one array per field)
+     * @return whether the response is columnar
+     */
+    public static boolean isColumnar(String shape) {
+        if ("columnar".equalsIgnoreCase(shape)) {
+            return true;
+        }
+        if ("rows".equalsIgnoreCase(shape)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown shape: " + shape + " (rows or columnar)");
+    }
+
+    /**
+     * Events reduced to the given columns, from the current dataset generation (the overlapping
+     * partitions only with a date range). Rows are projected while the response is written,
+     * so no copy of the table is built.
+     */
+    public ProjectedRowsDTO projectEvents(List<InventoryEventColumn> columns, LocalDate from, LocalDate to, boolean columnar) {
+        DatasetGeneration generation = datasetGenerationService.getCurrentGeneration();
+        List<InventoryEvent> events = from != null || to != null ? generation.getEvents(from, to) : generation.getEvents();
+        List<Object[]> rows = new AbstractList<>() {
+            @Override
+            public Object[] get(int index) {
+                InventoryEvent event = events.get(index);
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = columns.get(i).valueOf(event);
+                }
+                return row;
+            }
+
+            @Override
+            public int size() {
+                return events.size();
+            }
+        };
+        return new ProjectedRowsDTO(columns.stream().map(InventoryEventColumn::getFieldName).toList(), rows, columnar);
+    }
+
+    /**
+     * The predictions of /api/predict-inventory-status reduced to the given fields
+     */
+    public ProjectedRowsDTO projectPredictions(List<InventoryPredictionField> fields, boolean columnar) {
+        List<InventoryPredictionDTO> predictions = aiPredictionService.predictInventoryStatus();
+        List<Object[]> rows = new ArrayList<>(predictions.size());
+        for (InventoryPredictionDTO prediction : predictions) {
+            Object[] row = new Object[fields.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = fields.get(i).valueOf(prediction);
+            }
+            rows.add(row);
+        }
+        return new ProjectedRowsDTO(fields.stream().map(InventoryPredictionField::getFieldName).toList(), rows, columnar);
+    }
+
+    private static <T> List<T> parseFields(String fields, Function<String, T> fromName, T[] all) {
+        if (fields == null || fields.isBlank()) {
+            return Arrays.asList(all);
+        }
+        Set<T> parsed = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(fromName.apply(name.trim()));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        return new ArrayList<>(parsed);
+    }
+}
@@ -1,12 +1,23 @@
 package com.wallmart.backend.supplychain.service;
 
+import com.wallmart.backend.supplychain.config.Bulkhead;
 import com.wallmart.backend.supplychain.entity.InventoryEvent;
 import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import com.wallmart.backend.supplychain.repository.ShardedInventoryRepository;
+import com.wallmart.backend.supplychain.tracing.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -18,6 +29,43 @@ public class InventoryService {
     @Autowired
     private InventoryRepository repository;
 
+    @Autowired(required = false)
+    private ShardedInventoryRepository shardedRepository;
+
+    @Autowired(required = false)
+    private List<InventoryIngestListener> ingestListeners = List.of();
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("ingestConnectionBulkhead")
+    private Bulkhead ingestConnections;
+
+    private Timer batchSaveTimer;
+    private Counter savedRowsCounter;
+    private DistributionSummary findAllRows;
+
+    @PostConstruct
+    public void registerMeters() {
+        batchSaveTimer = Timer.builder("inventory.save.batch")
+            .description("Time to save one batch of events")
+            .register(meterRegistry);
+        savedRowsCounter = Counter.builder("inventory.save.rows")
+            .description("Events saved to the database")
+            .register(meterRegistry);
+        findAllRows = DistributionSummary.builder("inventory.findall.rows")
+            .description("Rows returned by a full read of inventory_events")
+            .baseUnit("rows")
+            .register(meterRegistry);
+    }
+
     public void saveAll(List<InventoryEvent> events) {
         if (events == null || events.isEmpty()) {
             logger.warn("No events to save");
@@ -34,8 +82,10 @@ public class InventoryService {
                 int endIndex = Math.min(i + BATCH_SIZE, events.size());
                 List<InventoryEvent> batch = events.subList(i, endIndex);
                 
-                repository.saveAll(batch);
+                withIngestConnection(() -> batchSaveTimer.record(() -> saveBatch(batch)));
                 savedCount += batch.size();
+                savedRowsCounter.increment(batch.size());
+                notifyBatchSaved(batch);
                 
                 // Log progress every 5 batches
                 if ((i / BATCH_SIZE) % 5 == 0) {
@@ -49,12 +99,134 @@ public class InventoryService {
         } catch (Exception e) {
             logger.error("Error saving events: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to save events: " + e.getMessage(), e);
+        } finally {
+            notifyIngestCompleted(events.subList(0, savedCount));
+        }
+    }
+
+    /**
+     * One transaction per batch (one per shard when sharded); persist, flush and commit are traced separately
+     */
+    private void saveBatch(List<InventoryEvent> batch) {
+        try (RequestTrace.Phase phase = RequestTrace.phase("dictionary.encode")) {
+            dimensionDictionary.encode(batch);
+        }
+        if (shardedRepository != null) {
+            // Each shard commits its share of the batch; the shards insert in parallel
+            try (RequestTrace.Phase phase = RequestTrace.phase("shard.insert")) {
+                shardedRepository.saveAll(batch);
+            }
+            return;
+        }
+        try (RequestTrace.Phase phase = RequestTrace.phase("save.batch")) {
+            long[] callbackEnd = new long[1];
+            transactionTemplate.executeWithoutResult(status -> {
+                try (RequestTrace.Phase persist = RequestTrace.phase("jpa.persist")) {
+                    repository.saveAll(batch);
+                }
+                try (RequestTrace.Phase flush = RequestTrace.phase("jpa.flush")) {
+                    repository.flush();
+                }
+                callbackEnd[0] = System.nanoTime();
+            });
+            RequestTrace.record("jpa.commit", System.nanoTime() - callbackEnd[0], 1);
+        }
+    }
+
+    /**
+     * Save one chunk as a unit; listeners hear of it only once all of it is stored. With the
+     * JPA store {@code inTransaction} runs in the same transaction as the inserts. The sharded
+     * store has no transaction spanning the shards, so there it runs in its own transaction
+     * after every shard has committed.
+     */
+    public void saveChunk(List<InventoryEvent> events, Runnable inTransaction) {
+        withIngestConnection(() -> {
+            dimensionDictionary.encode(events);
+            if (shardedRepository != null) {
+                batchSaveTimer.record(() -> shardedRepository.saveAll(events));
+                transactionTemplate.executeWithoutResult(status -> inTransaction.run());
+            } else {
+                batchSaveTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    repository.saveAll(events);
+                    inTransaction.run();
+                }));
+            }
+        });
+        savedRowsCounter.increment(events.size());
+        if (!events.isEmpty()) {
+            notifyBatchSaved(events);
+            notifyIngestCompleted(events);
+        }
+    }
+
+    public boolean isSharded() {
+        return shardedRepository != null;
+    }
+
+    /**
+     * Sharded store: give events their ids without saving them, so they can be recorded
+     * before the shards commit
+     */
+    public void assignIds(List<InventoryEvent> events) {
+        shardedRepository.assignIds(events);
+    }
+
+    /**
+     * Sharded store: remove the rows of a chunk that may have reached only some shards
+     */
+    public void deleteChunk(Collection<Long> ids) {
+        shardedRepository.deleteByIds(ids);
+    }
+
+    /**
+     * Run one write under the ingest connection quota, waiting for a permit if every one is taken
+     */
+    private void withIngestConnection(Runnable write) {
+        try (RequestTrace.Phase phase = RequestTrace.phase("ingest.connection.wait")) {
+            ingestConnections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an ingest connection", e);
+        }
+        try {
+            write.run();
+        } finally {
+            ingestConnections.release();
+        }
+    }
+
+    private void notifyBatchSaved(List<InventoryEvent> batch) {
+        try (RequestTrace.Phase phase = RequestTrace.phase("ingest.listeners")) {
+            for (InventoryIngestListener listener : ingestListeners) {
+                try {
+                    listener.onEventsSaved(batch);
+                } catch (Exception e) {
+                    // Derived state must never fail an ingest that has already committed
+                    logger.error("Ingest listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void notifyIngestCompleted(List<InventoryEvent> savedEvents) {
+        try (RequestTrace.Phase phase = RequestTrace.phase("ingest.publish")) {
+            for (InventoryIngestListener listener : ingestListeners) {
+                try {
+                    listener.onIngestCompleted(savedEvents);
+                } catch (Exception e) {
+                    logger.error("Ingest listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+                }
+            }
         }
     }
 
     public List<InventoryEvent> getAllEvents() {
         logger.info("Fetching all inventory events...");
-        List<InventoryEvent> events = repository.findAll();
+        List<InventoryEvent> events;
+        try (RequestTrace.Phase phase = RequestTrace.phase("db.findAll")) {
+            events = dimensionDictionary.decode(shardedRepository != null ? shardedRepository.findAll() : repository.findAll());
+        }
+        findAllRows.record(events.size());
         logger.info("Retrieved {} events", events.size());
         return events;
     }
@@ -0,0 +1,201 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.analytics.HyperLogLog;
+import com.wallmart.backend.supplychain.analytics.QuantileSketch;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains approximate aggregates per category and per store for each published dataset
+ * generation: HyperLogLog distinct counts for products, stores and suppliers, and quantile
+ * sketches for inventory level, units sold and price. An ingest copies only the sketch sets
+ * it touches plus the dataset total, so any roll-up costs constant memory regardless of row
+ * count; compaction rebuilds them from the remaining rows, since sketches cannot forget.
+ */
+@Service
+public class InventorySketchService {
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    // The sketches of the newest generation and of the one before it, which stays current
+    // until every listener has seen the newest one
+    private volatile Sketches latest = new Sketches(0, new HashMap<>(), new HashMap<>(), new SketchSet());
+    private volatile Sketches previous = latest;
+
+    /**
+     * Apply the rows of a newly published dataset generation (including the initial load)
+     */
+    @EventListener
+    public synchronized void onDatasetPublished(DatasetPublishedEvent event) {
+        Sketches next = event.getAddedEvents().isEmpty()
+            ? Sketches.build(event.getGeneration()) // Rows were removed
+            : latest.with(event.getGeneration().getVersion(), event.getAddedEvents());
+        previous = latest;
+        latest = next;
+    }
+
+    /**
+     * Sketches of exactly the given generation; built from its rows if they are no longer kept
+     */
+    Sketches forGeneration(DatasetGeneration generation) {
+        Sketches candidate = latest;
+        if (candidate.version == generation.getVersion()) {
+            return candidate;
+        }
+        candidate = previous;
+        if (candidate.version == generation.getVersion()) {
+            return candidate;
+        }
+        return Sketches.build(generation);
+    }
+
+    public long estimateDistinctProducts(DatasetGeneration generation) {
+        return forGeneration(generation).total.products.estimate();
+    }
+
+    public long estimateDistinctStores(DatasetGeneration generation) {
+        return forGeneration(generation).total.stores.estimate();
+    }
+
+    /**
+     * Cardinalities and p50/p90/p99 summaries for the whole dataset, a category or a store,
+     * as of the current generation
+     * @return Map containing the distribution summary, or null if the category/store is unknown
+     */
+    public Map<String, Object> getDistribution(String category, String storeId) {
+        Sketches current = forGeneration(datasetGenerationService.getCurrentGeneration());
+        SketchSet sketches = category != null ? current.byCategory.get(category)
+            : storeId != null ? current.byStore.get(storeId)
+            : current.total;
+        if (sketches == null) {
+            return null;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("scope", category != null ? "category:" + category : storeId != null ? "store:" + storeId : "all");
+        result.put("rows", sketches.inventoryLevel.getCount());
+        result.put("distinctProducts", sketches.products.estimate());
+        result.put("distinctStores", sketches.stores.estimate());
+        result.put("distinctSuppliers", sketches.suppliers.estimate());
+        result.put("inventoryLevel", summarize(sketches.inventoryLevel));
+        result.put("unitsSold", summarize(sketches.unitsSold));
+        result.put("price", summarize(sketches.price));
+        result.put("categories", current.byCategory.keySet());
+        return result;
+    }
+
+    private Map<String, Object> summarize(QuantileSketch sketch) {
+        Map<String, Object> summary = new HashMap<>();
+        if (sketch.getCount() == 0) {
+            return summary;
+        }
+        summary.put("min", round(sketch.getMin()));
+        summary.put("mean", round(sketch.getMean()));
+        summary.put("p50", round(sketch.quantile(0.50)));
+        summary.put("p90", round(sketch.quantile(0.90)));
+        summary.put("p99", round(sketch.quantile(0.99)));
+        summary.put("max", round(sketch.getMax()));
+        return summary;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static String keyOf(String value) {
+        return value != null ? value : "Unknown";
+    }
+
+    /**
+     * The sketch sets of one generation; never changed once published
+     */
+    static final class Sketches {
+
+        private final long version;
+        private final Map<String, SketchSet> byCategory;
+        private final Map<String, SketchSet> byStore;
+        private final SketchSet total;
+
+        private Sketches(long version, Map<String, SketchSet> byCategory, Map<String, SketchSet> byStore, SketchSet total) {
+            this.version = version;
+            this.byCategory = byCategory;
+            this.byStore = byStore;
+            this.total = total;
+        }
+
+        static Sketches build(DatasetGeneration generation) {
+            Sketches empty = new Sketches(generation.getVersion(), new HashMap<>(), new HashMap<>(), new SketchSet());
+            return empty.with(generation.getVersion(), generation.getEvents());
+        }
+
+        /**
+         * These sketches plus the given rows; sets the rows do not touch are shared
+         */
+        Sketches with(long nextVersion, List<InventoryEvent> added) {
+            Map<String, SketchSet> nextByCategory = new HashMap<>(byCategory);
+            Map<String, SketchSet> nextByStore = new HashMap<>(byStore);
+            Set<SketchSet> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+            SketchSet nextTotal = total.copy();
+            for (InventoryEvent event : added) {
+                copyOnWrite(nextByCategory, keyOf(event.getCategory()), copied).add(event);
+                copyOnWrite(nextByStore, keyOf(event.getStoreId()), copied).add(event);
+                nextTotal.add(event);
+            }
+            return new Sketches(nextVersion, nextByCategory, nextByStore, nextTotal);
+        }
+
+        private static SketchSet copyOnWrite(Map<String, SketchSet> sets, String key, Set<SketchSet> copied) {
+            SketchSet set = sets.get(key);
+            if (set == null || !copied.contains(set)) {
+                set = set == null ? new SketchSet() : set.copy();
+                sets.put(key, set);
+                copied.add(set);
+            }
+            return set;
+        }
+    }
+
+    /**
+     * The sketches kept for one category or store
+     */
+    public static class SketchSet {
+
+        private final HyperLogLog products = new HyperLogLog();
+        private final HyperLogLog stores = new HyperLogLog();
+        private final HyperLogLog suppliers = new HyperLogLog();
+        private final QuantileSketch inventoryLevel = new QuantileSketch();
+        private final QuantileSketch unitsSold = new QuantileSketch();
+        private final QuantileSketch price = new QuantileSketch();
+
+        void add(InventoryEvent event) {
+            products.add(event.getProductId());
+            stores.add(event.getStoreId());
+            suppliers.add(event.getSupplier());
+            inventoryLevel.add(event.getInventoryLevel());
+            unitsSold.add(event.getUnitsSold());
+            price.add(event.getPrice());
+        }
+
+        SketchSet copy() {
+            SketchSet copy = new SketchSet();
+            copy.products.merge(products);
+            copy.stores.merge(stores);
+            copy.suppliers.merge(suppliers);
+            copy.inventoryLevel.merge(inventoryLevel);
+            copy.unitsSold.merge(unitsSold);
+            copy.price.merge(price);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.InventoryColumnSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out the columnar snapshot used by analytics scans. Each published dataset
+ * generation builds its snapshot once, on first read, so a scan never sees a
+ * partly ingested file.
+ */
+@Service
+public class InventorySnapshotService {
+
+    @Autowired
+    private DatasetGenerationService datasetGenerationService;
+
+    public InventoryColumnSnapshot getSnapshot() {
+        return datasetGenerationService.getCurrentGeneration().getSnapshot();
+    }
+}
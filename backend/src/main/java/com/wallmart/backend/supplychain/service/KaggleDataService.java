@@ -2,27 +2,36 @@ package com.wallmart.backend.supplychain.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class KaggleDataService {
     
     private static final Logger logger = LoggerFactory.getLogger(KaggleDataService.class);
+    private static final String[] KAGGLE_DATA_FILES = {
+        "kaggle_inventory_data.csv", "kaggle_inventory_data.csv.gz", "kaggle_inventory_data.zip"
+    };
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Autowired
@@ -31,78 +40,196 @@ public class KaggleDataService {
     @Autowired
     private InventoryCSVParser inventoryCSVParser;
     
+    @Autowired
+    private CSVDecompressor csvDecompressor;
+
+    @Autowired
+    private ParseReportRegistry parseReportRegistry;
+    
+    @Value("${kaggle.download.timeout-seconds:600}")
+    private long downloadTimeoutSeconds;
+
+    @Value("${kaggle.jobs.retention-minutes:60}")
+    private long jobRetentionMinutes;
+    
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kaggle-download");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, KaggleDownloadJob> jobs = new ConcurrentHashMap<>();
+    private volatile KaggleDownloadJob latestJob;
+    
+    /**
+     * Start downloading the retail inventory dataset from Kaggle as a background job.
+     * Only one job runs at a time; if one is already active it is returned instead.
+     * @return the new or currently running job
+     */
+    public synchronized KaggleDownloadJob startDownloadJob() {
+        pruneFinishedJobs();
+        if (latestJob != null && !latestJob.isFinished()) {
+            logger.info("Kaggle download job {} already running", latestJob.getId());
+            return latestJob;
+        }
+
+        KaggleDownloadJob job = new KaggleDownloadJob();
+        jobs.put(job.getId(), job);
+        latestJob = job;
+        job.setFuture(jobExecutor.submit(() -> runDownloadJob(job)));
+        logger.info("Queued Kaggle download job {}", job.getId());
+        return job;
+    }
+
+    /**
+     * Cancel a running download job, killing the Python process if needed
+     * @return the job, or null if no job has that id
+     * @throws IllegalStateException if the job is already loading rows into the database
+     */
+    public KaggleDownloadJob cancelDownloadJob(String jobId) {
+        KaggleDownloadJob job = getDownloadJob(jobId);
+        if (job != null && !job.isFinished()) {
+            if (!job.cancel()) {
+                throw new IllegalStateException("Job " + jobId + " is loading rows into the database and can no longer be cancelled");
+            }
+            logger.info("Cancelling Kaggle download job {}", jobId);
+            job.setStatus(KaggleDownloadJob.CANCELLED);
+        }
+        return job;
+    }
+
+    public KaggleDownloadJob getDownloadJob(String jobId) {
+        pruneFinishedJobs();
+        return jobs.get(jobId);
+    }
+
     /**
-     * Download retail inventory dataset from Kaggle
-     * @return Map containing the result of the download operation
+     * Forget jobs that finished more than kaggle.jobs.retention-minutes ago
      */
-    public Map<String, Object> downloadRetailDataset() {
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    public KaggleDownloadJob getLatestDownloadJob() {
+        return latestJob;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        KaggleDownloadJob job = latestJob;
+        if (job != null && !job.isFinished()) {
+            job.cancel();
+        }
+        jobExecutor.shutdownNow();
+    }
+
+    private void runDownloadJob(KaggleDownloadJob job) {
+        if (job.isCancelRequested()) {
+            return;
+        }
+
+        Process process = null;
         try {
             // Use the working test script
-            String scriptPath = "test_kaggle.py";
-            
-            // Create process builder to run Python script
-            ProcessBuilder processBuilder = new ProcessBuilder("python", scriptPath);
+            ProcessBuilder processBuilder = new ProcessBuilder("python", "test_kaggle.py");
             processBuilder.redirectErrorStream(true);
-            
-            logger.info("Starting Kaggle dataset download...");
-            Process process = processBuilder.start();
-            
-            // Read the output
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            StringBuilder output = new StringBuilder();
+
+            logger.info("Starting Kaggle dataset download (job {}, timeout {}s)...", job.getId(), downloadTimeoutSeconds);
+            job.setStatus(KaggleDownloadJob.DOWNLOADING);
+            process = processBuilder.start();
+            job.setProcess(process);
+
+            // Drain output on its own thread so the timeout below is enforced even if the script stops writing
+            Process started = process;
+            Thread outputReader = new Thread(() -> captureOutput(started, job), "kaggle-output-" + job.getId());
+            outputReader.setDaemon(true);
+            outputReader.start();
+
+            boolean exited = process.waitFor(downloadTimeoutSeconds, TimeUnit.SECONDS);
+            if (!exited) {
+                process.destroyForcibly();
+                logger.error("Kaggle download job {} timed out after {}s", job.getId(), downloadTimeoutSeconds);
+                job.setError("Python script timed out after " + downloadTimeoutSeconds + " seconds");
+                job.setStatus(KaggleDownloadJob.TIMED_OUT);
+                return;
+            }
+            outputReader.join(1000);
+
+            if (job.isCancelRequested()) {
+                return;
+            }
+
+            int exitCode = process.exitValue();
+            job.setExitCode(exitCode);
+            if (exitCode != 0) {
+                logger.error("Python script failed with exit code: " + exitCode);
+                job.setError("Python script failed with exit code: " + exitCode);
+                job.setStatus(KaggleDownloadJob.FAILED);
+                return;
+            }
+
+            job.setResult(parseScriptResult(job.getOutput()));
+            logger.info("Kaggle dataset download completed successfully (job {})", job.getId());
+
+            // Load the data into database through the streaming ingest path
+            if (!job.beginLoading()) {
+                return;
+            }
+            ParseErrorCollector report = loadKaggleData();
+            if (report != null) {
+                job.setParseReport(report.toMap());
+                job.appendOutput("Loaded the data into the database (" + report.getRejectedRows() + " rows rejected)");
+            }
+            job.setStatus(KaggleDownloadJob.SUCCEEDED);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            job.setStatus(KaggleDownloadJob.CANCELLED);
+        } catch (Exception e) {
+            logger.error("Error in Kaggle download job " + job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(job.isCancelRequested() ? KaggleDownloadJob.CANCELLED : KaggleDownloadJob.FAILED);
+        }
+    }
+
+    private void captureOutput(Process process, KaggleDownloadJob job) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
             String line;
-            
             while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
+                job.appendOutput(line);
                 logger.info(line);
             }
-            
-            // Wait for the process to complete
-            int exitCode = process.waitFor();
-            
-            if (exitCode == 0) {
-                // Try to parse the JSON result from the last line
-                String[] lines = output.toString().split("\n");
-                for (int i = lines.length - 1; i >= 0; i--) {
-                    String lastLine = lines[i].trim();
-                    if (lastLine.startsWith("{") && lastLine.endsWith("}")) {
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> result = objectMapper.readValue(lastLine, Map.class);
-                            logger.info("Kaggle dataset download completed successfully");
-                            
-                            // Load the data into database
-                            loadKaggleDataIntoDatabase();
-                            
-                            return result;
-                        } catch (Exception e) {
-                            logger.warn("Could not parse JSON result: " + lastLine);
-                        }
-                    }
+        } catch (IOException e) {
+            // Stream closes when the process is destroyed
+            logger.debug("Kaggle output stream closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The script prints its result as a JSON object on one of the last lines
+     */
+    private Map<String, Object> parseScriptResult(List<String> lines) {
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            String lastLine = lines.get(i).trim();
+            if (lastLine.startsWith("{") && lastLine.endsWith("}")) {
+                try {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> result = objectMapper.readValue(lastLine, Map.class);
+                    return result;
+                } catch (Exception e) {
+                    logger.warn("Could not parse JSON result: " + lastLine);
                 }
-                
-                // Fallback response
-                return Map.of(
-                    "success", true,
-                    "message", "Dataset downloaded successfully",
-                    "output", output.toString()
-                );
-            } else {
-                logger.error("Python script failed with exit code: " + exitCode);
-                return Map.of(
-                    "success", false,
-                    "error", "Python script failed with exit code: " + exitCode,
-                    "output", output.toString()
-                );
             }
-            
-        } catch (IOException | InterruptedException e) {
-            logger.error("Error downloading Kaggle dataset", e);
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
         }
+        
+        // Fallback response
+        return Map.of(
+            "success", true,
+            "message", "Dataset downloaded successfully"
+        );
     }
     
     /**
@@ -110,68 +237,34 @@ public class KaggleDataService {
      */
     public void loadKaggleDataIntoDatabase() {
         try {
-            Path dataPath = Paths.get("kaggle_inventory_data.csv");
-            if (Files.exists(dataPath)) {
-                logger.info("Loading Kaggle data into database...");
-                List<InventoryEvent> events = convertKaggleDataToInventoryEvents(dataPath);
-                inventoryService.saveAll(events);
-                logger.info("Successfully loaded " + events.size() + " events from Kaggle data");
-            } else {
-                logger.warn("Kaggle data file not found: " + dataPath);
-            }
+            loadKaggleData();
         } catch (Exception e) {
             logger.error("Error loading Kaggle data into database", e);
         }
     }
     
     /**
-     * Convert Kaggle data format to InventoryEvent format
+     * Parse the downloaded file with the upload parser (quoted fields, column mapping,
+     * per-row error report) and save the rows
+     * @return the parse report, or null if no file has been downloaded
      */
-    private List<InventoryEvent> convertKaggleDataToInventoryEvents(Path dataPath) throws IOException {
-        List<InventoryEvent> events = new ArrayList<>();
-        List<String> lines = Files.readAllLines(dataPath);
-        
-        // Skip header
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            String[] parts = line.split(",");
-            
-            if (parts.length >= 5) {
-                String eventType = parts[0];
-                String productName = parts[1];
-                int quantity = Integer.parseInt(parts[2]);
-                String timestamp = parts[3];
-                String location = parts[4];
-                
-                // Create InventoryEvent with converted data
-                InventoryEvent event = InventoryEvent.builder()
-                    .date(timestamp)
-                    .storeId("STORE_" + (i % 5 + 1)) // Generate store IDs
-                    .productId("PROD_" + (i - 1))
-                    .productName(productName)
-                    .category("General")
-                    .supplier("Supplier_" + (i % 3 + 1))
-                    .quantity(quantity)
-                    .status(eventType)
-                    .location(location)
-                    .timestamp(LocalDate.parse(timestamp).atStartOfDay())
-                    .inventoryLevel(quantity * 10) // Simulate inventory level
-                    .unitsSold(quantity * 2) // Simulate units sold
-                    .unitsOrdered(quantity * 3) // Simulate units ordered
-                    .demandForecast(quantity * 15.0) // Simulate demand forecast
-                    .price(29.99 + (i * 0.5)) // Simulate price
-                    .discount(0.0) // No discount
-                    .weatherCondition("Sunny")
-                    .holidayOrPromotion("None")
-                    .competitorPricing(25.0 + (i * 0.3)) // Simulate competitor pricing
-                    .seasonality("Summer")
-                    .build();
-                
-                events.add(event);
-            }
+    private ParseErrorCollector loadKaggleData() throws IOException {
+        Path dataPath = getKaggleDataPath();
+        if (dataPath == null) {
+            logger.warn("Kaggle data file not found: " + KAGGLE_DATA_FILES[0]);
+            return null;
         }
         
-        return events;
+        logger.info("Loading Kaggle data into database from {}...", dataPath);
+        String fileName = dataPath.getFileName().toString();
+        ParseErrorCollector report = parseReportRegistry.start(fileName);
+        List<InventoryEvent> events;
+        try (InputStream in = csvDecompressor.open(Files.newInputStream(dataPath), fileName)) {
+            events = inventoryCSVParser.parseCSV(in, report);
+        }
+        inventoryService.saveAll(events);
+        logger.info("Successfully loaded " + events.size() + " events from Kaggle data");
+        return report;
     }
     
     /**
@@ -180,8 +273,7 @@ public class KaggleDataService {
      */
     public boolean isKaggleDataAvailable() {
         try {
-            Path dataPath = Paths.get("kaggle_inventory_data.csv");
-            return Files.exists(dataPath);
+            return getKaggleDataPath() != null;
         } catch (Exception e) {
             logger.warn("Could not check Kaggle data availability", e);
             return false;
@@ -189,15 +281,21 @@ public class KaggleDataService {
     }
     
     /**
-     * Get the path to the downloaded Kaggle data file
-     * @return Path to the data file
+     * Get the path to the downloaded Kaggle data file (.csv, .csv.gz or .zip)
+     * @return Path to the data file, or null if none has been downloaded
      */
     public Path getKaggleDataPath() {
         try {
-            return Paths.get("kaggle_inventory_data.csv");
+            for (String fileName : KAGGLE_DATA_FILES) {
+                Path candidate = Paths.get(fileName);
+                if (Files.exists(candidate)) {
+                    return candidate;
+                }
+            }
+            return null;
         } catch (Exception e) {
             logger.error("Could not get Kaggle data path", e);
             return null;
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
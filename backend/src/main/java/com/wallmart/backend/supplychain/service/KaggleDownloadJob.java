@@ -0,0 +1,154 @@
+package com.wallmart.backend.supplychain.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * State of one background Kaggle download-and-load run, shared between the worker
+ * thread and status/cancel requests.
+ */
+public class KaggleDownloadJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String DOWNLOADING = "DOWNLOADING";
+    public static final String LOADING = "LOADING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+    public static final String TIMED_OUT = "TIMED_OUT";
+    public static final String CANCELLED = "CANCELLED";
+
+    private static final int MAX_OUTPUT_LINES = 200; // Keep only the tail of the script output
+
+    private final String id = UUID.randomUUID().toString();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Deque<String> output = new ArrayDeque<>();
+    private volatile String status = QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile Integer exitCode;
+    private volatile String error;
+    private volatile Map<String, Object> result;
+    private volatile Map<String, Object> parseReport;
+    private volatile boolean cancelRequested;
+    private volatile Process process;
+    private volatile Future<?> future;
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return SUCCEEDED.equals(status) || FAILED.equals(status)
+            || TIMED_OUT.equals(status) || CANCELLED.equals(status);
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized void setStatus(String status) {
+        if (isFinished()) {
+            return; // Terminal states (e.g. CANCELLED) are never overwritten by the worker
+        }
+        this.status = status;
+        if (isFinished()) {
+            this.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    void setExitCode(Integer exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    void setResult(Map<String, Object> result) {
+        this.result = result;
+    }
+
+    void setParseReport(Map<String, Object> parseReport) {
+        this.parseReport = parseReport;
+    }
+
+    /**
+     * Move to LOADING unless cancellation was requested first; from then on the job can
+     * no longer be cancelled
+     */
+    synchronized boolean beginLoading() {
+        if (cancelRequested || isFinished()) {
+            return false;
+        }
+        status = LOADING;
+        return true;
+    }
+
+    void setProcess(Process process) {
+        this.process = process;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized void appendOutput(String line) {
+        if (output.size() >= MAX_OUTPUT_LINES) {
+            output.removeFirst();
+        }
+        output.addLast(line);
+    }
+
+    synchronized List<String> getOutput() {
+        return new ArrayList<>(output);
+    }
+
+    /**
+     * Request cancellation: kills the script if it is running and interrupts the worker
+     * @return false if the job is already loading rows, which are committed batch by batch
+     *         and cannot be taken back part-way
+     */
+    synchronized boolean cancel() {
+        if (LOADING.equals(status)) {
+            return false;
+        }
+        cancelRequested = true;
+        Process running = process;
+        if (running != null) {
+            running.destroyForcibly();
+        }
+        Future<?> task = future;
+        if (task != null) {
+            task.cancel(true);
+        }
+        return true;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("jobId", id);
+        map.put("status", status);
+        map.put("createdAt", createdAt.toString());
+        map.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        map.put("exitCode", exitCode);
+        map.put("error", error);
+        map.put("result", result);
+        map.put("parseReport", parseReport);
+        map.put("output", getOutput());
+        return map;
+    }
+}
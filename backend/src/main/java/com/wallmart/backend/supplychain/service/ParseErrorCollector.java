@@ -0,0 +1,194 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.opencsv.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the problems found while parsing one CSV: counters per reason, a few sample rows
+ * per reason, and every rejected row written to a side file. Only the first occurrences of
+ * each reason are logged, so an error-heavy file does not spend its time formatting log lines.
+ * The side file starts with line, reason and message columns followed by the original fields
+ * of the row, one per column under the input's own header, so it can be fixed and re-uploaded
+ * after dropping the first three columns.
+ */
+public class ParseErrorCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParseErrorCollector.class);
+    private static final int LOGGED_PER_REASON = 5;
+    private static final int SAMPLES_PER_REASON = 10;
+
+    private final String uploadId;
+    private final String source;
+    private final Path rejectsFile;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Map<String, Long> rejectedByReason = new TreeMap<>();
+    private final Map<String, Long> defaultedByReason = new TreeMap<>();
+    private final Map<String, List<Map<String, Object>>> samples = new TreeMap<>();
+    private CSVWriter rejectsWriter;
+    private String[] header;
+    private long rejectedRows;
+    private long acceptedRows;
+    private String truncatedBy;
+    private LocalDateTime completedAt;
+
+    ParseErrorCollector(String uploadId, String source, Path rejectsFile) {
+        this.uploadId = uploadId;
+        this.source = source;
+        this.rejectsFile = rejectsFile;
+    }
+
+    /**
+     * The header row of the input, repeated after the report columns of the rejects file
+     */
+    public synchronized void header(String[] header) {
+        this.header = header != null ? header.clone() : null;
+    }
+
+    /**
+     * A row that was skipped; it is kept in the rejects file
+     */
+    public synchronized void reject(String reason, int lineNumber, String[] row, String message) {
+        rejectedRows++;
+        long count = rejectedByReason.merge(reason, 1L, Long::sum);
+        sample(reason, count, lineNumber, row, message);
+        if (count <= LOGGED_PER_REASON) {
+            logger.warn("[{}] Line {} rejected ({}): {}", uploadId, lineNumber, reason, message);
+        }
+        writeReject(reason, lineNumber, row, message);
+    }
+
+    /**
+     * A row that was kept with a default substituted for a bad value
+     */
+    public synchronized void defaulted(String reason, int lineNumber, String[] row, String message) {
+        long count = defaultedByReason.merge(reason, 1L, Long::sum);
+        sample(reason, count, lineNumber, row, message);
+        if (count <= LOGGED_PER_REASON) {
+            logger.warn("[{}] Line {} ({}): {}", uploadId, lineNumber, reason, message);
+        }
+    }
+
+    public synchronized void accepted(int rows) {
+        acceptedRows += rows;
+    }
+
+    /**
+     * Parsing stopped before the end of the input (row limit or timeout)
+     */
+    public synchronized void truncated(String reason) {
+        truncatedBy = reason;
+    }
+
+    /**
+     * Close the rejects file and log one summary line for everything that was not logged
+     */
+    public synchronized void complete() {
+        completedAt = LocalDateTime.now();
+        if (rejectsWriter != null) {
+            try {
+                rejectsWriter.close();
+            } catch (IOException e) {
+                logger.warn("[{}] Failed to close rejects file {}: {}", uploadId, rejectsFile, e.getMessage());
+            }
+            rejectsWriter = null;
+        }
+        if (rejectedRows > 0 || !defaultedByReason.isEmpty()) {
+            logger.warn("[{}] {}: {} rows rejected {}, defaults used {}", uploadId, source, rejectedRows,
+                rejectedByReason, defaultedByReason);
+        }
+    }
+
+    private void sample(String reason, long count, int lineNumber, String[] row, String message) {
+        if (count > SAMPLES_PER_REASON) {
+            return;
+        }
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("line", lineNumber);
+        sample.put("message", message);
+        sample.put("row", row != null ? Arrays.asList(row) : List.of());
+        samples.computeIfAbsent(reason, key -> new ArrayList<>()).add(sample);
+    }
+
+    private void writeReject(String reason, int lineNumber, String[] row, String message) {
+        if (rejectsFile == null) {
+            return;
+        }
+        try {
+            if (rejectsWriter == null) {
+                Files.createDirectories(rejectsFile.getParent());
+                rejectsWriter = new CSVWriter(Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8));
+                rejectsWriter.writeNext(withReportColumns("line", "reason", "message", header));
+            }
+            rejectsWriter.writeNext(withReportColumns(String.valueOf(lineNumber), reason, message, row));
+        } catch (IOException e) {
+            logger.warn("[{}] Failed to write rejects file {}: {}", uploadId, rejectsFile, e.getMessage());
+        }
+    }
+
+    private static String[] withReportColumns(String line, String reason, String message, String[] fields) {
+        int fieldCount = fields != null ? fields.length : 0;
+        String[] columns = new String[3 + fieldCount];
+        columns[0] = line;
+        columns[1] = reason;
+        columns[2] = message;
+        if (fieldCount > 0) {
+            System.arraycopy(fields, 0, columns, 3, fieldCount);
+        }
+        return columns;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    /**
+     * @return what stopped parsing early ("MAX_ROWS" or "TIMEOUT"), or null if the whole input was read
+     */
+    public synchronized String getTruncatedBy() {
+        return truncatedBy;
+    }
+
+    public synchronized long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public synchronized Map<String, Long> getRejectedByReason() {
+        return new TreeMap<>(rejectedByReason);
+    }
+
+    /**
+     * @return the rejects file, or null if no row was rejected
+     */
+    public synchronized Path getRejectsFile() {
+        return rejectedRows > 0 && rejectsFile != null && Files.exists(rejectsFile) ? rejectsFile : null;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("uploadId", uploadId);
+        report.put("source", source);
+        report.put("startedAt", startedAt.toString());
+        report.put("completedAt", completedAt != null ? completedAt.toString() : null);
+        report.put("acceptedRows", acceptedRows);
+        report.put("rejectedRows", rejectedRows);
+        report.put("rejectedByReason", new TreeMap<>(rejectedByReason));
+        report.put("defaultedByReason", new TreeMap<>(defaultedByReason));
+        report.put("truncatedBy", truncatedBy);
+        report.put("samples", new TreeMap<>(samples));
+        report.put("rejectsDownload", rejectedRows > 0 ? "/api/inventory/uploads/" + uploadId + "/rejects.csv" : null);
+        return report;
+    }
+}
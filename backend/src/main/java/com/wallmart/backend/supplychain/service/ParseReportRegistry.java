@@ -0,0 +1,94 @@
+package com.wallmart.backend.supplychain.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the parse reports of recent uploads so their rejected rows can be downloaded.
+ * The oldest report and its rejects file are dropped once the limit is reached.
+ */
+@Component
+public class ParseReportRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParseReportRegistry.class);
+
+    @Value("${inventory.upload.rejects-dir:${java.io.tmpdir}/inventory-rejects}")
+    private String rejectsDir;
+
+    @Value("${inventory.upload.reports-retained:100}")
+    private int reportsRetained;
+
+    private final Map<String, ParseErrorCollector> reports = new LinkedHashMap<>();
+
+    /**
+     * Start collecting errors for a new parse
+     * @param source file name or other description of the input
+     */
+    public ParseErrorCollector start(String source) {
+        String uploadId = UUID.randomUUID().toString();
+        Path rejectsFile = Paths.get(rejectsDir).toAbsolutePath().resolve(uploadId + ".rejects.csv");
+        ParseErrorCollector collector = new ParseErrorCollector(uploadId, source, rejectsFile);
+
+        List<ParseErrorCollector> evicted = new ArrayList<>();
+        synchronized (reports) {
+            reports.put(uploadId, collector);
+            Iterator<ParseErrorCollector> oldest = reports.values().iterator();
+            while (reports.size() > reportsRetained && oldest.hasNext()) {
+                evicted.add(oldest.next());
+                oldest.remove();
+            }
+        }
+        for (ParseErrorCollector old : evicted) {
+            deleteRejectsFile(old);
+        }
+        return collector;
+    }
+
+    /**
+     * @return the report for an upload, or null if unknown or already evicted
+     */
+    public ParseErrorCollector get(String uploadId) {
+        synchronized (reports) {
+            return reports.get(uploadId);
+        }
+    }
+
+    public List<Map<String, Object>> getRecentReports() {
+        List<ParseErrorCollector> recent;
+        synchronized (reports) {
+            recent = new ArrayList<>(reports.values());
+        }
+        List<Map<String, Object>> result = new ArrayList<>(recent.size());
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            Map<String, Object> report = new LinkedHashMap<>(recent.get(i).toMap());
+            report.remove("samples");
+            result.add(report);
+        }
+        return result;
+    }
+
+    private void deleteRejectsFile(ParseErrorCollector collector) {
+        Path file = collector.getRejectsFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete rejects file {}: {}", file, e.getMessage());
+        }
+    }
+}
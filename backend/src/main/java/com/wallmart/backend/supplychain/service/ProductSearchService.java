@@ -0,0 +1,48 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.ProductSearchIndex;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product search for the frontend. The index is filled from every published dataset
+ * generation (the initial load from the database at startup, then each ingest), so it
+ * never reads the events table itself.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @EventListener
+    public void onDatasetPublished(DatasetPublishedEvent event) {
+        index.apply(event.getAddedEvents());
+    }
+
+    /**
+     * Top products for a query with their current stock
+     * @param query product id, name or category words; typos and unfinished words are tolerated
+     * @param limit number of results (at most 100)
+     * @return Map containing the ranked results
+     */
+    public Map<String, Object> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        long startTime = System.nanoTime();
+        List<Map<String, Object>> results = index.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", query);
+        response.put("results", results);
+        response.put("indexedProducts", index.size());
+        response.put("tookMs", Math.round((System.nanoTime() - startTime) / 10_000.0) / 100.0);
+        return response;
+    }
+}
@@ -0,0 +1,118 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallmart.backend.supplychain.analytics.InventoryColumnSnapshot;
+import com.wallmart.backend.supplychain.analytics.ReplenishmentPlanner;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Replenishment plan (reorder point, safety stock, order quantity) for every SKU.
+ * The plan is computed once per column snapshot and reused until the next ingest.
+ */
+@Service
+public class ReplenishmentPlanningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplenishmentPlanningService.class);
+
+    @Value("${analytics.replenishment.lead-time-days:7}")
+    private double leadTimeDays;
+
+    @Value("${analytics.replenishment.review-period-days:7}")
+    private double reviewPeriodDays;
+
+    @Value("${analytics.replenishment.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private volatile ReplenishmentPlanner.Plan plan;
+
+    public ReplenishmentPlanner.Plan getPlan() {
+        InventoryColumnSnapshot snapshot = inventorySnapshotService.getSnapshot();
+        ReplenishmentPlanner.Plan current = plan;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (plan == null || plan.getSnapshot() != snapshot) {
+                long startTime = System.currentTimeMillis();
+                plan = new ReplenishmentPlanner(leadTimeDays, reviewPeriodDays, serviceLevelZ).plan(snapshot, pool);
+                logger.info("Computed replenishment plan for {} SKUs in {} ms",
+                    plan.size(), System.currentTimeMillis() - startTime);
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Suggested order quantity for a store and product, or null if the SKU is unknown
+     */
+    public Long getOrderQuantity(String storeId, String productId) {
+        ReplenishmentPlanner.Plan current = getPlan();
+        int sku = current.find(storeId, productId);
+        return sku >= 0 ? current.orderQuantity(sku) : null;
+    }
+
+    /**
+     * Write the plan as newline-delimited JSON, one SKU per line
+     * @param reorderOnly only SKUs with a suggested order
+     */
+    public void writePlan(OutputStream outputStream, boolean reorderOnly) throws IOException {
+        ReplenishmentPlanner.Plan current = getPlan();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        for (int sku = 0; sku < current.size(); sku++) {
+            if (reorderOnly && current.orderQuantity(sku) == 0) {
+                continue;
+            }
+            writer.write(objectMapper.writeValueAsString(toMap(current, sku)));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private Map<String, Object> toMap(ReplenishmentPlanner.Plan current, int sku) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("storeId", current.storeId(sku));
+        item.put("productId", current.productId(sku));
+        item.put("supplier", current.supplier(sku));
+        item.put("currentInventory", current.currentInventory(sku));
+        item.put("dailyDemand", round(current.dailyDemand(sku)));
+        item.put("demandStdDev", round(current.demandStdDev(sku)));
+        item.put("safetyStock", round(current.safetyStock(sku)));
+        item.put("reorderPoint", round(current.reorderPoint(sku)));
+        item.put("orderQuantity", current.orderQuantity(sku));
+        item.put("orderValue", round(current.orderValue(sku)));
+        return item;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,154 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.InventoryColumnSnapshot;
+import com.wallmart.backend.supplychain.analytics.InventoryDimension;
+import com.wallmart.backend.supplychain.analytics.SkuIndex;
+import com.wallmart.backend.supplychain.analytics.StockSimulation;
+import com.wallmart.backend.supplychain.dto.SimulationScenarioDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * What-if stock simulation over the full catalogue, run in-process instead of
+ * sending the whole problem to the external AI service.
+ */
+@Service
+public class StockSimulationService {
+
+    private static final int DEFAULT_HORIZON_DAYS = 30;
+    private static final int MAX_HORIZON_DAYS = 365;
+    private static final int DEFAULT_TOP_SKUS = 20;
+
+    @Value("${analytics.replenishment.lead-time-days:7}")
+    private int leadTimeDays;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    private volatile StockSimulation.Baseline baseline;
+
+    public Map<String, Object> simulate(SimulationScenarioDTO scenario) {
+        long startTime = System.nanoTime();
+        int horizonDays = scenario.getHorizonDays() != null ? scenario.getHorizonDays() : DEFAULT_HORIZON_DAYS;
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("horizonDays must be between 1 and " + MAX_HORIZON_DAYS);
+        }
+
+        StockSimulation.Baseline current = getBaseline();
+        InventoryColumnSnapshot snapshot = current.getSnapshot();
+
+        double demandMultiplier = scenario.getDemandMultiplier() != null ? scenario.getDemandMultiplier() : 1.0;
+        InventoryColumnSnapshot.DictionaryColumn categories = snapshot.dimension(InventoryDimension.CATEGORY);
+        double[] categoryMultiplier = new double[categories.cardinality()];
+        Arrays.fill(categoryMultiplier, demandMultiplier);
+        if (scenario.getCategoryMultipliers() != null) {
+            scenario.getCategoryMultipliers().forEach((category, multiplier) -> {
+                int code = categories.code(category);
+                if (code >= 0 && multiplier != null) {
+                    categoryMultiplier[code] = demandMultiplier * multiplier;
+                }
+            });
+        }
+
+        InventoryColumnSnapshot.DictionaryColumn suppliers = snapshot.dimension(InventoryDimension.SUPPLIER);
+        int[] supplierDelayDays = new int[suppliers.cardinality()];
+        if (scenario.getSupplierDelayDays() != null) {
+            scenario.getSupplierDelayDays().forEach((supplier, delay) -> {
+                int code = suppliers.code(supplier);
+                if (code >= 0 && delay != null) {
+                    supplierDelayDays[code] = delay;
+                }
+            });
+        }
+
+        boolean[] includedStores = null;
+        if (scenario.getStoreIds() != null && !scenario.getStoreIds().isEmpty()) {
+            InventoryColumnSnapshot.DictionaryColumn stores = snapshot.dimension(InventoryDimension.STORE);
+            includedStores = new boolean[stores.cardinality()];
+            for (String storeId : scenario.getStoreIds()) {
+                int code = stores.code(storeId);
+                if (code >= 0) {
+                    includedStores[code] = true;
+                }
+            }
+        }
+
+        StockSimulation.Result result = StockSimulation.run(current, horizonDays, leadTimeDays,
+            categoryMultiplier, supplierDelayDays, includedStores);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("horizonDays", horizonDays);
+        response.put("simulatedSkus", result.getSimulatedSkus());
+        response.put("stockOutSkus", result.getStockOutSkus());
+        response.put("stockOutRate", result.getSimulatedSkus() > 0
+            ? round((double) result.getStockOutSkus() / result.getSimulatedSkus()) : 0.0);
+        response.put("lostUnits", Math.round(result.getTotalLostUnits()));
+        response.put("revenueAtRisk", round(result.getTotalRevenueAtRisk()));
+        response.put("newStockOutsByDay", result.getNewStockOutsByDay());
+        int topSkus = scenario.getTopSkus() != null ? scenario.getTopSkus() : DEFAULT_TOP_SKUS;
+        response.put("topSkusAtRisk", topSkusAtRisk(current, result, topSkus));
+        response.put("currency", "USD");
+        response.put("elapsedMs", (System.nanoTime() - startTime) / 1_000_000);
+        return response;
+    }
+
+    private StockSimulation.Baseline getBaseline() {
+        InventoryColumnSnapshot snapshot = inventorySnapshotService.getSnapshot();
+        StockSimulation.Baseline current = baseline;
+        if (current != null && current.getSnapshot() == snapshot) {
+            return current;
+        }
+        synchronized (this) {
+            if (baseline == null || baseline.getSnapshot() != snapshot) {
+                baseline = StockSimulation.Baseline.of(snapshot);
+            }
+            return baseline;
+        }
+    }
+
+    private List<Map<String, Object>> topSkusAtRisk(StockSimulation.Baseline current, StockSimulation.Result result, int limit) {
+        // Bounded min-heap keeps the top N without sorting the whole catalogue
+        PriorityQueue<Integer> top = new PriorityQueue<>((a, b) -> Double.compare(result.revenueAtRisk(a), result.revenueAtRisk(b)));
+        for (int sku = 0; sku < current.size() && limit > 0; sku++) {
+            if (result.revenueAtRisk(sku) <= 0) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(sku);
+            } else if (result.revenueAtRisk(sku) > result.revenueAtRisk(top.peek())) {
+                top.poll();
+                top.add(sku);
+            }
+        }
+
+        List<Integer> ordered = new ArrayList<>(top);
+        ordered.sort((a, b) -> Double.compare(result.revenueAtRisk(b), result.revenueAtRisk(a)));
+        InventoryColumnSnapshot snapshot = current.getSnapshot();
+        SkuIndex skus = current.getSkuIndex();
+        List<Map<String, Object>> items = new ArrayList<>(ordered.size());
+        for (int sku : ordered) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("storeId", snapshot.dimension(InventoryDimension.STORE).value(skus.storeCode(sku)));
+            item.put("productId", snapshot.dimension(InventoryDimension.PRODUCT).value(skus.productCode(sku)));
+            item.put("supplier", snapshot.dimension(InventoryDimension.SUPPLIER).value(skus.supplierCode(sku)));
+            item.put("category", snapshot.dimension(InventoryDimension.CATEGORY).value(skus.categoryCode(sku)));
+            item.put("firstStockOutDay", result.firstStockOutDay(sku));
+            item.put("lostUnits", Math.round(result.lostUnits(sku)));
+            item.put("revenueAtRisk", round(result.revenueAtRisk(sku)));
+            items.add(item);
+        }
+        return items;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
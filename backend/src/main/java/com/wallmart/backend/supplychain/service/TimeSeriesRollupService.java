@@ -0,0 +1,191 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.InventoryDimension;
+import com.wallmart.backend.supplychain.analytics.RollupBucket;
+import com.wallmart.backend.supplychain.analytics.RollupGranularity;
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Daily, weekly and monthly rollups of units sold, units ordered, average inventory level
+ * and revenue per store, product and category (plus an overall series). Buckets are
+ * updated incrementally as batches are ingested, so a year-long trend reads a few
+ * hundred buckets instead of scanning every event. Compaction moves rows into daily
+ * summaries without changing any total, so the buckets are kept as they are; at startup
+ * the compacted days are seeded from inventory_daily_summaries before the hot rows load.
+ */
+@Service
+public class TimeSeriesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesRollupService.class);
+    private static final List<InventoryDimension> ROLLUP_DIMENSIONS =
+        List.of(InventoryDimension.STORE, InventoryDimension.PRODUCT, InventoryDimension.CATEGORY);
+    private static final String ALL = "all";
+
+    @Autowired
+    private EventRetentionService eventRetentionService;
+
+    // granularity -> "dimension|key" -> bucket start epoch day -> totals
+    private final Map<RollupGranularity, Map<String, NavigableMap<Integer, RollupBucket>>> rollups =
+        new EnumMap<>(RollupGranularity.class);
+
+    public TimeSeriesRollupService() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            rollups.put(granularity, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Add the compacted days, whose events are no longer loaded, to the buckets
+     */
+    @PostConstruct
+    public void seedFromSummaries() {
+        long seeded = eventRetentionService.forEachSummary(this::apply);
+        if (seeded > 0) {
+            logger.info("Seeded time-series rollups from {} daily summaries", seeded);
+        }
+    }
+
+    /**
+     * Apply the rows of a newly published dataset generation (including the initial load)
+     */
+    @EventListener
+    public void onDatasetPublished(DatasetPublishedEvent event) {
+        List<InventoryEvent> added = event.getAddedEvents();
+        if (event.isLoadedFromDatabase()) {
+            // Events summarised by a compaction whose delete did not complete are already seeded
+            Set<Long> summarised = eventRetentionService.getSummarisedIds();
+            if (!summarised.isEmpty()) {
+                added = added.stream().filter(row -> !summarised.contains(row.getId())).toList();
+            }
+        }
+        apply(added);
+    }
+
+    private void apply(List<InventoryEvent> batch) {
+        for (InventoryEvent event : batch) {
+            if (event.getTimestamp() == null) {
+                continue;
+            }
+            LocalDate date = event.getTimestamp().toLocalDate();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                int bucketStart = granularity.bucketStart(date);
+                Map<String, NavigableMap<Integer, RollupBucket>> series = rollups.get(granularity);
+
+                add(series, ALL, bucketStart, event);
+                for (InventoryDimension dimension : ROLLUP_DIMENSIONS) {
+                    add(series, seriesKey(dimension, valueOf(dimension, event)), bucketStart, event);
+                }
+            }
+        }
+    }
+
+    private void apply(InventoryDailySummary summary) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            int bucketStart = granularity.bucketStart(summary.getSummaryDate());
+            Map<String, NavigableMap<Integer, RollupBucket>> series = rollups.get(granularity);
+
+            add(series, ALL, bucketStart, summary);
+            add(series, seriesKey(InventoryDimension.STORE, orUnknown(summary.getStoreId())), bucketStart, summary);
+            add(series, seriesKey(InventoryDimension.PRODUCT, orUnknown(summary.getProductId())), bucketStart, summary);
+            add(series, seriesKey(InventoryDimension.CATEGORY, orUnknown(summary.getCategory())), bucketStart, summary);
+        }
+    }
+
+    /**
+     * Time series for one store, product or category (or the whole dataset when dimension is null)
+     * @param dimension "storeId", "productId", "category" or null for all events
+     * @param key the store/product/category value
+     * @param from first day to include, or null
+     * @param to last day to include, or null
+     * @return Map containing the buckets in time order
+     */
+    public Map<String, Object> getTimeSeries(String dimension, String key, RollupGranularity granularity,
+                                             LocalDate from, LocalDate to) {
+        String seriesKey = ALL;
+        if (dimension != null && !ALL.equalsIgnoreCase(dimension)) {
+            InventoryDimension resolved = InventoryDimension.fromName(dimension);
+            if (!ROLLUP_DIMENSIONS.contains(resolved)) {
+                throw new IllegalArgumentException("Rollups exist only for storeId, productId and category");
+            }
+            if (key == null) {
+                throw new IllegalArgumentException("A key is required when a dimension is given");
+            }
+            seriesKey = seriesKey(resolved, key);
+        }
+
+        NavigableMap<Integer, RollupBucket> series = rollups.get(granularity).get(seriesKey);
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        if (series != null) {
+            int fromKey = from != null ? granularity.bucketStart(from) : Integer.MIN_VALUE;
+            int toKey = to != null ? granularity.bucketStart(to) : Integer.MAX_VALUE;
+            for (Map.Entry<Integer, RollupBucket> entry : series.subMap(fromKey, true, toKey, true).entrySet()) {
+                RollupBucket bucket = entry.getValue();
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("bucketStart", LocalDate.ofEpochDay(entry.getKey()).toString());
+                point.put("unitsSold", bucket.getUnitsSold());
+                point.put("unitsOrdered", bucket.getUnitsOrdered());
+                point.put("averageInventoryLevel", Math.round(bucket.getAverageInventoryLevel() * 100.0) / 100.0);
+                point.put("revenue", Math.round(bucket.getRevenue() * 100.0) / 100.0);
+                point.put("events", bucket.getRows());
+                buckets.add(point);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimension", dimension != null ? dimension : ALL);
+        result.put("key", key);
+        result.put("granularity", granularity.name().toLowerCase());
+        result.put("buckets", buckets);
+        return result;
+    }
+
+    private void add(Map<String, NavigableMap<Integer, RollupBucket>> series, String seriesKey,
+                     int bucketStart, InventoryEvent event) {
+        series.computeIfAbsent(seriesKey, k -> new ConcurrentSkipListMap<>())
+            .computeIfAbsent(bucketStart, k -> new RollupBucket())
+            .add(event.getInventoryLevel(), event.getUnitsSold(), event.getUnitsOrdered(), event.getPrice());
+    }
+
+    private void add(Map<String, NavigableMap<Integer, RollupBucket>> series, String seriesKey,
+                     int bucketStart, InventoryDailySummary summary) {
+        series.computeIfAbsent(seriesKey, k -> new ConcurrentSkipListMap<>())
+            .computeIfAbsent(bucketStart, k -> new RollupBucket())
+            .addTotals(summary.getEventCount(), summary.getUnitsSold(), summary.getUnitsOrdered(),
+                summary.getInventoryLevelSum(), summary.getRevenue());
+    }
+
+    private String valueOf(InventoryDimension dimension, InventoryEvent event) {
+        String value = switch (dimension) {
+            case STORE -> event.getStoreId();
+            case PRODUCT -> event.getProductId();
+            default -> event.getCategory();
+        };
+        return orUnknown(value);
+    }
+
+    private String orUnknown(String value) {
+        return value != null ? value : "Unknown";
+    }
+
+    private String seriesKey(InventoryDimension dimension, String value) {
+        return dimension.name() + "|" + value;
+    }
+}
@@ -0,0 +1,276 @@
+package com.wallmart.backend.supplychain.tracing;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nested phase timings (wall time and bytes allocated) of the request running on the
+ * current thread. Code marks phases with {@code try (RequestTrace.Phase p = RequestTrace.phase("name"))};
+ * without an active trace (background jobs, worker threads) that is a no-op costing one
+ * ThreadLocal read. Repeated phases with the same name under the same parent (one per
+ * batch, one per row) are merged into one span with a count.
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+    private static final Phase NO_OP = () -> { };
+
+    private final String name;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Span root;
+    private final List<Span> stack = new ArrayList<>();
+
+    private RequestTrace(String name) {
+        this.name = name;
+        this.root = new Span(name);
+        root.open();
+        stack.add(root);
+    }
+
+    /**
+     * Start tracing the current thread's request; pair with {@link #end()}
+     */
+    public static RequestTrace begin(String name) {
+        RequestTrace trace = new RequestTrace(name);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Stop tracing the current thread and return its finished trace, or null if none was active
+     */
+    public static RequestTrace end() {
+        RequestTrace trace = CURRENT.get();
+        CURRENT.remove();
+        if (trace != null) {
+            trace.root.close();
+        }
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    public static Phase phase(String name) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return NO_OP;
+        }
+        Span parent = trace.stack.get(trace.stack.size() - 1);
+        Span span = parent.child(name);
+        span.open();
+        trace.stack.add(span);
+        return () -> {
+            span.close();
+            trace.stack.remove(trace.stack.size() - 1);
+        };
+    }
+
+    /**
+     * Time spent in a phase measured by the caller (e.g. summed over a loop), as a child
+     * of the innermost open phase
+     */
+    public static void record(String name, long nanos, long count) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            Span span = trace.stack.get(trace.stack.size() - 1).child(name);
+            span.nanos += nanos;
+            span.count += count;
+        }
+    }
+
+    /**
+     * Splits the time of a hot loop between a few phases with one clock read per
+     * {@link Laps#lap}; null when no trace is active, so callers test it once per loop
+     */
+    public static Laps laps(String... phaseNames) {
+        return isActive() ? new Laps(phaseNames) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Elapsed milliseconds of the whole request (so far, while it is still running)
+     */
+    public double getTotalMs() {
+        long nanos = root.openNanos != 0 ? System.nanoTime() - root.openNanos : root.nanos;
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * The phases as a Server-Timing header value: {@code name;dur=ms} per span, nested
+     * names joined with dots
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (Span child : root.children) {
+            appendServerTiming(header, child, "");
+        }
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append("total;dur=").append(format(getTotalMs()));
+        return header.toString();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("request", name);
+        map.put("startedAt", startedAt.toString());
+        map.put("totalMs", round(getTotalMs()));
+        map.put("allocatedBytes", root.openNanos != 0 ? allocatedBytes() - root.openAllocated : root.allocated);
+        List<Map<String, Object>> phases = new ArrayList<>();
+        for (Span child : root.children) {
+            phases.add(child.toMap());
+        }
+        map.put("phases", phases);
+        return map;
+    }
+
+    private static void appendServerTiming(StringBuilder header, Span span, String prefix) {
+        String spanName = prefix + span.name.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(spanName).append(";dur=").append(format(span.nanos / 1_000_000.0));
+        for (Span child : span.children) {
+            appendServerTiming(header, child, spanName + ".");
+        }
+    }
+
+    private static String format(double ms) {
+        return String.format("%.3f", ms);
+    }
+
+    private static double round(double ms) {
+        return Math.round(ms * 1000.0) / 1000.0;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATION != null ? ALLOCATION.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean allocation
+                && allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+            return allocation;
+        }
+        return null;
+    }
+
+    /**
+     * An open phase; closing it adds its time to the span
+     */
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Laps {
+
+        private final String[] names;
+        private final long[] nanos;
+        private final long[] counts;
+        private long last = System.nanoTime();
+
+        private Laps(String[] names) {
+            this.names = names;
+            this.nanos = new long[names.length];
+            this.counts = new long[names.length];
+        }
+
+        /**
+         * Charge the time since the previous lap to the given phase
+         */
+        public void lap(int phase) {
+            long now = System.nanoTime();
+            nanos[phase] += now - last;
+            counts[phase]++;
+            last = now;
+        }
+
+        /**
+         * Add the collected times to the current trace
+         */
+        public void finish() {
+            for (int i = 0; i < names.length; i++) {
+                if (counts[i] > 0) {
+                    record(names[i], nanos[i], counts[i]);
+                }
+            }
+        }
+    }
+
+    private static final class Span {
+
+        private final String name;
+        private final List<Span> children = new ArrayList<>(2);
+        private long nanos;
+        private long allocated;
+        private long count;
+        private long openNanos;
+        private long openAllocated;
+
+        private Span(String name) {
+            this.name = name;
+        }
+
+        private Span child(String childName) {
+            for (Span child : children) {
+                if (child.name.equals(childName)) {
+                    return child;
+                }
+            }
+            Span child = new Span(childName);
+            children.add(child);
+            return child;
+        }
+
+        private void open() {
+            openAllocated = allocatedBytes();
+            openNanos = System.nanoTime();
+        }
+
+        private void close() {
+            nanos += System.nanoTime() - openNanos;
+            allocated += allocatedBytes() - openAllocated;
+            count++;
+            openNanos = 0;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("ms", round(nanos / 1_000_000.0));
+            map.put("allocatedBytes", allocated);
+            map.put("count", count);
+            if (!children.isEmpty()) {
+                List<Map<String, Object>> phases = new ArrayList<>();
+                for (Span child : children) {
+                    phases.add(child.toMap());
+                }
+                map.put("phases", phases);
+            }
+            return map;
+        }
+    }
+}
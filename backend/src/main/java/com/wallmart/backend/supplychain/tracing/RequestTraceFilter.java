@@ -0,0 +1,54 @@
+package com.wallmart.backend.supplychain.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Traces every /api request on its servlet thread and hands the finished trace to the
+ * slow-request log. Streamed bodies written after the controller returns (async
+ * dispatch) are not part of the trace.
+ */
+@Component
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTraceFilter.class);
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace trace = RequestTrace.end();
+            if (trace != null) {
+                slowRequestLog.offer(trace, response.getStatus());
+                if (trace.getTotalMs() >= slowRequestLog.getThresholdMs()) {
+                    logger.info("Slow request {} ({} ms): {}", trace.getName(), Math.round(trace.getTotalMs()),
+                        trace.toServerTiming());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.wallmart.backend.supplychain.tracing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adds the phases traced so far as a Server-Timing header (shown in the browser's network
+ * panel). With {@code ?debug=timing}, map responses also get the full breakdown, including
+ * allocations, as a {@code _timing} field.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return body;
+        }
+        response.getHeaders().add(SERVER_TIMING, trace.toServerTiming());
+
+        if (body instanceof Map<?, ?> map && request instanceof ServletServerHttpRequest servletRequest
+                && "timing".equals(servletRequest.getServletRequest().getParameter("debug"))) {
+            // Copy: cached analytics bodies are shared between requests
+            Map<String, Object> withTiming = new LinkedHashMap<>((Map<String, Object>) map);
+            withTiming.put("_timing", trace.toMap());
+            return withTiming;
+        }
+        return body;
+    }
+}
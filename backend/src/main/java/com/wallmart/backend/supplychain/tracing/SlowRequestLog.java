@@ -0,0 +1,70 @@
+package com.wallmart.backend.supplychain.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ring buffer of the phase breakdowns of recent requests slower than the threshold
+ */
+@Component
+public class SlowRequestLog {
+
+    @Value("${tracing.slow-threshold-ms:500}")
+    private long thresholdMs;
+
+    @Value("${tracing.slow-retained:100}")
+    private int retained;
+
+    private Map<String, Object>[] entries;
+    private long recorded;
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public void offer(RequestTrace trace, int status) {
+        if (trace.getTotalMs() < thresholdMs) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("status", status);
+        entry.putAll(trace.toMap());
+        add(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void add(Map<String, Object> entry) {
+        if (entries == null) {
+            entries = new Map[Math.max(1, retained)];
+        }
+        entries[(int) (recorded % entries.length)] = entry;
+        recorded++;
+    }
+
+    /**
+     * Newest first, optionally only requests whose name (method and path) contains {@code contains}
+     */
+    public synchronized List<Map<String, Object>> getRecent(String contains, int limit) {
+        List<Map<String, Object>> recent = new ArrayList<>();
+        if (entries == null) {
+            return recent;
+        }
+        long oldest = Math.max(0, recorded - entries.length);
+        for (long i = recorded - 1; i >= oldest && recent.size() < limit; i--) {
+            Map<String, Object> entry = entries[(int) (i % entries.length)];
+            if (contains == null || String.valueOf(entry.get("request")).contains(contains)) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+}
@@ -1,9 +1,10 @@
 package com.wallmart;
 
 import org.junit.jupiter.api.Test;
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = WallmartSupplychainApplication.class)
 class WallmartSupplychainApplicationTests {
 
     @Test
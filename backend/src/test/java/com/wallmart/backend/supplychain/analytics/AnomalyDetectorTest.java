@@ -0,0 +1,52 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnomalyDetectorTest {
+
+    @Test
+    void trainingKeepsOutliersOutOfTheBaseline() {
+        AnomalyDetector detector = new AnomalyDetector(4.0, 10);
+        for (int i = 0; i < 20; i++) {
+            detector.train("S1|P1", "Toys", new double[] {50 + i % 3, 5 + i % 2, 10});
+        }
+        // Folded in, these two would widen the spread enough to hide the next spike
+        detector.train("S1|P1", "Toys", new double[] {50, 5000, 10});
+        detector.train("S1|P1", "Toys", new double[] {50, 5000, 10});
+        detector.train("S1|P1", "Toys", new double[] {-5, 5, 10});
+
+        List<AnomalyDetector.Finding> findings = detector.observe("S1|P1", "Toys", new double[] {51, 5000, 10});
+
+        assertEquals(1, findings.size());
+        assertEquals(AnomalyDetector.Metric.UNITS_SOLD, findings.get(0).metric());
+        assertEquals("SKU_OUTLIER", findings.get(0).reason());
+        assertEquals(5.5, findings.get(0).expected(), 0.5);
+    }
+
+    @Test
+    void newSkuFallsBackToItsCategory() {
+        AnomalyDetector detector = new AnomalyDetector(4.0, 10);
+        for (int i = 0; i < 10; i++) {
+            detector.train("S" + i + "|P1", "Toys", new double[] {50, 5, 10});
+        }
+
+        assertTrue(detector.observe("S99|P1", "Toys", new double[] {50, 5, 10}).isEmpty());
+        List<AnomalyDetector.Finding> findings = detector.observe("S98|P1", "Toys", new double[] {50, 5, 1000});
+        assertEquals("CATEGORY_OUTLIER", findings.get(0).reason());
+    }
+
+    @Test
+    void invalidValuesAreFlaggedWithoutHistory() {
+        AnomalyDetector detector = new AnomalyDetector(4.0, 10);
+
+        List<AnomalyDetector.Finding> findings = detector.observe("S1|P1", "Toys", new double[] {-1, -2, 0});
+
+        assertEquals(List.of("NEGATIVE_STOCK", "NEGATIVE_SALES", "NON_POSITIVE_PRICE"),
+            findings.stream().map(AnomalyDetector.Finding::reason).toList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedListTest {
+
+    @Test
+    void appendKeepsEarlierListsUnchanged() {
+        ChunkedList<Integer> first = ChunkedList.<Integer>empty().append(List.of(1, 2, 3));
+        ChunkedList<Integer> second = first.append(List.of(4, 5));
+
+        assertEquals(List.of(1, 2, 3), first);
+        assertEquals(List.of(1, 2, 3, 4, 5), second);
+        assertEquals(4, second.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> second.get(5));
+        assertThrows(UnsupportedOperationException.class, () -> second.add(6));
+    }
+
+    @Test
+    void manySmallAppendsStayInFewChunks() {
+        ChunkedList<Integer> list = ChunkedList.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int batch = 0; batch < 5000; batch++) {
+            List<Integer> rows = List.of(batch * 2, batch * 2 + 1);
+            list = list.append(rows);
+            expected.addAll(rows);
+        }
+
+        assertEquals(expected, list);
+        assertTrue(list.chunkCount() <= 14, "chunks " + list.chunkCount()); // log2(10000) + 1
+        for (int i = 0; i < expected.size(); i += 997) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+    }
+}
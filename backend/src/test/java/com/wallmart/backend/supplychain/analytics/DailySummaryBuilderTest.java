@@ -0,0 +1,88 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DailySummaryBuilderTest {
+
+    @Test
+    void foldsEventsPerDayAndSku() {
+        DailySummaryBuilder builder = new DailySummaryBuilder();
+        builder.add(event("S1", "P1", LocalDateTime.of(2024, 1, 1, 18, 0), 5, 40, 2.0));
+        builder.add(event("S1", "P1", LocalDateTime.of(2024, 1, 1, 9, 0), 3, 60, 4.0));
+        builder.add(event("S1", "P1", LocalDateTime.of(2024, 1, 2, 9, 0), 1, 10, 2.0));
+        builder.add(event("S0", "P1", LocalDateTime.of(2024, 1, 2, 9, 0), 1, 10, 2.0));
+        builder.add(event("S1", "P1", null, 100, 100, 100.0)); // No day: skipped
+
+        List<InventoryDailySummary> summaries = builder.build();
+
+        assertEquals(3, summaries.size());
+        assertEquals(List.of("S1", "S0", "S1"), summaries.stream().map(InventoryDailySummary::getStoreId).toList());
+        InventoryDailySummary first = summaries.get(0);
+        assertEquals(LocalDate.of(2024, 1, 1), first.getSummaryDate());
+        assertEquals(2, first.getEventCount());
+        assertEquals(8, first.getUnitsSold());
+        assertEquals(22.0, first.getRevenue(), 1e-9);
+        assertEquals(100, first.getInventoryLevelSum());
+        assertEquals(40, first.getMinInventoryLevel());
+        assertEquals(60, first.getMaxInventoryLevel());
+        assertEquals(40, first.getLastInventoryLevel()); // From the 18:00 event, added first
+        assertEquals(2.0, first.getMinPrice());
+        assertEquals(4.0, first.getMaxPrice());
+    }
+
+    @Test
+    void mergingSummariesFromSeparateRunsMatchesOneRun() {
+        InventoryEvent morning = event("S1", "P1", LocalDateTime.of(2024, 1, 1, 9, 0), 3, 60, 4.0);
+        InventoryEvent evening = event("S1", "P1", LocalDateTime.of(2024, 1, 1, 18, 0), 5, 40, 2.0);
+        DailySummaryBuilder firstRun = new DailySummaryBuilder();
+        firstRun.add(morning);
+        DailySummaryBuilder secondRun = new DailySummaryBuilder();
+        secondRun.add(evening);
+        DailySummaryBuilder together = new DailySummaryBuilder();
+        together.add(evening);
+        together.add(morning);
+
+        InventoryDailySummary stored = firstRun.build().get(0);
+        DailySummaryBuilder.merge(stored, secondRun.build().get(0));
+
+        InventoryDailySummary expected = together.build().get(0);
+        assertEquals(expected, stored);
+        assertEquals(DailySummaryBuilder.keyOf(expected), DailySummaryBuilder.keyOf(LocalDate.of(2024, 1, 1), "S1", "P1"));
+    }
+
+    @Test
+    void addingASummaryDoesNotModifyIt() {
+        DailySummaryBuilder builder = new DailySummaryBuilder();
+        builder.add(event("S1", "P1", LocalDateTime.of(2024, 1, 1, 9, 0), 3, 60, 4.0));
+        InventoryDailySummary summary = builder.build().get(0);
+
+        DailySummaryBuilder other = new DailySummaryBuilder();
+        other.add(summary);
+        other.add(summary);
+
+        assertEquals(1, summary.getEventCount());
+        assertEquals(2, other.get(DailySummaryBuilder.keyOf(summary)).getEventCount());
+    }
+
+    private static InventoryEvent event(String storeId, String productId, LocalDateTime timestamp,
+                                        int unitsSold, int inventoryLevel, double price) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId(productId)
+            .productName("Widget")
+            .category("Toys")
+            .timestamp(timestamp)
+            .unitsSold(unitsSold)
+            .inventoryLevel(inventoryLevel)
+            .price(price)
+            .build();
+    }
+}
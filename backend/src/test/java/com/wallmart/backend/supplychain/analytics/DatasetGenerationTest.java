@@ -0,0 +1,62 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DatasetGenerationTest {
+
+    @Test
+    void nextAppendsWithoutChangingThePinnedGeneration() {
+        DatasetGeneration first = DatasetGeneration.empty().next(List.of(event(1, "2024-01-05"), event(2, "2024-02-01")));
+        DatasetGeneration second = first.next(List.of(event(3, "2024-02-10"), event(4, null)));
+
+        assertEquals(2, first.size());
+        assertEquals(4, second.size());
+        assertEquals(second.getVersion(), first.getVersion() + 1);
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(second.getEvents()));
+        // The untouched January partition is shared, not copied
+        assertSame(first.getPartitions().get(LocalDate.of(2024, 1, 1)), second.getPartitions().get(LocalDate.of(2024, 1, 1)));
+        assertEquals(List.of(2L, 3L), ids(second.getPartitions().get(LocalDate.of(2024, 2, 1))));
+    }
+
+    @Test
+    void rangeReadsOnlyReturnDatedEventsInRange() {
+        DatasetGeneration generation = DatasetGeneration.empty().next(List.of(
+            event(1, "2024-01-31"), event(2, "2024-02-01"), event(3, "2024-03-15"), event(4, null)));
+
+        assertEquals(List.of(2L), ids(generation.getEvents(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 14))));
+        assertEquals(List.of(1L, 2L, 3L), ids(generation.getEvents(null, null)));
+        assertEquals(LocalDate.of(2024, 3, 15), generation.getLatestDate());
+        assertNull(DatasetGeneration.empty().getLatestDate());
+    }
+
+    @Test
+    void withoutDropsRowsAndEmptyPartitions() {
+        DatasetGeneration generation = DatasetGeneration.empty().next(List.of(
+            event(1, "2024-01-05"), event(2, "2024-02-01"), event(3, "2024-02-02")));
+        DatasetGeneration compacted = generation.without(Set.of(1L, 2L));
+
+        assertEquals(List.of(3L), ids(compacted.getEvents()));
+        assertEquals(Set.of(LocalDate.of(2024, 2, 1)), compacted.getPartitions().keySet());
+        assertEquals(3, generation.size());
+    }
+
+    private static InventoryEvent event(long id, String date) {
+        return InventoryEvent.builder()
+            .id(id)
+            .timestamp(date != null ? LocalDate.parse(date).atTime(12, 0) : null)
+            .build();
+    }
+
+    private static List<Long> ids(List<InventoryEvent> events) {
+        return events.stream().map(InventoryEvent::getId).toList();
+    }
+}
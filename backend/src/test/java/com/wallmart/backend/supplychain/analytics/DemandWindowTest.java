@@ -0,0 +1,62 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DemandWindowTest {
+
+    @Test
+    void windowsAreAnchoredOnTheLatestDay() {
+        DemandWindow window = new DemandWindow();
+        for (int day = 1; day <= 100; day++) {
+            window.record(day, day, 500);
+        }
+
+        DemandWindow.Velocity velocity = window.velocity();
+
+        assertEquals(100, velocity.latestDay());
+        assertEquals((94 + 100) / 2.0, velocity.perDay7(), 1e-9);   // days 94..100
+        assertEquals((71 + 100) / 2.0, velocity.perDay30(), 1e-9);  // days 71..100
+        assertEquals((11 + 100) / 2.0, velocity.perDay90(), 1e-9);  // days 11..100
+        assertEquals(500 / 85.5, velocity.daysOfCover(), 1e-9);
+    }
+
+    @Test
+    void lateEventsCountOnlyInTheWindowsThatCoverThem() {
+        DemandWindow window = new DemandWindow();
+        window.record(100, 10, 40);
+        window.record(80, 20, 99); // Out of order: older inventory must not win
+        window.record(5, 1000, 0); // Older than 90 days
+
+        DemandWindow.Velocity velocity = window.velocity();
+
+        assertEquals(10 / 7.0, velocity.perDay7(), 1e-9);
+        assertEquals(30 / 30.0, velocity.perDay30(), 1e-9);
+        assertEquals(30 / 90.0, velocity.perDay90(), 1e-9);
+        assertEquals(40, velocity.currentInventory());
+    }
+
+    @Test
+    void aLongGapClearsEveryWindow() {
+        DemandWindow window = new DemandWindow();
+        window.record(1, 50, 10);
+        window.record(200, 0, 10);
+
+        DemandWindow.Velocity velocity = window.velocity();
+
+        assertEquals(0.0, velocity.perDay90());
+        assertNull(velocity.daysOfCover());
+    }
+
+    @Test
+    void shortHistoryAveragesOverTheDaysObserved() {
+        DemandWindow window = new DemandWindow();
+        window.record(10, 6, 10);
+        window.record(12, 3, 10);
+
+        assertEquals(3.0, window.velocity().perDay30(), 1e-9);
+        assertEquals(0.0, new DemandWindow().velocity().perDay7());
+    }
+}
@@ -0,0 +1,98 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HashAggregationTest {
+
+    @Test
+    void groupsByPackedDimensionKeys() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "Toys", 10, 2.0),
+            event("S1", "Toys", 30, 4.0),
+            event("S1", "Food", 5, 1.0),
+            event("S2", "Toys", 7, 3.0)));
+        HashAggregation aggregation = new HashAggregation(snapshot,
+            List.of(InventoryDimension.STORE, InventoryDimension.CATEGORY),
+            List.of(InventoryMeasure.INVENTORY_LEVEL, InventoryMeasure.INVENTORY_VALUE), Map.of());
+
+        Map<List<String>, double[]> groups = collect(aggregation, aggregation.execute(), 2);
+
+        assertEquals(3, groups.size());
+        double[] toys = groups.get(List.of("S1", "Toys"));
+        assertEquals(2, toys[0]);
+        assertEquals(40, toys[1]);  // sum of inventory
+        assertEquals(10, toys[2]);  // min
+        assertEquals(30, toys[3]);  // max
+        assertEquals(140, toys[4]); // sum of price * inventory
+        assertEquals(1, groups.get(List.of("S2", "Toys"))[0]);
+    }
+
+    @Test
+    void filtersRowsBeforeGrouping() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "Toys", 10, 1.0), event("S2", "Food", 20, 1.0), event("S3", "Toys", 30, 1.0)));
+        HashAggregation aggregation = new HashAggregation(snapshot, List.of(InventoryDimension.CATEGORY),
+            List.of(InventoryMeasure.INVENTORY_LEVEL),
+            Map.of(InventoryDimension.STORE, Set.of("S1", "S2", "unknown")));
+
+        Map<List<String>, double[]> groups = collect(aggregation, aggregation.execute(), 1);
+
+        assertEquals(Set.of(List.of("Toys"), List.of("Food")), groups.keySet());
+        assertEquals(10, groups.get(List.of("Toys"))[1]);
+    }
+
+    @Test
+    void partialTablesMergeAcrossPartitions() {
+        // Enough rows to be split over several partitions and to force rehashing
+        List<InventoryEvent> events = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            events.add(event("S" + (i % 500), "C" + (i % 3), i % 100, 1.0));
+        }
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(events);
+        HashAggregation aggregation = new HashAggregation(snapshot, List.of(InventoryDimension.STORE),
+            List.of(InventoryMeasure.INVENTORY_LEVEL), Map.of());
+
+        HashAggregation.GroupTable table = aggregation.execute();
+
+        assertEquals(500, table.size());
+        long rows = 0;
+        for (int group = 0; group < table.size(); group++) {
+            rows += table.count(group);
+        }
+        assertEquals(200_000, rows);
+    }
+
+    private static Map<List<String>, double[]> collect(HashAggregation aggregation, HashAggregation.GroupTable table, int measures) {
+        Map<List<String>, double[]> groups = new HashMap<>();
+        for (int group = 0; group < table.size(); group++) {
+            double[] values = new double[1 + measures * 3];
+            values[0] = table.count(group);
+            for (int m = 0; m < measures; m++) {
+                values[1 + m * 3] = table.sum(group, m);
+                values[2 + m * 3] = table.min(group, m);
+                values[3 + m * 3] = table.max(group, m);
+            }
+            groups.put(List.of(aggregation.decodeKey(table.key(group))), values);
+        }
+        return groups;
+    }
+
+    private static InventoryEvent event(String storeId, String category, int inventoryLevel, double price) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId("P1")
+            .category(category)
+            .inventoryLevel(inventoryLevel)
+            .price(price)
+            .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sketch.add("SKU-" + i);
+            sketch.add("SKU-" + i); // Duplicates do not count
+        }
+
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    void largeCardinalitiesStayWithinTheErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        int distinct = 200_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("S" + (i % 50) + "|P" + i);
+        }
+
+        // Standard error is about 1.6% at precision 12; allow three of them
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 0.05, "relative error " + error);
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            first.add("P" + i);
+            second.add("P" + (i + 15_000));
+        }
+
+        HyperLogLog union = first.copy();
+        union.merge(second);
+
+        double error = Math.abs(union.estimate() - 45_000) / 45_000.0;
+        assertTrue(error < 0.05, "relative error " + error);
+        assertEquals(first.estimate(), first.copy().estimate());
+    }
+
+    @Test
+    void rejectsMismatchedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(10)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
@@ -0,0 +1,94 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void matchesExactPrefixAndTypos() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.apply(List.of(
+            event("P1", "Blue Widget", "Toys", "S1", 1, 10),
+            event("P2", "Bluetooth Speaker", "Electronics", "S1", 1, 5),
+            event("P3", "Red Gadget", "Toys", "S1", 1, 7)));
+
+        List<Map<String, Object>> blue = index.search("blue", 10);
+        assertEquals(List.of("P1", "P2"), ids(blue));
+        assertEquals("exact", blue.get(0).get("match"));
+        assertEquals("prefix", blue.get(1).get("match"));
+
+        List<Map<String, Object>> typo = index.search("wudget", 10);
+        assertEquals(List.of("P1"), ids(typo));
+        assertEquals("fuzzy", typo.get(0).get("match"));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.apply(List.of(
+            event("P1", "Blue Widget", "Toys", "S1", 1, 10),
+            event("P2", "Blue Gadget", "Toys", "S1", 1, 10)));
+
+        assertEquals(List.of("P2"), ids(index.search("gadget blue", 10)));
+        assertTrue(index.search("blue lamp", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void stockIsTheLatestLevelPerStoreAndBreaksTies() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.apply(List.of(
+            event("P1", "Widget", "Toys", "S1", 2, 10),
+            event("P1", "Widget", "Toys", "S1", 1, 99), // Older: ignored
+            event("P1", "Widget", "Toys", "S2", 1, 5),
+            event("P2", "Widget", "Toys", "S1", 1, 100)));
+
+        List<Map<String, Object>> results = index.search("widget", 1);
+
+        assertEquals(List.of("P2"), ids(results));
+        assertEquals(15L, index.search("widget", 2).get(1).get("currentStock"));
+        assertEquals(2, index.search("widget", 2).get(1).get("stores"));
+    }
+
+    @Test
+    void renamedProductsAreReindexed() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.apply(List.of(event("P1", "Old Name", "Toys", "S1", 1, 1)));
+        index.apply(List.of(event("P1", "Fresh Label", "Toys", "S1", 2, 1)));
+
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(List.of("P1"), ids(index.search("fresh", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void editDistanceStopsEarlyPastTheLimit() {
+        assertEquals(1, ProductSearchIndex.editDistance("widget", "wodget", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("widget", "wdiget", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("widget", "gadgets", 1));
+        assertEquals(List.of("blue", "widget", "42"), ProductSearchIndex.tokenize("Blue-Widget (42)"));
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> results) {
+        return results.stream().map(result -> result.get("productId")).toList();
+    }
+
+    private static InventoryEvent event(String productId, String name, String category, String storeId, int day, int level) {
+        return InventoryEvent.builder()
+            .productId(productId)
+            .productName(name)
+            .category(category)
+            .storeId(storeId)
+            .timestamp(LocalDateTime.of(2024, 1, day, 0, 0))
+            .inventoryLevel(level)
+            .build();
+    }
+}
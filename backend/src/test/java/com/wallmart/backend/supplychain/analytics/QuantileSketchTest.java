@@ -0,0 +1,75 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    @Test
+    void quantilesAreWithinOnePercentOfTheTrueValue() {
+        QuantileSketch sketch = new QuantileSketch();
+        Random random = new Random(42);
+        double[] values = new double[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 2); // Spans several orders of magnitude
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+            double expected = values[(int) (q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - expected) <= 0.0101 * expected,
+                "q=" + q + " expected " + expected + " got " + estimate);
+        }
+        assertEquals(values[0], sketch.getMin());
+        assertEquals(values[values.length - 1], sketch.getMax());
+    }
+
+    @Test
+    void handlesNegativeAndZeroValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = -100; i <= 100; i++) {
+            sketch.add(i);
+        }
+
+        assertEquals(-100, sketch.quantile(0.0));
+        assertEquals(0.0, sketch.quantile(0.5));
+        assertEquals(100, sketch.quantile(1.0));
+        assertEquals(-50, sketch.quantile(0.25), 0.5);
+        assertEquals(201, sketch.getCount());
+        assertEquals(0.0, sketch.getMean(), 1e-9);
+    }
+
+    @Test
+    void mergeMatchesASingleSketch() {
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int i = 1; i <= 10_000; i++) {
+            (i % 2 == 0 ? first : second).add(i);
+            all.add(i);
+        }
+
+        first.merge(second);
+
+        assertEquals(all.getCount(), first.getCount());
+        for (double q : new double[] {0.1, 0.5, 0.95}) {
+            assertEquals(all.quantile(q), first.quantile(q));
+        }
+    }
+
+    @Test
+    void emptySketchHasNoQuantile() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Double.NaN);
+
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertEquals(0, sketch.getCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplenishmentPlannerTest {
+
+    private final ReplenishmentPlanner planner = new ReplenishmentPlanner(2, 5, 1.65);
+
+    @Test
+    void ordersUpToTargetWhenBelowTheReorderPoint() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "P1", 3, 30, 5, 0.0),
+            event("S1", "P1", 1, 10, 90, 0.0), // Older row, listed later: not the current state
+            event("S1", "P1", 2, 20, 50, 0.0)));
+
+        ReplenishmentPlanner.Plan plan = planner.plan(snapshot, ForkJoinPool.commonPool());
+        int sku = plan.find("S1", "P1");
+
+        double safetyStock = 1.65 * 10 * Math.sqrt(2);
+        assertEquals(20, plan.dailyDemand(sku), 1e-9);
+        assertEquals(10, plan.demandStdDev(sku), 1e-9);
+        assertEquals(safetyStock, plan.safetyStock(sku), 1e-9);
+        assertEquals(40 + safetyStock, plan.reorderPoint(sku), 1e-9);
+        assertEquals(5, plan.currentInventory(sku));
+        assertEquals((long) Math.ceil(140 + safetyStock - 5), plan.orderQuantity(sku));
+        assertEquals(plan.orderQuantity(sku) * 9.0, plan.orderValue(sku), 1e-9); // Price 10 at 10% off
+    }
+
+    @Test
+    void forecastIsBlendedAndWellStockedSkusOrderNothing() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "P1", 1, 10, 1000, 30.0),
+            event("S1", "P1", 2, 10, 1000, 30.0)));
+
+        ReplenishmentPlanner.Plan plan = planner.plan(snapshot, ForkJoinPool.commonPool());
+        int sku = plan.find("S1", "P1");
+
+        assertEquals(20, plan.dailyDemand(sku), 1e-9);
+        assertEquals(0, plan.orderQuantity(sku));
+        assertEquals(-1, plan.find("S1", "unknown"));
+    }
+
+    @Test
+    void everySkuIsPlannedAcrossForkJoinLeaves() {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            events.add(event("S" + (i % 10), "P" + i, 1, i % 7, 0, 0.0));
+        }
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(events);
+
+        ReplenishmentPlanner.Plan plan = planner.plan(snapshot, new ForkJoinPool(4));
+
+        assertEquals(10_000, plan.size());
+        for (int i = 0; i < 10_000; i++) {
+            int sku = plan.find("S" + (i % 10), "P" + i);
+            assertEquals(i % 7, plan.dailyDemand(sku), 1e-9);
+        }
+    }
+
+    private static InventoryEvent event(String storeId, String productId, int day, int unitsSold, int inventoryLevel, double forecast) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId(productId)
+            .supplier("Acme")
+            .timestamp(LocalDateTime.of(2024, 1, day, 0, 0))
+            .unitsSold(unitsSold)
+            .inventoryLevel(inventoryLevel)
+            .demandForecast(forecast)
+            .price(10.0)
+            .discount(10.0)
+            .build();
+    }
+}
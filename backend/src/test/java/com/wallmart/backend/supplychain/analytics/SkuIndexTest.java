@@ -0,0 +1,62 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SkuIndexTest {
+
+    @Test
+    void rowsAreGroupedPerSkuInFirstSeenOrder() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "P1", "Acme", 1),
+            event("S2", "P1", "Acme", 1),
+            event("S1", "P1", "Acme", 3),
+            event("S1", "P1", "Other", 2),
+            event("S1", "P1", "Acme", 2)));
+
+        SkuIndex index = SkuIndex.build(snapshot);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(0, 2, 4), rows(index, 0));
+        assertEquals(List.of(1), rows(index, 1));
+        assertEquals(List.of(3), rows(index, 2));
+        assertEquals(2, index.latestRow(0)); // Most recent day, not the last row
+    }
+
+    @Test
+    void findReturnsTheFirstSupplierOfAStoreProduct() {
+        InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+            event("S1", "P1", "Acme", 1), event("S1", "P1", "Other", 1), event("S2", "P2", "Acme", 1)));
+        SkuIndex index = SkuIndex.build(snapshot);
+        InventoryColumnSnapshot.DictionaryColumn stores = snapshot.dimension(InventoryDimension.STORE);
+        InventoryColumnSnapshot.DictionaryColumn products = snapshot.dimension(InventoryDimension.PRODUCT);
+
+        assertEquals(0, index.find(stores.code("S1"), products.code("P1")));
+        assertEquals(2, index.find(stores.code("S2"), products.code("P2")));
+        assertEquals(-1, index.find(stores.code("S2"), products.code("P1")));
+        assertEquals(-1, index.find(stores.code("S9"), products.code("P1")));
+    }
+
+    private static List<Integer> rows(SkuIndex index, int sku) {
+        List<Integer> rows = new ArrayList<>();
+        for (int offset = index.firstRowOffset(sku); offset < index.endRowOffset(sku); offset++) {
+            rows.add(index.row(offset));
+        }
+        return rows;
+    }
+
+    private static InventoryEvent event(String storeId, String productId, String supplier, int day) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId(productId)
+            .supplier(supplier)
+            .timestamp(LocalDateTime.of(2024, 1, day, 0, 0))
+            .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.wallmart.backend.supplychain.analytics;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockSimulationTest {
+
+    // SKU 0: S1/P1 (Toys, supplier A), SKU 1: S2/P2 (Food, supplier B)
+    private final InventoryColumnSnapshot snapshot = InventoryColumnSnapshot.of(List.of(
+        event("S1", "P1", "Toys", "A", 10, 4.0),
+        event("S2", "P2", "Food", "B", 100, 1.0)));
+    private final StockSimulation.Baseline baseline = StockSimulation.Baseline.of(snapshot);
+
+    @Test
+    void lostDemandStartsWhenStockRunsOut() {
+        StockSimulation.Result result = StockSimulation.run(baseline, 5, 3,
+            new double[] {1.0, 1.0}, new int[] {0, 0}, null);
+
+        // Stock 10, demand 4/day, inflow 2/day from day 3: short by 2 on days 2, 3 and 4
+        assertEquals(2, result.firstStockOutDay(0));
+        assertEquals(6, result.lostUnits(0), 1e-9);
+        assertEquals(54, result.revenueAtRisk(0), 1e-9); // Price 10 at 10% off
+        assertEquals(0, result.endingStock(0), 1e-9);
+        assertEquals(StockSimulation.Result.NO_STOCK_OUT, result.firstStockOutDay(1));
+        assertEquals(2, result.getSimulatedSkus());
+        assertEquals(1, result.getStockOutSkus());
+        assertArrayEquals(new int[] {0, 0, 1, 0, 0}, result.getNewStockOutsByDay());
+    }
+
+    @Test
+    void scenarioScalesDemandDelaysSuppliersAndFiltersStores() {
+        int toys = snapshot.dimension(InventoryDimension.CATEGORY).code("Toys");
+        int supplierA = snapshot.dimension(InventoryDimension.SUPPLIER).code("A");
+        int storeS2 = snapshot.dimension(InventoryDimension.STORE).code("S2");
+        double[] multiplier = {1.0, 1.0};
+        multiplier[toys] = 2.0;
+        int[] delay = {0, 0};
+        delay[supplierA] = 10;
+        boolean[] stores = {true, true};
+        stores[storeS2] = false;
+
+        StockSimulation.Result result = StockSimulation.run(baseline, 5, 3, multiplier, delay, stores);
+
+        // Demand 8/day and no inflow within the horizon: 10 - 8 = 2 left, then 6 + 8 * 3 lost
+        assertEquals(1, result.firstStockOutDay(0));
+        assertEquals(30, result.lostUnits(0), 1e-9);
+        assertEquals(StockSimulation.Result.EXCLUDED, result.firstStockOutDay(1));
+        assertEquals(1, result.getSimulatedSkus());
+        assertEquals(30, result.getTotalLostUnits(), 1e-9);
+    }
+
+    private static InventoryEvent event(String storeId, String productId, String category, String supplier,
+                                        int inventoryLevel, double forecast) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId(productId)
+            .category(category)
+            .supplier(supplier)
+            .timestamp(LocalDateTime.of(2024, 1, 1, 0, 0))
+            .inventoryLevel(inventoryLevel)
+            .demandForecast(forecast)
+            .unitsOrdered(2)
+            .price(10.0)
+            .discount(10.0)
+            .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.wallmart.backend.supplychain.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadConfigTest {
+
+    @Test
+    void metricsFollowEachBulkheadLive() {
+        Bulkhead ingest = new Bulkhead("ingest", 1, 0, 5);
+        Bulkhead ai = new Bulkhead("ai", 4, 0, 5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new BulkheadConfig().bulkheadMetrics(List.of(ingest, ai)).bindTo(registry);
+
+        ingest.tryAcquire();
+        ingest.tryAcquire();
+
+        assertEquals(1.0, registry.get("bulkhead.active").tag("bulkhead", "ingest").gauge().value());
+        assertEquals(1.0, registry.get("bulkhead.admitted").tag("bulkhead", "ingest").functionCounter().count());
+        assertEquals(1.0, registry.get("bulkhead.rejected").tag("bulkhead", "ingest").functionCounter().count());
+        assertEquals(4.0, registry.get("bulkhead.max.concurrent").tag("bulkhead", "ai").gauge().value());
+
+        ingest.release();
+        assertEquals(0.0, registry.get("bulkhead.active").tag("bulkhead", "ingest").gauge().value());
+    }
+
+    @Test
+    void acquireWaitsForAPermitInsteadOfRejecting() throws Exception {
+        Bulkhead connections = new Bulkhead("ingest-connections", 1, 0, 5);
+        connections.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                connections.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        connections.release();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        assertEquals(2, connections.getAdmitted());
+        assertEquals(0, connections.getRejected());
+        waiter.join();
+    }
+}
@@ -0,0 +1,65 @@
+package com.wallmart.backend.supplychain.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadInterceptorTest {
+
+    private final Bulkhead bulkhead = new Bulkhead("analytics", 1, 0, 3);
+    private final BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead);
+
+    @Test
+    void fullBulkheadAnswers429WithRetryAfter() throws Exception {
+        MockHttpServletRequest first = request("GET");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("3", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rejected.getContentAsString().contains("\"retryAfterSeconds\":3"));
+        assertEquals(1, bulkhead.getRejected());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertEquals(0, bulkhead.getActive());
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void streamedResponsesHoldThePermitUntilTheAsyncDispatchCompletes() throws Exception {
+        MockHttpServletRequest request = request("GET");
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        request.setAsyncStarted(true);
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertEquals(1, bulkhead.getActive());
+
+        // The async re-dispatch reuses the permit it already holds, then releases it
+        request.setAsyncStarted(false);
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertEquals(0, bulkhead.getActive());
+        assertEquals(1, bulkhead.getAdmitted());
+    }
+
+    @Test
+    void corsPreflightIsNeverRejected() throws Exception {
+        assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), null));
+
+        MockHttpServletRequest preflight = request("OPTIONS");
+        preflight.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        preflight.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET");
+
+        assertTrue(interceptor.preHandle(preflight, new MockHttpServletResponse(), null));
+        assertEquals(0, bulkhead.getRejected());
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, "/api/analytics/aggregate");
+    }
+}
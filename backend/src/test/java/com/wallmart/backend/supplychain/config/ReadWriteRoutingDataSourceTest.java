@@ -0,0 +1,74 @@
+package com.wallmart.backend.supplychain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void readOnlyTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void replicaWithoutLagQueryIsNeverUsed() {
+        routing = routing("");
+        routing.checkReplicas();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(false, replicaStatus().get("usable"));
+    }
+
+    @Test
+    void replicaWithinLagLimitServesReadOnlyTransactions() {
+        routing = routing("SELECT 100");
+        routing.checkReplicas();
+
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        routing = routing("SELECT 60000");
+        routing.checkReplicas();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(60000L, replicaStatus().get("lagMs"));
+    }
+
+    private static ReadWriteRoutingDataSource routing(String lagQuery) {
+        return new ReadWriteRoutingDataSource(pool("primary"), List.of(pool("replica")), 5000, lagQuery, 3_600_000);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> replicaStatus() {
+        return ((List<Map<String, Object>>) routing.getStatus().get("replicas")).get(0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.wallmart.backend.supplychain.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProjectedRowsDTOTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final List<Object[]> rows = List.of(
+        new Object[] {"S001", 12, LocalDateTime.of(2024, 1, 1, 9, 0)},
+        new Object[] {"S002", null, null});
+
+    @Test
+    void rowsHoldOnlyTheRequestedFields() throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(new ProjectedRowsDTO(List.of("storeId", "inventoryLevel", "timestamp"), rows, false));
+
+        assertEquals("[{\"storeId\":\"S001\",\"inventoryLevel\":12,\"timestamp\":\"2024-01-01T09:00:00\"},"
+            + "{\"storeId\":\"S002\",\"inventoryLevel\":null,\"timestamp\":null}]", json);
+    }
+
+    @Test
+    void columnarWritesOneArrayPerField() throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(new ProjectedRowsDTO(List.of("storeId", "inventoryLevel", "timestamp"), rows, true));
+
+        assertEquals("{\"fields\":[\"storeId\",\"inventoryLevel\",\"timestamp\"],\"rowCount\":2,\"columns\":{"
+            + "\"storeId\":[\"S001\",\"S002\"],\"inventoryLevel\":[12,null],\"timestamp\":[\"2024-01-01T09:00:00\",null]}}", json);
+    }
+}
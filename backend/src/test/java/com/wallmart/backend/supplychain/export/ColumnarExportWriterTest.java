@@ -0,0 +1,181 @@
+package com.wallmart.backend.supplychain.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnarExportWriterTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+        new ExportColumn("id", ExportColumn.Type.LONG),
+        new ExportColumn("level", ExportColumn.Type.INT),
+        new ExportColumn("price", ExportColumn.Type.DOUBLE),
+        new ExportColumn("promoted", ExportColumn.Type.BOOLEAN),
+        new ExportColumn("category", ExportColumn.Type.TEXT),
+        new ExportColumn("timestamp", ExportColumn.Type.TIMESTAMP));
+
+    @Test
+    void rowsRoundTripThroughTheDocumentedLayout() throws IOException {
+        List<Object[]> rows = List.of(
+            new Object[] {10L, 5, 2.5, true, "Toys", LocalDateTime.of(2024, 1, 1, 9, 30)},
+            new Object[] {12L, null, 1.0, false, "Food", null},
+            new Object[] {15L, -3, null, null, "Toys", LocalDateTime.of(2023, 12, 31, 0, 0)},
+            new Object[] {16L, 7, 4.0, true, null, LocalDateTime.of(2024, 1, 2, 0, 0)},
+            new Object[] {20L, 0, 0.5, false, "Toys", LocalDateTime.of(2024, 1, 2, 0, 0)});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ColumnarExportWriter(out, COLUMNS, 2)) {
+            for (Object[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+
+        Decoded decoded = decode(out.toByteArray());
+
+        assertEquals(List.of("id", "level", "price", "promoted", "category", "timestamp"), decoded.names);
+        assertEquals(List.of(2, 2, 1), decoded.blockSizes);
+        assertEquals(rows.size(), decoded.rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertArrayEquals(rows.get(i), decoded.rows.get(i), "row " + i);
+        }
+    }
+
+    @Test
+    void flushEndsTheCurrentBlock() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ColumnarExportWriter(out, COLUMNS.subList(0, 1), 100);
+        writer.writeRow(new Object[] {1L});
+        writer.flush();
+        writer.writeRow(new Object[] {2L});
+        writer.close();
+
+        assertEquals(List.of(1, 1), decode(out.toByteArray()).blockSizes);
+    }
+
+    private record Decoded(List<String> names, List<Integer> blockSizes, List<Object[]> rows) {
+    }
+
+    private static Decoded decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte[] magic = new byte[4];
+        in.readFully(magic);
+        assertEquals("INVX", new String(magic, StandardCharsets.US_ASCII));
+        assertEquals(1, in.readByte());
+
+        int columnCount = (int) readVarint(in);
+        List<String> names = new ArrayList<>();
+        ExportColumn.Type[] types = new ExportColumn.Type[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            names.add(readString(in));
+            types[c] = ExportColumn.Type.values()[in.readByte()];
+        }
+
+        List<Integer> blockSizes = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        int blockRows;
+        while ((blockRows = (int) readVarint(in)) > 0) {
+            blockSizes.add(blockRows);
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            DataInputStream block = new DataInputStream(new ByteArrayInputStream(payload));
+            Object[][] values = new Object[blockRows][columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                boolean[] nulls = new boolean[blockRows];
+                if (block.readByte() == 1) {
+                    nulls = bits(block, blockRows);
+                }
+                int present = 0;
+                for (boolean isNull : nulls) {
+                    present += isNull ? 0 : 1;
+                }
+                Object[] column = readColumn(block, types[c], present);
+                int next = 0;
+                for (int r = 0; r < blockRows; r++) {
+                    values[r][c] = nulls[r] ? null : column[next++];
+                }
+            }
+            assertEquals(0, block.available());
+            rows.addAll(Arrays.asList(values));
+        }
+        assertEquals(0, in.available());
+        return new Decoded(names, blockSizes, rows);
+    }
+
+    private static Object[] readColumn(DataInputStream in, ExportColumn.Type type, int count) throws IOException {
+        Object[] values = new Object[count];
+        switch (type) {
+            case LONG, INT, TIMESTAMP -> {
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    long encoded = readVarint(in);
+                    previous += (encoded >>> 1) ^ -(encoded & 1);
+                    values[i] = switch (type) {
+                        case INT -> (int) previous;
+                        case TIMESTAMP -> LocalDateTime.ofEpochSecond(Math.floorDiv(previous, 1000L),
+                            (int) Math.floorMod(previous, 1000L) * 1_000_000, ZoneOffset.UTC);
+                        default -> previous;
+                    };
+                }
+            }
+            case DOUBLE -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = in.readDouble();
+                }
+            }
+            case BOOLEAN -> {
+                boolean[] bits = bits(in, count);
+                for (int i = 0; i < count; i++) {
+                    values[i] = bits[i];
+                }
+            }
+            case TEXT -> {
+                String[] dictionary = new String[(int) readVarint(in)];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(in);
+                }
+                for (int i = 0; i < count; i++) {
+                    values[i] = dictionary[(int) readVarint(in)];
+                }
+            }
+        }
+        return values;
+    }
+
+    private static boolean[] bits(DataInputStream in, int count) throws IOException {
+        byte[] bytes = new byte[(count + 7) / 8];
+        in.readFully(bytes);
+        boolean[] bits = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            bits[i] = (bytes[i >> 3] & (1 << (i & 7))) != 0;
+        }
+        return bits;
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
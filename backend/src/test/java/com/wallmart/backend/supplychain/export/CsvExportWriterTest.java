@@ -0,0 +1,59 @@
+package com.wallmart.backend.supplychain.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvExportWriterTest {
+
+    private static final List<ExportColumn> COLUMNS = List.of(
+        new ExportColumn("id", ExportColumn.Type.LONG),
+        new ExportColumn("name", ExportColumn.Type.TEXT),
+        new ExportColumn("price", ExportColumn.Type.DOUBLE));
+
+    @Test
+    void quotesOnlyWhatNeedsQuoting() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new CsvExportWriter(out, COLUMNS, false)) {
+            writer.writeRow(new Object[] {1L, "Widget", 2.5});
+            writer.writeRow(new Object[] {2L, "Say \"hi\", twice", null});
+            writer.writeRow(new Object[] {3L, "two\nlines", 1.0});
+        }
+
+        assertEquals("id,name,price\r\n1,Widget,2.5\r\n2,\"Say \"\"hi\"\", twice\",\r\n3,\"two\nlines\",1.0\r\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void flushedGzipRowsSurviveACutOffDownload() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new CsvExportWriter(out, COLUMNS, true);
+        writer.writeRow(new Object[] {1L, "Widget", 2.5});
+        writer.flush();
+        byte[] cutOff = out.toByteArray(); // The stream is never finished
+
+        String expected = "id,name,price\r\n1,Widget,2.5\r\n";
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(cutOff));
+        byte[] received = in.readNBytes(expected.length());
+        assertEquals(expected, new String(received, StandardCharsets.UTF_8));
+        // Past the flushed rows the stream is truncated, not silently complete
+        assertThrows(EOFException.class, in::read);
+    }
+
+    @Test
+    void formatsResolveFromParameterOrName() {
+        assertEquals(ExportFormat.CSV_GZIP, ExportFormat.fromName("csv.gz"));
+        assertEquals(ExportFormat.COLUMNAR, ExportFormat.fromName("COLUMNAR"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromName("xlsx"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.wallmart.backend.supplychain.repository;
+
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedInventoryRepositoryTest {
+
+    @Test
+    void nodesSharingShardsNeverHandOutTheSameId() {
+        List<String> urls = urls(2);
+        try (ShardedInventoryRepository first = new ShardedInventoryRepository(pools(urls));
+             ShardedInventoryRepository second = new ShardedInventoryRepository(pools(urls))) {
+            List<InventoryEvent> firstRows = events(500);
+            List<InventoryEvent> secondRows = events(500);
+            first.saveAll(firstRows);
+            second.saveAll(secondRows);
+
+            Set<Long> ids = new HashSet<>();
+            for (InventoryEvent event : firstRows) {
+                ids.add(event.getId());
+            }
+            for (InventoryEvent event : secondRows) {
+                ids.add(event.getId());
+            }
+            assertEquals(1000, ids.size());
+            assertEquals(1000, first.count());
+        }
+    }
+
+    @Test
+    void idsEncodeTheShardOfTheRow() {
+        try (ShardedInventoryRepository repository = new ShardedInventoryRepository(pools(urls(3)))) {
+            List<InventoryEvent> rows = events(100);
+            repository.saveAll(rows);
+
+            for (InventoryEvent event : rows) {
+                assertEquals(repository.shardOf(event.getStoreId()), event.getId() % 3);
+            }
+        }
+    }
+
+    @Test
+    void newIdsStartAboveRowsStoredBeforeTheSequenceExisted() {
+        List<String> urls = urls(2);
+        long maxId;
+        try (ShardedInventoryRepository repository = new ShardedInventoryRepository(pools(urls))) {
+            List<InventoryEvent> rows = events(50);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(10_000L + i);
+            }
+            repository.saveAll(rows);
+            maxId = 10_049L;
+            // A store written by the earlier single-allocator scheme has rows but no sequence
+            repository.scatter(jdbc -> {
+                jdbc.execute("DROP SEQUENCE inventory_events_seq");
+                return null;
+            });
+        }
+        try (ShardedInventoryRepository repository = new ShardedInventoryRepository(pools(urls))) {
+            List<InventoryEvent> rows = events(10);
+            repository.saveAll(rows);
+            for (InventoryEvent event : rows) {
+                assertTrue(event.getId() > maxId, "id " + event.getId());
+            }
+            assertEquals(60, repository.findAll().size());
+        }
+    }
+
+    @Test
+    void pagesMergedAcrossShardsResumeFromTheLastId() {
+        try (ShardedInventoryRepository repository = new ShardedInventoryRepository(pools(urls(3)))) {
+            List<InventoryEvent> rows = events(50);
+            repository.saveAll(rows);
+            List<Long> expected = rows.stream().map(InventoryEvent::getId).sorted().toList();
+
+            List<Long> paged = new ArrayList<>();
+            long cursor = 0;
+            List<Object[]> page;
+            do {
+                page = repository.findRows(List.of(InventoryEventColumn.INVENTORY_LEVEL), InventoryEventFilter.ALL, cursor, 7);
+                for (Object[] row : page) {
+                    paged.add((Long) row[0]);
+                }
+                if (!page.isEmpty()) {
+                    cursor = (Long) page.get(page.size() - 1)[0];
+                }
+            } while (page.size() == 7);
+
+            assertEquals(expected, paged);
+            InventoryEventFilter oneStore = new InventoryEventFilter("S3", null, null, null);
+            assertEquals(rows.stream().filter(event -> event.getStoreId().equals("S3")).map(InventoryEvent::getId).sorted().toList(),
+                repository.findRows(List.of(), oneStore, 0, 100).stream().map(row -> (Long) row[0]).toList());
+        }
+    }
+
+    @Test
+    void partialAggregatesMergeToTheTotalsOfAllRows() {
+        try (ShardedInventoryRepository repository = new ShardedInventoryRepository(pools(urls(3)))) {
+            List<InventoryEvent> rows = events(200);
+            rows.forEach(event -> event.setCategoryKey(event.getInventoryLevel() % 4));
+            repository.saveAll(rows);
+
+            List<ShardedInventoryRepository.DashboardPartial> partials = repository.dashboardPartials();
+            assertEquals(3, partials.size());
+            assertEquals(200, partials.stream().mapToLong(ShardedInventoryRepository.DashboardPartial::rows).sum());
+            assertEquals(7, partials.stream().mapToLong(ShardedInventoryRepository.DashboardPartial::stores).sum());
+            assertEquals(199 * 200 / 2, partials.stream().mapToLong(ShardedInventoryRepository.DashboardPartial::inventoryLevelSum).sum());
+            assertEquals(10, partials.stream().mapToLong(ShardedInventoryRepository.DashboardPartial::lowStockItems).sum());
+            assertEquals(99, partials.stream().mapToLong(ShardedInventoryRepository.DashboardPartial::overstockedItems).sum());
+
+            Map<Integer, Long> itemsByCategory = new HashMap<>();
+            for (ShardedInventoryRepository.CategoryPartial partial : repository.categoryPartials()) {
+                itemsByCategory.merge(partial.categoryKey(), partial.itemCount(), Long::sum);
+            }
+            assertEquals(Map.of(0, 50L, 1, 50L, 2, 50L, 3, 50L), itemsByCategory);
+
+            List<InventoryEvent> alerts = repository.findStockAlertRows();
+            assertEquals(109, alerts.size());
+            assertTrue(alerts.stream().allMatch(event -> event.getInventoryLevel() < 10 || event.getInventoryLevel() > 100));
+        }
+    }
+
+    private static List<String> urls(int shards) {
+        String name = UUID.randomUUID().toString();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            urls.add("jdbc:h2:mem:" + name + "-" + i + ";DB_CLOSE_DELAY=-1");
+        }
+        return urls;
+    }
+
+    private static List<HikariDataSource> pools(List<String> urls) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(url);
+            pool.setMaximumPoolSize(2);
+            pools.add(pool);
+        }
+        return pools;
+    }
+
+    private static List<InventoryEvent> events(int count) {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(InventoryEvent.builder()
+                .storeId("S" + (i % 7))
+                .productId("P" + i)
+                .productNameKey(1)
+                .quantity(1)
+                .inventoryLevel(i)
+                .build());
+        }
+        return events;
+    }
+}
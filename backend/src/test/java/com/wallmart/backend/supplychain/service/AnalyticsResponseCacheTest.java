@@ -0,0 +1,103 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyticsResponseCacheTest {
+
+    private long version = 1;
+    private long stamp = 2;
+    private AnalyticsResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnalyticsResponseCache() {
+            @Override
+            public long getDatasetVersion() {
+                return version;
+            }
+
+            @Override
+            long getPublishStamp() {
+                return stamp;
+            }
+        };
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void computesOncePerKeyAndVersion() {
+        AtomicInteger loads = new AtomicInteger();
+        AnalyticsResponseCache.CachedResponse<Map<String, Object>> first =
+            cache.get("stats", Map.of("a", 1), () -> Map.of("n", loads.incrementAndGet()));
+        AnalyticsResponseCache.CachedResponse<Map<String, Object>> second =
+            cache.get("stats", Map.of("a", 1), () -> Map.of("n", loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(first.getETag(), second.getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.toResponseEntity(first.getETag()).getStatusCode());
+
+        version = 2;
+        cache.get("stats", Map.of("a", 1), () -> Map.of("n", loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(StackOverflowError.class, () -> cache.get("stats", Map.of(), () -> {
+            throw new StackOverflowError();
+        }));
+        assertThrows(IllegalStateException.class, () -> cache.get("stats", Map.of(), () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", cache.get("stats", Map.of(), () -> "ok").getBody());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWithinOneVersion() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("series", Map.of("q", 0), loads::incrementAndGet);
+        for (int i = 1; i < 1000; i++) {
+            cache.get("series", Map.of("q", i), loads::incrementAndGet);
+            cache.get("series", Map.of("q", 0), loads::incrementAndGet); // Keep q=0 recently used
+        }
+
+        assertTrue(cache.size() <= 512, "size " + cache.size());
+        assertEquals(1000, loads.get());
+
+        cache.get("series", Map.of("q", 1), loads::incrementAndGet);
+        assertEquals(1001, loads.get()); // q=1 was evicted and is computed again
+    }
+
+    @Test
+    void responsesComputedDuringPublishAreNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+        stamp = 3; // Listeners are applying the next generation
+        cache.get("stats", Map.of(), loads::incrementAndGet);
+        cache.get("stats", Map.of(), loads::incrementAndGet);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+
+        stamp = 4;
+        cache.get("stats", Map.of(), () -> {
+            stamp = 6; // A whole publish overlapped the computation
+            return loads.incrementAndGet();
+        });
+        assertEquals(0, cache.size());
+
+        assertEquals(4, cache.get("stats", Map.of(), loads::incrementAndGet).getBody());
+        assertEquals(4, cache.get("stats", Map.of(), loads::incrementAndGet).getBody());
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.wallmart.backend.supplychain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSVDecompressorTest {
+
+    private static final String CSV = "Store ID,Product ID\nS1,P1\n";
+
+    private final CSVDecompressor decompressor = new CSVDecompressor();
+
+    @Test
+    void gzipUploadsAreInflated() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(CSV, read(decompressor.open(new ByteArrayInputStream(bytes.toByteArray()), "upload.CSV.GZ")));
+    }
+
+    @Test
+    void zipUploadsReadOnlyTheFirstCsvEntry() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("data/"));
+            zip.putNextEntry(new ZipEntry("data/README.txt"));
+            zip.write("not csv".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("data/inventory.csv"));
+            zip.write(CSV.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("data/other.csv"));
+            zip.write("ignored".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(CSV, read(decompressor.open(new ByteArrayInputStream(bytes.toByteArray()), "upload.zip")));
+    }
+
+    @Test
+    void zipWithoutCsvIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("notes.txt"));
+        }
+
+        assertThrows(IOException.class, () -> decompressor.open(new ByteArrayInputStream(bytes.toByteArray()), "upload.zip"));
+    }
+
+    @Test
+    void gzipOfAnythingButCsvIsRejected() {
+        assertThrows(IOException.class, () -> decompressor.open(new ByteArrayInputStream(new byte[0]), "archive.tar.gz"));
+    }
+
+    @Test
+    void plainCsvPassesThroughAndExtensionsAreChecked() throws IOException {
+        assertEquals(CSV, read(decompressor.open(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), "upload.csv")));
+        assertTrue(decompressor.isSupported("Upload.Csv.Gz"));
+        assertFalse(decompressor.isSupported("upload.xlsx"));
+        assertFalse(decompressor.isSupported("archive.tar.gz"));
+        assertFalse(decompressor.isSupported(null));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import com.wallmart.backend.supplychain.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = WallmartSupplychainApplication.class)
+class DropDirectoryIngestionServiceTest {
+
+    private static final String HEADER = "Store ID,Product ID,Inventory Level\n";
+
+    @TempDir
+    static Path dropDir;
+
+    @DynamicPropertySource
+    static void watchDir(DynamicPropertyRegistry registry) {
+        registry.add("ingest.watch.dir", () -> dropDir.toString());
+    }
+
+    @Autowired
+    private DropDirectoryIngestionService ingestionService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void stopWatcher() {
+        // Files are ingested by the calls below only, not also by the live watcher thread
+        ingestionService.stop();
+    }
+
+    @Test
+    void appendedLinesAreIngestedOnce() throws IOException {
+        Path file = dropDir.resolve("append.csv");
+        Files.writeString(file, HEADER + "S1,P1,5\nS1,P2,6\n");
+        long before = inventoryRepository.count();
+
+        ingestionService.ingestAppendedData(file);
+        Files.writeString(file, "S2,P3,7\nS2,P4,", StandardOpenOption.APPEND);
+        ingestionService.ingestAppendedData(file);
+        ingestionService.ingestAppendedData(file);
+
+        assertEquals(before + 3, inventoryRepository.count());
+        assertEquals(3L, fileStatus("append.csv").get("rowsIngested"));
+        assertEquals(Files.size(file) - "S2,P4,".length(), fileStatus("append.csv").get("committedOffset"));
+    }
+
+    @Test
+    void overlongLineIsRejectedAndSkipped() throws IOException {
+        Path file = dropDir.resolve("long.csv");
+        String longLine = "S1," + "x".repeat(5 * 1024 * 1024) + ",1\n";
+        Files.writeString(file, HEADER + longLine + "S1,P1,5\n", StandardCharsets.UTF_8);
+
+        ingestionService.ingestAppendedData(file);
+
+        assertEquals(1L, fileStatus("long.csv").get("rowsIngested"));
+        assertEquals(Files.size(file), fileStatus("long.csv").get("committedOffset"));
+    }
+
+    @Test
+    void truncatedFileIsReadFromTheStart() throws IOException {
+        Path file = dropDir.resolve("truncated.csv");
+        Files.writeString(file, HEADER + "S1,P1,5\nS1,P2,6\nS1,P3,7\n");
+        ingestionService.ingestAppendedData(file);
+
+        Files.writeString(file, HEADER + "S9,P9,1\n");
+        ingestionService.ingestAppendedData(file);
+
+        assertEquals(4L, fileStatus("truncated.csv").get("rowsIngested"));
+        assertEquals(Files.size(file), fileStatus("truncated.csv").get("committedOffset"));
+    }
+
+    @Test
+    void longHeaderWrittenInPartsIsReadOnceComplete() throws IOException {
+        Path file = dropDir.resolve("wide.csv");
+        String header = "Store ID,Product ID,Inventory Level," + "x".repeat(20_000);
+        Files.writeString(file, header);
+        ingestionService.ingestAppendedData(file);
+        assertNull(fileStatus("wide.csv"));
+
+        Files.writeString(file, "\nS1,P1,5\n", StandardOpenOption.APPEND);
+        ingestionService.ingestAppendedData(file);
+        Files.writeString(file, "S1,P2,6\n", StandardOpenOption.APPEND);
+        ingestionService.ingestAppendedData(file);
+
+        assertEquals(2L, fileStatus("wide.csv").get("rowsIngested"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> fileStatus(String name) {
+        return (Map<String, Object>) ((Map<String, Object>) ingestionService.getStatus().get("files")).get(name);
+    }
+}
@@ -0,0 +1,69 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryDimensionValueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = WallmartSupplychainApplication.class)
+class InventoryDimensionDictionaryTest {
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Autowired
+    private InventoryDimensionValueRepository dimensionValueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void newValuesAreStoredOnceAndDecodeBack() {
+        String category = "Category " + UUID.randomUUID();
+        List<InventoryEvent> events = List.of(event(category, "Sunny"), event(category, null), event(category, "Sunny"));
+
+        dimensionDictionary.encode(events);
+        dimensionDictionary.encode(List.of(event(category, "Sunny")));
+
+        Integer key = dimensionDictionary.keyOf(InventoryDimensionDictionary.Column.CATEGORY, category);
+        assertNotNull(key);
+        assertEquals(key, events.get(1).getCategoryKey());
+        assertNull(events.get(1).getWeatherConditionKey());
+        assertEquals(1, dimensionValueRepository.findAll().stream().filter(value -> category.equals(value.getValue())).count());
+
+        InventoryEvent stored = InventoryEvent.builder().categoryKey(key).weatherConditionKey(events.get(0).getWeatherConditionKey()).build();
+        dimensionDictionary.decode(List.of(stored));
+        assertEquals(category, stored.getCategory());
+        assertEquals("Sunny", stored.getWeatherCondition());
+    }
+
+    @Test
+    void valuesSurviveARolledBackBatch() {
+        String category = "Category " + UUID.randomUUID();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            dimensionDictionary.encode(List.of(event(category, null)));
+            status.setRollbackOnly();
+        });
+
+        // The key is cached in memory, so its row must exist as well
+        Integer key = dimensionDictionary.keyOf(InventoryDimensionDictionary.Column.CATEGORY, category);
+        assertEquals(category, dimensionValueRepository.findById(key).orElseThrow().getValue());
+    }
+
+    private static InventoryEvent event(String category, String weather) {
+        return InventoryEvent.builder().productName("Widget").category(category).weatherCondition(weather).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = WallmartSupplychainApplication.class)
+class InventoryEventKeyMigrationTest {
+
+    @Autowired
+    private InventoryEventKeyMigration migration;
+
+    @Autowired
+    private InventoryDimensionDictionary dimensionDictionary;
+
+    @Test
+    void legacyStringColumnsAreBackfilledAndRelaxed() {
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        legacy.execute("CREATE TABLE inventory_events (id BIGINT PRIMARY KEY, store_id VARCHAR(255), "
+            + "product_name VARCHAR(255) NOT NULL, category VARCHAR(255), supplier VARCHAR(255), status VARCHAR(255), "
+            + "location VARCHAR(255), weather_condition VARCHAR(255), holiday_or_promotion VARCHAR(255), seasonality VARCHAR(255))");
+        String product = "Legacy Lamp " + UUID.randomUUID();
+        legacy.update("INSERT INTO inventory_events (id, store_id, product_name, category) VALUES (1, 'S1', ?, 'Home')", product);
+        legacy.update("INSERT INTO inventory_events (id, store_id, product_name, category) VALUES (2, 'S2', ?, NULL)", product);
+
+        assertEquals(3, migration.migrate(legacy));
+
+        Integer productKey = dimensionDictionary.keyOf(InventoryDimensionDictionary.Column.PRODUCT_NAME, product);
+        assertEquals(List.of(productKey, productKey),
+            legacy.queryForList("SELECT product_name_key FROM inventory_events ORDER BY id", Integer.class));
+        assertEquals(dimensionDictionary.keyOf(InventoryDimensionDictionary.Column.CATEGORY, "Home"),
+            legacy.queryForObject("SELECT category_key FROM inventory_events WHERE id = 1", Integer.class));
+
+        // New rows write only keys: the string column accepts NULL, the product key does not
+        legacy.update("INSERT INTO inventory_events (id, store_id, product_name_key) VALUES (3, 'S3', ?)", productKey);
+        assertEquals(1, legacy.queryForList("SELECT 1 FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'INVENTORY_EVENTS' "
+            + "AND COLUMN_NAME = 'PRODUCT_NAME_KEY' AND IS_NULLABLE = 'NO'").size());
+
+        assertEquals(0, migration.migrate(legacy)); // Nothing left to backfill
+    }
+}
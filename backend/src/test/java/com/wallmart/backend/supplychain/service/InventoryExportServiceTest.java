@@ -0,0 +1,76 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.export.ExportFormat;
+import com.wallmart.backend.supplychain.repository.InventoryEventColumn;
+import com.wallmart.backend.supplychain.repository.InventoryEventFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = WallmartSupplychainApplication.class, properties = "inventory.export.page-size=3")
+class InventoryExportServiceTest {
+
+    @Autowired
+    private InventoryExportService exportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void resumingAfterTheLastIdReceivedSendsTheRestOnce() throws IOException {
+        String storeId = "EXPORT-" + UUID.randomUUID();
+        List<InventoryEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(InventoryEvent.builder()
+                .storeId(storeId)
+                .productId("P" + i)
+                .productName("Widget " + i)
+                .category("Toys")
+                .timestamp(LocalDateTime.of(2024, 1, 1 + i, 0, 0))
+                .inventoryLevel(i)
+                .build());
+        }
+        inventoryService.saveAll(events);
+        InventoryEventFilter filter = exportService.filter(storeId, "Toys", null, null);
+
+        List<String[]> all = export(filter, 0);
+        List<String[]> resumed = export(filter, Long.parseLong(all.get(3)[0]));
+
+        // Ten rows over four pages of three, in id order, with the dictionary column decoded
+        assertEquals(10, all.size());
+        assertEquals("P0", all.get(0)[1]);
+        assertEquals("Toys", all.get(0)[2]);
+        assertEquals(List.of("P4", "P5", "P6", "P7", "P8", "P9"), resumed.stream().map(row -> row[1]).toList());
+        assertEquals(List.of("P1", "P2"), export(exportService.filter(storeId, null, "2024-01-02", "2024-01-03"), 0)
+            .stream().map(row -> row[1]).toList());
+    }
+
+    @Test
+    void badFilterParametersAreRejectedBeforeStreaming() {
+        assertThrows(IllegalArgumentException.class, () -> exportService.filter(null, "No such category " + UUID.randomUUID(), null, null));
+        assertThrows(IllegalArgumentException.class, () -> exportService.filter(null, null, "01/02/2024", null));
+    }
+
+    private List<String[]> export(InventoryEventFilter filter, long afterId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeEvents(ExportFormat.CSV,
+            List.of(InventoryEventColumn.PRODUCT_ID, InventoryEventColumn.CATEGORY), filter, afterId, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,productId,category", lines[0]);
+        return Arrays.stream(lines).skip(1).map(line -> line.split(",")).toList();
+    }
+}
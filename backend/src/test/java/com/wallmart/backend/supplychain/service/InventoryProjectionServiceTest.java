@@ -0,0 +1,66 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.dto.InventoryPredictionField;
+import com.wallmart.backend.supplychain.dto.ProjectedRowsDTO;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import com.wallmart.backend.supplychain.repository.InventoryEventColumn;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryProjectionServiceTest {
+
+    @Test
+    void fieldsAreParsedInRequestOrderWithoutDuplicates() {
+        assertEquals(List.of(InventoryEventColumn.STORE_ID, InventoryEventColumn.INVENTORY_LEVEL),
+            InventoryProjectionService.eventColumns(" storeId, inventoryLevel,,STOREID "));
+        assertEquals(List.of(InventoryEventColumn.values()), InventoryProjectionService.eventColumns(null));
+        assertEquals(List.of(InventoryPredictionField.values()), InventoryProjectionService.predictionFields(" "));
+    }
+
+    @Test
+    void unknownOrEmptyFieldListsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> InventoryProjectionService.eventColumns("storeId,password"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryProjectionService.eventColumns(",,"));
+    }
+
+    @Test
+    void shapeIsRowsOrColumnar() {
+        assertTrue(InventoryProjectionService.isColumnar("Columnar"));
+        assertFalse(InventoryProjectionService.isColumnar("rows"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryProjectionService.isColumnar("csv"));
+    }
+
+    @Test
+    void eventsAreProjectedFromTheCurrentGeneration() throws Exception {
+        DatasetGeneration generation = DatasetGeneration.empty().next(List.of(
+            InventoryEvent.builder().id(1L).storeId("S001").inventoryLevel(12).timestamp(LocalDateTime.of(2024, 1, 5, 9, 0)).build(),
+            InventoryEvent.builder().id(2L).storeId("S002").inventoryLevel(40).timestamp(LocalDateTime.of(2024, 3, 5, 9, 0)).build()));
+        InventoryProjectionService service = new InventoryProjectionService();
+        ReflectionTestUtils.setField(service, "datasetGenerationService", new DatasetGenerationService() {
+            @Override
+            public DatasetGeneration getCurrentGeneration() {
+                return generation;
+            }
+        });
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<InventoryEventColumn> columns = List.of(InventoryEventColumn.STORE_ID, InventoryEventColumn.INVENTORY_LEVEL);
+
+        ProjectedRowsDTO all = service.projectEvents(columns, null, null, true);
+        assertEquals("{\"fields\":[\"storeId\",\"inventoryLevel\"],\"rowCount\":2,\"columns\":{"
+            + "\"storeId\":[\"S001\",\"S002\"],\"inventoryLevel\":[12,40]}}", objectMapper.writeValueAsString(all));
+
+        ProjectedRowsDTO march = service.projectEvents(columns, LocalDate.of(2024, 3, 1), null, false);
+        assertEquals("[{\"storeId\":\"S002\",\"inventoryLevel\":40}]", objectMapper.writeValueAsString(march));
+    }
+}
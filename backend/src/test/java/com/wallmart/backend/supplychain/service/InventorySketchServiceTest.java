@@ -0,0 +1,61 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InventorySketchServiceTest {
+
+    private final InventorySketchService service = new InventorySketchService();
+
+    @Test
+    void pinnedGenerationKeepsItsOwnCounts() {
+        DatasetGeneration first = publish(DatasetGeneration.empty(), List.of(event(1, "P1", "S1", "Food"), event(2, "P2", "S1", "Food")));
+        DatasetGeneration second = publish(first, List.of(event(3, "P3", "S2", "Toys")));
+
+        assertEquals(2, service.estimateDistinctProducts(first));
+        assertEquals(1, service.estimateDistinctStores(first));
+        assertEquals(3, service.estimateDistinctProducts(second));
+        assertEquals(2, service.estimateDistinctStores(second));
+
+        // Older than the two kept generations: built from its own rows
+        publish(second, List.of(event(4, "P4", "S3", "Toys")));
+        assertEquals(2, service.estimateDistinctProducts(first));
+    }
+
+    @Test
+    void compactionRebuildsFromTheRemainingRows() {
+        DatasetGeneration loaded = publish(DatasetGeneration.empty(), List.of(event(1, "P1", "S1", "Food"), event(2, "P2", "S2", "Toys")));
+
+        DatasetGeneration compacted = loaded.without(Set.of(2L));
+        service.onDatasetPublished(new DatasetPublishedEvent(compacted, List.of()));
+
+        assertEquals(1, service.estimateDistinctProducts(compacted));
+        assertEquals(1, service.estimateDistinctStores(compacted));
+        assertEquals(2, service.estimateDistinctProducts(loaded));
+    }
+
+    private DatasetGeneration publish(DatasetGeneration current, List<InventoryEvent> added) {
+        DatasetGeneration next = current.next(added);
+        service.onDatasetPublished(new DatasetPublishedEvent(next, added));
+        return next;
+    }
+
+    private static InventoryEvent event(long id, String productId, String storeId, String category) {
+        return InventoryEvent.builder()
+            .id(id)
+            .productId(productId)
+            .storeId(storeId)
+            .category(category)
+            .supplier("Acme")
+            .inventoryLevel(10)
+            .unitsSold(1)
+            .price(2.0)
+            .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.wallmart.backend.supplychain.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KaggleDownloadJobTest {
+
+    @Test
+    void loadingJobRefusesCancellation() {
+        KaggleDownloadJob job = new KaggleDownloadJob();
+        job.setStatus(KaggleDownloadJob.DOWNLOADING);
+
+        assertTrue(job.beginLoading());
+        assertFalse(job.cancel());
+        assertFalse(job.isCancelRequested());
+        assertEquals(KaggleDownloadJob.LOADING, job.getStatus());
+    }
+
+    @Test
+    void cancelledJobNeverStartsLoading() {
+        KaggleDownloadJob job = new KaggleDownloadJob();
+        job.setStatus(KaggleDownloadJob.DOWNLOADING);
+
+        assertTrue(job.cancel());
+        assertFalse(job.beginLoading());
+        job.setStatus(KaggleDownloadJob.CANCELLED);
+        assertNotNull(job.getFinishedAt());
+    }
+}
@@ -0,0 +1,57 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.opencsv.CSVReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParseErrorCollectorTest {
+
+    @TempDir
+    Path rejectsDir;
+
+    @Test
+    void rejectedRowsKeepTheirOriginalFields() throws Exception {
+        ParseErrorCollector collector = new ParseErrorCollector("u1", "test.csv", rejectsDir.resolve("u1.rejects.csv"));
+        collector.header(new String[] {"Store ID", "Product Name", "Price"});
+        collector.reject("PARSE_ERROR", 3, new String[] {"S1", "Chair, oak", "abc"}, "Bad price");
+        collector.complete();
+
+        List<String[]> lines;
+        try (Reader reader = Files.newBufferedReader(collector.getRejectsFile(), StandardCharsets.UTF_8);
+             CSVReader csv = new CSVReader(reader)) {
+            lines = csv.readAll();
+        }
+        assertArrayEquals(new String[] {"line", "reason", "message", "Store ID", "Product Name", "Price"}, lines.get(0));
+        assertArrayEquals(new String[] {"3", "PARSE_ERROR", "Bad price", "S1", "Chair, oak", "abc"}, lines.get(1));
+    }
+
+    @Test
+    void countsAndSamplesPerReason() {
+        ParseErrorCollector collector = new ParseErrorCollector("u2", "test.csv", null);
+        for (int i = 0; i < 15; i++) {
+            collector.reject("TOO_FEW_COLUMNS", i + 2, new String[] {"x"}, "Too few columns");
+        }
+        collector.defaulted("INVALID_DATE", 4, new String[] {"a", "b"}, "Default date");
+        collector.accepted(100);
+        collector.complete();
+
+        assertEquals(15, collector.getRejectedRows());
+        assertEquals(Map.of("TOO_FEW_COLUMNS", 15L), collector.getRejectedByReason());
+        assertNull(collector.getRejectsFile());
+        @SuppressWarnings("unchecked")
+        Map<String, List<?>> samples = (Map<String, List<?>>) collector.toMap().get("samples");
+        assertEquals(10, samples.get("TOO_FEW_COLUMNS").size());
+        assertEquals(1, samples.get("INVALID_DATE").size());
+    }
+}
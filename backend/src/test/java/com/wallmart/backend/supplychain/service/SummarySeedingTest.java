@@ -0,0 +1,79 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.WallmartSupplychainApplication;
+import com.wallmart.backend.supplychain.analytics.DemandWindow;
+import com.wallmart.backend.supplychain.analytics.RollupGranularity;
+import com.wallmart.backend.supplychain.entity.InventoryDailySummary;
+import com.wallmart.backend.supplychain.repository.InventoryDailySummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = WallmartSupplychainApplication.class)
+class SummarySeedingTest {
+
+    @Autowired
+    private InventoryDailySummaryRepository summaryRepository;
+
+    @Autowired
+    private EventRetentionService eventRetentionService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollupsAreSeededFromDailySummaries() {
+        String storeId = "S-" + UUID.randomUUID();
+        summaryRepository.save(summary(storeId, "P1", LocalDate.of(2020, 1, 6), 4, 10, 100, 20.0));
+        summaryRepository.save(summary(storeId, "P2", LocalDate.of(2020, 1, 7), 2, 6, 20, 12.0));
+
+        TimeSeriesRollupService rollupService = new TimeSeriesRollupService();
+        ReflectionTestUtils.setField(rollupService, "eventRetentionService", eventRetentionService);
+        rollupService.seedFromSummaries();
+
+        List<Map<String, Object>> weeks = (List<Map<String, Object>>) rollupService
+            .getTimeSeries("storeId", storeId, RollupGranularity.WEEK, null, null).get("buckets");
+        assertEquals(1, weeks.size());
+        assertEquals(16L, weeks.get(0).get("unitsSold"));
+        assertEquals(6L, weeks.get(0).get("events"));
+        assertEquals(20.0, weeks.get(0).get("averageInventoryLevel"));
+        assertEquals(32.0, weeks.get(0).get("revenue"));
+    }
+
+    @Test
+    void demandWindowsAreSeededFromDailySummaries() {
+        String storeId = "S-" + UUID.randomUUID();
+        summaryRepository.save(summary(storeId, "P1", LocalDate.of(2020, 1, 6), 4, 10, 100, 20.0));
+        summaryRepository.save(summary(storeId, "P1", LocalDate.of(2020, 1, 7), 2, 4, 20, 12.0));
+
+        DemandVelocityService velocityService = new DemandVelocityService();
+        ReflectionTestUtils.setField(velocityService, "eventRetentionService", eventRetentionService);
+        velocityService.seedFromSummaries();
+
+        DemandWindow.Velocity velocity = velocityService.getVelocity(storeId, "P1");
+        assertEquals((int) LocalDate.of(2020, 1, 7).toEpochDay(), velocity.latestDay());
+        assertEquals(10, velocity.currentInventory());
+        assertEquals(7.0, velocity.perDay7());
+    }
+
+    private static InventoryDailySummary summary(String storeId, String productId, LocalDate date,
+                                                 long events, long unitsSold, long inventoryLevelSum, double revenue) {
+        return InventoryDailySummary.builder()
+            .summaryDate(date)
+            .storeId(storeId)
+            .productId(productId)
+            .category("Toys")
+            .eventCount(events)
+            .unitsSold(unitsSold)
+            .inventoryLevelSum(inventoryLevelSum)
+            .revenue(revenue)
+            .lastInventoryLevel((int) (inventoryLevelSum / events))
+            .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.wallmart.backend.supplychain.service;
+
+import com.wallmart.backend.supplychain.analytics.DatasetGeneration;
+import com.wallmart.backend.supplychain.analytics.RollupGranularity;
+import com.wallmart.backend.supplychain.entity.InventoryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeSeriesRollupServiceTest {
+
+    private final TimeSeriesRollupService rollupService = new TimeSeriesRollupService();
+
+    @Test
+    void batchesAccumulateIntoDayWeekAndMonthBuckets() {
+        // 2024-01-01 is a Monday; the 7th is the Sunday of the same week
+        publish(event("S1", "Toys", 2024, 1, 1, 4, 10), event("S1", "Toys", 2024, 1, 7, 6, 20));
+        publish(event("S2", "Food", 2024, 1, 8, 1, 30), event("S1", "Toys", 2024, 2, 1, 2, 40));
+
+        List<Map<String, Object>> weeks = buckets(rollupService.getTimeSeries("storeId", "S1", RollupGranularity.WEEK, null, null));
+        assertEquals(List.of("2024-01-01", "2024-01-29"), weeks.stream().map(bucket -> bucket.get("bucketStart")).toList());
+        assertEquals(10L, weeks.get(0).get("unitsSold"));
+        assertEquals(15.0, weeks.get(0).get("averageInventoryLevel"));
+        assertEquals(25.0, weeks.get(0).get("revenue"));
+        assertEquals(2L, weeks.get(0).get("events"));
+
+        List<Map<String, Object>> months = buckets(rollupService.getTimeSeries(null, null, RollupGranularity.MONTH, null, null));
+        assertEquals(List.of(11L, 2L), months.stream().map(bucket -> bucket.get("unitsSold")).toList());
+        assertEquals(1, buckets(rollupService.getTimeSeries("category", "Food", RollupGranularity.DAY, null, null)).size());
+    }
+
+    @Test
+    void rangeSelectsTheBucketsContainingItsEnds() {
+        publish(event("S1", "Toys", 2024, 1, 1, 1, 1), event("S1", "Toys", 2024, 2, 15, 1, 1),
+            event("S1", "Toys", 2024, 3, 31, 1, 1));
+
+        List<Map<String, Object>> months = buckets(rollupService.getTimeSeries("all", null, RollupGranularity.MONTH,
+            LocalDate.of(2024, 2, 20), LocalDate.of(2024, 3, 1)));
+
+        assertEquals(List.of("2024-02-01", "2024-03-01"), months.stream().map(bucket -> bucket.get("bucketStart")).toList());
+    }
+
+    @Test
+    void onlyRolledUpDimensionsCanBeQueried() {
+        assertThrows(IllegalArgumentException.class,
+            () -> rollupService.getTimeSeries("supplier", "Acme", RollupGranularity.DAY, null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> rollupService.getTimeSeries("storeId", null, RollupGranularity.DAY, null, null));
+        assertEquals(RollupGranularity.WEEK, RollupGranularity.fromName("week"));
+    }
+
+    private void publish(InventoryEvent... events) {
+        rollupService.onDatasetPublished(new DatasetPublishedEvent(DatasetGeneration.empty(), List.of(events)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> buckets(Map<String, Object> series) {
+        return (List<Map<String, Object>>) series.get("buckets");
+    }
+
+    private static InventoryEvent event(String storeId, String category, int year, int month, int day, int unitsSold, int level) {
+        return InventoryEvent.builder()
+            .storeId(storeId)
+            .productId("P1")
+            .category(category)
+            .timestamp(LocalDateTime.of(year, month, day, 12, 0))
+            .unitsSold(unitsSold)
+            .inventoryLevel(level)
+            .price(2.5)
+            .build();
+    }
+}
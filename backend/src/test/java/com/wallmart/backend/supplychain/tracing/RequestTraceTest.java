@@ -0,0 +1,88 @@
+package com.wallmart.backend.supplychain.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTraceTest {
+
+    @AfterEach
+    void clearTrace() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void repeatedPhasesUnderOneParentMergeIntoOneSpan() {
+        RequestTrace.begin("POST /api/inventory/upload");
+        try (RequestTrace.Phase parse = RequestTrace.phase("csv.parse")) {
+            for (int i = 0; i < 3; i++) {
+                try (RequestTrace.Phase batch = RequestTrace.phase("save.batch")) {
+                    RequestTrace.record("jpa.commit", 2_000_000, 1);
+                }
+            }
+        }
+        RequestTrace trace = RequestTrace.end();
+
+        List<Map<String, Object>> phases = phases(trace.toMap());
+        assertEquals(1, phases.size());
+        assertEquals("csv.parse", phases.get(0).get("name"));
+        Map<String, Object> batch = phases(phases.get(0)).get(0);
+        assertEquals("save.batch", batch.get("name"));
+        assertEquals(3L, batch.get("count"));
+        Map<String, Object> commit = phases(batch).get(0);
+        assertEquals(3L, commit.get("count"));
+        assertEquals(6.0, commit.get("ms"));
+        assertFalse(RequestTrace.isActive());
+    }
+
+    @Test
+    void serverTimingNamesNestedSpansWithDots() {
+        RequestTrace.begin("GET /api/analytics");
+        try (RequestTrace.Phase phase = RequestTrace.phase("cache lookup")) {
+            RequestTrace.record("db", 1_500_000, 1);
+        }
+
+        String header = RequestTrace.end().toServerTiming();
+
+        assertTrue(header.startsWith("cache_lookup;dur="), header);
+        assertTrue(header.contains(", cache_lookup.db;dur=1.500, total;dur="), header);
+    }
+
+    @Test
+    void lapsSplitALoopBetweenPhases() {
+        RequestTrace.begin("upload");
+        RequestTrace.Laps laps = RequestTrace.laps("parse", "validate");
+        for (int i = 0; i < 4; i++) {
+            laps.lap(0);
+            laps.lap(i % 2);
+        }
+        laps.finish();
+
+        List<Map<String, Object>> phases = phases(RequestTrace.end().toMap());
+        assertEquals(List.of("parse", "validate"), phases.stream().map(phase -> phase.get("name")).toList());
+        assertEquals(6L, phases.get(0).get("count"));
+        assertEquals(2L, phases.get(1).get("count"));
+    }
+
+    @Test
+    void withoutATraceEverythingIsANoOp() {
+        try (RequestTrace.Phase phase = RequestTrace.phase("ignored")) {
+            RequestTrace.record("ignored", 1, 1);
+        }
+
+        assertNull(RequestTrace.laps("ignored"));
+        assertNull(RequestTrace.end());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> phases(Map<String, Object> span) {
+        return (List<Map<String, Object>>) span.get("phases");
+    }
+}